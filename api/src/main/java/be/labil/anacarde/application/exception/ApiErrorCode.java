@@ -25,6 +25,7 @@ public enum ApiErrorCode {
 	MISSING_PATH_VARIABLE("missing.path_variable"),
 	MISSING_REQUEST_PARAM("missing.request_param"),
 	NO_HANDLER_FOUND("no_handler_found"),
+	PAYLOAD_TOO_LARGE("payload.too_large"),
 	RESOURCE_NOT_FOUND("resource.not_found"),
 	STALE_OBJECT("stale.object"),
 	STORAGE_ERROR("storage.error"),
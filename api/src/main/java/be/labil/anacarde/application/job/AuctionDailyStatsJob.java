@@ -0,0 +1,35 @@
+package be.labil.anacarde.application.job;
+
+import be.labil.anacarde.application.service.AuctionDailyStatsService;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Job Quartz nocturne de rattrapage de l'agrégat journalier des enchères. Il recalcule les jours
+ * récents et à venir de {@code auction_daily_stats}, dont les signalements incrémentaux ont pu être
+ * perdus (arrêt d'un nœud, écriture directe en base).
+ */
+@Component
+public class AuctionDailyStatsJob implements Job {
+
+	private static final Logger log = LoggerFactory.getLogger(AuctionDailyStatsJob.class);
+
+	@Autowired
+	private AuctionDailyStatsService auctionDailyStatsService;
+
+	@Override
+	public void execute(JobExecutionContext context) throws JobExecutionException {
+		log.debug("Exécution du Job de rattrapage de l'agrégat journalier des enchères");
+		try {
+			auctionDailyStatsService.catchUp();
+		} catch (Exception e) {
+			log.error("Erreur lors du rattrapage de l'agrégat journalier : {}", e.getMessage());
+			throw new JobExecutionException(e);
+		}
+	}
+}
@@ -12,6 +12,10 @@ import org.springframework.stereotype.Component;
 /**
  * Job Quartz pour la clôture des enchères. Ce job est déclenché par le scheduler pour fermer une
  * enchère spécifique.
+ * <p>
+ * Les expirations sont désormais traitées par lots par {@link
+ * be.labil.anacarde.application.service.AuctionExpiryService} : ce job n'est plus programmé et
+ * n'est conservé que pour les jobs créés avant la migration, supprimés au démarrage.
  */
 @Component
 public class CloseAuctionJob implements Job {
@@ -0,0 +1,41 @@
+package be.labil.anacarde.application.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Maintenance de l'agrégat journalier des enchères ({@code auction_daily_stats}).
+ * <p>
+ * L'agrégat est tenu à jour de manière incrémentale : chaque création, modification ou acceptation
+ * d'enchère signale les jours concernés, recalculés peu après en tâche de fond à partir de la table
+ * {@code auction}. Un job Quartz nocturne rattrape les jours récents (signalements perdus lors d'un
+ * arrêt, écritures directes en base) et reconstruit l'agrégat s'il est vide.
+ */
+public interface AuctionDailyStatsService {
+
+	/**
+	 * Signale, après validation de la transaction courante, que les jours des dates données
+	 * doivent être recalculés.
+	 *
+	 * @param dates
+	 *            dates de création ou d'expiration d'enchères modifiées ; les valeurs {@code null}
+	 *            sont ignorées
+	 */
+	void markDirty(LocalDateTime... dates);
+
+	/**
+	 * Recalcule immédiatement les jours signalés.
+	 *
+	 * @return le nombre de jours recalculés
+	 */
+	int flush();
+
+	/**
+	 * Recalcule les jours récents et à venir, ou reconstruit entièrement l'agrégat s'il est vide.
+	 */
+	void catchUp();
+
+	/**
+	 * Reconstruit entièrement l'agrégat à partir de la table {@code auction}.
+	 */
+	void rebuild();
+}
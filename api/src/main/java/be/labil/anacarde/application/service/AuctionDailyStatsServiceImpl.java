@@ -0,0 +1,190 @@
+package be.labil.anacarde.application.service;
+
+import be.labil.anacarde.application.job.AuctionDailyStatsJob;
+import be.labil.anacarde.domain.model.AuctionDailyStats;
+import be.labil.anacarde.infrastructure.persistence.AuctionDailyCount;
+import be.labil.anacarde.infrastructure.persistence.AuctionDailyStatsRepository;
+import be.labil.anacarde.infrastructure.util.TransactionHelper;
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.quartz.CronScheduleBuilder;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Service
+public class AuctionDailyStatsServiceImpl implements AuctionDailyStatsService {
+	private static final Logger log = LoggerFactory.getLogger(AuctionDailyStatsServiceImpl.class);
+	private static final String JOB_NAME = "auction-daily-stats-catch-up";
+	private static final String JOB_GROUP = "dashboard-jobs";
+	private final AuctionDailyStatsRepository statsRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final Scheduler scheduler;
+	private final Set<LocalDate> dirtyDays = ConcurrentHashMap.newKeySet();
+	private final long flushIntervalMs;
+	private final int catchUpDays;
+	private final String catchUpCron;
+	private final ScheduledExecutorService flusher;
+
+	@Autowired
+	public AuctionDailyStatsServiceImpl(AuctionDailyStatsRepository statsRepository,
+			TransactionTemplate transactionTemplate, Scheduler scheduler,
+			@Value("${app.dashboard.daily-stats.flush-interval-ms:10000}") long flushIntervalMs,
+			@Value("${app.dashboard.daily-stats.catch-up-days:7}") int catchUpDays,
+			@Value("${app.dashboard.daily-stats.catch-up-cron:0 30 2 * * ?}") String catchUpCron) {
+		this.statsRepository = statsRepository;
+		this.transactionTemplate = transactionTemplate;
+		this.scheduler = scheduler;
+		this.flushIntervalMs = flushIntervalMs;
+		this.catchUpDays = catchUpDays;
+		this.catchUpCron = catchUpCron;
+		this.flusher = Executors.newSingleThreadScheduledExecutor(
+				Thread.ofPlatform().name("auction-daily-stats").daemon().factory());
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		scheduleCatchUpJob();
+		// Reconstruit l'agrégat au premier démarrage, sans retarder la disponibilité de l'API
+		flusher.execute(() -> runSafely(this::catchUp));
+		flusher.scheduleWithFixedDelay(() -> runSafely(this::flush), flushIntervalMs,
+				flushIntervalMs, TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		flusher.shutdownNow();
+	}
+
+	@Override
+	public void markDirty(LocalDateTime... dates) {
+		TransactionHelper.afterCommit(() -> {
+			for (LocalDateTime date : dates) {
+				if (date != null) {
+					dirtyDays.add(date.toLocalDate());
+				}
+			}
+		});
+	}
+
+	@Override
+	public synchronized int flush() {
+		if (dirtyDays.isEmpty()) {
+			return 0;
+		}
+		List<LocalDate> days = new ArrayList<>(dirtyDays);
+		dirtyDays.removeAll(days);
+		try {
+			transactionTemplate.executeWithoutResult(
+					status -> days.forEach(day -> recompute(day, day.plusDays(1))));
+		} catch (RuntimeException e) {
+			// Les jours restent à recalculer au prochain passage
+			dirtyDays.addAll(days);
+			throw e;
+		}
+		log.debug("[DailyStats] {} jour(s) recalculé(s)", days.size());
+		return days.size();
+	}
+
+	@Override
+	public synchronized void catchUp() {
+		transactionTemplate.executeWithoutResult(status -> {
+			if (statsRepository.count() == 0) {
+				rebuildAll();
+				return;
+			}
+			LocalDate from = LocalDate.now().minusDays(catchUpDays);
+			LocalDateTime lastExpiration = statsRepository.findLastAuctionExpiration();
+			LocalDate to = LocalDate.now();
+			if (lastExpiration != null && lastExpiration.toLocalDate().isAfter(to)) {
+				to = lastExpiration.toLocalDate();
+			}
+			recompute(from, to.plusDays(1));
+			log.info("[DailyStats] Rattrapage de l'agrégat effectué du {} au {}", from, to);
+		});
+	}
+
+	@Override
+	public synchronized void rebuild() {
+		transactionTemplate.executeWithoutResult(status -> rebuildAll());
+	}
+
+	private void rebuildAll() {
+		statsRepository.deleteAllInBatch();
+		LocalDateTime first = statsRepository.findFirstAuctionCreation();
+		LocalDateTime last = statsRepository.findLastAuctionExpiration();
+		if (first == null) {
+			return;
+		}
+		LocalDate to = last.isAfter(first) ? last.toLocalDate() : first.toLocalDate();
+		recompute(first.toLocalDate(), to.plusDays(1));
+		log.info("[DailyStats] Agrégat reconstruit du {} au {}", first.toLocalDate(), to);
+	}
+
+	/**
+	 * Remplace les lignes de l'agrégat du jour {@code from} inclus au jour {@code to} exclu par les
+	 * comptages de la table {@code auction}.
+	 */
+	private void recompute(LocalDate from, LocalDate to) {
+		statsRepository.deleteRange(from, to);
+		Map<LocalDate, AuctionDailyStats> rows = new TreeMap<>();
+		for (AuctionDailyCount created : statsRepository.countCreatedPerDay(from.atStartOfDay(),
+				to.atStartOfDay())) {
+			row(rows, created.day()).setNewAuctions(created.count());
+		}
+		for (AuctionDailyCount ended : statsRepository.countEndedPerDay(from.atStartOfDay(),
+				to.atStartOfDay())) {
+			row(rows, ended.day()).setEndedAuctions(ended.count());
+		}
+		statsRepository.saveAll(rows.values());
+	}
+
+	private static AuctionDailyStats row(Map<LocalDate, AuctionDailyStats> rows, LocalDate day) {
+		return rows.computeIfAbsent(day, d -> new AuctionDailyStats(d, 0, 0));
+	}
+
+	private void scheduleCatchUpJob() {
+		JobDetail job = JobBuilder.newJob(AuctionDailyStatsJob.class)
+				.withIdentity(JOB_NAME, JOB_GROUP).storeDurably().build();
+		Trigger trigger = TriggerBuilder.newTrigger().withIdentity(JOB_NAME, JOB_GROUP)
+				.withSchedule(CronScheduleBuilder.cronSchedule(catchUpCron)
+						.withMisfireHandlingInstructionFireAndProceed())
+				.build();
+		try {
+			// Le job store Quartz étant partagé, le rattrapage ne s'exécute que sur un seul nœud
+			scheduler.scheduleJob(job, Set.of(trigger), true);
+		} catch (SchedulerException e) {
+			log.warn("[DailyStats] Impossible de programmer le rattrapage nocturne : {}",
+					e.getMessage());
+		}
+	}
+
+	private static void runSafely(Runnable task) {
+		try {
+			task.run();
+		} catch (Exception e) {
+			log.warn("[DailyStats] Échec de la mise à jour de l'agrégat : {}", e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,42 @@
+package be.labil.anacarde.application.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Moteur d'expiration des enchères.
+ * <p>
+ * Les échéances des enchères ouvertes sont conservées dans une roue temporelle en mémoire : à
+ * chaque tick, si une échéance est atteinte, un balayage de la base de données réserve les
+ * enchères expirées par lots ({@code FOR UPDATE SKIP LOCKED}) et les clôture par des mises à jour
+ * ensemblistes. Un balayage périodique rattrape les enchères programmées sur un autre nœud ou
+ * avant un redémarrage ; plusieurs nœuds peuvent balayer simultanément sans clôturer deux fois la
+ * même enchère.
+ */
+public interface AuctionExpiryService {
+
+	/**
+	 * Programme (ou reprogramme) l'expiration d'une enchère ouverte.
+	 *
+	 * @param auctionId
+	 *            l'ID de l'enchère
+	 * @param expirationDate
+	 *            la date d'expiration de l'enchère
+	 */
+	void schedule(Integer auctionId, LocalDateTime expirationDate);
+
+	/**
+	 * Indique si l'expiration d'une enchère est programmée sur ce nœud.
+	 *
+	 * @param auctionId
+	 *            l'ID de l'enchère
+	 * @return {@code true} si l'échéance de l'enchère est dans la roue et n'est pas encore atteinte
+	 */
+	boolean isScheduled(Integer auctionId);
+
+	/**
+	 * Clôture, lot par lot, toutes les enchères ouvertes arrivées à expiration.
+	 *
+	 * @return le nombre d'enchères clôturées par ce nœud
+	 */
+	int sweep();
+}
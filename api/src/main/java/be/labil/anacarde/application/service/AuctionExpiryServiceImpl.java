@@ -0,0 +1,134 @@
+package be.labil.anacarde.application.service;
+
+import be.labil.anacarde.infrastructure.util.TimingWheel;
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+@Service
+public class AuctionExpiryServiceImpl implements AuctionExpiryService {
+	private static final Logger log = LoggerFactory.getLogger(AuctionExpiryServiceImpl.class);
+	// Groupe des anciens jobs Quartz de clôture, créés un par enchère
+	private static final String LEGACY_JOB_GROUP = "auction-jobs";
+	private final ObjectProvider<AuctionService> auctionService;
+	private final Scheduler scheduler;
+	private final TimingWheel<Integer> wheel;
+	private final boolean enabled;
+	private final long tickMs;
+	private final long sweepIntervalMs;
+	private final int batchSize;
+	private ScheduledExecutorService ticker;
+	private volatile long lastSweepMs;
+
+	@Autowired
+	public AuctionExpiryServiceImpl(ObjectProvider<AuctionService> auctionService,
+			Scheduler scheduler, @Value("${app.auction.expiry.enabled:true}") boolean enabled,
+			@Value("${app.auction.expiry.tick-ms:1000}") long tickMs,
+			@Value("${app.auction.expiry.wheel-size:512}") int wheelSize,
+			@Value("${app.auction.expiry.sweep-interval-ms:30000}") long sweepIntervalMs,
+			@Value("${app.auction.expiry.batch-size:200}") int batchSize) {
+		this.auctionService = auctionService;
+		this.scheduler = scheduler;
+		this.enabled = enabled;
+		this.tickMs = tickMs;
+		this.sweepIntervalMs = sweepIntervalMs;
+		this.batchSize = batchSize;
+		this.wheel = new TimingWheel<>(tickMs, wheelSize, System.currentTimeMillis());
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		purgeLegacyJobs();
+		if (!enabled) {
+			log.info("[Expiry] Moteur d'expiration des enchères désactivé");
+			return;
+		}
+		ticker = Executors.newSingleThreadScheduledExecutor(
+				Thread.ofPlatform().name("auction-expiry").daemon().factory());
+		// Le premier tick balaie immédiatement les enchères expirées pendant l'arrêt
+		ticker.scheduleWithFixedDelay(this::tick, 0, tickMs, TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		if (ticker != null) {
+			ticker.shutdownNow();
+		}
+	}
+
+	@Override
+	public void schedule(Integer auctionId, LocalDateTime expirationDate) {
+		wheel.schedule(auctionId,
+				expirationDate.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+		log.debug("[Expiry] Expiration de l'enchère ID {} programmée à {}", auctionId,
+				expirationDate);
+	}
+
+	@Override
+	public boolean isScheduled(Integer auctionId) {
+		return wheel.contains(auctionId);
+	}
+
+	@Override
+	public int sweep() {
+		lastSweepMs = System.currentTimeMillis();
+		AuctionService service = auctionService.getObject();
+		int total = 0;
+		int closed;
+		do {
+			// Une transaction par lot : les verrous sont relâchés entre deux lots
+			closed = service.closeExpiredAuctions(batchSize);
+			total += closed;
+		} while (closed == batchSize);
+		if (total > 0) {
+			log.info("[Expiry] {} enchère(s) clôturée(s) par expiration", total);
+		}
+		return total;
+	}
+
+	private void tick() {
+		try {
+			long now = System.currentTimeMillis();
+			List<Integer> due = wheel.advance(now);
+			if (!due.isEmpty() || now - lastSweepMs >= sweepIntervalMs) {
+				log.trace("[Expiry] Balayage déclenché ({} échéance(s) atteinte(s))", due.size());
+				sweep();
+			}
+		} catch (Exception e) {
+			// Les enchères non clôturées seront reprises au prochain balayage périodique
+			log.error("[Expiry] Échec du balayage des enchères expirées", e);
+		}
+	}
+
+	private void purgeLegacyJobs() {
+		try {
+			List<JobKey> jobKeys = new ArrayList<>(
+					scheduler.getJobKeys(GroupMatcher.jobGroupEquals(LEGACY_JOB_GROUP)));
+			if (!jobKeys.isEmpty()) {
+				scheduler.deleteJobs(jobKeys);
+				log.info("[Expiry] {} ancien(s) job(s) Quartz de clôture supprimé(s)",
+						jobKeys.size());
+			}
+		} catch (SchedulerException e) {
+			log.warn("[Expiry] Impossible de supprimer les anciens jobs Quartz : {}",
+					e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,125 @@
+package be.labil.anacarde.application.service;
+
+import java.math.BigDecimal;
+
+/**
+ * Service maintenant en mémoire un carnet d'ordres par enchère ouverte (meilleure offre, dernier
+ * enchérisseur, présence d'une offre acceptée et nombre d'offres).
+ * <p>
+ * Le carnet est reconstruit depuis la base de données en cas d'absence dans le cache, puis mis à
+ * jour au commit de chaque nouvelle offre. Il permet de valider une offre en O(1) sans charger la
+ * liste des offres de l'enchère.
+ * <p>
+ * Chaque modification validée est signalée aux autres nœuds, qui retirent leur carnet. Le carnet
+ * ne sert qu'au contrôle préalable : les règles de surenchère sont vérifiées à nouveau par la mise
+ * à jour conditionnelle de l'enchère, qui fait foi.
+ */
+public interface AuctionOrderBookService {
+
+	/**
+	 * Retourne le carnet d'ordres de l'enchère, en le reconstruisant depuis la base de données si
+	 * nécessaire.
+	 *
+	 * @param auctionId
+	 *            l'ID de l'enchère
+	 * @return le carnet d'ordres courant de l'enchère
+	 */
+	OrderBook getOrderBook(Integer auctionId);
+
+	/**
+	 * Enregistre une nouvelle offre dans le carnet d'ordres, après le commit de la transaction
+	 * courante.
+	 *
+	 * @param auctionId
+	 *            l'ID de l'enchère
+	 * @param amount
+	 *            le montant de l'offre
+	 * @param traderId
+	 *            l'ID du trader ayant placé l'offre
+	 */
+	void recordBid(Integer auctionId, BigDecimal amount, Integer traderId);
+
+	/**
+	 * Marque l'enchère comme ayant une offre acceptée, après le commit de la transaction courante.
+	 *
+	 * @param auctionId
+	 *            l'ID de l'enchère
+	 */
+	void recordAccepted(Integer auctionId);
+
+	/**
+	 * Retire le carnet d'ordres de l'enchère du cache, à la fin de la transaction courante (commit
+	 * ou rollback). Il sera reconstruit depuis la base de données au prochain accès.
+	 *
+	 * @param auctionId
+	 *            l'ID de l'enchère
+	 */
+	void evict(Integer auctionId);
+
+	/**
+	 * Traite un message d'invalidation publié par un nœud : le carnet de l'enchère est retiré du
+	 * cache de ce nœud, sauf si le message provient de ce nœud lui-même.
+	 *
+	 * @param message
+	 *            le message reçu, sous la forme {@code <nœud>:<ID de l'enchère>}
+	 */
+	void onInvalidation(String message);
+
+	/**
+	 * Vide entièrement le cache des carnets d'ordres.
+	 */
+	void clear();
+
+	/**
+	 * Instantané immuable du carnet d'ordres d'une enchère.
+	 *
+	 * @param bestAmount
+	 *            le montant de la meilleure offre, ou {@code null} si aucune offre
+	 * @param lastBidderId
+	 *            l'ID du trader ayant placé la dernière offre, ou {@code null} si aucune offre
+	 * @param accepted
+	 *            {@code true} si une offre de l'enchère a été acceptée
+	 * @param bidCount
+	 *            le nombre d'offres de l'enchère
+	 */
+	record OrderBook(BigDecimal bestAmount, Integer lastBidderId, boolean accepted,
+			long bidCount) {
+
+		/** Carnet d'ordres d'une enchère sans offre. */
+		public static final OrderBook EMPTY = new OrderBook(null, null, false, 0);
+
+		/**
+		 * Retourne un nouveau carnet intégrant l'offre donnée.
+		 *
+		 * @param amount
+		 *            le montant de l'offre
+		 * @param traderId
+		 *            l'ID du trader ayant placé l'offre
+		 * @return le carnet mis à jour
+		 */
+		public OrderBook withBid(BigDecimal amount, Integer traderId) {
+			BigDecimal best = bestAmount == null || amount.compareTo(bestAmount) > 0
+					? amount
+					: bestAmount;
+			return new OrderBook(best, traderId, accepted, bidCount + 1);
+		}
+
+		/**
+		 * Retourne un nouveau carnet marqué comme ayant une offre acceptée.
+		 *
+		 * @return le carnet mis à jour
+		 */
+		public OrderBook withAccepted() {
+			return new OrderBook(bestAmount, lastBidderId, true, bidCount);
+		}
+
+		/**
+		 * Indique si l'enchère possède au moins une offre.
+		 *
+		 * @return {@code true} si au moins une offre a été placée
+		 */
+		public boolean hasBids() {
+			return bidCount > 0;
+		}
+	}
+}
@@ -0,0 +1,152 @@
+package be.labil.anacarde.application.service;
+
+import be.labil.anacarde.infrastructure.persistence.AuctionRepository;
+import be.labil.anacarde.infrastructure.util.TransactionHelper;
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+@Service
+public class AuctionOrderBookServiceImpl implements AuctionOrderBookService {
+	private static final Logger log = LoggerFactory.getLogger(AuctionOrderBookServiceImpl.class);
+	public static final String INVALIDATION_CHANNEL = "order-book:auctions";
+	private static final int VERSION_STRIPES = 64;
+	private final AuctionRepository auctionRepository;
+	private final StringRedisTemplate redisTemplate;
+	private final boolean redisNotificationsEnabled;
+	private final Map<Integer, OrderBook> books;
+	// Incrémentées à chaque modification d'une enchère de la bande : un carnet chargé pendant une
+	// modification concurrente est renvoyé mais jamais mis en cache
+	private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+	// Identifie ce nœud dans les messages d'invalidation, pour ignorer les siens
+	private final String nodeId = UUID.randomUUID().toString();
+
+	@Autowired
+	public AuctionOrderBookServiceImpl(AuctionRepository auctionRepository,
+			StringRedisTemplate redisTemplate,
+			@Value("${app.auction.order-book.capacity:10000}") int capacity,
+			@Value("${app.redis.notifications.enabled:true}") boolean redisNotificationsEnabled) {
+		this.auctionRepository = auctionRepository;
+		this.redisTemplate = redisTemplate;
+		this.redisNotificationsEnabled = redisNotificationsEnabled;
+		// LRU borné : les enchères les moins consultées sont évincées en premier
+		this.books = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Integer, OrderBook> eldest) {
+				return size() > capacity;
+			}
+		});
+	}
+
+	@Override
+	public OrderBook getOrderBook(Integer auctionId) {
+		OrderBook book = books.get(auctionId);
+		if (book != null) {
+			return book;
+		}
+		// Version lue avant la requête : une modification concurrente rend le résultat périmé
+		long loadedVersion = versions.get(stripe(auctionId));
+		book = load(auctionId);
+		if (versions.get(stripe(auctionId)) != loadedVersion) {
+			return book;
+		}
+		// Ne remplace pas un carnet mis à jour entre-temps par un commit concurrent
+		OrderBook existing = books.putIfAbsent(auctionId, book);
+		return existing != null ? existing : book;
+	}
+
+	@Override
+	public void recordBid(Integer auctionId, BigDecimal amount, Integer traderId) {
+		// Si le carnet n'est pas en cache, il sera reconstruit (offre incluse) au prochain accès
+		TransactionHelper.afterCommit(() -> {
+			versions.incrementAndGet(stripe(auctionId));
+			books.computeIfPresent(auctionId, (id, book) -> book.withBid(amount, traderId));
+			publishInvalidation(auctionId);
+		});
+	}
+
+	@Override
+	public void recordAccepted(Integer auctionId) {
+		TransactionHelper.afterCommit(() -> {
+			versions.incrementAndGet(stripe(auctionId));
+			books.computeIfPresent(auctionId, (id, book) -> book.withAccepted());
+			publishInvalidation(auctionId);
+		});
+	}
+
+	@Override
+	public void evict(Integer auctionId) {
+		TransactionHelper.afterCompletion(() -> evictLocal(auctionId));
+		// Les autres nœuds ne sont prévenus que d'une modification effectivement validée
+		TransactionHelper.afterCommit(() -> publishInvalidation(auctionId));
+	}
+
+	@Override
+	public void onInvalidation(String message) {
+		int separator = message.lastIndexOf(':');
+		if (separator < 0) {
+			clear();
+			return;
+		}
+		if (nodeId.equals(message.substring(0, separator))) {
+			return;
+		}
+		try {
+			evictLocal(Integer.valueOf(message.substring(separator + 1)));
+		} catch (NumberFormatException e) {
+			// Message inattendu : par précaution, tout le cache est vidé
+			clear();
+		}
+	}
+
+	@Override
+	public void clear() {
+		for (int i = 0; i < VERSION_STRIPES; i++) {
+			versions.incrementAndGet(i);
+		}
+		books.clear();
+	}
+
+	private void evictLocal(Integer auctionId) {
+		versions.incrementAndGet(stripe(auctionId));
+		books.remove(auctionId);
+	}
+
+	private void publishInvalidation(Integer auctionId) {
+		if (!redisNotificationsEnabled) {
+			return;
+		}
+		try {
+			redisTemplate.convertAndSend(INVALIDATION_CHANNEL, nodeId + ":" + auctionId);
+		} catch (Exception e) {
+			log.warn("[OrderBook] Échec de la publication de l'invalidation du carnet {}",
+					auctionId, e);
+		}
+	}
+
+	private static int stripe(Integer auctionId) {
+		return Math.floorMod(auctionId, VERSION_STRIPES);
+	}
+
+	private OrderBook load(Integer auctionId) {
+		// Agrégats tenus à jour par le placement atomique des offres : une seule ligne à lire
+		AuctionRepository.BidStats stats = auctionRepository.findBidStatsById(auctionId);
+		if (stats == null || stats.getBidCount() == null || stats.getBidCount() == 0) {
+			log.debug("[OrderBook] Carnet vide chargé pour l'enchère {}", auctionId);
+			return OrderBook.EMPTY;
+		}
+		OrderBook book = new OrderBook(stats.getBestBidAmount(), stats.getLastBidderId(),
+				stats.getAcceptedBidId() != null, stats.getBidCount());
+		log.debug("[OrderBook] Carnet chargé pour l'enchère {} : {}", auctionId, book);
+		return book;
+	}
+}
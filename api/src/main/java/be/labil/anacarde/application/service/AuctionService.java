@@ -1,8 +1,11 @@
 
 package be.labil.anacarde.application.service;
 
+import be.labil.anacarde.application.exception.ApiErrorException;
 import be.labil.anacarde.domain.dto.db.AuctionDto;
+import be.labil.anacarde.domain.dto.db.AuctionSummaryDto;
 import be.labil.anacarde.domain.dto.write.AuctionUpdateDto;
+import be.labil.anacarde.infrastructure.util.KeysetCursor.CursorPage;
 import java.util.List;
 import org.springframework.data.repository.query.Param;
 import org.springframework.security.access.annotation.Secured;
@@ -44,12 +47,38 @@ public interface AuctionService {
 	 * @param auctionStatus
 	 *            Le status de l'enchère.
 	 * @param limit
-	 *            Le nombre maximum d'enchères à obtenir.
+	 *            Le nombre maximum d'enchères à obtenir, ou {@code null} pour toutes (la taille
+	 *            par défaut s'applique lorsqu'un curseur est fourni).
+	 * @param cursor
+	 *            Le curseur de la page à obtenir, ou {@code null} pour la première page.
 	 *
-	 * @return Une List de AuctionDto représentant toutes les enchères.
+	 * @return Une page de AuctionDto, triée par date d'expiration, avec le curseur de la page
+	 *         suivante.
 	 */
-	List<AuctionDto> listAuctions(Integer traderId, Integer buyerId, String auctionStatus,
-			Integer limit);
+	CursorPage<AuctionDto> listAuctions(Integer traderId, Integer buyerId, String auctionStatus,
+			Integer limit, String cursor);
+
+	/**
+	 * Récupère les résumés des enchères du système, avec les mêmes filtres que
+	 * {@link #listAuctions}. Chaque résumé porte les agrégats des offres de l'enchère, calculés
+	 * sans charger les offres.
+	 *
+	 * @param traderId
+	 *            L'identifiant du trader ayant créé les enchères.
+	 * @param buyerId
+	 *            L'identifiant du trader ayant participé aux enchères.
+	 * @param auctionStatus
+	 *            Le status de l'enchère.
+	 * @param limit
+	 *            Le nombre maximum d'enchères à obtenir, ou {@code null} pour toutes (la taille
+	 *            par défaut s'applique lorsqu'un curseur est fourni).
+	 * @param cursor
+	 *            Le curseur de la page à obtenir, ou {@code null} pour la première page.
+	 *
+	 * @return Une page de AuctionSummaryDto, avec le curseur de la page suivante.
+	 */
+	CursorPage<AuctionSummaryDto> listAuctionSummaries(Integer traderId, Integer buyerId,
+			String auctionStatus, Integer limit, String cursor);
 
 	/**
 	 * Mise à jour de l'enchère identifiée par l'ID donné avec les informations fournies dans le
@@ -71,6 +100,8 @@ public interface AuctionService {
 	 * @param auctionId
 	 *            L'identifiant unique de l'enchère à mettre à jour.
 	 * @return Un AuctionDto représentant l'enchère mis à jour.
+	 * @throws ApiErrorException
+	 *             si l'enchère n'est plus ouverte (expirée entre-temps, par exemple).
 	 */
 	AuctionDto acceptAuction(@Param("auctionId") Integer auctionId);
 
@@ -91,4 +122,16 @@ public interface AuctionService {
 	 *            L'identifiant unique de l'enchère à clôturer.
 	 */
 	void closeAuction(Integer auctionId);
+
+	/**
+	 * Clôture un lot d'enchères arrivées à expiration. Les enchères sont réservées avec
+	 * {@code FOR UPDATE SKIP LOCKED}, passées au status « Expiré » et leurs quantités restituées
+	 * aux produits par des mises à jour ensemblistes ; les abonnés sont notifiés après validation
+	 * de la transaction.
+	 *
+	 * @param batchSize
+	 *            nombre maximum d'enchères à clôturer
+	 * @return le nombre d'enchères clôturées
+	 */
+	int closeExpiredAuctions(int batchSize);
 }
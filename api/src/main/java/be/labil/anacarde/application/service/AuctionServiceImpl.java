@@ -3,8 +3,8 @@ package be.labil.anacarde.application.service;
 import be.labil.anacarde.application.exception.ApiErrorCode;
 import be.labil.anacarde.application.exception.ApiErrorException;
 import be.labil.anacarde.application.exception.ResourceNotFoundException;
-import be.labil.anacarde.application.job.CloseAuctionJob;
 import be.labil.anacarde.domain.dto.db.AuctionDto;
+import be.labil.anacarde.domain.dto.db.AuctionSummaryDto;
 import be.labil.anacarde.domain.dto.db.GlobalSettingsDto;
 import be.labil.anacarde.domain.dto.db.product.ProductDto;
 import be.labil.anacarde.domain.dto.write.AuctionUpdateDto;
@@ -13,26 +13,21 @@ import be.labil.anacarde.domain.mapper.AuctionStrategyMapper;
 import be.labil.anacarde.domain.model.Auction;
 import be.labil.anacarde.domain.model.AuctionOptions;
 import be.labil.anacarde.domain.model.TradeStatus;
+import be.labil.anacarde.domain.model.TradeStatusCode;
 import be.labil.anacarde.infrastructure.persistence.AuctionRepository;
-import be.labil.anacarde.infrastructure.persistence.TradeStatusRepository;
+import be.labil.anacarde.infrastructure.util.KeysetCursor;
+import be.labil.anacarde.infrastructure.util.KeysetCursor.CursorPage;
 import be.labil.anacarde.infrastructure.util.PersistenceHelper;
 import be.labil.anacarde.infrastructure.util.SecurityHelper;
+import be.labil.anacarde.infrastructure.util.TransactionHelper;
 import java.time.LocalDateTime;
-import java.time.ZoneId;
 import java.time.ZoneOffset;
-import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 import lombok.AllArgsConstructor;
-import org.quartz.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -41,20 +36,19 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional
 @AllArgsConstructor
 public class AuctionServiceImpl implements AuctionService {
-	private final TradeStatusRepository tradeStatusRepository;
+	private final TradeStatusRegistry tradeStatusRegistry;
 	private final AuctionRepository auctionRepository;
 	private final AuctionMapper auctionMapper;
 	private final AuctionStrategyMapper auctionStrategyMapper;
 	private final PersistenceHelper persistenceHelper;
 	private final GlobalSettingsService globalSettingsService;
 	private final AuctionSseServiceImpl auctionSseService;
-	private final NotificationSseServiceImpl notificationSseService;
+	private final SseFanOutService sseFanOutService;
 	private final ProductService productService;
+	private final AuctionExpiryService auctionExpiryService;
+	private final AuctionDailyStatsService auctionDailyStatsService;
 
-	private static final Logger log = LoggerFactory.getLogger(CloseAuctionJob.class);
-
-	@Autowired
-	private Scheduler scheduler;
+	private static final Logger log = LoggerFactory.getLogger(AuctionServiceImpl.class);
 
 	@Override
 	public AuctionDto createAuction(AuctionUpdateDto auctionUpdateDto) {
@@ -64,11 +58,7 @@ public class AuctionServiceImpl implements AuctionService {
 
 		// Use default status
 		if (auctionUpdateDto.getStatusId() == null) {
-			TradeStatus pendingStatus = tradeStatusRepository.findStatusPending();
-			if (pendingStatus == null) {
-				throw new ResourceNotFoundException("Status non trouvé");
-			}
-			auction.setStatus(pendingStatus);
+			auction.setStatus(tradeStatusRegistry.get(TradeStatusCode.PENDING));
 		}
 
 		// Use default options
@@ -99,9 +89,11 @@ public class AuctionServiceImpl implements AuctionService {
 			auctionSseService.addSubscriber(full.getId(), full.getTrader().getUsername());
 		}
 
-		if (full.getExpirationDate() != null && full.getStatus().getName().equals("Ouvert")) {
-			scheduleAuctionClose(Long.valueOf(full.getId()), full.getExpirationDate());
+		if (full.getExpirationDate() != null
+				&& tradeStatusRegistry.is(full.getStatus(), TradeStatusCode.PENDING)) {
+			auctionExpiryService.schedule(full.getId(), full.getExpirationDate());
 		}
+		auctionDailyStatsService.markDirty(full.getCreationDate(), full.getExpirationDate());
 
 		return auctionMapper.toDto(full);
 	}
@@ -116,23 +108,47 @@ public class AuctionServiceImpl implements AuctionService {
 
 	@Override
 	@Transactional(readOnly = true)
-	public List<AuctionDto> listAuctions(Integer traderId, Integer buyerId, String status,
-			Integer limit) {
+	public CursorPage<AuctionDto> listAuctions(Integer traderId, Integer buyerId, String status,
+			Integer limit, String cursor) {
+		checkListFilters(traderId, buyerId);
+		String[] after = KeysetCursor.decode(cursor, 2);
+		LocalDateTime afterDate = after != null ? KeysetCursor.toDateTime(after[0]) : null;
+		Integer afterId = after != null ? KeysetCursor.toInteger(after[1]) : null;
+
+		List<Auction> auctions = (buyerId != null)
+				? auctionRepository.findByBuyerAndStatus(buyerId, status, afterDate, afterId,
+						KeysetCursor.limit(limit, cursor))
+				: auctionRepository.findByTraderAndStatus(traderId, status, afterDate, afterId,
+						KeysetCursor.limit(limit, cursor));
+		return KeysetCursor
+				.page(auctions, limit, cursor,
+						a -> KeysetCursor.encode(a.getExpirationDate(), a.getId()))
+				.map(auctionMapper::toDto);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public CursorPage<AuctionSummaryDto> listAuctionSummaries(Integer traderId, Integer buyerId,
+			String status, Integer limit, String cursor) {
+		checkListFilters(traderId, buyerId);
+		String[] after = KeysetCursor.decode(cursor, 2);
+		LocalDateTime afterDate = after != null ? KeysetCursor.toDateTime(after[0]) : null;
+		Integer afterId = after != null ? KeysetCursor.toInteger(after[1]) : null;
+
+		List<AuctionSummaryDto> summaries = (buyerId != null)
+				? auctionRepository.findSummariesByBuyerAndStatus(buyerId, status, afterDate,
+						afterId, KeysetCursor.limit(limit, cursor))
+				: auctionRepository.findSummariesByTraderAndStatus(traderId, status, afterDate,
+						afterId, KeysetCursor.limit(limit, cursor));
+		return KeysetCursor.page(summaries, limit, cursor,
+				a -> KeysetCursor.encode(a.getExpirationDate(), a.getId()));
+	}
+
+	private void checkListFilters(Integer traderId, Integer buyerId) {
 		if (traderId != null && buyerId != null) {
 			throw new IllegalArgumentException(
 					"TraderId et BuyerId ne peuvent pas être spécifiés en même temps.");
 		}
-
-		Sort sort = Sort.by(Sort.Direction.ASC, "expirationDate");
-		Pageable pageable = (limit != null) ? PageRequest.of(0, limit, sort) : Pageable.unpaged();
-
-		if (buyerId != null) {
-			return auctionRepository.findByBuyerAndStatus(buyerId, status, pageable).stream()
-					.map(auctionMapper::toDto).collect(Collectors.toList());
-		} else {
-			return auctionRepository.findByTraderAndStatus(traderId, status, pageable).stream()
-					.map(auctionMapper::toDto).collect(Collectors.toList());
-		}
 	}
 
 	@Override
@@ -141,25 +157,26 @@ public class AuctionServiceImpl implements AuctionService {
 				.orElseThrow(() -> new ResourceNotFoundException("Enchère non trouvée"));
 
 		checkAuctionParameters(auctionDetailDto);
+		LocalDateTime previousExpirationDate = existingAuction.getExpirationDate();
 
-		if (existingAuction.getStatus().getId()
-				.equals(tradeStatusRepository.findStatusPending().getId())
-				&& !existingAuction.getStatus().getId().equals(auctionDetailDto.getStatusId())) {
-			deleteAuctionCloseJob(id.longValue());
-		}
 		Auction updatedAuction = auctionMapper.partialUpdate(auctionDetailDto, existingAuction);
 
 		Auction full = persistenceHelper.saveAndReload(auctionRepository, updatedAuction,
 				Auction::getId);
+		// Une enchère qui n'est plus ouverte est simplement ignorée lors du balayage
+		if (full.getExpirationDate() != null
+				&& tradeStatusRegistry.is(full.getStatus(), TradeStatusCode.PENDING)) {
+			auctionExpiryService.schedule(full.getId(), full.getExpirationDate());
+		}
+		if (!full.getExpirationDate().equals(previousExpirationDate)) {
+			auctionDailyStatsService.markDirty(previousExpirationDate, full.getExpirationDate());
+		}
 		return auctionMapper.toDto(full);
 	}
 
 	@Override
 	public AuctionDto acceptAuction(Integer id) {
-		TradeStatus acceptedStatus = tradeStatusRepository.findStatusAccepted();
-		if (acceptedStatus == null) {
-			throw new ResourceNotFoundException("Status non trouvé");
-		}
+		TradeStatus acceptedStatus = tradeStatusRegistry.get(TradeStatusCode.ACCEPTED);
 
 		Auction existingAuction = auctionRepository.findById(id)
 				.orElseThrow(() -> new ResourceNotFoundException("Enchère non trouvée"));
@@ -168,14 +185,25 @@ public class AuctionServiceImpl implements AuctionService {
 			return auctionMapper.toDto(existingAuction);
 		}
 
-		if (existingAuction.getStatus().getId()
-				.equals(tradeStatusRepository.findStatusPending().getId())) {
-			deleteAuctionCloseJob(id.longValue());
+		// Acceptation conditionnelle : une enchère expirée entre-temps (et dont la quantité a déjà
+		// été restituée au produit) n'est pas écrasée
+		LocalDateTime previousExpirationDate = existingAuction.getExpirationDate();
+		LocalDateTime now = LocalDateTime.now();
+		if (auctionRepository.acceptPending(id, tradeStatusRegistry.getId(TradeStatusCode.PENDING),
+				acceptedStatus.getId(), now) == 0) {
+			Auction current = auctionRepository.findById(id)
+					.orElseThrow(() -> new ResourceNotFoundException("Enchère non trouvée"));
+			if (current.getStatus().equals(acceptedStatus)) {
+				return auctionMapper.toDto(current);
+			}
+			throw new ApiErrorException(HttpStatus.CONFLICT, ApiErrorCode.CONFLICT.code(),
+					"status", "L'enchère n'est plus ouverte.");
 		}
-		existingAuction.setStatus(acceptedStatus);
-		existingAuction.setExpirationDate(LocalDateTime.now());
+		// L'enchère acceptée est close : son échéance passe du jour prévu à aujourd'hui
+		auctionDailyStatsService.markDirty(previousExpirationDate, now);
 
-		Auction saved = auctionRepository.save(existingAuction);
+		Auction saved = auctionRepository.findById(id)
+				.orElseThrow(() -> new ResourceNotFoundException("Enchère non trouvée"));
 		notifyAuctionClosed(saved);
 
 		return auctionMapper.toDto(saved);
@@ -193,51 +221,30 @@ public class AuctionServiceImpl implements AuctionService {
 			Auction auction = auctionOptional.get();
 			productService.offsetWeightKgAvailable(auction.getProduct().getId(),
 					auction.getProductQuantity());
-
-			deleteAuctionCloseJob(id.longValue());
 		} else {
 			throw new ResourceNotFoundException("Enchère non trouvée");
 		}
 	}
 
-	public void deleteAuctionCloseJob(Long auctionId) {
-		try {
-			JobKey jobKey = new JobKey("auctionCloseJob-" + auctionId, "auction-jobs");
-			if (scheduler.checkExists(jobKey)) {
-				scheduler.deleteJob(jobKey);
-				log.info("Job de clôture supprimé pour l'enchère ID : {}", auctionId);
-			} else {
-				log.warn(
-						"Tentative de suppression d'un job de clôture non existant pour l'enchère ID : {}",
-						auctionId);
-			}
-		} catch (SchedulerException e) {
-			log.error(
-					"Erreur lors de la suppression du job de clôture pour l'enchère ID : {}. Message : {}",
-					auctionId, e.getMessage());
-		}
-	}
-
 	@Transactional
 	@Override
 	public void closeAuction(Integer auctionId) {
 		Optional<Auction> auctionOpt = auctionRepository.findById(auctionId);
 		if (auctionOpt.isPresent()) {
 			Auction auction = auctionOpt.get();
-			if (auction.getStatus().getId()
-					.equals(tradeStatusRepository.findStatusPending().getId())) {
-				auction.setStatus(tradeStatusRepository.findStatusExpired());
-				auctionRepository.save(auction);
+			// Clôture conditionnelle : sans effet sur une enchère acceptée ou expirée entre-temps
+			if (auctionRepository.closePending(auctionId,
+					tradeStatusRegistry.getId(TradeStatusCode.PENDING),
+					tradeStatusRegistry.getId(TradeStatusCode.EXPIRED)) == 1) {
 				log.info("L'enchère ID {} a été marquée comme CLOSED.", auctionId);
 
-				// Update available weight of the auctioned product
-				productService.offsetWeightKgAvailable(auction.getProduct().getId(),
-						auction.getProductQuantity());
+				// Restitution plafonnée à la quantité totale du produit, comme à l'expiration
+				productService.restoreWeightKgAvailable(List.of(auctionId));
+				auction = auctionRepository.findById(auctionId).orElseThrow();
 				log.info("Le poids disponible du produit ID {} a été ré-incrémenté de +{}",
-						auctionId, auction.getProductQuantity());
+						auction.getProduct().getId(), auction.getProductQuantity());
 
 				notifyAuctionClosed(auction);
-				deleteAuctionCloseJob(auctionId.longValue());
 			} else {
 				log.warn(
 						"Tentative de clôture d'une enchère ID {} qui n'est pas ACTIVE/PENDING. Statut actuel : {}",
@@ -248,27 +255,23 @@ public class AuctionServiceImpl implements AuctionService {
 		}
 	}
 
-	public void scheduleAuctionClose(Long auctionId, LocalDateTime endTime) {
-		try {
-			JobDetail jobDetail = JobBuilder.newJob(CloseAuctionJob.class)
-					.withIdentity("auctionCloseJob-" + auctionId, "auction-jobs")
-					.usingJobData("auctionId", auctionId).storeDurably().build();
-
-			Trigger trigger = TriggerBuilder.newTrigger().forJob(jobDetail)
-					.withIdentity("auctionCloseTrigger-" + auctionId, "auction-triggers")
-					.startAt(Date.from(endTime.atZone(ZoneId.systemDefault()).toInstant()))
-					.withSchedule(SimpleScheduleBuilder.simpleSchedule()
-							.withMisfireHandlingInstructionFireNow())
-					.build();
-
-			scheduler.scheduleJob(jobDetail, trigger);
-			log.debug("Job de clôture programmé pour l'enchère ID : {} à {}", auctionId, endTime);
-
-		} catch (SchedulerException e) {
-			log.error(
-					"Erreur lors de la programmation du job de clôture pour l'enchère ID : {}. Message : {}",
-					auctionId, e.getMessage());
+	@Override
+	public int closeExpiredAuctions(int batchSize) {
+		List<Integer> auctionIds = auctionRepository.claimExpired(
+				tradeStatusRegistry.getId(TradeStatusCode.PENDING), LocalDateTime.now(),
+				batchSize);
+		if (auctionIds.isEmpty()) {
+			return 0;
+		}
+		auctionRepository.updateStatus(auctionIds,
+				tradeStatusRegistry.getId(TradeStatusCode.EXPIRED));
+		productService.restoreWeightKgAvailable(auctionIds);
+		log.info("{} enchère(s) marquée(s) comme expirée(s) : {}", auctionIds.size(), auctionIds);
+
+		for (Auction auction : auctionRepository.findAllById(auctionIds)) {
+			notifyAuctionClosed(auction);
 		}
+		return auctionIds.size();
 	}
 
 	private void checkAuctionQuantity(AuctionUpdateDto auctionUpdateDto) {
@@ -335,20 +338,10 @@ public class AuctionServiceImpl implements AuctionService {
 	private void notifyAuctionClosed(Auction auction) {
 		Set<String> subscribers = auctionSseService.getSubscribers(auction.getId());
 		AuctionDto auctionDto = auctionMapper.toDto(auction);
-		if (subscribers != null && !subscribers.isEmpty()) {
-			for (String subKey : subscribers) {
-				notificationSseService.publishEvent(subKey, "auctionClosed", auctionDto);
-				log.debug("[SSE] Notification envoyée à " + subKey + " pour clôture de l'enchère: "
-						+ auctionDto);
-			}
-		}
-		Set<String> visitors = auctionSseService.getVisitors(auction.getId());
-		if (visitors != null && !visitors.isEmpty()) {
-			for (String visitorKey : visitors) {
-				auctionSseService.sendEvent(auction.getId(), "refreshBids", auctionDto);
-				log.debug("[SSE] Notification silencieuse envoyée à " + visitorKey
-						+ " pour refreshBids (clôture): " + auctionDto);
-			}
-		}
+		log.debug("[SSE] Clôture de l'enchère " + auction.getId() + " notifiée à " + subscribers);
+		TransactionHelper.afterCommit(() -> {
+			sseFanOutService.publishToUsers(subscribers, null, "auctionClosed", auctionDto);
+			sseFanOutService.sendToAuction(auction.getId(), "refreshBids", auctionDto);
+		});
 	}
 }
@@ -19,6 +19,23 @@ public interface AuctionSseService {
 	 */
 	SseEmitter subscribe(Integer auctionId, String userKey, boolean isVisitor);
 
+	/**
+	 * Abonne un utilisateur qui se reconnecte à une enchère : les événements publiés depuis
+	 * {@code lastEventId} lui sont renvoyés avant les nouveaux événements.
+	 *
+	 * @param auctionId
+	 *            l'ID de l'enchère
+	 * @param userKey
+	 *            la clé de l'utilisateur
+	 * @param isVisitor
+	 *            {@code true} si l'utilisateur consulte l'enchère sans y participer
+	 * @param lastEventId
+	 *            l'identifiant du dernier événement reçu (en-tête {@code Last-Event-ID}), ou
+	 *            {@code null} pour une première connexion
+	 * @return un SseEmitter pour envoyer des événements à l'utilisateur
+	 */
+	SseEmitter subscribe(Integer auctionId, String userKey, boolean isVisitor, String lastEventId);
+
 	/**
 	 * Supprime l'abonnement d'un utilisateur à une enchère.
 	 *
@@ -46,8 +63,25 @@ public interface AuctionSseService {
 	 *            le nom de l'événement
 	 * @param data
 	 *            les données à envoyer avec l'événement
+	 * @return le nombre d'émetteurs dans la file desquels l'événement a été déposé
+	 */
+	int sendEvent(Integer auctionId, String eventName, Object data);
+
+	/**
+	 * Envoie un événement identifié à tous les abonnés locaux d'une enchère et le conserve pour un
+	 * rejeu.
+	 *
+	 * @param auctionId
+	 *            l'ID de l'enchère
+	 * @param eventId
+	 *            l'identifiant de l'événement, ou {@code null}
+	 * @param eventName
+	 *            le nom de l'événement
+	 * @param data
+	 *            les données à envoyer avec l'événement
+	 * @return le nombre d'émetteurs dans la file desquels l'événement a été déposé
 	 */
-	void sendEvent(Integer auctionId, String eventName, Object data);
+	int sendEvent(Integer auctionId, String eventId, String eventName, Object data);
 
 	/**
 	 * Récupère les visiteurs d'une enchère spécifique.
@@ -1,33 +1,86 @@
 package be.labil.anacarde.application.service;
 
-import java.io.IOException;
+import be.labil.anacarde.infrastructure.util.AsyncSseEmitter;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @Service
 public class AuctionSseServiceImpl implements AuctionSseService {
 	private static final Logger log = LoggerFactory.getLogger(AuctionSseServiceImpl.class);
-	private final ConcurrentMap<Integer, CopyOnWriteArrayList<SseEmitter>> emitters = new ConcurrentHashMap<>();
+	private static final int SUBSCRIPTION_LOCK_STRIPES = 64;
+	private final ConcurrentMap<Integer, AuctionEmitters> emitters = new ConcurrentHashMap<>();
+	// Enchères dont ce nœud écoute le canal Redis
+	private final Set<Integer> listenedAuctions = ConcurrentHashMap.newKeySet();
+	// Sérialisent l'abonnement et le désabonnement Redis d'une même enchère, hors de la map
+	private final Object[] subscriptionLocks = new Object[SUBSCRIPTION_LOCK_STRIPES];
 	private final StringRedisTemplate redisTemplate;
+	private final ObjectProvider<RedisNotificationListener> redisNotificationListener;
+	private final SseDeliveryService sseDeliveryService;
+	private final SseReplayService sseReplayService;
 
 	@Autowired
-	public AuctionSseServiceImpl(StringRedisTemplate redisTemplate) {
+	public AuctionSseServiceImpl(StringRedisTemplate redisTemplate,
+			ObjectProvider<RedisNotificationListener> redisNotificationListener,
+			SseDeliveryService sseDeliveryService, SseReplayService sseReplayService) {
 		this.redisTemplate = redisTemplate;
+		this.redisNotificationListener = redisNotificationListener;
+		this.sseDeliveryService = sseDeliveryService;
+		this.sseReplayService = sseReplayService;
+		for (int i = 0; i < SUBSCRIPTION_LOCK_STRIPES; i++) {
+			subscriptionLocks[i] = new Object();
+		}
 	}
 
 	@Override
 	public SseEmitter subscribe(Integer auctionId, String userKey, boolean isVisitor) {
-		SseEmitter emitter = new SseEmitter(Long.MAX_VALUE);
-		emitters.computeIfAbsent(auctionId, k -> new CopyOnWriteArrayList<>()).add(emitter);
+		return subscribe(auctionId, userKey, isVisitor, null);
+	}
+
+	@Override
+	public SseEmitter subscribe(Integer auctionId, String userKey, boolean isVisitor,
+			String lastEventId) {
+		AsyncSseEmitter emitter = sseDeliveryService.createEmitter();
+		boolean replay = lastEventId != null && !lastEventId.isBlank();
+		if (replay) {
+			// Les événements reçus avant la lecture des événements manqués sont retenus
+			emitter.holdForReplay();
+		}
+		boolean registered = false;
+		while (!registered) {
+			AuctionEmitters holder = emitters.get(auctionId);
+			if (holder == null) {
+				AuctionEmitters created = new AuctionEmitters();
+				holder = emitters.putIfAbsent(auctionId, created);
+				holder = holder != null ? holder : created;
+			}
+			synchronized (holder) {
+				// Un groupe retiré (dernier émetteur fermé entre-temps) est remplacé par un nouveau
+				if (!holder.retired) {
+					holder.list.add(emitter);
+					registered = true;
+				}
+			}
+		}
+		if (replay) {
+			// Lu après l'inscription : un événement publié entre-temps est rejoué ou reçu
+			sseReplayService.replay(SseReplayService.auctionStream(auctionId), lastEventId,
+					emitter);
+		}
+		if (!listenedAuctions.contains(auctionId)) {
+			// Premier émetteur local : ce nœud écoute désormais le canal de l'enchère
+			syncSubscription(auctionId);
+		}
 		try {
 			if (isVisitor) {
 				redisTemplate.opsForSet().add("auction-visitors:" + auctionId, userKey);
@@ -38,40 +91,68 @@ public class AuctionSseServiceImpl implements AuctionSseService {
 		} catch (Exception e) {
 		}
 
-		emitter.onCompletion(() -> {
-			try {
-				emitters.get(auctionId).remove(emitter);
-				if (isVisitor) {
-					redisTemplate.opsForSet().remove("auction-visitors:" + auctionId, userKey);
-				} else {
-					redisTemplate.opsForSet().remove("auction-subscribers:" + auctionId, userKey);
-				}
-			} catch (Exception e) {
+		emitter.onCompletion(() -> removeEmitter(auctionId, emitter, userKey, isVisitor));
+		emitter.onTimeout(() -> removeEmitter(auctionId, emitter, userKey, isVisitor));
+		emitter.onError(e -> removeEmitter(auctionId, emitter, userKey, isVisitor));
+		return emitter;
+	}
+
+	private void removeEmitter(Integer auctionId, AsyncSseEmitter emitter, String userKey,
+			boolean isVisitor) {
+		detachEmitter(auctionId, emitter);
+		try {
+			if (isVisitor) {
+				redisTemplate.opsForSet().remove("auction-visitors:" + auctionId, userKey);
+			} else {
+				redisTemplate.opsForSet().remove("auction-subscribers:" + auctionId, userKey);
 			}
-		});
-		emitter.onTimeout(() -> {
-			try {
-				emitters.get(auctionId).remove(emitter);
-				if (isVisitor) {
-					redisTemplate.opsForSet().remove("auction-visitors:" + auctionId, userKey);
-				} else {
-					redisTemplate.opsForSet().remove("auction-subscribers:" + auctionId, userKey);
-				}
-			} catch (Exception e) {
+		} catch (Exception e) {
+		}
+	}
+
+	private void detachEmitter(Integer auctionId, AsyncSseEmitter emitter) {
+		AuctionEmitters holder = emitters.get(auctionId);
+		if (holder == null) {
+			return;
+		}
+		synchronized (holder) {
+			if (!holder.list.remove(emitter) || !holder.list.isEmpty()) {
+				return;
+			}
+			holder.retired = true;
+			emitters.remove(auctionId, holder);
+		}
+		// Dernier émetteur local fermé : ce nœud n'a plus besoin du canal de l'enchère
+		syncSubscription(auctionId);
+	}
+
+	/**
+	 * Aligne l'abonnement de ce nœud au canal Redis de l'enchère sur la présence d'émetteurs
+	 * locaux. L'état est relu sous le verrou de l'enchère, de sorte qu'un abonnement et un
+	 * désabonnement concurrents aboutissent toujours à l'état final attendu. Les échecs Redis
+	 * sont ignorés : les émetteurs locaux restent alimentés par les événements de ce nœud.
+	 */
+	private void syncSubscription(Integer auctionId) {
+		synchronized (subscriptionLocks[Math.floorMod(auctionId, SUBSCRIPTION_LOCK_STRIPES)]) {
+			boolean wanted = emitters.containsKey(auctionId);
+			if (wanted == listenedAuctions.contains(auctionId)) {
+				return;
 			}
-		});
-		emitter.onError(e -> {
 			try {
-				emitters.get(auctionId).remove(emitter);
-				if (isVisitor) {
-					redisTemplate.opsForSet().remove("auction-visitors:" + auctionId, userKey);
+				if (wanted) {
+					redisNotificationListener
+							.ifAvailable(listener -> listener.subscribeAuction(auctionId));
+					listenedAuctions.add(auctionId);
 				} else {
-					redisTemplate.opsForSet().remove("auction-subscribers:" + auctionId, userKey);
+					listenedAuctions.remove(auctionId);
+					redisNotificationListener
+							.ifAvailable(listener -> listener.unsubscribeAuction(auctionId));
 				}
-			} catch (Exception ex) {
+			} catch (Exception e) {
+				log.warn("[SSE] Échec de la mise à jour de l'abonnement au canal de l'enchère {}",
+						auctionId, e);
 			}
-		});
-		return emitter;
+		}
 	}
 
 	@Override
@@ -105,21 +186,35 @@ public class AuctionSseServiceImpl implements AuctionSseService {
 	}
 
 	@Override
-	public void sendEvent(Integer auctionId, String eventName, Object data) {
-		var list = emitters.getOrDefault(auctionId, new CopyOnWriteArrayList<>());
-		for (SseEmitter emitter : list) {
-			try {
-				emitter.send(
-						SseEmitter.event().name(eventName).data(data, MediaType.APPLICATION_JSON));
-			} catch (IOException e) {
-				try {
-					emitter.complete();
-					list.remove(emitter);
-				} catch (Exception ex) {
-				}
-			} catch (Exception e) {
+	public int sendEvent(Integer auctionId, String eventName, Object data) {
+		return sendEvent(auctionId, null, eventName, data);
+	}
+
+	@Override
+	public int sendEvent(Integer auctionId, String eventId, String eventName, Object data) {
+		// Conservé avant l'envoi : un émetteur inscrit entre-temps le retrouve dans le rejeu
+		if (data instanceof String json) {
+			sseReplayService.store(SseReplayService.auctionStream(auctionId), eventId, eventName,
+					json);
+		}
+		AuctionEmitters holder = emitters.get(auctionId);
+		if (holder == null) {
+			return 0;
+		}
+		int sent = 0;
+		List<AsyncSseEmitter> closed = new ArrayList<>();
+		// Construit une seule fois puis déposé dans la file de chaque émetteur, sans bloquer
+		var event = AsyncSseEmitter.event(eventId, eventName, data);
+		for (AsyncSseEmitter emitter : holder.list) {
+			if (emitter.enqueue(eventId, event)) {
+				sent++;
+			} else {
+				closed.add(emitter);
 			}
 		}
+		// Hors du verrou : le retrait du dernier émetteur désabonne le nœud du canal Redis
+		closed.forEach(emitter -> detachEmitter(auctionId, emitter));
+		return sent;
 	}
 
 	@Override
@@ -144,4 +239,14 @@ public class AuctionSseServiceImpl implements AuctionSseService {
 		} catch (Exception e) {
 		}
 	}
+
+	/**
+	 * Émetteurs locaux d'une enchère. Un groupe vidé est marqué retiré avant d'être ôté de la
+	 * map, et un abonné qui l'obtient encore en crée alors un nouveau.
+	 */
+	private static final class AuctionEmitters {
+		private final List<AsyncSseEmitter> list = new CopyOnWriteArrayList<>();
+		// Protégé par le moniteur du groupe
+		private boolean retired;
+	}
 }
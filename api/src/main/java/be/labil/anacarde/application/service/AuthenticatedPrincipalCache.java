@@ -0,0 +1,67 @@
+package be.labil.anacarde.application.service;
+
+import java.util.Date;
+import java.util.function.Function;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * Cache borné des utilisateurs authentifiés, indexé par l'empreinte de leur token JWT.
+ * <p>
+ * Un token déjà vérifié n'est ni réanalysé ni rechargé depuis la base de données tant que son
+ * entrée est valide : l'authentification d'une requête ne coûte plus aucune requête SQL. Les
+ * entrées expirent après une durée de vie bornée et sont invalidées à chaque modification ou
+ * suppression d'un utilisateur, sur tous les nœuds, afin qu'un compte désactivé soit rejeté sans
+ * délai.
+ */
+public interface AuthenticatedPrincipalCache {
+
+	/**
+	 * Retourne l'utilisateur authentifié par le token donné. En l'absence d'entrée valide, le
+	 * token est vérifié par {@code loader} et le résultat mis en cache ; les exceptions levées par
+	 * {@code loader} sont propagées et rien n'est mis en cache.
+	 * <p>
+	 * Seule une copie immuable des informations d'autorisation est conservée : sur une entrée
+	 * valide, le principal retourné est reconstruit et ne porte que l'ID, l'email, les rôles et
+	 * l'état d'activation de l'utilisateur.
+	 *
+	 * @param token
+	 *            le token JWT de la requête
+	 * @param loader
+	 *            vérifie le token et charge l'utilisateur correspondant
+	 * @return l'utilisateur authentifié
+	 */
+	UserDetails get(String token, Function<String, CachedPrincipal> loader);
+
+	/**
+	 * Invalide, après validation de la transaction courante, les entrées d'un utilisateur sur ce
+	 * nœud et sur les autres nœuds.
+	 *
+	 * @param userId
+	 *            l'ID de l'utilisateur modifié ou supprimé
+	 */
+	void invalidateUser(Integer userId);
+
+	/**
+	 * Retire immédiatement les entrées d'un utilisateur du cache de ce nœud.
+	 *
+	 * @param userId
+	 *            l'ID de l'utilisateur
+	 */
+	void evict(Integer userId);
+
+	/**
+	 * Vide le cache de ce nœud.
+	 */
+	void clear();
+
+	/**
+	 * Utilisateur authentifié par un token vérifié.
+	 *
+	 * @param principal
+	 *            l'utilisateur authentifié
+	 * @param expiration
+	 *            la date d'expiration du token
+	 */
+	record CachedPrincipal(UserDetails principal, Date expiration) {
+	}
+}
@@ -0,0 +1,168 @@
+package be.labil.anacarde.application.service;
+
+import be.labil.anacarde.domain.model.User;
+import be.labil.anacarde.infrastructure.util.TransactionHelper;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+
+@Service
+public class AuthenticatedPrincipalCacheImpl implements AuthenticatedPrincipalCache {
+	private static final Logger log = LoggerFactory
+			.getLogger(AuthenticatedPrincipalCacheImpl.class);
+	public static final String INVALIDATION_CHANNEL = "security:principals";
+	private final Map<String, Entry> entries;
+	// Incrémentée à chaque invalidation : un chargement concurrent n'est alors pas mis en cache
+	private final AtomicLong generation = new AtomicLong();
+	private final long ttlMs;
+	private final StringRedisTemplate redisTemplate;
+	private final boolean redisNotificationsEnabled;
+
+	@Autowired
+	public AuthenticatedPrincipalCacheImpl(StringRedisTemplate redisTemplate,
+			@Value("${app.security.principal-cache.capacity:10000}") int capacity,
+			@Value("${app.security.principal-cache.ttl-ms:300000}") long ttlMs,
+			@Value("${app.redis.notifications.enabled:true}") boolean redisNotificationsEnabled) {
+		this.redisTemplate = redisTemplate;
+		this.ttlMs = ttlMs;
+		this.redisNotificationsEnabled = redisNotificationsEnabled;
+		// LRU borné : les tokens les moins utilisés sont évincés en premier
+		this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				return size() > capacity;
+			}
+		});
+	}
+
+	@Override
+	public UserDetails get(String token, Function<String, CachedPrincipal> loader) {
+		String key = hash(token);
+		long now = System.currentTimeMillis();
+		Entry entry = entries.get(key);
+		if (entry != null) {
+			if (entry.expiresAtMs() > now) {
+				return entry.snapshot().toPrincipal();
+			}
+			entries.remove(key);
+		}
+
+		long loadedGeneration = generation.get();
+		CachedPrincipal loaded = loader.apply(token);
+		if (generation.get() == loadedGeneration) {
+			long expiresAtMs = Math.min(now + ttlMs, loaded.expiration().getTime());
+			entries.put(key,
+					new Entry(PrincipalSnapshot.of(loaded.principal()), expiresAtMs));
+		}
+		return loaded.principal();
+	}
+
+	@Override
+	public void invalidateUser(Integer userId) {
+		TransactionHelper.afterCommit(() -> {
+			evict(userId);
+			publishInvalidation(userId);
+		});
+	}
+
+	@Override
+	public void evict(Integer userId) {
+		generation.incrementAndGet();
+		synchronized (entries) {
+			entries.values().removeIf(entry -> userId.equals(entry.snapshot().userId()));
+		}
+		log.debug("[Security] Principal de l'utilisateur {} retiré du cache", userId);
+	}
+
+	@Override
+	public void clear() {
+		generation.incrementAndGet();
+		entries.clear();
+	}
+
+	private void publishInvalidation(Integer userId) {
+		if (!redisNotificationsEnabled) {
+			return;
+		}
+		try {
+			redisTemplate.convertAndSend(INVALIDATION_CHANNEL, String.valueOf(userId));
+		} catch (Exception e) {
+			log.warn("[Security] Échec de la publication de l'invalidation du principal", e);
+		}
+	}
+
+	// Seule l'empreinte du token est conservée en mémoire, jamais le token lui-même
+	private static String hash(String token) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256")
+					.digest(token.getBytes(StandardCharsets.UTF_8));
+			return Base64.getEncoder().withoutPadding().encodeToString(digest);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 indisponible", e);
+		}
+	}
+
+	/**
+	 * Utilisateur en cache et instant d'expiration de l'entrée (durée de vie du cache ou
+	 * expiration du token, au premier des deux termes).
+	 */
+	private record Entry(PrincipalSnapshot snapshot, long expiresAtMs) {
+	}
+
+	/**
+	 * Copie immuable des informations d'autorisation d'un utilisateur : seule cette copie est
+	 * partagée entre les requêtes, jamais l'entité JPA chargée par le filtre. Chaque requête
+	 * reçoit un nouveau principal reconstruit à partir d'elle.
+	 *
+	 * @param userId
+	 *            l'ID de l'utilisateur, ou {@code null} si le principal n'est pas un {@link User}
+	 * @param type
+	 *            la classe concrète de l'utilisateur, dont dépendent ses rôles
+	 */
+	private record PrincipalSnapshot(Integer userId, Class<? extends User> type, String username,
+			List<GrantedAuthority> authorities, boolean enabled) {
+
+		static PrincipalSnapshot of(UserDetails principal) {
+			List<GrantedAuthority> authorities = List.copyOf(principal.getAuthorities());
+			if (principal instanceof User user) {
+				return new PrincipalSnapshot(user.getId(), Hibernate.getClass(user),
+						user.getUsername(), authorities, user.isEnabled());
+			}
+			return new PrincipalSnapshot(null, null, principal.getUsername(), authorities,
+					principal.isEnabled());
+		}
+
+		UserDetails toPrincipal() {
+			if (type == null) {
+				return org.springframework.security.core.userdetails.User.withUsername(username)
+						.password("").authorities(authorities).disabled(!enabled).build();
+			}
+			try {
+				User user = type.getDeclaredConstructor().newInstance();
+				user.setId(userId);
+				user.setEmail(username);
+				user.setEnabled(enabled);
+				return user;
+			} catch (ReflectiveOperationException e) {
+				throw new IllegalStateException(
+						"Impossible de reconstruire le principal de type " + type.getName(), e);
+			}
+		}
+	}
+}
@@ -3,6 +3,7 @@ package be.labil.anacarde.application.service;
 
 import be.labil.anacarde.domain.dto.db.BidDto;
 import be.labil.anacarde.domain.dto.write.BidUpdateDto;
+import be.labil.anacarde.infrastructure.util.KeysetCursor.CursorPage;
 import java.util.List;
 import org.springframework.data.repository.query.Param;
 import org.springframework.security.access.annotation.Secured;
@@ -36,11 +37,19 @@ public interface BidService {
 	BidDto getBidById(Integer bidId);
 
 	/**
-	 * Récupère toutes les offres du système.
+	 * Récupère les offres du système, optionnellement filtrées par enchère, triées par enchère puis
+	 * par identifiant.
 	 *
-	 * @return Une List de BidDto représentant toutes les offres.
+	 * @param auctionId
+	 *            L'identifiant de l'enchère dont on veut les offres, ou {@code null}.
+	 * @param limit
+	 *            Le nombre maximum d'offres à obtenir, ou {@code null} pour toutes
+	 *            (la taille par défaut s'applique lorsqu'un curseur est fourni).
+	 * @param cursor
+	 *            Le curseur de la page à obtenir, ou {@code null} pour la première page.
+	 * @return Une page de BidDto, avec le curseur de la page suivante.
 	 */
-	List<BidDto> listBids(Integer auctionId);
+	CursorPage<BidDto> listBids(Integer auctionId, Integer limit, String cursor);
 
 	/**
 	 * Mise à jour de l'offre identifiée par l'ID donné avec les informations fournies dans le
@@ -3,22 +3,27 @@ package be.labil.anacarde.application.service;
 import be.labil.anacarde.application.exception.ApiErrorCode;
 import be.labil.anacarde.application.exception.ApiErrorException;
 import be.labil.anacarde.application.exception.ResourceNotFoundException;
+import be.labil.anacarde.application.service.AuctionOrderBookService.OrderBook;
 import be.labil.anacarde.domain.dto.db.BidDto;
 import be.labil.anacarde.domain.dto.db.GlobalSettingsDto;
 import be.labil.anacarde.domain.dto.write.BidUpdateDto;
 import be.labil.anacarde.domain.mapper.BidMapper;
-import be.labil.anacarde.domain.model.Auction;
 import be.labil.anacarde.domain.model.Bid;
 import be.labil.anacarde.domain.model.TradeStatus;
+import be.labil.anacarde.domain.model.TradeStatusCode;
 import be.labil.anacarde.infrastructure.persistence.AuctionRepository;
 import be.labil.anacarde.infrastructure.persistence.BidRepository;
-import be.labil.anacarde.infrastructure.persistence.TradeStatusRepository;
+import be.labil.anacarde.infrastructure.util.KeysetCursor;
+import be.labil.anacarde.infrastructure.util.KeysetCursor.CursorPage;
 import be.labil.anacarde.infrastructure.util.PersistenceHelper;
+import be.labil.anacarde.infrastructure.util.TransactionHelper;
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 import lombok.AllArgsConstructor;
+import org.hibernate.Hibernate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
@@ -30,35 +35,41 @@ import org.springframework.transaction.annotation.Transactional;
 @AllArgsConstructor
 public class BidServiceImpl implements BidService {
 	private static final Logger log = LoggerFactory.getLogger(BidServiceImpl.class);
-	private final TradeStatusRepository tradeStatusRepository;
+	private final TradeStatusRegistry tradeStatusRegistry;
 	private final BidRepository bidRepository;
 	private final BidMapper bidMapper;
 	private final PersistenceHelper persistenceHelper;
 	private final GlobalSettingsService globalSettingsService;
 	private final AuctionRepository auctionRepository;
-	private final NotificationSseServiceImpl notificationSseService;
+	private final SseFanOutService sseFanOutService;
 	private final AuctionSseServiceImpl auctionSseService;
+	private final AuctionOrderBookService auctionOrderBookService;
 
 	@Override
 	public BidDto createBid(BidUpdateDto dto) {
-		checkBidSettings(dto);
+		GlobalSettingsDto settings = globalSettingsService.getGlobalSettings();
+		checkBidSettings(dto, settings);
 		checkAuctionHasAcceptedBid(dto.getAuctionId());
 
 		Bid bid = bidMapper.toEntity(dto);
 
 		if (dto.getStatusId() == null) {
-			TradeStatus pendingStatus = tradeStatusRepository.findStatusPending();
-			if (pendingStatus == null) {
-				throw new ResourceNotFoundException("Status non trouvé");
-			}
-			bid.setStatus(pendingStatus);
+			bid.setStatus(tradeStatusRegistry.get(TradeStatusCode.PENDING));
 		}
 
-		Bid full = persistenceHelper.saveAndReload(bidRepository, bid, Bid::getId);
+		placeBidOnAuction(dto, settings);
+		Bid full = bidRepository.save(bid);
+		if (tradeStatusRegistry.is(full.getStatus(), TradeStatusCode.ACCEPTED)) {
+			// Offre créée directement acceptée : elle ferme l'enchère aux offres suivantes
+			auctionRepository.markBidAccepted(full.getAuctionId(), full.getId());
+		}
+		// Pas de flush/clear/rechargement : seules les références nécessaires au DTO sont chargées
+		Hibernate.initialize(full.getTrader());
+		Hibernate.initialize(full.getStatus());
 		BidDto bidDto = bidMapper.toDto(full);
+		auctionOrderBookService.recordBid(full.getAuctionId(), full.getAmount(),
+				full.getTrader().getId());
 
-		Auction auction = auctionRepository.findById(dto.getAuctionId())
-				.orElseThrow(() -> new ResourceNotFoundException("Enchère non trouvée"));
 		// Ajoute l'enchérisseur à la liste des abonnés Redis (si pas déjà abonné)
 		if (full.getTrader() != null && full.getTrader().getUsername() != null) {
 			auctionSseService.addSubscriber(dto.getAuctionId(), full.getTrader().getUsername());
@@ -75,31 +86,20 @@ public class BidServiceImpl implements BidService {
 							? currentBid.getTrader().getUsername()
 							: null)
 					.filter(Objects::nonNull).collect(Collectors.toSet());
-			if (auction.getTrader() != null && auction.getTrader().getUsername() != null) {
-				subscribers.add(auction.getTrader().getUsername());
+			String auctionOwner = auctionRepository.findTraderEmailById(dto.getAuctionId());
+			if (auctionOwner != null) {
+				subscribers.add(auctionOwner);
 			}
 		}
 		log.debug("[SSE] Liste d'abonnés à notifier pour l'enchère " + dto.getAuctionId()
 				+ "(sauf auteur): " + subscribers);
 		String author = full.getTrader() != null ? full.getTrader().getUsername() : null;
-		for (String subKey : subscribers) {
-			if (author != null && author.equals(subKey)) {
-				continue;
-			}
-			notificationSseService.publishEvent(subKey, "newBid", bidDto);
-			log.debug("[SSE] Notification envoyé à " + subKey + " pour nouvelle offre: " + bidDto);
-		}
-
-		Set<String> visitors = auctionSseService.getVisitors(dto.getAuctionId());
-		log.debug("[SSE] Liste de visiteurs à notifier pour rafraîchissement silencieux: "
-				+ visitors);
-		if (visitors != null && !visitors.isEmpty()) {
-			for (String visitorKey : visitors) {
-				auctionSseService.sendEvent(dto.getAuctionId(), "refreshBids", bidDto);
-				log.debug("[SSE] Notification silencieuse envoyée à " + visitorKey
-						+ " pour refreshBids: " + bidDto);
-			}
-		}
+		Set<String> recipients = subscribers;
+		// Diffusion après commit : une offre annulée par un rollback n'est jamais notifiée
+		TransactionHelper.afterCommit(() -> {
+			sseFanOutService.publishToUsers(recipients, author, "newBid", bidDto);
+			sseFanOutService.sendToAuction(dto.getAuctionId(), "refreshBids", bidDto);
+		});
 		return bidDto;
 	}
 
@@ -113,19 +113,21 @@ public class BidServiceImpl implements BidService {
 
 	@Override
 	@Transactional(readOnly = true)
-	public List<BidDto> listBids(Integer auctionId) {
-		List<Bid> bids;
-		if (auctionId != null) {
-			bids = bidRepository.findByAuctionId(auctionId);
-		} else {
-			bids = bidRepository.findAll();
-		}
-		return bids.stream().map(bidMapper::toDto).collect(Collectors.toList());
+	public CursorPage<BidDto> listBids(Integer auctionId, Integer limit, String cursor) {
+		String[] after = KeysetCursor.decode(cursor, 2);
+		Integer afterAuctionId = after != null ? KeysetCursor.toInteger(after[0]) : null;
+		Integer afterId = after != null ? KeysetCursor.toInteger(after[1]) : null;
+
+		List<Bid> bids = bidRepository.findPage(auctionId, afterAuctionId, afterId,
+				KeysetCursor.limit(limit, cursor));
+		return KeysetCursor
+				.page(bids, limit, cursor, b -> KeysetCursor.encode(b.getAuctionId(), b.getId()))
+				.map(bidMapper::toDto);
 	}
 
 	@Override
 	public BidDto updateBid(Integer id, BidUpdateDto bidDetailDto) {
-		checkBidSettings(bidDetailDto);
+		checkBidSettings(bidDetailDto, globalSettingsService.getGlobalSettings());
 
 		Bid existingBid = bidRepository.findById(id)
 				.orElseThrow(() -> new ResourceNotFoundException("Offre non trouvée"));
@@ -133,69 +135,109 @@ public class BidServiceImpl implements BidService {
 		Bid updatedBid = bidMapper.partialUpdate(bidDetailDto, existingBid);
 
 		Bid full = persistenceHelper.saveAndReload(bidRepository, updatedBid, Bid::getId);
+		auctionRepository.refreshBidStats(full.getAuctionId(),
+				tradeStatusRegistry.getId(TradeStatusCode.ACCEPTED));
+		auctionOrderBookService.evict(full.getAuctionId());
 		return bidMapper.toDto(full);
 	}
 
 	@Override
 	public BidDto acceptBid(Integer id) {
-		TradeStatus acceptedStatus = tradeStatusRepository.findStatusAccepted();
-		if (acceptedStatus == null) {
-			throw new ResourceNotFoundException("Status non trouvé");
-		}
+		TradeStatus acceptedStatus = tradeStatusRegistry.get(TradeStatusCode.ACCEPTED);
 
 		// Check another accepted bid does not exist
 		Bid existingBid = bidRepository.findById(id)
 				.orElseThrow(() -> new ResourceNotFoundException("Offre non trouvée"));
 		checkAuctionHasAcceptedBid(existingBid.getAuctionId());
+		// Réservée sur la ligne de l'enchère : une acceptation ou une offre concurrente échoue
+		if (auctionRepository.markBidAccepted(existingBid.getAuctionId(), id) == 0) {
+			auctionOrderBookService.evict(existingBid.getAuctionId());
+			throw new ApiErrorException(HttpStatus.BAD_REQUEST, ApiErrorCode.BAD_REQUEST.code(),
+					"acceptBid", "Impossible d'accepter l'offre");
+		}
 
-		// Accept current bid
-		existingBid.setStatus(acceptedStatus);
-
-		Bid acceptedBid = bidRepository.save(existingBid);
+		// Accepte l'offre et refuse toutes les autres en une seule requête
+		bidRepository.acceptAndRejectOthers(id, existingBid.getAuctionId(),
+				acceptedStatus.getId(), tradeStatusRegistry.getId(TradeStatusCode.REJECTED));
+		auctionOrderBookService.recordAccepted(existingBid.getAuctionId());
 
-		// Reject all other bids
-		List<BidDto> otherBids = listBids(existingBid.getAuctionId());
-		for (BidDto bidDto : otherBids) {
-			if (bidDto.getId() != acceptedBid.getId()) {
-				rejectBid(bidDto.getId());
+		// L'entité est détachée par la mise à jour : le status n'est modifié qu'en mémoire
+		existingBid.setStatus(acceptedStatus);
+		BidDto bidDto = bidMapper.toDto(existingBid);
+
+		String winner = existingBid.getTrader() != null
+				? existingBid.getTrader().getUsername()
+				: null;
+		TransactionHelper.afterCommit(() -> {
+			if (winner != null) {
+				sseFanOutService.publishToUsers(List.of(winner), null, "bidAccepted", bidDto);
 			}
-		}
-
-		return bidMapper.toDto(acceptedBid);
+			sseFanOutService.sendToAuction(bidDto.getAuctionId(), "refreshBids", bidDto);
+		});
+		return bidDto;
 	}
 
 	@Override
 	public BidDto rejectBid(Integer id) {
-		TradeStatus rejectedStatus = tradeStatusRepository.findStatusRejected();
-		if (rejectedStatus == null) {
-			throw new ResourceNotFoundException("Status non trouvé");
-		}
+		TradeStatus rejectedStatus = tradeStatusRegistry.get(TradeStatusCode.REJECTED);
 
 		Bid existingBid = bidRepository.findById(id)
 				.orElseThrow(() -> new ResourceNotFoundException("Offre non trouvée"));
 		existingBid.setStatus(rejectedStatus);
 
-		Bid saved = bidRepository.save(existingBid);
+		Bid saved = bidRepository.saveAndFlush(existingBid);
+		// Le refus de l'offre acceptée rouvre l'enchère
+		auctionRepository.refreshBidStats(saved.getAuctionId(),
+				tradeStatusRegistry.getId(TradeStatusCode.ACCEPTED));
+		auctionOrderBookService.evict(saved.getAuctionId());
 		return bidMapper.toDto(saved);
 	}
 
 	@Override
 	public void deleteBid(Integer id) {
-		if (!bidRepository.existsById(id)) {
-			throw new ResourceNotFoundException("Offre non trouvée");
+		Bid existingBid = bidRepository.findById(id)
+				.orElseThrow(() -> new ResourceNotFoundException("Offre non trouvée"));
+		bidRepository.delete(existingBid);
+		bidRepository.flush();
+		auctionRepository.refreshBidStats(existingBid.getAuctionId(),
+				tradeStatusRegistry.getId(TradeStatusCode.ACCEPTED));
+		auctionOrderBookService.evict(existingBid.getAuctionId());
+	}
+
+	/**
+	 * Réserve la place de l'offre sur l'enchère via une mise à jour conditionnelle unique. Les
+	 * règles de surenchère, l'absence d'offre acceptée et l'interdiction de deux offres
+	 * consécutives du même trader sont réévaluées par la base de données sous verrou de ligne, ce
+	 * qui empêche deux offres concurrentes de valider toutes deux le même état de l'enchère.
+	 */
+	private void placeBidOnAuction(BidUpdateDto dto, GlobalSettingsDto settings) {
+		BigDecimal minIncrement = settings.getMinIncrement() != null
+				&& settings.getMinIncrement() > 0
+						? BigDecimal.valueOf(settings.getMinIncrement())
+						: BigDecimal.ZERO;
+		int updated = auctionRepository.placeBid(dto.getAuctionId(), dto.getAmount(),
+				dto.getTraderId(), Boolean.TRUE.equals(settings.getForceBetterBids()),
+				minIncrement);
+		if (updated == 0) {
+			if (!auctionRepository.existsById(dto.getAuctionId())) {
+				throw new ResourceNotFoundException("Enchère non trouvée");
+			}
+			// Le carnet d'ordres local est en retard sur la base : il sera reconstruit
+			auctionOrderBookService.evict(dto.getAuctionId());
+			throw new ApiErrorException(HttpStatus.CONFLICT, ApiErrorCode.CONFLICT.code(),
+					"amount", "L'enchère a été modifiée entre-temps, veuillez réessayer");
 		}
-		bidRepository.deleteById(id);
 	}
 
-	private void checkBidSettings(BidUpdateDto bidUpdateDto) {
-		GlobalSettingsDto settings = globalSettingsService.getGlobalSettings();
-		List<Bid> currentBids = null;
+	private void checkBidSettings(BidUpdateDto bidUpdateDto, GlobalSettingsDto settings) {
+		OrderBook orderBook = auctionOrderBookService.getOrderBook(bidUpdateDto.getAuctionId());
+		if (!orderBook.hasBids()) {
+			return;
+		}
+		double bestAmount = orderBook.bestAmount().doubleValue();
 
 		if (settings.getForceBetterBids()) {
-			currentBids = bidRepository.findByAuctionId(bidUpdateDto.getAuctionId());
-
-			if (currentBids.size() > 0 && bidUpdateDto.getAmount().doubleValue() <= currentBids
-					.getLast().getAmount().doubleValue()) {
+			if (bidUpdateDto.getAmount().doubleValue() <= bestAmount) {
 				throw new ApiErrorException(HttpStatus.BAD_REQUEST, ApiErrorCode.BAD_REQUEST.code(),
 						"forceBetterBids",
 						"Une nouvelle offre doit être meilleure que la dernière");
@@ -203,12 +245,8 @@ public class BidServiceImpl implements BidService {
 		}
 
 		if (settings.getMinIncrement() != null && settings.getMinIncrement() > 0) {
-			if (currentBids == null) {
-				currentBids = bidRepository.findByAuctionId(bidUpdateDto.getAuctionId());
-			}
-
-			if (currentBids.size() > 0 && bidUpdateDto.getAmount().doubleValue() < currentBids
-					.getLast().getAmount().doubleValue() + settings.getMinIncrement()) {
+			if (bidUpdateDto.getAmount().doubleValue() < bestAmount
+					+ settings.getMinIncrement()) {
 				throw new ApiErrorException(HttpStatus.BAD_REQUEST, ApiErrorCode.BAD_REQUEST.code(),
 						"minIncrement", "Une nouvelle offre doit être meilleure de "
 								+ settings.getMinIncrement() + " CFA que la dernière");
@@ -217,13 +255,7 @@ public class BidServiceImpl implements BidService {
 	}
 
 	private void checkAuctionHasAcceptedBid(Integer auctionId) {
-		TradeStatus acceptedStatus = tradeStatusRepository.findStatusAccepted();
-		if (acceptedStatus == null) {
-			throw new ResourceNotFoundException("Status non trouvé");
-		}
-
-		List<Bid> relatedBids = bidRepository.findByAuctionId(auctionId);
-		if (relatedBids.stream().anyMatch(b -> b.getStatus().equals(acceptedStatus))) {
+		if (auctionOrderBookService.getOrderBook(auctionId).accepted()) {
 			throw new ApiErrorException(HttpStatus.BAD_REQUEST, ApiErrorCode.BAD_REQUEST.code(),
 					"acceptBid", "Impossible d'accepter l'offre");
 		}
@@ -5,6 +5,7 @@ import be.labil.anacarde.domain.dto.db.ContractOfferDto;
 import be.labil.anacarde.domain.dto.write.ContractOfferUpdateDto;
 import be.labil.anacarde.domain.mapper.ContractOfferMapper;
 import be.labil.anacarde.domain.model.ContractOffer;
+import be.labil.anacarde.domain.model.ContractOfferStatus;
 import be.labil.anacarde.infrastructure.persistence.ContractOfferRepository;
 import be.labil.anacarde.infrastructure.util.PersistenceHelper;
 import java.util.List;
@@ -35,7 +36,7 @@ public class ContractOfferServiceImpl implements ContractOfferService {
 			Integer buyerId) {
 
 		ContractOffer contractOffer = contractOfferRepository
-				.findValidContractOffer(qualityId, sellerId, buyerId, "Accepté")
+				.findValidContractOffer(qualityId, sellerId, buyerId, ContractOfferStatus.ACCEPTED)
 				.orElseThrow(() -> new ResourceNotFoundException(
 						"Aucun contrat trouvé avec les paramètres fournis"));
 
@@ -78,22 +79,15 @@ public class ContractOfferServiceImpl implements ContractOfferService {
 		// Accept current contract offer
 		ContractOffer existingOffer = contractOfferRepository.findById(id)
 				.orElseThrow(() -> new ResourceNotFoundException("Offre de contrat non trouvée"));
-		existingOffer.setStatus("Accepté");
+		existingOffer.setStatus(ContractOfferStatus.ACCEPTED);
 
-		ContractOffer acceptedOffer = contractOfferRepository.save(existingOffer);
+		// Reject all other contract offers with the same quality, buyer and seller, in one update
+		// (the accepted status is flushed first)
+		contractOfferRepository.rejectOtherContractOffers(existingOffer.getId(),
+				existingOffer.getQuality().getId(), existingOffer.getSeller().getId(),
+				existingOffer.getBuyer().getId(), ContractOfferStatus.REJECTED);
 
-		// Reject all other contract offers with the same quality, buyer and seller
-		List<ContractOffer> otherOffers = contractOfferRepository
-				.findByQualityIdAndSellerIdAndBuyerId(existingOffer.getQuality().getId(),
-						existingOffer.getSeller().getId(), existingOffer.getBuyer().getId());
-
-		for (ContractOffer offer : otherOffers) {
-			if (!offer.getId().equals(acceptedOffer.getId())) {
-				rejectContractOffer(offer.getId());
-			}
-		}
-
-		return contractOfferMapper.toDto(acceptedOffer);
+		return contractOfferMapper.toDto(existingOffer);
 	}
 
 	@Override
@@ -101,7 +95,7 @@ public class ContractOfferServiceImpl implements ContractOfferService {
 
 		ContractOffer existingOffer = contractOfferRepository.findById(id)
 				.orElseThrow(() -> new ResourceNotFoundException("Offre de contrat non trouvée"));
-		existingOffer.setStatus("Refusé");
+		existingOffer.setStatus(ContractOfferStatus.REJECTED);
 
 		ContractOffer saved = contractOfferRepository.save(existingOffer);
 		return contractOfferMapper.toDto(saved);
@@ -16,7 +16,8 @@ public interface DatabaseService {
 	boolean isInitialized();
 
 	/**
-	 * Supprime la base de données.
+	 * Supprime le contenu de la base de données (TRUNCATE des tables applicatives) et recrée les
+	 * tables Quartz.
 	 *
 	 * @throws IOException
 	 *             si une erreur survient lors de la suppression de la base de données.
@@ -30,4 +31,12 @@ public interface DatabaseService {
 	 *             si une erreur survient lors de la création de la base de données.
 	 */
 	void createDatabase() throws IOException;
+
+	/**
+	 * Peuple la base avec le jeu de données volumineux configuré par {@code app.init.bulk.*}, pour
+	 * les tests de charge. Sans effet si aucun volume n'est configuré. Doit être appelé après
+	 * {@link #createDatabase()}, dont il remplace les données de démonstration ; il l'est
+	 * automatiquement au démarrage lorsque la base vient d'être créée.
+	 */
+	void seedBulkData();
 }
@@ -1,5 +1,6 @@
 package be.labil.anacarde.application.service;
 
+import be.labil.anacarde.application.service.export.DashboardService;
 import be.labil.anacarde.domain.dto.db.*;
 import be.labil.anacarde.domain.dto.db.product.HarvestProductDto;
 import be.labil.anacarde.domain.dto.db.product.ProductDto;
@@ -13,6 +14,7 @@ import be.labil.anacarde.domain.mapper.DocumentMapper;
 import be.labil.anacarde.domain.mapper.QualityControlMapper;
 import be.labil.anacarde.domain.mapper.QualityMapper;
 import be.labil.anacarde.domain.model.*;
+import be.labil.anacarde.infrastructure.datafaker.BulkDataSeeder;
 import be.labil.anacarde.infrastructure.importdata.RegionCityImportService;
 import be.labil.anacarde.infrastructure.persistence.*;
 import be.labil.anacarde.infrastructure.persistence.user.UserRepository;
@@ -21,6 +23,8 @@ import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.Statement;
 import java.time.*;
 import java.util.*;
 import java.util.function.Function;
@@ -31,11 +35,16 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.datafaker.Faker;
 import org.apache.commons.io.IOUtils;
+import org.hibernate.Session;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.Point;
 import org.locationtech.jts.geom.PrecisionModel;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.core.env.Environment;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
@@ -45,6 +54,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
@@ -92,22 +102,13 @@ public class DatabaseServiceImpl implements DatabaseService {
 
 	// --- Injected Dependencies (Final with Lombok RequiredArgsConstructor) ---
 	private final UserRepository userRepository;
-	private final LanguageRepository languageRepository;
-	private final StoreRepository storeRepository;
-	private final ProductRepository productRepository;
 	private final AuctionRepository auctionRepository;
-	private final AuctionStrategyRepository auctionStrategyRepository;
 	private final BidRepository bidRepository;
-	private final TradeStatusRepository tradeStatusRepository;
-	private final FieldRepository fieldRepository;
 	private final CooperativeRepository cooperativeRepository;
 	private final DocumentRepository documentRepository;
 	private final QualityRepository qualityRepository;
 	private final ContractOfferRepository contractOfferRepository;
 	private final QualityControlRepository qualityControlRepository;
-	private final CityRepository cityRepository;
-	private final RegionRepository regionRepository;
-	private final GlobalSettingsRepository globalSettingsRepository;
 	private final NewsRepository newsRepository;
 	private final NewsCategoryRepository newsCategoryRepository;
 
@@ -116,6 +117,7 @@ public class DatabaseServiceImpl implements DatabaseService {
 	private final UserService userService;
 	private final AuctionService auctionService;
 	private final TradeStatusService tradeStatusService;
+	private final TradeStatusRegistry tradeStatusRegistry;
 	private final BidService bidService;
 	private final LanguageService languageService;
 	private final CooperativeService cooperativeService;
@@ -123,6 +125,11 @@ public class DatabaseServiceImpl implements DatabaseService {
 	private final FieldService fieldService;
 	private final RegionCityImportService regionCityImportService;
 	private final GlobalSettingsService globalSettingsService;
+	private final AuctionOrderBookService auctionOrderBookService;
+	private final AuthenticatedPrincipalCache principalCache;
+	private final AuctionDailyStatsService auctionDailyStatsService;
+	private final DashboardService dashboardService;
+	private final BulkDataSeeder bulkDataSeeder;
 
 	private final EntityManager entityManager;
 	private final Environment environment;
@@ -139,6 +146,7 @@ public class DatabaseServiceImpl implements DatabaseService {
 	private String defaultAdminPassword;
 
 	// --- Internal State ---
+	private volatile boolean bulkSeedPending;
 	private final Faker faker = new Faker(Locale.of("fr")); // Use French Faker locale
 	private final GeometryFactory geometryFactory = new GeometryFactory(new PrecisionModel(), 4326);
 	private final Random random = new Random();
@@ -200,7 +208,6 @@ public class DatabaseServiceImpl implements DatabaseService {
 	private final ResourceLoader resourceLoader;
 	private static final String CREATE_VIEW_EXPORT_AUCTION = "classpath:sql/export_auctions.sql";
 	private static final String CREATE_VIEW_DASHBOARD_CARDS = "classpath:sql/dashboard_cards.sql";
-	private static final String CREATE_VIEW_DASHBOARD_GRAPHIC = "classpath:sql/dashboard_graphic.sql";
 	private static final String QUARTZ_INIT_SCHEMA_SQL = "classpath:quartz-custom-init.sql";
 
 	@Override
@@ -217,34 +224,14 @@ public class DatabaseServiceImpl implements DatabaseService {
 			// Ignore Redis errors during testing
 		}
 
+		auctionOrderBookService.clear();
+		tradeStatusRegistry.invalidate();
+		globalSettingsService.invalidate();
+		principalCache.clear();
+		dashboardService.invalidate();
+
 		log.info("Dropping application tables...");
-		userRepository.findAll().forEach(p -> {
-			if (p instanceof Producer c) {
-				c.setCooperative(null);
-				userRepository.save(c);
-			}
-		});
-		userRepository.flush();
-		globalSettingsRepository.deleteAllInBatch();
-		cooperativeRepository.deleteAllInBatch();
-		contractOfferRepository.deleteAllInBatch();
-		bidRepository.deleteAllInBatch();
-		auctionRepository.deleteAllInBatch();
-		tradeStatusRepository.deleteAllInBatch();
-		auctionStrategyRepository.deleteAllInBatch();
-		productRepository.deleteAllInBatch();
-		documentRepository.deleteAllInBatch();
-		qualityControlRepository.deleteAllInBatch();
-		qualityRepository.deleteAllInBatch();
-		qualityTypeRepository.deleteAllInBatch();
-		fieldRepository.deleteAllInBatch();
-		storeRepository.deleteAllInBatch();
-		userRepository.deleteAllInBatch();
-		cityRepository.deleteAllInBatch();
-		regionRepository.deleteAllInBatch();
-		languageRepository.deleteAllInBatch();
-		newsRepository.deleteAllInBatch();
-		newsCategoryRepository.deleteAllInBatch();
+		truncateApplicationTables();
 		log.info("Application tables dropped.");
 
 		log.info("Dropping Quartz tables...");
@@ -290,13 +277,43 @@ public class DatabaseServiceImpl implements DatabaseService {
 		log.info("→ createDatabase() (compatibilité) ←");
 		setupSystemAuthentication();
 		initDatabase();
-		if (initTestData) {
+		// Le peuplement volumineux remplace les données de démonstration, une fois la base validée
+		bulkSeedPending = bulkDataSeeder.isEnabled();
+		if (initTestData && !bulkSeedPending) {
 			initTestData();
 		}
 		initViews();
 		clearSystemAuthentication();
 	}
 
+	/**
+	 * Lance le peuplement volumineux demandé par le dernier createDatabase() exécuté au démarrage,
+	 * après validation de sa transaction.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public void seedPendingBulkData() {
+		if (bulkSeedPending) {
+			bulkSeedPending = false;
+			seedBulkData();
+		}
+	}
+
+	/**
+	 * Écrit le jeu de données volumineux configuré par {@code app.init.bulk.*}, puis reconstruit
+	 * l'agrégat journalier des enchères. Hors transaction : le peuplement écrit sur ses propres
+	 * connexions et doit voir les données de référence déjà validées par createDatabase().
+	 */
+	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public void seedBulkData() {
+		if (!bulkDataSeeder.isEnabled()) {
+			return;
+		}
+		bulkDataSeeder.seed();
+		auctionDailyStatsService.rebuild();
+	}
+
 	/**
 	 * Initialise toutes les données de référence.
 	 */
@@ -342,10 +359,63 @@ public class DatabaseServiceImpl implements DatabaseService {
 		log.info("Données de test générées ✔");
 	}
 
+	/**
+	 * Vide toutes les tables des entités mappées (les vues et les tables Quartz sont exclues) en
+	 * une passe de TRUNCATE, bien plus rapide que des DELETE table par table sur de gros volumes.
+	 * Les séquences ne sont pas réinitialisées.
+	 */
+	private void truncateApplicationTables() {
+		SessionFactoryImplementor sessionFactory = entityManager.getEntityManagerFactory()
+				.unwrap(SessionFactoryImplementor.class);
+		Set<String> mapped = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+		sessionFactory.getMappingMetamodel().forEachEntityDescriptor(
+				descriptor -> mapped.addAll(Arrays.asList(descriptor.getSynchronizationSpaces())));
+		sessionFactory.getMappingMetamodel().forEachCollectionDescriptor(
+				descriptor -> mapped.addAll(Arrays.asList(descriptor.getCollectionSpaces())));
+		boolean postgres = sessionFactory.getJdbcServices()
+				.getDialect() instanceof PostgreSQLDialect;
+
+		entityManager.flush();
+		entityManager.unwrap(Session.class).doWork(connection -> {
+			List<String> tables = new ArrayList<>();
+			try (ResultSet result = connection.getMetaData().getTables(connection.getCatalog(),
+					connection.getSchema(), "%", null)) {
+				while (result.next()) {
+					String type = result.getString("TABLE_TYPE");
+					String name = result.getString("TABLE_NAME");
+					// H2 désigne les tables par « BASE TABLE », PostgreSQL par « TABLE »
+					if (("TABLE".equals(type) || "BASE TABLE".equals(type))
+							&& mapped.contains(name)) {
+						tables.add(name);
+					}
+				}
+			}
+			if (tables.isEmpty()) {
+				return;
+			}
+			try (Statement statement = connection.createStatement()) {
+				if (postgres) {
+					statement.execute("TRUNCATE TABLE " + String.join(", ", tables) + " CASCADE");
+				} else {
+					// H2 ne tronque qu'une table à la fois et refuse les tables référencées
+					statement.execute("SET REFERENTIAL_INTEGRITY FALSE");
+					try {
+						for (String table : tables) {
+							statement.execute("TRUNCATE TABLE " + table);
+						}
+					} finally {
+						statement.execute("SET REFERENTIAL_INTEGRITY TRUE");
+					}
+				}
+			}
+			log.info("Truncated {} tables.", tables.size());
+		});
+		entityManager.clear();
+	}
+
 	private void initViews() throws IOException {
 		executeScript(CREATE_VIEW_EXPORT_AUCTION);
 		executeScript(CREATE_VIEW_DASHBOARD_CARDS);
-		executeScript(CREATE_VIEW_DASHBOARD_GRAPHIC);
 	}
 
 	private void executeScript(String location) throws IOException {
@@ -1025,6 +1095,10 @@ public class DatabaseServiceImpl implements DatabaseService {
 					// 20% de chance ou pas de bidder local disponible
 					bidder = potentialBidders.get(random.nextInt(potentialBidders.size()));
 				}
+				// Un trader ne peut pas placer deux offres consécutives sur la même enchère
+				if (!bids.isEmpty() && bids.getLast().getTraderId().equals(bidder.getId())) {
+					continue;
+				}
 
 				// borne temporelle max pour cette offre
 				LocalDateTime maxBidTime = auction.getExpirationDate().isBefore(generationTime)
@@ -1556,17 +1630,17 @@ public class DatabaseServiceImpl implements DatabaseService {
 			LocalDateTime creationDate = auction.getExpirationDate();
 			int randomMonths = 3 + random.nextInt(7);
 			LocalDateTime endDate = creationDate.plusMonths(randomMonths);
-			String statut;
+			ContractOfferStatus statut;
 			if (endDate.isBefore(LocalDateTime.now())) {
-				statut = statusExpired.getName();
+				statut = ContractOfferStatus.EXPIRED;
 			} else {
 				double r = random.nextDouble();
 				if (r < 0.6) {
-					statut = statusAccepted.getName();
+					statut = ContractOfferStatus.ACCEPTED;
 				} else if (r < 0.8) {
-					statut = statusOpen.getName();
+					statut = ContractOfferStatus.OPEN;
 				} else {
-					statut = statusRejected.getName();
+					statut = ContractOfferStatus.REJECTED;
 				}
 			}
 
@@ -1,10 +1,15 @@
 package be.labil.anacarde.application.service;
 
+import be.labil.anacarde.application.exception.ApiErrorException;
 import be.labil.anacarde.application.exception.DocumentStorageException;
 import be.labil.anacarde.application.exception.ResourceNotFoundException;
+import be.labil.anacarde.domain.dto.db.DirectUploadDto;
 import be.labil.anacarde.domain.dto.db.DocumentDto;
+import be.labil.anacarde.domain.dto.write.DirectUploadRequestDto;
 import java.io.InputStream;
+import java.net.URI;
 import java.util.List;
+import org.springframework.core.io.Resource;
 import org.springframework.data.repository.query.Param;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.multipart.MultipartFile;
@@ -39,6 +44,98 @@ public interface DocumentService {
 	 */
 	DocumentDto createDocumentQualityControl(Integer qualityControlId, MultipartFile file);
 
+	/**
+	 * Crée un document à partir du fichier reçu tel quel dans le corps de la requête. Le fichier
+	 * est écrit dans le stockage au fil de sa lecture, sans fichier temporaire intermédiaire.
+	 *
+	 * @param userId
+	 *            Identifiant de l'utilisateur propriétaire du document.
+	 * @param originalFilename
+	 *            Nom d'origine du fichier.
+	 * @param contentType
+	 *            Type MIME annoncé, ou {@code null} pour le détecter.
+	 * @param content
+	 *            Flux du fichier.
+	 * @return Le DocumentDto complet.
+	 */
+	@PreAuthorize("@authz.isAdmin(principal) or #userId.equals(principal.id)")
+	DocumentDto createDocumentUser(@Param("userId") Integer userId, String originalFilename,
+			String contentType, InputStream content);
+
+	/**
+	 * Crée un document de contrôle qualité à partir du fichier reçu tel quel dans le corps de la
+	 * requête.
+	 *
+	 * @param qualityControlId
+	 *            Identifiant du contrôle qualité propriétaire du document.
+	 * @param originalFilename
+	 *            Nom d'origine du fichier.
+	 * @param contentType
+	 *            Type MIME annoncé, ou {@code null} pour le détecter.
+	 * @param content
+	 *            Flux du fichier.
+	 * @return Le DocumentDto complet.
+	 */
+	DocumentDto createDocumentQualityControl(Integer qualityControlId, String originalFilename,
+			String contentType, InputStream content);
+
+	/**
+	 * Prépare l'envoi direct d'un fichier vers le stockage, sans transiter par l'API. Le document
+	 * n'est créé qu'à la confirmation de l'envoi.
+	 *
+	 * @param userId
+	 *            Identifiant de l'utilisateur propriétaire du document.
+	 * @param request
+	 *            Description du fichier à envoyer.
+	 * @return L'URL signée et les en-têtes de l'envoi.
+	 * @throws ApiErrorException
+	 *             si le stockage ne permet pas l'envoi direct.
+	 */
+	@PreAuthorize("@authz.isAdmin(principal) or #userId.equals(principal.id)")
+	DirectUploadDto prepareDirectUploadUser(@Param("userId") Integer userId,
+			DirectUploadRequestDto request);
+
+	/**
+	 * Confirme un envoi direct et crée le document correspondant, après avoir vérifié que le
+	 * contenu écrit par la session d'envoi correspond à la description. Sans session, seul un
+	 * contenu que l'utilisateur possède déjà peut être rattaché.
+	 *
+	 * @param userId
+	 *            Identifiant de l'utilisateur propriétaire du document.
+	 * @param request
+	 *            Description du fichier envoyé, identique à celle de la préparation.
+	 * @return Le DocumentDto complet.
+	 * @throws ApiErrorException
+	 *             si la session d'envoi manque, ou si le contenu est absent ou ne correspond pas.
+	 */
+	@PreAuthorize("@authz.isAdmin(principal) or #userId.equals(principal.id)")
+	DocumentDto completeDirectUploadUser(@Param("userId") Integer userId,
+			DirectUploadRequestDto request);
+
+	/**
+	 * Prépare l'envoi direct d'un fichier de contrôle qualité vers le stockage.
+	 *
+	 * @param qualityControlId
+	 *            Identifiant du contrôle qualité propriétaire du document.
+	 * @param request
+	 *            Description du fichier à envoyer.
+	 * @return L'URL signée et les en-têtes de l'envoi.
+	 */
+	DirectUploadDto prepareDirectUploadQualityControl(Integer qualityControlId,
+			DirectUploadRequestDto request);
+
+	/**
+	 * Confirme l'envoi direct d'un fichier de contrôle qualité et crée le document correspondant.
+	 *
+	 * @param qualityControlId
+	 *            Identifiant du contrôle qualité propriétaire du document.
+	 * @param request
+	 *            Description du fichier envoyé, identique à celle de la préparation.
+	 * @return Le DocumentDto complet.
+	 */
+	DocumentDto completeDirectUploadQualityControl(Integer qualityControlId,
+			DirectUploadRequestDto request);
+
 	/**
 	 * Recherche les méta-infos d’un document.
 	 *
@@ -73,16 +170,33 @@ public interface DocumentService {
 	List<DocumentDto> listDocumentsByUser(@Param("userId") Integer userId);
 
 	/**
-	 * Fournit un flux {@link InputStream} sur le contenu brut du document.
+	 * Fournit, en une seule lecture des méta-données, le document et une {@link Resource} sur son
+	 * contenu brut. L'empreinte du contenu des documents antérieurs à son introduction est calculée
+	 * et enregistrée à cette occasion. Si le stockage émet des URL signées, seule l'URL de
+	 * téléchargement direct est fournie.
 	 *
 	 * @param id
 	 *            Identifiant du document.
-	 * @return Flux du fichier.
+	 * @return Le document et son contenu.
 	 * @throws ResourceNotFoundException
 	 *             si l’ID n’existe pas.
 	 * @throws DocumentStorageException
-	 *             si la lecture du fichier échoue.
+	 *             si le fichier est illisible.
 	 */
 	@PreAuthorize("@authz.isAdmin(principal) or @ownership.isDocumentOwner(#id, principal.id)")
-	InputStream streamDocumentContent(@Param("id") Integer id) throws DocumentStorageException;
+	DocumentContent loadDocumentContent(@Param("id") Integer id) throws DocumentStorageException;
+
+	/**
+	 * Document et contenu brut à télécharger.
+	 *
+	 * @param document
+	 *            les méta-informations du document
+	 * @param resource
+	 *            le contenu du document, de taille connue, ou {@code null} si {@code directUrl}
+	 *            est fournie
+	 * @param directUrl
+	 *            l'URL signée de téléchargement direct depuis le stockage, ou {@code null}
+	 */
+	record DocumentContent(DocumentDto document, Resource resource, URI directUrl) {
+	}
 }
@@ -1,8 +1,16 @@
 package be.labil.anacarde.application.service;
 
+import be.labil.anacarde.application.exception.ApiErrorCode;
+import be.labil.anacarde.application.exception.ApiErrorException;
+import be.labil.anacarde.application.exception.DocumentStorageException;
 import be.labil.anacarde.application.exception.ResourceNotFoundException;
+import be.labil.anacarde.application.service.storage.DiskStorageUtils;
+import be.labil.anacarde.application.service.storage.PresignedUpload;
 import be.labil.anacarde.application.service.storage.StorageService;
+import be.labil.anacarde.application.service.storage.StreamedUpload;
+import be.labil.anacarde.domain.dto.db.DirectUploadDto;
 import be.labil.anacarde.domain.dto.db.DocumentDto;
+import be.labil.anacarde.domain.dto.write.DirectUploadRequestDto;
 import be.labil.anacarde.domain.mapper.DocumentMapper;
 import be.labil.anacarde.domain.model.Document;
 import be.labil.anacarde.domain.model.QualityControl;
@@ -10,13 +18,21 @@ import be.labil.anacarde.domain.model.User;
 import be.labil.anacarde.infrastructure.persistence.DocumentRepository;
 import be.labil.anacarde.infrastructure.persistence.QualityControlRepository;
 import be.labil.anacarde.infrastructure.persistence.user.UserRepository;
+import java.io.IOException;
 import java.io.InputStream;
+import java.net.URI;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 @Service
@@ -30,12 +46,14 @@ class DocumentServiceImpl implements DocumentService {
 	private final QualityControlRepository qualityControlRepo;
 	private final StorageService storage;
 
+	@Value("${app.storage.stream.max-file-size:10MB}")
+	private DataSize maxStreamedFileSize;
+
 	/* ---------- création ---------- */
 
 	@Override
 	public DocumentDto createDocumentUser(Integer userId, MultipartFile file) {
-		User user = userRepo.findById(userId).orElseThrow(
-				() -> new ResourceNotFoundException("Utilisateur non trouvé : " + userId));
+		User user = findUser(userId);
 
 		Document stored = storage.storeAll(user, List.of(file)).getFirst();
 		stored.setUploadDate(LocalDateTime.now());
@@ -45,9 +63,7 @@ class DocumentServiceImpl implements DocumentService {
 
 	@Override
 	public DocumentDto createDocumentQualityControl(Integer qualityControlId, MultipartFile file) {
-		QualityControl qualityControl = qualityControlRepo.findById(qualityControlId)
-				.orElseThrow(() -> new ResourceNotFoundException(
-						"Contrôle qualité non trouvé : " + qualityControlId));
+		QualityControl qualityControl = findQualityControl(qualityControlId);
 
 		Document stored = storage.storeAll(qualityControl, List.of(file)).getFirst();
 		stored.setUploadDate(LocalDateTime.now());
@@ -55,6 +71,112 @@ class DocumentServiceImpl implements DocumentService {
 		return mapper.toDto(docRepo.save(stored));
 	}
 
+	@Override
+	public DocumentDto createDocumentUser(Integer userId, String originalFilename,
+			String contentType, InputStream content) {
+		User user = findUser(userId);
+
+		Document stored = storage.store(new StreamedUpload(originalFilename, contentType,
+				content, maxStreamedFileSize.toBytes()));
+		stored.setUser(user);
+
+		return mapper.toDto(docRepo.save(stored));
+	}
+
+	@Override
+	public DocumentDto createDocumentQualityControl(Integer qualityControlId,
+			String originalFilename, String contentType, InputStream content) {
+		QualityControl qualityControl = findQualityControl(qualityControlId);
+
+		Document stored = storage.store(new StreamedUpload(originalFilename, contentType,
+				content, maxStreamedFileSize.toBytes()));
+		stored.setQualityControl(qualityControl);
+
+		return mapper.toDto(docRepo.save(stored));
+	}
+
+	/* ---------- envoi direct ---------- */
+
+	@Override
+	@Transactional(readOnly = true)
+	public DirectUploadDto prepareDirectUploadUser(Integer userId, DirectUploadRequestDto request) {
+		findUser(userId);
+		return prepareDirectUpload(request,
+				docRepo.existsByUserIdAndContentHash(userId, request.getContentHash()));
+	}
+
+	@Override
+	public DocumentDto completeDirectUploadUser(Integer userId, DirectUploadRequestDto request) {
+		User user = findUser(userId);
+		Document document = attachDirectUpload(request,
+				docRepo.existsByUserIdAndContentHash(userId, request.getContentHash()));
+		document.setUser(user);
+		return mapper.toDto(docRepo.save(document));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public DirectUploadDto prepareDirectUploadQualityControl(Integer qualityControlId,
+			DirectUploadRequestDto request) {
+		findQualityControl(qualityControlId);
+		return prepareDirectUpload(request, docRepo.existsByQualityControlIdAndContentHash(
+				qualityControlId, request.getContentHash()));
+	}
+
+	@Override
+	public DocumentDto completeDirectUploadQualityControl(Integer qualityControlId,
+			DirectUploadRequestDto request) {
+		QualityControl qualityControl = findQualityControl(qualityControlId);
+		boolean owned = docRepo.existsByQualityControlIdAndContentHash(qualityControlId,
+				request.getContentHash());
+		Document document = attachDirectUpload(request, owned);
+		document.setQualityControl(qualityControl);
+		return mapper.toDto(docRepo.save(document));
+	}
+
+	/**
+	 * Prépare l'envoi direct. L'envoi n'est évité que si le propriétaire possède déjà ce contenu :
+	 * la présence du contenu chez un autre propriétaire n'est jamais révélée.
+	 */
+	private DirectUploadDto prepareDirectUpload(DirectUploadRequestDto request,
+			boolean ownedByOwner) {
+		if (ownedByOwner) {
+			return DirectUploadDto.builder().alreadyStored(true).build();
+		}
+		PresignedUpload upload = storage
+				.presignUpload(request.getContentHash(), request.getSize(),
+						request.getContentType())
+				.orElseThrow(() -> new ApiErrorException(HttpStatus.BAD_REQUEST,
+						ApiErrorCode.BAD_REQUEST.code(), null,
+						"L'envoi direct n'est pas disponible."));
+		return DirectUploadDto.builder().uploadId(upload.uploadId())
+				.uploadUrl(upload.url().toString()).method("PUT").headers(upload.headers())
+				.expiresAt(LocalDateTime.ofInstant(upload.expiresAt(), ZoneId.systemDefault()))
+				.build();
+	}
+
+	/**
+	 * Rattache le contenu envoyé par la session {@code uploadId}, ou à défaut un contenu que le
+	 * propriétaire possède déjà : l'empreinte seule ne donne jamais accès au contenu.
+	 */
+	private Document attachDirectUpload(DirectUploadRequestDto request, boolean ownedByOwner) {
+		String path;
+		if (request.getUploadId() != null) {
+			path = storage.attachUpload(request.getUploadId(), request.getContentHash(),
+					request.getSize());
+		} else if (ownedByOwner) {
+			path = storage.attachStored(request.getContentHash(), request.getSize());
+		} else {
+			throw new ApiErrorException(HttpStatus.BAD_REQUEST, ApiErrorCode.BAD_REQUEST.code(),
+					"uploadId", "L'identifiant d'envoi est requis.");
+		}
+		return Document.builder().originalFilename(request.getOriginalFilename())
+				.size(request.getSize()).contentType(request.getContentType())
+				.extension(DiskStorageUtils.getExt(request.getOriginalFilename()))
+				.contentHash(request.getContentHash()).storagePath(path)
+				.uploadDate(LocalDateTime.now()).build();
+	}
+
 	/* ---------- lecture ---------- */
 
 	@Override
@@ -84,13 +206,36 @@ class DocumentServiceImpl implements DocumentService {
 	/* ---------- streaming ---------- */
 
 	@Override
-	@Transactional(readOnly = true)
-	public InputStream streamDocumentContent(Integer id) {
-		return storage.get(findEntity(id));
+	public DocumentContent loadDocumentContent(Integer id) {
+		Document doc = findEntity(id);
+		Optional<URI> directUrl = storage.presignDownload(doc);
+		if (directUrl.isPresent()) {
+			return new DocumentContent(mapper.toDto(doc), null, directUrl.get());
+		}
+		Resource resource = storage.getResource(doc);
+		if (doc.getContentHash() == null) {
+			try (InputStream in = resource.getInputStream()) {
+				doc.setContentHash(DiskStorageUtils.contentHash(in));
+			} catch (IOException e) {
+				throw new DocumentStorageException("Impossible de lire le document", e);
+			}
+		}
+		return new DocumentContent(mapper.toDto(doc), resource, null);
 	}
 
 	/* ---------- utilitaire ---------- */
 
+	private User findUser(Integer userId) {
+		return userRepo.findById(userId).orElseThrow(
+				() -> new ResourceNotFoundException("Utilisateur non trouvé : " + userId));
+	}
+
+	private QualityControl findQualityControl(Integer qualityControlId) {
+		return qualityControlRepo.findById(qualityControlId)
+				.orElseThrow(() -> new ResourceNotFoundException(
+						"Contrôle qualité non trouvé : " + qualityControlId));
+	}
+
 	private Document findEntity(Integer id) {
 		return docRepo.findById(id)
 				.orElseThrow(() -> new ResourceNotFoundException("Document non trouvé : " + id));
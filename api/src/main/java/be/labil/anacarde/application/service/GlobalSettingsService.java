@@ -6,6 +6,10 @@ import be.labil.anacarde.domain.dto.write.GlobalSettingsUpdateDto;
 /**
  * Ce service offre des méthodes permettant de récupérer et mettre à jour les paramètres globaux du
  * système.
+ * <p>
+ * Les paramètres sont conservés en mémoire sous forme d'un snapshot versionné : seule une mise à
+ * jour (sur ce nœud ou, via Redis, sur un autre nœud) provoque un nouveau chargement depuis la base
+ * de données.
  */
 public interface GlobalSettingsService {
 
@@ -25,4 +29,19 @@ public interface GlobalSettingsService {
 	 * @return Un GlobalSettingsDto représentant les paramètres globaux mis à jour.
 	 */
 	GlobalSettingsDto updateGlobalSettings(GlobalSettingsUpdateDto dto);
+
+	/**
+	 * Invalide le snapshot local : les paramètres seront rechargés depuis la base de données au
+	 * prochain accès.
+	 */
+	void invalidate();
+
+	/**
+	 * Traite un message d'invalidation publié par un nœud après une mise à jour des paramètres. Les
+	 * messages publiés par ce nœud lui-même sont ignorés : son snapshot est déjà à jour.
+	 *
+	 * @param message
+	 *            le message reçu, de la forme {@code <nœud>:<version>}
+	 */
+	void onInvalidation(String message);
 }
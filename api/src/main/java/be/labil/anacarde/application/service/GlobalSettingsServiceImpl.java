@@ -6,26 +6,53 @@ import be.labil.anacarde.domain.dto.write.GlobalSettingsUpdateDto;
 import be.labil.anacarde.domain.mapper.GlobalSettingsMapper;
 import be.labil.anacarde.domain.model.GlobalSettings;
 import be.labil.anacarde.infrastructure.persistence.GlobalSettingsRepository;
-import lombok.RequiredArgsConstructor;
+import be.labil.anacarde.infrastructure.util.TransactionHelper;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @Transactional
-@RequiredArgsConstructor
 public class GlobalSettingsServiceImpl implements GlobalSettingsService {
-
+	private static final Logger log = LoggerFactory.getLogger(GlobalSettingsServiceImpl.class);
+	public static final String INVALIDATION_CHANNEL = "settings:global";
 	private static final Integer SINGLETON_ID = 1;
 
 	private final GlobalSettingsRepository globalSettingsRepository;
 	private final GlobalSettingsMapper globalSettingsMapper;
+	private final StringRedisTemplate redisTemplate;
+	private final boolean redisNotificationsEnabled;
+	private final AtomicLong version = new AtomicLong();
+	private volatile Snapshot snapshot;
+	// Identifie ce nœud dans les messages d'invalidation, pour ignorer les siens
+	private final String nodeId = UUID.randomUUID().toString();
+
+	@Autowired
+	public GlobalSettingsServiceImpl(GlobalSettingsRepository globalSettingsRepository,
+			GlobalSettingsMapper globalSettingsMapper, StringRedisTemplate redisTemplate,
+			@Value("${app.redis.notifications.enabled:true}") boolean redisNotificationsEnabled) {
+		this.globalSettingsRepository = globalSettingsRepository;
+		this.globalSettingsMapper = globalSettingsMapper;
+		this.redisTemplate = redisTemplate;
+		this.redisNotificationsEnabled = redisNotificationsEnabled;
+	}
 
 	@Override
-	@Transactional(readOnly = true)
+	@Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
 	public GlobalSettingsDto getGlobalSettings() {
-		GlobalSettings gs = globalSettingsRepository.findById(SINGLETON_ID).orElseThrow(
-				() -> new ResourceNotFoundException("Réglages globaux non configurés"));
-		return globalSettingsMapper.toDto(gs);
+		Snapshot current = snapshot;
+		if (current == null || current.version() != version.get()) {
+			current = load();
+		}
+		// Copie : l'instance du snapshot est partagée entre les requêtes
+		return globalSettingsMapper.copy(current.settings());
 	}
 
 	@Override
@@ -33,6 +60,57 @@ public class GlobalSettingsServiceImpl implements GlobalSettingsService {
 		GlobalSettings toSave = globalSettingsMapper.toEntity(dto);
 		toSave.setId(1);
 		GlobalSettings saved = globalSettingsRepository.save(toSave);
-		return globalSettingsMapper.toDto(saved);
+		GlobalSettingsDto result = globalSettingsMapper.toDto(saved);
+		GlobalSettingsDto cached = globalSettingsMapper.copy(result);
+		TransactionHelper.afterCommit(() -> {
+			snapshot = new Snapshot(version.incrementAndGet(), cached);
+			publishInvalidation();
+		});
+		return result;
+	}
+
+	@Override
+	public void invalidate() {
+		version.incrementAndGet();
+	}
+
+	@Override
+	public void onInvalidation(String message) {
+		int separator = message.lastIndexOf(':');
+		if (separator >= 0 && nodeId.equals(message.substring(0, separator))) {
+			// Ce nœud a publié le message après avoir déjà mis à jour son snapshot
+			return;
+		}
+		invalidate();
+	}
+
+	private Snapshot load() {
+		// Version lue avant la requête : une invalidation concurrente rend le résultat périmé
+		long loadedVersion = version.get();
+		GlobalSettings gs = globalSettingsRepository.findById(SINGLETON_ID).orElseThrow(
+				() -> new ResourceNotFoundException("Réglages globaux non configurés"));
+		Snapshot loaded = new Snapshot(loadedVersion, globalSettingsMapper.toDto(gs));
+		if (version.get() == loadedVersion) {
+			snapshot = loaded;
+		}
+		log.debug("[Settings] Réglages globaux chargés (version {})", loadedVersion);
+		return loaded;
+	}
+
+	private void publishInvalidation() {
+		if (!redisNotificationsEnabled) {
+			return;
+		}
+		try {
+			redisTemplate.convertAndSend(INVALIDATION_CHANNEL, nodeId + ":" + version.get());
+		} catch (Exception e) {
+			log.warn("[Settings] Échec de la publication de l'invalidation des réglages", e);
+		}
+	}
+
+	/**
+	 * Réglages globaux en cache, associés à la version du cache au moment de leur chargement.
+	 */
+	private record Snapshot(long version, GlobalSettingsDto settings) {
 	}
-}
\ No newline at end of file
+}
@@ -17,6 +17,19 @@ public interface NotificationSseService {
 	 */
 	SseEmitter subscribe(String userKey);
 
+	/**
+	 * Abonne un utilisateur qui se reconnecte : les événements publiés depuis {@code lastEventId}
+	 * lui sont renvoyés avant les nouveaux événements.
+	 *
+	 * @param userKey
+	 *            la clé de l'utilisateur
+	 * @param lastEventId
+	 *            l'identifiant du dernier événement reçu (en-tête {@code Last-Event-ID}), ou
+	 *            {@code null} pour une première connexion
+	 * @return un SseEmitter pour envoyer des événements à l'utilisateur
+	 */
+	SseEmitter subscribe(String userKey, String lastEventId);
+
 	/**
 	 * Envoie un événement à un utilisateur spécifique.
 	 *
@@ -29,6 +42,20 @@ public interface NotificationSseService {
 	 */
 	void sendEvent(String userKey, String eventName, Object data);
 
+	/**
+	 * Envoie un événement identifié à un utilisateur spécifique et le conserve pour un rejeu.
+	 *
+	 * @param userKey
+	 *            la clé de l'utilisateur
+	 * @param eventId
+	 *            l'identifiant de l'événement, ou {@code null}
+	 * @param eventName
+	 *            le nom de l'événement
+	 * @param data
+	 *            les données à envoyer avec l'événement
+	 */
+	void sendEvent(String userKey, String eventId, String eventName, Object data);
+
 	/**
 	 * Publie un événement pour un utilisateur spécifique.
 	 *
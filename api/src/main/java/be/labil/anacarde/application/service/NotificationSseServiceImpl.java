@@ -1,7 +1,7 @@
 package be.labil.anacarde.application.service;
 
+import be.labil.anacarde.infrastructure.util.AsyncSseEmitter;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import java.io.IOException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -15,41 +15,74 @@ import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 @Service
 public class NotificationSseServiceImpl implements NotificationSseService {
 	private static final Logger log = LoggerFactory.getLogger(NotificationSseServiceImpl.class);
-	private final ConcurrentMap<String, CopyOnWriteArrayList<SseEmitter>> emitters = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, CopyOnWriteArrayList<AsyncSseEmitter>> emitters = new ConcurrentHashMap<>();
 	private final StringRedisTemplate redisTemplate;
 	private final ObjectMapper objectMapper;
+	private final SseDeliveryService sseDeliveryService;
+	private final SseReplayService sseReplayService;
 
 	@Autowired
-	public NotificationSseServiceImpl(StringRedisTemplate redisTemplate,
-			ObjectMapper objectMapper) {
+	public NotificationSseServiceImpl(StringRedisTemplate redisTemplate, ObjectMapper objectMapper,
+			SseDeliveryService sseDeliveryService, SseReplayService sseReplayService) {
 		this.redisTemplate = redisTemplate;
 		this.objectMapper = objectMapper;
+		this.sseDeliveryService = sseDeliveryService;
+		this.sseReplayService = sseReplayService;
 	}
 
 	@Override
 	public SseEmitter subscribe(String userKey) {
-		SseEmitter emitter = new SseEmitter(Long.MAX_VALUE);
-		emitters.computeIfAbsent(userKey, k -> new CopyOnWriteArrayList<>()).add(emitter);
-		emitter.onCompletion(() -> emitters.get(userKey).remove(emitter));
-		emitter.onTimeout(() -> emitters.get(userKey).remove(emitter));
+		return subscribe(userKey, null);
+	}
+
+	@Override
+	public SseEmitter subscribe(String userKey, String lastEventId) {
+		AsyncSseEmitter emitter = sseDeliveryService.createEmitter();
+		boolean replay = lastEventId != null && !lastEventId.isBlank();
+		if (replay) {
+			// Les événements reçus avant la lecture des événements manqués sont retenus
+			emitter.holdForReplay();
+		}
+		emitters.compute(userKey, (key, list) -> {
+			list = list != null ? list : new CopyOnWriteArrayList<>();
+			list.add(emitter);
+			return list;
+		});
+		if (replay) {
+			// Lu après l'inscription, hors du verrou : un événement publié entre-temps est rejoué
+			// ou reçu, et les doublons sont écartés par l'émetteur
+			sseReplayService.replay(SseReplayService.userStream(userKey), lastEventId, emitter);
+		}
+		emitter.onCompletion(() -> removeEmitter(userKey, emitter));
+		emitter.onTimeout(() -> removeEmitter(userKey, emitter));
+		emitter.onError(e -> removeEmitter(userKey, emitter));
 		return emitter;
 	}
 
 	@Override
 	public void sendEvent(String userKey, String eventName, Object data) {
-		var list = emitters.getOrDefault(userKey, new CopyOnWriteArrayList<>());
-		for (SseEmitter emitter : list) {
-			try {
-				emitter.send(SseEmitter.event().name(eventName).data(data));
-			} catch (IOException e) {
-				try {
-					emitter.complete();
-					list.remove(emitter);
-				} catch (Exception ex) {
-				}
-			} catch (Exception e) {
-			}
+		sendEvent(userKey, null, eventName, data);
+	}
+
+	@Override
+	public void sendEvent(String userKey, String eventId, String eventName, Object data) {
+		// Conservé avant l'envoi : un émetteur inscrit entre-temps le retrouve dans le rejeu
+		if (data instanceof String json) {
+			sseReplayService.store(SseReplayService.userStream(userKey), eventId, eventName, json);
 		}
+		emitters.computeIfPresent(userKey, (key, list) -> {
+			// Construit une seule fois puis déposé dans la file de chaque émetteur, sans bloquer
+			var event = AsyncSseEmitter.event(eventId, eventName, data);
+			list.removeIf(emitter -> !emitter.enqueue(eventId, event));
+			return list.isEmpty() ? null : list;
+		});
+	}
+
+	private void removeEmitter(String userKey, AsyncSseEmitter emitter) {
+		emitters.computeIfPresent(userKey, (key, list) -> {
+			list.remove(emitter);
+			return list.isEmpty() ? null : list;
+		});
 	}
 
 	@Override
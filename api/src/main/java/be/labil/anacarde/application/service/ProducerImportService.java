@@ -0,0 +1,52 @@
+package be.labil.anacarde.application.service;
+
+import be.labil.anacarde.domain.dto.db.ProducerImportResultDto;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Import en masse de producteurs à partir d'un fichier CSV, pour l'enrôlement des membres d'une
+ * coopérative.
+ */
+public interface ProducerImportService {
+
+	/**
+	 * Vérifie la coopérative et l'en-tête du fichier, puis renvoie l'import prêt à être exécuté.
+	 * <p>
+	 * L'en-tête nomme les colonnes {@code firstName}, {@code lastName}, {@code email},
+	 * {@code phone}, {@code password}, {@code agriculturalIdentifier}, {@code cityId},
+	 * {@code languageId} et, facultativement, {@code street}, séparées par des virgules ou des
+	 * points-virgules.
+	 *
+	 * @param csv
+	 *            contenu du fichier, lu au fil de l'import
+	 * @param cooperativeId
+	 *            coopérative à laquelle rattacher les producteurs, ou {@code null}
+	 * @return l'import à exécuter
+	 * @throws be.labil.anacarde.application.exception.ResourceNotFoundException
+	 *             si la coopérative n'existe pas
+	 * @throws be.labil.anacarde.application.exception.ApiErrorException
+	 *             si le fichier est illisible ou si une colonne obligatoire manque
+	 */
+	ProducerImport prepareImport(InputStream csv, Integer cooperativeId);
+
+	/**
+	 * Import préparé, exécuté lot par lot.
+	 */
+	@FunctionalInterface
+	interface ProducerImport {
+
+		/**
+		 * Importe le fichier par lots. Chaque lot est validé puis enregistré dans sa propre
+		 * transaction : un lot enregistré le reste même si la suite de l'import échoue.
+		 *
+		 * @param onBatch
+		 *            reçoit le résultat des lignes de chaque lot, dans l'ordre du fichier
+		 * @throws IOException
+		 *             si la lecture du fichier échoue
+		 */
+		void run(Consumer<List<ProducerImportResultDto>> onBatch) throws IOException;
+	}
+}
@@ -0,0 +1,449 @@
+package be.labil.anacarde.application.service;
+
+import be.labil.anacarde.application.exception.ApiErrorCode;
+import be.labil.anacarde.application.exception.ApiErrorException;
+import be.labil.anacarde.application.exception.ErrorDetail;
+import be.labil.anacarde.application.exception.ResourceNotFoundException;
+import be.labil.anacarde.domain.dto.db.ProducerImportResultDto;
+import be.labil.anacarde.domain.dto.write.ProducerImportRowDto;
+import be.labil.anacarde.domain.model.Address;
+import be.labil.anacarde.domain.model.City;
+import be.labil.anacarde.domain.model.Cooperative;
+import be.labil.anacarde.domain.model.Field;
+import be.labil.anacarde.domain.model.Language;
+import be.labil.anacarde.domain.model.Producer;
+import be.labil.anacarde.domain.model.Region;
+import be.labil.anacarde.infrastructure.persistence.CityRepository;
+import be.labil.anacarde.infrastructure.persistence.CooperativeRepository;
+import be.labil.anacarde.infrastructure.persistence.LanguageRepository;
+import be.labil.anacarde.infrastructure.persistence.user.ProducerRepository;
+import be.labil.anacarde.infrastructure.persistence.user.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+/**
+ * Import CSV de producteurs par lots de {@code app.users.import.batch-size} lignes.
+ * <p>
+ * Pour chaque lot, l'unicité des e-mails, téléphones et identifiants agricoles est vérifiée en une
+ * requête par colonne (et entre les lignes du fichier), les villes et langues sont résolues en une
+ * requête, les mots de passe sont hachés en parallèle sur un pool borné, puis les producteurs et
+ * leur champ sont insérés par lots JDBC dans une session sans état, sans le rechargement ni les
+ * traitements de {@link UserService#createUser}.
+ */
+@Service
+@Slf4j
+public class ProducerImportServiceImpl implements ProducerImportService {
+
+	private static final List<String> REQUIRED_COLUMNS = List.of("firstName", "lastName",
+			"email", "phone", "password", "agriculturalIdentifier", "cityId", "languageId");
+
+	private final UserRepository userRepository;
+	private final ProducerRepository producerRepository;
+	private final CooperativeRepository cooperativeRepository;
+	private final CityRepository cityRepository;
+	private final LanguageRepository languageRepository;
+	private final PasswordEncoder passwordEncoder;
+	private final Validator validator;
+	private final SessionFactory sessionFactory;
+	private final int batchSize;
+	private final ExecutorService hashers;
+	private final ObjectReader rowReader;
+
+	public ProducerImportServiceImpl(UserRepository userRepository,
+			ProducerRepository producerRepository, CooperativeRepository cooperativeRepository,
+			CityRepository cityRepository, LanguageRepository languageRepository,
+			PasswordEncoder passwordEncoder, Validator validator,
+			EntityManagerFactory entityManagerFactory,
+			@Value("${app.users.import.batch-size:500}") int batchSize,
+			@Value("${app.users.import.hash-parallelism:4}") int hashParallelism) {
+		this.userRepository = userRepository;
+		this.producerRepository = producerRepository;
+		this.cooperativeRepository = cooperativeRepository;
+		this.cityRepository = cityRepository;
+		this.languageRepository = languageRepository;
+		this.passwordEncoder = passwordEncoder;
+		this.validator = validator;
+		this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+		this.batchSize = Math.max(1, batchSize);
+		// Le hachage BCrypt est coûteux en CPU : le pool est partagé et borné
+		this.hashers = Executors.newFixedThreadPool(Math.max(1, hashParallelism),
+				Thread.ofPlatform().name("producer-import-hash-", 0).daemon().factory());
+		this.rowReader = new CsvMapper().enable(CsvParser.Feature.TRIM_SPACES)
+				.enable(CsvParser.Feature.IGNORE_TRAILING_UNMAPPABLE)
+				.enable(CsvParser.Feature.SKIP_EMPTY_LINES)
+				.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+				.readerFor(ProducerImportRowDto.class);
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		hashers.shutdownNow();
+	}
+
+	@Override
+	public ProducerImport prepareImport(InputStream csv, Integer cooperativeId) {
+		if (cooperativeId != null && !cooperativeRepository.existsById(cooperativeId)) {
+			throw new ResourceNotFoundException(
+					"Coopérative non trouvée avec l'ID: " + cooperativeId);
+		}
+		MappingIterator<ProducerImportRowDto> rows;
+		try {
+			BufferedReader reader = new BufferedReader(
+					new InputStreamReader(csv, StandardCharsets.UTF_8));
+			CsvSchema schema = CsvSchema.emptySchema().withHeader()
+					.withColumnSeparator(detectSeparator(reader));
+			rows = rowReader.with(schema).readValues(reader);
+			rows.hasNextValue(); // Lit l'en-tête
+		} catch (IOException | RuntimeException e) {
+			throw new ApiErrorException(HttpStatus.BAD_REQUEST, ApiErrorCode.BAD_REQUEST.code(),
+					"file", "Le fichier CSV est illisible : " + e.getMessage());
+		}
+
+		CsvSchema header = (CsvSchema) rows.getParser().getSchema();
+		List<ErrorDetail> missing = REQUIRED_COLUMNS.stream()
+				.filter(column -> header.column(column) == null)
+				.map(column -> new ErrorDetail(column, ApiErrorCode.VALIDATION_ERROR.code(),
+						"La colonne " + column + " est absente de l'en-tête"))
+				.toList();
+		if (!missing.isEmpty()) {
+			throw new ApiErrorException(HttpStatus.BAD_REQUEST,
+					ApiErrorCode.VALIDATION_ERROR.code(), missing);
+		}
+		return onBatch -> importRows(rows, cooperativeId, onBatch);
+	}
+
+	/**
+	 * Séparateur de l'en-tête : le point-virgule des exports tableur français, sinon la virgule.
+	 * Une éventuelle marque d'ordre des octets (BOM) est sautée.
+	 */
+	private static char detectSeparator(BufferedReader reader) throws IOException {
+		reader.mark(64 * 1024);
+		String header = reader.readLine();
+		reader.reset();
+		if (header == null) {
+			return ',';
+		}
+		if (header.startsWith("﻿")) {
+			reader.skip(1);
+		}
+		return header.indexOf(';') >= 0 && header.indexOf(',') < 0 ? ';' : ',';
+	}
+
+	private void importRows(MappingIterator<ProducerImportRowDto> rows, Integer cooperativeId,
+			Consumer<List<ProducerImportResultDto>> onBatch) throws IOException {
+		ImportState state = new ImportState();
+		List<Candidate> batch = new ArrayList<>(batchSize);
+		int line = 1;
+		int created = 0;
+		int total = 0;
+		while (rows.hasNextValue()) {
+			batch.add(nextCandidate(rows, ++line));
+			if (batch.size() == batchSize || !rows.hasNextValue()) {
+				List<ProducerImportResultDto> results = importBatch(batch, cooperativeId, state);
+				created += (int) results.stream()
+						.filter(r -> r.getStatus() == ProducerImportResultDto.Status.CREATED)
+						.count();
+				total += results.size();
+				onBatch.accept(results);
+				batch = new ArrayList<>(batchSize);
+			}
+		}
+		log.info("Import CSV de producteurs : {} créés sur {} lignes", created, total);
+	}
+
+	/**
+	 * Lit la ligne suivante. Une ligne mal formée (guillemet mal placé, par exemple) est rejetée
+	 * seule : la lecture reprend à la ligne suivante.
+	 */
+	private static Candidate nextCandidate(MappingIterator<ProducerImportRowDto> rows, int line) {
+		try {
+			return new Candidate(line, rows.nextValue());
+		} catch (IOException | RuntimeException e) {
+			Candidate candidate = new Candidate(line, new ProducerImportRowDto());
+			String message = e instanceof JsonProcessingException json
+					? json.getOriginalMessage()
+					: e.getMessage();
+			candidate.errors.add(new ErrorDetail(null, ApiErrorCode.VALIDATION_ERROR.code(),
+					"La ligne est illisible : " + message));
+			return candidate;
+		}
+	}
+
+	private List<ProducerImportResultDto> importBatch(List<Candidate> batch, Integer cooperativeId,
+			ImportState state) {
+		batch.stream().filter(c -> c.errors.isEmpty()).forEach(this::validate);
+		rejectExisting(batch, ProducerImportRowDto::getEmail, userRepository::findExistingEmails,
+				"email", ApiErrorCode.CONFLICT_EMAIL_EXISTS, "L'email est déjà utilisé");
+		rejectExisting(batch, ProducerImportRowDto::getPhone, userRepository::findExistingPhones,
+				"phone", ApiErrorCode.CONFLICT_PHONE_EXISTS,
+				"Le numéro de téléphone est déjà utilisé");
+		rejectExisting(batch, ProducerImportRowDto::getAgriculturalIdentifier,
+				producerRepository::findExistingAgriculturalIdentifiers, "agriculturalIdentifier",
+				ApiErrorCode.CONFLICT_AGRICULTURAL_ID_EXISTS,
+				"L'identifiant agricole est déjà utilisé");
+		resolveReferences(batch, state);
+		for (Candidate candidate : batch) {
+			if (candidate.errors.isEmpty()) {
+				rejectDuplicate(candidate, state.emails, candidate.row.getEmail(), "email",
+						ApiErrorCode.CONFLICT_EMAIL_EXISTS);
+				rejectDuplicate(candidate, state.phones, candidate.row.getPhone(), "phone",
+						ApiErrorCode.CONFLICT_PHONE_EXISTS);
+				rejectDuplicate(candidate, state.agriculturalIdentifiers,
+						candidate.row.getAgriculturalIdentifier(), "agriculturalIdentifier",
+						ApiErrorCode.CONFLICT_AGRICULTURAL_ID_EXISTS);
+			}
+		}
+
+		List<Candidate> valid = batch.stream().filter(c -> c.errors.isEmpty()).toList();
+		if (!valid.isEmpty()) {
+			hashPasswords(valid);
+			if (!insert(valid, cooperativeId)) {
+				// Lot rejeté : ses valeurs ne bloquent pas les lignes suivantes du fichier
+				valid.forEach(state::forget);
+			}
+		}
+		return batch.stream().map(Candidate::toResult).toList();
+	}
+
+	private void validate(Candidate candidate) {
+		validator.validate(candidate.row).stream()
+				.sorted(Comparator.comparing(v -> v.getPropertyPath().toString()))
+				.forEach((ConstraintViolation<ProducerImportRowDto> violation) -> candidate.errors
+						.add(new ErrorDetail(violation.getPropertyPath().toString(),
+								ApiErrorCode.VALIDATION_ERROR.code(), violation.getMessage())));
+	}
+
+	/**
+	 * Rejette les lignes encore valides dont la valeur est déjà en base, en une seule requête pour
+	 * tout le lot.
+	 */
+	private static void rejectExisting(List<Candidate> batch,
+			Function<ProducerImportRowDto, String> value,
+			Function<Set<String>, Set<String>> findExisting, String field, ApiErrorCode code,
+			String message) {
+		Set<String> values = new HashSet<>();
+		batch.stream().filter(c -> c.errors.isEmpty()).forEach(c -> values.add(value.apply(c.row)));
+		if (values.isEmpty()) {
+			return;
+		}
+		Set<String> existing = findExisting.apply(values);
+		for (Candidate candidate : batch) {
+			if (existing.contains(value.apply(candidate.row))) {
+				candidate.errors.add(new ErrorDetail(field, code.code(), message));
+			}
+		}
+	}
+
+	/**
+	 * Rejette une ligne dont la valeur figure déjà sur une ligne précédente du fichier, sinon la
+	 * retient pour les lignes suivantes.
+	 */
+	private static void rejectDuplicate(Candidate candidate, Map<String, Integer> seen,
+			String value, String field, ApiErrorCode code) {
+		Integer previous = seen.putIfAbsent(value, candidate.line);
+		if (previous != null) {
+			candidate.errors.add(new ErrorDetail(field, code.code(),
+					"La valeur figure déjà à la ligne " + previous + " du fichier"));
+		}
+	}
+
+	/**
+	 * Résout les villes (et leur région) et les langues du lot, en ne chargeant que les
+	 * identifiants pas encore rencontrés dans le fichier.
+	 */
+	private void resolveReferences(List<Candidate> batch, ImportState state) {
+		List<Candidate> valid = batch.stream().filter(c -> c.errors.isEmpty()).toList();
+		Set<Integer> cityIds = new HashSet<>();
+		Set<Integer> languageIds = new HashSet<>();
+		for (Candidate candidate : valid) {
+			cityIds.add(Integer.valueOf(candidate.row.getCityId()));
+			languageIds.add(Integer.valueOf(candidate.row.getLanguageId()));
+		}
+		cityIds.removeAll(state.cityRegions.keySet());
+		languageIds.removeAll(state.languages.keySet());
+		if (!cityIds.isEmpty()) {
+			for (City city : cityRepository.findAllById(cityIds)) {
+				state.cityRegions.put(city.getId(), city.getRegion().getId());
+			}
+			cityIds.forEach(id -> state.cityRegions.putIfAbsent(id, null));
+		}
+		if (!languageIds.isEmpty()) {
+			Set<Integer> found = new HashSet<>();
+			languageRepository.findAllById(languageIds).forEach(l -> found.add(l.getId()));
+			languageIds.forEach(id -> state.languages.put(id, found.contains(id)));
+		}
+
+		for (Candidate candidate : valid) {
+			Integer cityId = Integer.valueOf(candidate.row.getCityId());
+			candidate.cityId = cityId;
+			candidate.regionId = state.cityRegions.get(cityId);
+			if (candidate.regionId == null) {
+				candidate.errors.add(new ErrorDetail("cityId",
+						ApiErrorCode.RESOURCE_NOT_FOUND.code(), "Ville inconnue : " + cityId));
+			}
+			candidate.languageId = Integer.valueOf(candidate.row.getLanguageId());
+			if (!state.languages.get(candidate.languageId)) {
+				candidate.errors.add(new ErrorDetail("languageId",
+						ApiErrorCode.RESOURCE_NOT_FOUND.code(),
+						"Langue inconnue : " + candidate.languageId));
+			}
+		}
+	}
+
+	private void hashPasswords(List<Candidate> valid) {
+		List<Future<String>> hashes = new ArrayList<>(valid.size());
+		for (Candidate candidate : valid) {
+			String password = candidate.row.getPassword();
+			hashes.add(hashers.submit(() -> passwordEncoder.encode(password)));
+		}
+		try {
+			for (int i = 0; i < valid.size(); i++) {
+				valid.get(i).passwordHash = hashes.get(i).get();
+			}
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Échec du hachage des mots de passe", e.getCause());
+		} catch (InterruptedException e) {
+			hashes.forEach(hash -> hash.cancel(true));
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Import interrompu", e);
+		}
+	}
+
+	/**
+	 * Insère les producteurs puis leur champ par lots JDBC, dans une transaction propre au lot. Si
+	 * l'insertion échoue (valeur enregistrée entre-temps par un autre appel), tout le lot est
+	 * rejeté.
+	 *
+	 * @return {@code true} si le lot a été enregistré
+	 */
+	private boolean insert(List<Candidate> valid, Integer cooperativeId) {
+		LocalDateTime now = LocalDateTime.now();
+		Cooperative cooperative = cooperativeId != null
+				? Cooperative.builder().id(cooperativeId).build()
+				: null;
+		try (StatelessSession session = sessionFactory.openStatelessSession()) {
+			session.setJdbcBatchSize(valid.size());
+			Transaction transaction = session.beginTransaction();
+			try {
+				List<Producer> producers = new ArrayList<>(valid.size());
+				for (Candidate candidate : valid) {
+					ProducerImportRowDto row = candidate.row;
+					Producer producer = Producer.builder().firstName(row.getFirstName())
+							.lastName(row.getLastName()).email(row.getEmail())
+							.password(candidate.passwordHash).phone(row.getPhone())
+							.agriculturalIdentifier(row.getAgriculturalIdentifier())
+							.cooperative(cooperative).address(candidate.address())
+							.language(Language.builder().id(candidate.languageId).build())
+							.enabled(true).registrationDate(now).validationDate(now).build();
+					session.insert(producer);
+					producers.add(producer);
+				}
+				// Même champ par défaut que lors d'une inscription individuelle
+				for (int i = 0; i < producers.size(); i++) {
+					Producer producer = producers.get(i);
+					session.insert(Field.builder().identifier("FIELD-" + producer.getId() + "001")
+							.address(valid.get(i).address()).producer(producer).build());
+				}
+				transaction.commit();
+				for (int i = 0; i < producers.size(); i++) {
+					valid.get(i).userId = producers.get(i).getId();
+				}
+				return true;
+			} catch (RuntimeException e) {
+				if (transaction.isActive()) {
+					transaction.rollback();
+				}
+				log.warn("Échec de l'enregistrement d'un lot de {} producteurs", valid.size(), e);
+				valid.forEach(c -> c.errors.add(new ErrorDetail(null, ApiErrorCode.CONFLICT.code(),
+						"Le lot contenant cette ligne n'a pas pu être enregistré")));
+				return false;
+			}
+		}
+	}
+
+	/** Valeurs déjà rencontrées dans le fichier, conservées d'un lot à l'autre. */
+	private static final class ImportState {
+		private final Map<String, Integer> emails = new HashMap<>();
+		private final Map<String, Integer> phones = new HashMap<>();
+		private final Map<String, Integer> agriculturalIdentifiers = new HashMap<>();
+		private final Map<Integer, Integer> cityRegions = new HashMap<>();
+		private final Map<Integer, Boolean> languages = new HashMap<>();
+
+		/** Oublie les valeurs retenues pour une ligne finalement non enregistrée. */
+		private void forget(Candidate candidate) {
+			emails.remove(candidate.row.getEmail(), candidate.line);
+			phones.remove(candidate.row.getPhone(), candidate.line);
+			agriculturalIdentifiers.remove(candidate.row.getAgriculturalIdentifier(),
+					candidate.line);
+		}
+	}
+
+	/** Ligne en cours d'import et son état. */
+	private static final class Candidate {
+		private final int line;
+		private final ProducerImportRowDto row;
+		private final List<ErrorDetail> errors = new ArrayList<>();
+		private Integer cityId;
+		private Integer regionId;
+		private Integer languageId;
+		private String passwordHash;
+		private Integer userId;
+
+		private Candidate(int line, ProducerImportRowDto row) {
+			this.line = line;
+			this.row = row;
+		}
+
+		private Address address() {
+			return Address.builder().street(row.getStreet())
+					.city(City.builder().id(cityId).build())
+					.region(Region.builder().id(regionId).build()).build();
+		}
+
+		private ProducerImportResultDto toResult() {
+			ProducerImportResultDto.ProducerImportResultDtoBuilder result = ProducerImportResultDto
+					.builder().line(line).email(row.getEmail());
+			if (userId != null) {
+				return result.status(ProducerImportResultDto.Status.CREATED).userId(userId)
+						.build();
+			}
+			return result.status(ProducerImportResultDto.Status.REJECTED).errors(errors).build();
+		}
+	}
+}
@@ -4,6 +4,7 @@ package be.labil.anacarde.application.service;
 import be.labil.anacarde.domain.dto.db.product.ProductDto;
 import be.labil.anacarde.domain.dto.write.product.ProductUpdateDto;
 import be.labil.anacarde.presentation.controller.enums.ProductType;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.repository.query.Param;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -76,4 +77,13 @@ public interface ProductService {
 	 *            poids à ajouter (positif) ou retrancher (négatif)
 	 */
 	void offsetWeightKgAvailable(Integer productId, double offset);
+
+	/**
+	 * Restitue aux produits concernés les quantités mises en vente par les enchères données, en
+	 * une seule mise à jour ensembliste.
+	 *
+	 * @param auctionIds
+	 *            identifiants des enchères dont la quantité est restituée
+	 */
+	void restoreWeightKgAvailable(Collection<Integer> auctionIds);
 }
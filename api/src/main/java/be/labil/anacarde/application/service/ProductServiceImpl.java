@@ -16,6 +16,7 @@ import be.labil.anacarde.infrastructure.persistence.TransformedProductRepository
 import be.labil.anacarde.infrastructure.util.PersistenceHelper;
 import be.labil.anacarde.presentation.controller.enums.ProductType;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -116,4 +117,11 @@ public class ProductServiceImpl implements ProductService {
 		product.setWeightKgAvailable(newWeight);
 		productRepository.save(product);
 	}
+
+	@Override
+	public void restoreWeightKgAvailable(Collection<Integer> auctionIds) {
+		if (!auctionIds.isEmpty()) {
+			productRepository.restoreWeightKgAvailable(auctionIds);
+		}
+	}
 }
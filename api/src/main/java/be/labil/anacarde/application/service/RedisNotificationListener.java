@@ -21,14 +21,34 @@ public interface RedisNotificationListener {
 	@PostConstruct
 	void subscribe();
 
+	/**
+	 * Abonne ce nœud au canal Redis d'une enchère ({@code auctions:{id}}). À appeler lorsque le
+	 * premier émetteur SSE local de l'enchère est ouvert.
+	 *
+	 * @param auctionId
+	 *            l'ID de l'enchère
+	 */
+	void subscribeAuction(Integer auctionId);
+
+	/**
+	 * Désabonne ce nœud du canal Redis d'une enchère. À appeler lorsque le dernier émetteur SSE
+	 * local de l'enchère est fermé.
+	 *
+	 * @param auctionId
+	 *            l'ID de l'enchère
+	 */
+	void unsubscribeAuction(Integer auctionId);
+
 	/**
 	 * Représente un événement de notification reçu depuis Redis.
 	 * <p>
-	 * Contient le nom du canal ou type d’événement, ainsi que les données associées au message.
+	 * Contient l’identifiant de l’événement (pour le rejeu), le nom du canal ou type
+	 * d’événement, ainsi que les données associées au message.
 	 */
 	@Setter
 	@Getter
 	public static class RedisNotificationEvent {
+		private String id;
 		private String eventName;
 		private Object data;
 
@@ -1,5 +1,6 @@
 package be.labil.anacarde.application.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
@@ -8,6 +9,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.data.redis.connection.Message;
 import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
 import org.springframework.data.redis.listener.PatternTopic;
 import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.listener.adapter.MessageListenerAdapter;
@@ -17,14 +19,27 @@ import org.springframework.stereotype.Service;
 @ConditionalOnProperty(prefix = "app.redis.notifications", name = "enabled", havingValue = "true", matchIfMissing = true)
 public class RedisNotificationListenerImpl implements RedisNotificationListener {
 	private static final Logger log = LoggerFactory.getLogger(RedisNotificationListenerImpl.class);
+	public static final String AUCTION_CHANNEL_PREFIX = "auctions:";
 	private final NotificationSseServiceImpl notificationSseService;
+	private final AuctionSseServiceImpl auctionSseService;
+	private final GlobalSettingsService globalSettingsService;
+	private final AuthenticatedPrincipalCache principalCache;
+	private final AuctionOrderBookService auctionOrderBookService;
 	private final RedisMessageListenerContainer listenerContainer;
 	private final ObjectMapper objectMapper;
+	private final MessageListener auctionListener = this::onAuctionMessage;
 
 	@Autowired
 	public RedisNotificationListenerImpl(NotificationSseServiceImpl notificationSseService,
+			AuctionSseServiceImpl auctionSseService, GlobalSettingsService globalSettingsService,
+			AuthenticatedPrincipalCache principalCache,
+			AuctionOrderBookService auctionOrderBookService,
 			RedisMessageListenerContainer listenerContainer, ObjectMapper objectMapper) {
 		this.notificationSseService = notificationSseService;
+		this.auctionSseService = auctionSseService;
+		this.globalSettingsService = globalSettingsService;
+		this.principalCache = principalCache;
+		this.auctionOrderBookService = auctionOrderBookService;
 		this.listenerContainer = listenerContainer;
 		this.objectMapper = objectMapper;
 	}
@@ -40,11 +55,11 @@ public class RedisNotificationListenerImpl implements RedisNotificationListener
 					String channel = new String(message.getChannel());
 					if (channel.startsWith("notifications:user:")) {
 						String userKey = channel.substring("notifications:user:".length());
-						String body = new String(message.getBody());
-						RedisNotificationEvent event = objectMapper.readValue(body,
-								RedisNotificationEvent.class);
-						notificationSseService.sendEvent(userKey, event.getEventName(),
-								event.getData());
+						JsonNode event = objectMapper.readTree(message.getBody());
+						// Les données sont transmises telles quelles (JSON) aux émetteurs locaux
+						notificationSseService.sendEvent(userKey, eventId(event),
+								event.path("eventName").asText(),
+								event.path("data").toString());
 					}
 				} catch (Exception e) {
 					e.printStackTrace();
@@ -52,7 +67,54 @@ public class RedisNotificationListenerImpl implements RedisNotificationListener
 			}
 		}), new PatternTopic("notifications:user:*"));
 		// Ne pas utiliser ChannelTopic car écoute littéralement sur "notifications:user:*"
+		listenerContainer.addMessageListener((message, pattern) -> {
+			log.debug("[Settings] Invalidation des réglages globaux reçue");
+			globalSettingsService.onInvalidation(new String(message.getBody()));
+		}, new ChannelTopic(GlobalSettingsServiceImpl.INVALIDATION_CHANNEL));
+		listenerContainer.addMessageListener((message, pattern) -> {
+			try {
+				principalCache.evict(Integer.valueOf(new String(message.getBody())));
+			} catch (NumberFormatException e) {
+				// Message inattendu : par précaution, tout le cache est vidé
+				principalCache.clear();
+			}
+		}, new ChannelTopic(AuthenticatedPrincipalCacheImpl.INVALIDATION_CHANNEL));
+		listenerContainer.addMessageListener(
+				(message, pattern) -> auctionOrderBookService
+						.onInvalidation(new String(message.getBody())),
+				new ChannelTopic(AuctionOrderBookServiceImpl.INVALIDATION_CHANNEL));
 		listenerContainer.start();
 	}
 
+	@Override
+	public void subscribeAuction(Integer auctionId) {
+		listenerContainer.addMessageListener(auctionListener,
+				new ChannelTopic(AUCTION_CHANNEL_PREFIX + auctionId));
+		log.debug("[SSE] Abonnement au canal {}{}", AUCTION_CHANNEL_PREFIX, auctionId);
+	}
+
+	@Override
+	public void unsubscribeAuction(Integer auctionId) {
+		listenerContainer.removeMessageListener(auctionListener,
+				new ChannelTopic(AUCTION_CHANNEL_PREFIX + auctionId));
+		log.debug("[SSE] Désabonnement du canal {}{}", AUCTION_CHANNEL_PREFIX, auctionId);
+	}
+
+	private void onAuctionMessage(Message message, byte[] pattern) {
+		try {
+			String channel = new String(message.getChannel());
+			Integer auctionId = Integer
+					.valueOf(channel.substring(AUCTION_CHANNEL_PREFIX.length()));
+			JsonNode event = objectMapper.readTree(message.getBody());
+			// Les données sont transmises telles quelles (JSON) aux émetteurs locaux
+			auctionSseService.sendEvent(auctionId, eventId(event),
+					event.path("eventName").asText(), event.path("data").toString());
+		} catch (Exception e) {
+			log.error("[SSE] Message invalide reçu sur le canal d'une enchère", e);
+		}
+	}
+
+	private static String eventId(JsonNode event) {
+		return event.hasNonNull("id") ? event.get("id").asText() : null;
+	}
 }
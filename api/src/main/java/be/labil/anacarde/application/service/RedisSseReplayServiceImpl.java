@@ -0,0 +1,119 @@
+package be.labil.anacarde.application.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.RedisStreamCommands.XAddOptions;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implémentation du rejeu SSE partagée entre les nœuds, basée sur un Redis Stream par flux. Les
+ * identifiants d'événements sont ceux attribués par Redis ({@code XADD}) : un client peut donc se
+ * reconnecter sur n'importe quel nœud.
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.sse.replay", name = "backend", havingValue = "redis")
+public class RedisSseReplayServiceImpl implements SseReplayService {
+	private static final Logger log = LoggerFactory.getLogger(RedisSseReplayServiceImpl.class);
+	private static final String KEY_PREFIX = "sse:stream:";
+	private final StringRedisTemplate redisTemplate;
+	private final int capacity;
+	private final Duration ttl;
+
+	@Autowired
+	public RedisSseReplayServiceImpl(StringRedisTemplate redisTemplate,
+			@Value("${app.sse.replay.capacity:100}") int capacity,
+			@Value("${app.sse.replay.ttl-seconds:3600}") long ttlSeconds) {
+		this.redisTemplate = redisTemplate;
+		this.capacity = capacity;
+		this.ttl = Duration.ofSeconds(ttlSeconds);
+	}
+
+	@Override
+	public String append(String stream, String eventName, String data) {
+		return appendAll(List.of(stream), eventName, data).getFirst();
+	}
+
+	@Override
+	public List<String> appendAll(List<String> streams, String eventName, String data) {
+		byte[] nameField = "event".getBytes(StandardCharsets.UTF_8);
+		byte[] dataField = "data".getBytes(StandardCharsets.UTF_8);
+		byte[] nameValue = eventName.getBytes(StandardCharsets.UTF_8);
+		byte[] dataValue = data.getBytes(StandardCharsets.UTF_8);
+		XAddOptions options = XAddOptions.maxlen(capacity).approximateTrimming(true);
+		// Un seul aller-retour : XADD + EXPIRE pour chaque flux
+		List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) c -> {
+			for (String stream : streams) {
+				byte[] key = (KEY_PREFIX + stream).getBytes(StandardCharsets.UTF_8);
+				c.streamCommands().xAdd(
+						MapRecord.create(key, Map.of(nameField, nameValue, dataField, dataValue)),
+						options);
+				c.keyCommands().expire(key, ttl.toSeconds());
+			}
+			return null;
+		});
+		List<String> ids = new ArrayList<>(streams.size());
+		for (int i = 0; i < streams.size(); i++) {
+			Object result = results.size() > 2 * i ? results.get(2 * i) : null;
+			ids.add(result instanceof RecordId recordId ? recordId.getValue() : null);
+		}
+		return ids;
+	}
+
+	@Override
+	public void store(String stream, String eventId, String eventName, String data) {
+		// Le Redis Stream est partagé : l'événement y a déjà été ajouté par le nœud émetteur
+	}
+
+	@Override
+	public Optional<List<ReplayedEvent>> eventsAfter(String stream, String lastEventId) {
+		if (lastEventId == null) {
+			return Optional.empty();
+		}
+		String key = KEY_PREFIX + stream;
+		try {
+			RecordId last = RecordId.of(lastEventId);
+			var oldest = redisTemplate.opsForStream().range(key, Range.unbounded(),
+					Limit.limit().count(1));
+			if (oldest == null || oldest.isEmpty()
+					|| compare(oldest.getFirst().getId(), last) > 0) {
+				// L'événement a été évincé du flux : impossible de déterminer ce qui a été manqué
+				return Optional.empty();
+			}
+			var records = redisTemplate.opsForStream().range(key,
+					Range.rightUnbounded(Range.Bound.exclusive(lastEventId)));
+			List<ReplayedEvent> missed = new ArrayList<>();
+			if (records != null) {
+				for (MapRecord<String, Object, Object> record : records) {
+					missed.add(new ReplayedEvent(record.getId().getValue(),
+							String.valueOf(record.getValue().get("event")),
+							String.valueOf(record.getValue().get("data"))));
+				}
+			}
+			return Optional.of(missed);
+		} catch (Exception e) {
+			log.warn("[SSE] Rejeu impossible pour le flux {} depuis {} : {}", stream, lastEventId,
+					e.getMessage());
+			return Optional.empty();
+		}
+	}
+
+	private static int compare(RecordId a, RecordId b) {
+		int cmp = Long.compare(a.getTimestamp(), b.getTimestamp());
+		return cmp != 0 ? cmp : Long.compare(a.getSequence(), b.getSequence());
+	}
+}
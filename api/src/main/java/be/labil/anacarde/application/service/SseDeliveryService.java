@@ -0,0 +1,27 @@
+package be.labil.anacarde.application.service;
+
+import be.labil.anacarde.infrastructure.util.AsyncSseEmitter;
+
+/**
+ * Service de création des émetteurs SSE à envoi asynchrone.
+ * <p>
+ * Chaque émetteur dispose d'une file d'envoi bornée vidée par un thread virtuel, d'un délai
+ * d'expiration fini et reçoit périodiquement un battement de cœur permettant de détecter les
+ * connexions mortes.
+ */
+public interface SseDeliveryService {
+
+	/**
+	 * Crée un nouvel émetteur SSE et l'inscrit aux battements de cœur jusqu'à sa fermeture.
+	 *
+	 * @return l'émetteur créé
+	 */
+	AsyncSseEmitter createEmitter();
+
+	/**
+	 * Retourne le nombre d'émetteurs actuellement ouverts sur ce nœud.
+	 *
+	 * @return le nombre d'émetteurs ouverts
+	 */
+	int getOpenEmitterCount();
+}
@@ -0,0 +1,71 @@
+package be.labil.anacarde.application.service;
+
+import be.labil.anacarde.infrastructure.util.AsyncSseEmitter;
+import be.labil.anacarde.infrastructure.util.AsyncSseEmitter.OverflowPolicy;
+import jakarta.annotation.PreDestroy;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+@Service
+public class SseDeliveryServiceImpl implements SseDeliveryService {
+	private static final Logger log = LoggerFactory.getLogger(SseDeliveryServiceImpl.class);
+	private final Set<AsyncSseEmitter> openEmitters = ConcurrentHashMap.newKeySet();
+	private final ScheduledExecutorService heartbeatScheduler;
+	private final long timeoutMs;
+	private final int queueCapacity;
+	private final OverflowPolicy overflowPolicy;
+
+	@Autowired
+	public SseDeliveryServiceImpl(@Value("${app.sse.timeout-ms:1800000}") long timeoutMs,
+			@Value("${app.sse.queue-capacity:256}") int queueCapacity,
+			@Value("${app.sse.overflow-policy:DROP_OLDEST}") OverflowPolicy overflowPolicy,
+			@Value("${app.sse.heartbeat-interval-ms:15000}") long heartbeatIntervalMs) {
+		this.timeoutMs = timeoutMs;
+		this.queueCapacity = queueCapacity;
+		this.overflowPolicy = overflowPolicy;
+		this.heartbeatScheduler = Executors.newSingleThreadScheduledExecutor(
+				Thread.ofPlatform().name("sse-heartbeat").daemon().factory());
+		this.heartbeatScheduler.scheduleAtFixedRate(this::sendHeartbeats, heartbeatIntervalMs,
+				heartbeatIntervalMs, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public AsyncSseEmitter createEmitter() {
+		AsyncSseEmitter emitter = new AsyncSseEmitter(timeoutMs, queueCapacity, overflowPolicy);
+		openEmitters.add(emitter);
+		emitter.onCompletion(() -> openEmitters.remove(emitter));
+		emitter.onTimeout(() -> openEmitters.remove(emitter));
+		emitter.onError(e -> openEmitters.remove(emitter));
+		return emitter;
+	}
+
+	@Override
+	public int getOpenEmitterCount() {
+		return openEmitters.size();
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		heartbeatScheduler.shutdownNow();
+		openEmitters.forEach(AsyncSseEmitter::complete);
+	}
+
+	private void sendHeartbeats() {
+		try {
+			// Le commentaire est partagé : il n'est construit qu'une fois par cycle
+			var heartbeat = AsyncSseEmitter.heartbeat();
+			openEmitters.removeIf(emitter -> !emitter.enqueue(heartbeat));
+			log.trace("[SSE] Heartbeat envoyé à {} émetteur(s)", openEmitters.size());
+		} catch (Exception e) {
+			log.warn("[SSE] Échec de l'envoi des heartbeats", e);
+		}
+	}
+}
@@ -0,0 +1,51 @@
+package be.labil.anacarde.application.service;
+
+import be.labil.anacarde.domain.dto.db.SseFanOutStatsDto;
+import java.util.Collection;
+
+/**
+ * Service de diffusion (fan-out) des événements SSE vers les utilisateurs et les enchères.
+ * <p>
+ * Chaque événement est sérialisé une seule fois, puis publié en un seul aller-retour Redis
+ * (pipeline) pour l'ensemble des destinataires. Les émetteurs d'une enchère reçoivent l'événement
+ * exactement une fois.
+ */
+public interface SseFanOutService {
+
+	/**
+	 * Publie un événement vers les canaux de notification des utilisateurs donnés.
+	 *
+	 * @param userKeys
+	 *            les clés des utilisateurs destinataires
+	 * @param excludedUserKey
+	 *            la clé d'un utilisateur à ne pas notifier (l'auteur de l'événement), ou
+	 *            {@code null}
+	 * @param eventName
+	 *            le nom de l'événement
+	 * @param data
+	 *            les données de l'événement
+	 */
+	void publishToUsers(Collection<String> userKeys, String excludedUserKey, String eventName,
+			Object data);
+
+	/**
+	 * Envoie un événement à tous les émetteurs SSE ouverts sur une enchère, quel que soit le nœud
+	 * qui les détient. Lorsque Redis est activé, un unique message est publié sur le canal
+	 * {@code auctions:{id}}, écouté uniquement par les nœuds ayant des émetteurs pour l'enchère.
+	 *
+	 * @param auctionId
+	 *            l'ID de l'enchère
+	 * @param eventName
+	 *            le nom de l'événement
+	 * @param data
+	 *            les données de l'événement
+	 */
+	void sendToAuction(Integer auctionId, String eventName, Object data);
+
+	/**
+	 * Retourne les compteurs cumulés de diffusion de ce nœud depuis le démarrage de l'application.
+	 *
+	 * @return un instantané des compteurs de diffusion
+	 */
+	SseFanOutStatsDto getStats();
+}
@@ -0,0 +1,156 @@
+package be.labil.anacarde.application.service;
+
+import be.labil.anacarde.domain.dto.db.SseFanOutStatsDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+@Service
+public class SseFanOutServiceImpl implements SseFanOutService {
+	private static final Logger log = LoggerFactory.getLogger(SseFanOutServiceImpl.class);
+	private static final String USER_CHANNEL_PREFIX = "notifications:user:";
+	private final StringRedisTemplate redisTemplate;
+	private final ObjectMapper objectMapper;
+	private final AuctionSseServiceImpl auctionSseService;
+	private final NotificationSseServiceImpl notificationSseService;
+	private final SseReplayService sseReplayService;
+	private final boolean redisNotificationsEnabled;
+	private final LongAdder events = new LongAdder();
+	private final LongAdder deliveries = new LongAdder();
+	private final LongAdder totalLatencyNanos = new LongAdder();
+	private final AtomicLong maxFanOut = new AtomicLong();
+
+	@Autowired
+	public SseFanOutServiceImpl(StringRedisTemplate redisTemplate, ObjectMapper objectMapper,
+			AuctionSseServiceImpl auctionSseService,
+			NotificationSseServiceImpl notificationSseService, SseReplayService sseReplayService,
+			@Value("${app.redis.notifications.enabled:true}") boolean redisNotificationsEnabled) {
+		this.redisTemplate = redisTemplate;
+		this.objectMapper = objectMapper;
+		this.auctionSseService = auctionSseService;
+		this.notificationSseService = notificationSseService;
+		this.sseReplayService = sseReplayService;
+		this.redisNotificationsEnabled = redisNotificationsEnabled;
+	}
+
+	@Override
+	public void publishToUsers(Collection<String> userKeys, String excludedUserKey,
+			String eventName, Object data) {
+		if (userKeys == null || userKeys.isEmpty()) {
+			return;
+		}
+		List<String> recipients = userKeys.stream().filter(Objects::nonNull)
+				.filter(userKey -> !userKey.equals(excludedUserKey)).distinct().toList();
+		if (recipients.isEmpty()) {
+			return;
+		}
+		long start = System.nanoTime();
+		try {
+			// Sérialisation unique, partagée par tous les destinataires
+			String json = objectMapper.writeValueAsString(data);
+			List<String> eventIds = sseReplayService.appendAll(
+					recipients.stream().map(SseReplayService::userStream).toList(), eventName,
+					json);
+			if (redisNotificationsEnabled) {
+				List<byte[]> payloads = new ArrayList<>(recipients.size());
+				for (String eventId : eventIds) {
+					payloads.add(envelope(eventId, eventName, json));
+				}
+				redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+					for (int i = 0; i < recipients.size(); i++) {
+						connection.publish((USER_CHANNEL_PREFIX + recipients.get(i))
+								.getBytes(StandardCharsets.UTF_8), payloads.get(i));
+					}
+					return null;
+				});
+			} else {
+				for (int i = 0; i < recipients.size(); i++) {
+					notificationSseService.sendEvent(recipients.get(i), eventIds.get(i),
+							eventName, json);
+				}
+			}
+			log.debug("[SSE] Event {} publié vers {} utilisateur(s)", eventName,
+					recipients.size());
+		} catch (Exception e) {
+			log.error("[SSE] Échec de la diffusion de l'event {} vers {} utilisateur(s)",
+					eventName, recipients.size(), e);
+		} finally {
+			record(recipients.size(), System.nanoTime() - start);
+		}
+	}
+
+	@Override
+	public void sendToAuction(Integer auctionId, String eventName, Object data) {
+		long start = System.nanoTime();
+		int fanOut = 0;
+		try {
+			// Sérialisation unique, chaque émetteur reçoit l'event une seule fois
+			String json = objectMapper.writeValueAsString(data);
+			String eventId = sseReplayService.append(SseReplayService.auctionStream(auctionId),
+					eventName, json);
+			if (redisNotificationsEnabled) {
+				// Un seul message sur le canal de l'enchère : seuls les nœuds ayant des
+				// émetteurs locaux pour cette enchère y sont abonnés
+				redisTemplate.convertAndSend(
+						RedisNotificationListenerImpl.AUCTION_CHANNEL_PREFIX + auctionId,
+						new String(envelope(eventId, eventName, json), StandardCharsets.UTF_8));
+				log.debug("[SSE] Event {} publié sur le canal de l'enchère {}", eventName,
+						auctionId);
+				fanOut = 1;
+			} else {
+				fanOut = auctionSseService.sendEvent(auctionId, eventId, eventName, json);
+				log.debug("[SSE] Event {} envoyé à {} émetteur(s) de l'enchère {}", eventName,
+						fanOut, auctionId);
+			}
+		} catch (Exception e) {
+			log.error("[SSE] Échec de la diffusion de l'event {} pour l'enchère {}", eventName,
+					auctionId, e);
+		} finally {
+			record(fanOut, System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Construit le message Redis d'un événement, en y insérant telles quelles les données déjà
+	 * sérialisées.
+	 */
+	private byte[] envelope(String eventId, String eventName, String json)
+			throws JsonProcessingException {
+		RedisNotificationListener.RedisNotificationEvent event = new RedisNotificationListener.RedisNotificationEvent();
+		event.setId(eventId);
+		event.setEventName(eventName);
+		event.setData(new RawValue(json));
+		return objectMapper.writeValueAsBytes(event);
+	}
+
+	@Override
+	public SseFanOutStatsDto getStats() {
+		long eventCount = events.sum();
+		double averageLatencyMillis = eventCount == 0
+				? 0
+				: totalLatencyNanos.sum() / 1_000_000.0 / eventCount;
+		return SseFanOutStatsDto.builder().events(eventCount).deliveries(deliveries.sum())
+				.maxFanOut(maxFanOut.get()).averageLatencyMillis(averageLatencyMillis).build();
+	}
+
+	private void record(int fanOut, long latencyNanos) {
+		events.increment();
+		deliveries.add(fanOut);
+		totalLatencyNanos.add(latencyNanos);
+		maxFanOut.accumulateAndGet(fanOut, Math::max);
+	}
+}
@@ -0,0 +1,146 @@
+package be.labil.anacarde.application.service;
+
+import be.labil.anacarde.infrastructure.util.AsyncSseEmitter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Service de rejeu des événements SSE après une reconnexion.
+ * <p>
+ * Chaque événement publié sur un flux (une enchère ou un utilisateur) reçoit un identifiant et est
+ * conservé dans un tampon borné. Lorsqu'un client se reconnecte avec l'en-tête
+ * {@code Last-Event-ID}, seuls les événements manqués lui sont renvoyés.
+ */
+public interface SseReplayService {
+
+	/**
+	 * Retourne la clé du flux d'événements d'une enchère.
+	 *
+	 * @param auctionId
+	 *            l'ID de l'enchère
+	 * @return la clé du flux
+	 */
+	static String auctionStream(Integer auctionId) {
+		return "auction:" + auctionId;
+	}
+
+	/**
+	 * Retourne la clé du flux de notifications d'un utilisateur.
+	 *
+	 * @param userKey
+	 *            la clé de l'utilisateur
+	 * @return la clé du flux
+	 */
+	static String userStream(String userKey) {
+		return "user:" + userKey;
+	}
+
+	/**
+	 * Attribue un identifiant à un nouvel événement du flux et le conserve pour un rejeu éventuel.
+	 *
+	 * @param stream
+	 *            la clé du flux
+	 * @param eventName
+	 *            le nom de l'événement
+	 * @param data
+	 *            les données de l'événement, sérialisées en JSON
+	 * @return l'identifiant attribué à l'événement
+	 */
+	String append(String stream, String eventName, String data);
+
+	/**
+	 * Attribue un identifiant au même événement publié sur plusieurs flux.
+	 *
+	 * @param streams
+	 *            les clés des flux
+	 * @param eventName
+	 *            le nom de l'événement
+	 * @param data
+	 *            les données de l'événement, sérialisées en JSON
+	 * @return les identifiants attribués, dans l'ordre des flux
+	 */
+	default List<String> appendAll(List<String> streams, String eventName, String data) {
+		List<String> ids = new ArrayList<>(streams.size());
+		for (String stream : streams) {
+			ids.add(append(stream, eventName, data));
+		}
+		return ids;
+	}
+
+	/**
+	 * Conserve un événement dont l'identifiant a déjà été attribué par un autre nœud. Sans effet si
+	 * l'événement est déjà connu ou si le tampon est partagé entre les nœuds.
+	 *
+	 * @param stream
+	 *            la clé du flux
+	 * @param eventId
+	 *            l'identifiant de l'événement
+	 * @param eventName
+	 *            le nom de l'événement
+	 * @param data
+	 *            les données de l'événement, sérialisées en JSON
+	 */
+	void store(String stream, String eventId, String eventName, String data);
+
+	/**
+	 * Retourne les événements du flux publiés après l'événement donné.
+	 *
+	 * @param stream
+	 *            la clé du flux
+	 * @param lastEventId
+	 *            l'identifiant du dernier événement reçu par le client
+	 * @return les événements manqués, du plus ancien au plus récent, ou {@link Optional#empty()}
+	 *         si l'événement n'est plus (ou n'a jamais été) dans le tampon : le client doit alors
+	 *         recharger l'état complet
+	 */
+	Optional<List<ReplayedEvent>> eventsAfter(String stream, String lastEventId);
+
+	/**
+	 * Programme l'envoi des événements manqués depuis {@code lastEventId}. Ils sont lus par le
+	 * thread d'envoi de l'émetteur, hors des verrous de l'appelant, et envoyés avant les
+	 * événements retenus depuis {@link AsyncSseEmitter#holdForReplay()}. Si ces événements ne
+	 * peuvent être déterminés, un événement {@code resync} invite le client à recharger l'état
+	 * complet.
+	 *
+	 * @param stream
+	 *            la clé du flux
+	 * @param lastEventId
+	 *            l'identifiant du dernier événement reçu par le client, ou {@code null} pour une
+	 *            première connexion (aucun rejeu)
+	 * @param emitter
+	 *            l'émetteur du client qui se reconnecte, déjà inscrit
+	 */
+	default void replay(String stream, String lastEventId, AsyncSseEmitter emitter) {
+		if (lastEventId == null || lastEventId.isBlank()) {
+			return;
+		}
+		emitter.replay(() -> {
+			Optional<List<ReplayedEvent>> missed;
+			try {
+				missed = eventsAfter(stream, lastEventId);
+			} catch (Exception e) {
+				missed = Optional.empty();
+			}
+			if (missed.isEmpty()) {
+				return List.of(new AsyncSseEmitter.QueuedEvent(null,
+						AsyncSseEmitter.event("resync", "{}")));
+			}
+			return missed.get().stream().map(event -> new AsyncSseEmitter.QueuedEvent(event.id(),
+					AsyncSseEmitter.event(event.id(), event.eventName(), event.data()))).toList();
+		});
+	}
+
+	/**
+	 * Événement conservé dans le tampon de rejeu.
+	 *
+	 * @param id
+	 *            l'identifiant de l'événement
+	 * @param eventName
+	 *            le nom de l'événement
+	 * @param data
+	 *            les données de l'événement, sérialisées en JSON
+	 */
+	record ReplayedEvent(String id, String eventName, String data) {
+	}
+}
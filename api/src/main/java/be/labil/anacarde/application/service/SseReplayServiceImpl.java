@@ -0,0 +1,91 @@
+package be.labil.anacarde.application.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implémentation locale du rejeu SSE : un tampon circulaire en mémoire par flux. Les identifiants
+ * sont préfixés par l'identifiant du nœud, de sorte qu'un identifiant émis par un autre nœud n'est
+ * jamais confondu avec un identifiant local.
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.sse.replay", name = "backend", havingValue = "local", matchIfMissing = true)
+public class SseReplayServiceImpl implements SseReplayService {
+	private final String nodeId = UUID.randomUUID().toString().substring(0, 8);
+	private final AtomicLong sequence = new AtomicLong();
+	private final Map<String, Map<String, ReplayedEvent>> buffers;
+	private final int capacity;
+
+	@Autowired
+	public SseReplayServiceImpl(@Value("${app.sse.replay.capacity:100}") int capacity,
+			@Value("${app.sse.replay.max-streams:10000}") int maxStreams) {
+		this.capacity = capacity;
+		// LRU borné : les flux inactifs depuis le plus longtemps sont oubliés en premier
+		this.buffers = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Map<String, ReplayedEvent>> e) {
+				return size() > maxStreams;
+			}
+		});
+	}
+
+	@Override
+	public String append(String stream, String eventName, String data) {
+		String id = nodeId + "-" + sequence.incrementAndGet();
+		store(stream, id, eventName, data);
+		return id;
+	}
+
+	@Override
+	public void store(String stream, String eventId, String eventName, String data) {
+		if (eventId == null) {
+			return;
+		}
+		Map<String, ReplayedEvent> buffer = buffers.computeIfAbsent(stream, k -> newBuffer());
+		synchronized (buffer) {
+			buffer.putIfAbsent(eventId, new ReplayedEvent(eventId, eventName, data));
+		}
+	}
+
+	@Override
+	public Optional<List<ReplayedEvent>> eventsAfter(String stream, String lastEventId) {
+		Map<String, ReplayedEvent> buffer = buffers.get(stream);
+		if (buffer == null || lastEventId == null) {
+			return Optional.empty();
+		}
+		synchronized (buffer) {
+			if (!buffer.containsKey(lastEventId)) {
+				return Optional.empty();
+			}
+			List<ReplayedEvent> missed = new ArrayList<>();
+			boolean found = false;
+			for (ReplayedEvent event : buffer.values()) {
+				if (found) {
+					missed.add(event);
+				} else if (event.id().equals(lastEventId)) {
+					found = true;
+				}
+			}
+			return Optional.of(missed);
+		}
+	}
+
+	private Map<String, ReplayedEvent> newBuffer() {
+		return new LinkedHashMap<>(16, 0.75f, false) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, ReplayedEvent> eldest) {
+				return size() > capacity;
+			}
+		};
+	}
+}
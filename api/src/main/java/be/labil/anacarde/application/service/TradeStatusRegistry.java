@@ -0,0 +1,56 @@
+package be.labil.anacarde.application.service;
+
+import be.labil.anacarde.domain.model.TradeStatus;
+import be.labil.anacarde.domain.model.TradeStatusCode;
+
+/**
+ * Registre en mémoire des status d'offre connus de l'application.
+ * <p>
+ * Les status sont chargés en une seule requête puis conservés dans une table immuable : les
+ * traitements fréquents (placement, acceptation ou clôture) n'interrogent plus la base de données
+ * pour retrouver un status. Le registre est invalidé à chaque écriture via
+ * {@link TradeStatusService}.
+ */
+public interface TradeStatusRegistry {
+
+	/**
+	 * Retourne le status correspondant au code donné. L'instance retournée est une copie détachée,
+	 * pouvant être affectée à une entité.
+	 *
+	 * @param code
+	 *            le code du status
+	 * @return le status correspondant
+	 * @throws be.labil.anacarde.application.exception.ResourceNotFoundException
+	 *             si le status n'existe pas en base de données
+	 */
+	TradeStatus get(TradeStatusCode code);
+
+	/**
+	 * Retourne l'identifiant du status correspondant au code donné.
+	 *
+	 * @param code
+	 *            le code du status
+	 * @return l'identifiant du status
+	 */
+	default Integer getId(TradeStatusCode code) {
+		return get(code).getId();
+	}
+
+	/**
+	 * Indique si le status donné correspond au code donné.
+	 *
+	 * @param status
+	 *            le status à tester, éventuellement {@code null}
+	 * @param code
+	 *            le code attendu
+	 * @return {@code true} si le status correspond au code
+	 */
+	default boolean is(TradeStatus status, TradeStatusCode code) {
+		return status != null && getId(code).equals(status.getId());
+	}
+
+	/**
+	 * Vide le registre : il sera rechargé depuis la base de données au prochain accès.
+	 */
+	void invalidate();
+}
@@ -0,0 +1,66 @@
+package be.labil.anacarde.application.service;
+
+import be.labil.anacarde.application.exception.ResourceNotFoundException;
+import be.labil.anacarde.domain.model.TradeStatus;
+import be.labil.anacarde.domain.model.TradeStatusCode;
+import be.labil.anacarde.infrastructure.persistence.TradeStatusRepository;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+@Service
+public class TradeStatusRegistryImpl implements TradeStatusRegistry {
+	private static final Logger log = LoggerFactory.getLogger(TradeStatusRegistryImpl.class);
+	private final TradeStatusRepository tradeStatusRepository;
+	private volatile Map<TradeStatusCode, TradeStatus> statuses = Map.of();
+
+	@Autowired
+	public TradeStatusRegistryImpl(TradeStatusRepository tradeStatusRepository) {
+		this.tradeStatusRepository = tradeStatusRepository;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void preload() {
+		reload();
+	}
+
+	@Override
+	public TradeStatus get(TradeStatusCode code) {
+		TradeStatus status = statuses.get(code);
+		if (status == null) {
+			// Registre vide (invalidé) ou status créé depuis le dernier chargement
+			status = reload().get(code);
+			if (status == null) {
+				throw new ResourceNotFoundException("Status non trouvé");
+			}
+		}
+		// Copie détachée : l'instance partagée du registre n'est jamais exposée
+		return TradeStatus.builder().id(status.getId()).name(status.getName()).build();
+	}
+
+	@Override
+	public void invalidate() {
+		statuses = Map.of();
+	}
+
+	private synchronized Map<TradeStatusCode, TradeStatus> reload() {
+		Map<TradeStatusCode, TradeStatus> loaded = new EnumMap<>(TradeStatusCode.class);
+		for (TradeStatus status : tradeStatusRepository.findAll()) {
+			for (TradeStatusCode code : TradeStatusCode.values()) {
+				if (code.getStatusName().equals(status.getName())) {
+					loaded.put(code, TradeStatus.builder().id(status.getId())
+							.name(status.getName()).build());
+				}
+			}
+		}
+		statuses = Collections.unmodifiableMap(loaded);
+		log.debug("[TradeStatus] Registre chargé : {} status", loaded.size());
+		return statuses;
+	}
+}
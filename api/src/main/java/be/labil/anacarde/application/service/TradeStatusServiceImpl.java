@@ -5,6 +5,7 @@ import be.labil.anacarde.domain.dto.db.TradeStatusDto;
 import be.labil.anacarde.domain.mapper.TradeStatusMapper;
 import be.labil.anacarde.domain.model.TradeStatus;
 import be.labil.anacarde.infrastructure.persistence.TradeStatusRepository;
+import be.labil.anacarde.infrastructure.util.TransactionHelper;
 import java.util.List;
 import java.util.stream.Collectors;
 import lombok.AllArgsConstructor;
@@ -17,11 +18,13 @@ import org.springframework.transaction.annotation.Transactional;
 public class TradeStatusServiceImpl implements TradeStatusService {
 	private final TradeStatusRepository TradeStatusRepository;
 	private final TradeStatusMapper TradeStatusMapper;
+	private final TradeStatusRegistry tradeStatusRegistry;
 
 	@Override
 	public TradeStatusDto createTradeStatus(TradeStatusDto dto) {
 		TradeStatus tradeStatus = TradeStatusMapper.toEntity(dto);
 		TradeStatus saved = TradeStatusRepository.save(tradeStatus);
+		TransactionHelper.afterCommit(tradeStatusRegistry::invalidate);
 		return TradeStatusMapper.toDto(saved);
 	}
 
@@ -49,6 +52,7 @@ public class TradeStatusServiceImpl implements TradeStatusService {
 				existingTradeStatus);
 
 		TradeStatus saved = TradeStatusRepository.save(updatedTradeStatus);
+		TransactionHelper.afterCommit(tradeStatusRegistry::invalidate);
 		return TradeStatusMapper.toDto(saved);
 	}
 
@@ -58,5 +62,6 @@ public class TradeStatusServiceImpl implements TradeStatusService {
 			throw new ResourceNotFoundException("Status non trouvé");
 		}
 		TradeStatusRepository.deleteById(id);
+		TransactionHelper.afterCommit(tradeStatusRegistry::invalidate);
 	}
 }
@@ -66,6 +66,7 @@ public class UserServiceImpl implements UserDetailsService, UserService {
 	private final DocumentRepository docRepo;
 	private final FieldService fieldService;
 	private final StoreRepository storeRepository;
+	private final AuthenticatedPrincipalCache principalCache;
 
 	private static final String BENIN_PHONE_COUNTRY_CODE = "+229";
 	private static final String BENIN_PHONE_REGEX = "^\\+22901\\d{8}$";
@@ -264,6 +265,8 @@ public class UserServiceImpl implements UserDetailsService, UserService {
 		}
 
 		User full = persistenceHelper.saveAndReload(userRepository, user, User::getId);
+		// Le compte (activation, rôle, identifiants) a pu changer : le principal est rechargé
+		principalCache.invalidateUser(full.getId());
 		return userDetailMapper.toDto(full);
 	}
 
@@ -283,6 +286,7 @@ public class UserServiceImpl implements UserDetailsService, UserService {
 		}
 
 		userRepository.deleteById(id);
+		principalCache.invalidateUser(id);
 	}
 
 	@Override
@@ -2,6 +2,7 @@ package be.labil.anacarde.application.service.export;
 
 import be.labil.anacarde.domain.dto.db.view.DashboardCardsDto;
 import be.labil.anacarde.domain.dto.db.view.DashboardGraphicDto;
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -9,7 +10,7 @@ import java.util.List;
  *
  * <ul>
  * <li><strong>v_dashboard_cards</strong> — KPI « cards » (1 ligne)</li>
- * <li><strong>v_dashboard_graphic</strong> — série chronologique (1 ligne / jour)</li>
+ * <li><strong>auction_daily_stats</strong> — agrégat journalier de la série chronologique</li>
  * </ul>
  */
 public interface DashboardService {
@@ -17,6 +18,19 @@ public interface DashboardService {
 	/** Récupère la ligne unique de KPI pour alimenter les cartes. */
 	DashboardCardsDto getDashboardStats();
 
-	/** Récupère toute la série chronologique pour la courbe « Open vs New ». */
-	List<DashboardGraphicDto> getDashboardGraphicSeries();
+	/**
+	 * Oublie l'instantané des KPI : le prochain appel à {@link #getDashboardStats()} les recalcule.
+	 */
+	void invalidate();
+
+	/**
+	 * Récupère la série chronologique pour la courbe « Open vs New », un point par jour.
+	 *
+	 * @param from
+	 *            premier jour de la série (inclus) ; par défaut, le jour de la première enchère
+	 * @param to
+	 *            dernier jour de la série (inclus), au plus tard aujourd'hui
+	 * @return la série, vide si aucune enchère n'existe
+	 */
+	List<DashboardGraphicDto> getDashboardGraphicSeries(LocalDate from, LocalDate to);
 }
@@ -1,44 +1,206 @@
 package be.labil.anacarde.application.service.export;
 
+import be.labil.anacarde.application.exception.ApiErrorCode;
+import be.labil.anacarde.application.exception.ApiErrorException;
 import be.labil.anacarde.application.exception.ResourceNotFoundException;
 import be.labil.anacarde.domain.dto.db.view.DashboardCardsDto;
 import be.labil.anacarde.domain.dto.db.view.DashboardGraphicDto;
 import be.labil.anacarde.domain.mapper.DashboardCardsMapper;
-import be.labil.anacarde.domain.mapper.DashboardGraphicMapper;
+import be.labil.anacarde.domain.model.AuctionDailyStats;
+import be.labil.anacarde.infrastructure.persistence.AuctionDailyStatsRepository;
 import be.labil.anacarde.infrastructure.persistence.view.DashboardCardsRepository;
-import be.labil.anacarde.infrastructure.persistence.view.DashboardGraphicRepository;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import lombok.RequiredArgsConstructor;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Implémentation <strong>lecture-seule</strong> des services de tableau de bord.
+ * <p>
+ * Les KPI « cards » sont recalculés en tâche de fond à intervalle régulier et servis depuis un
+ * instantané immuable. Si l'instantané manque ou est trop ancien, un seul recalcul est lancé : les
+ * requêtes concurrentes en attendent le résultat au lieu d'interroger la vue chacune. Le recalcul
+ * de fond peut être désactivé ({@code app.dashboard.cards.refresh-enabled}) : l'instantané n'est
+ * alors recalculé qu'à la demande.
+ * <p>
+ * La série « Open vs New » est lue dans l'agrégat journalier {@code auction_daily_stats} : son
+ * coût dépend de la période demandée, et non de l'historique complet des enchères.
  */
 @Service
-@RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class DashboardServiceImpl implements DashboardService {
+	private static final Logger log = LoggerFactory.getLogger(DashboardServiceImpl.class);
 
 	/* ===== Repositories ===== */
 	private final DashboardCardsRepository cardsRepo;
-	private final DashboardGraphicRepository graphicRepo;
+	private final AuctionDailyStatsRepository dailyStatsRepo;
 
 	/* ===== Mappers ===== */
 	private final DashboardCardsMapper cardsMapper;
-	private final DashboardGraphicMapper graphicMapper;
+
+	/* ===== Instantané des KPI ===== */
+	private final long refreshIntervalMs;
+	private final boolean refreshEnabled;
+	private final AtomicReference<CompletableFuture<DashboardCardsDto>> inFlight =
+			new AtomicReference<>();
+	// Incrémentée à chaque invalidation : un recalcul concurrent n'est alors pas conservé
+	private final AtomicLong generation = new AtomicLong();
+	private ScheduledExecutorService refresher;
+	private volatile DashboardCardsDto snapshot;
+
+	@Autowired
+	public DashboardServiceImpl(DashboardCardsRepository cardsRepo,
+			AuctionDailyStatsRepository dailyStatsRepo, DashboardCardsMapper cardsMapper,
+			@Value("${app.dashboard.cards.refresh-interval-ms:60000}") long refreshIntervalMs,
+			@Value("${app.dashboard.cards.refresh-enabled:true}") boolean refreshEnabled) {
+		this.cardsRepo = cardsRepo;
+		this.dailyStatsRepo = dailyStatsRepo;
+		this.cardsMapper = cardsMapper;
+		this.refreshIntervalMs = refreshIntervalMs;
+		this.refreshEnabled = refreshEnabled;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void startRefresh() {
+		if (!refreshEnabled) {
+			log.info("[Dashboard] Recalcul des KPI en tâche de fond désactivé");
+			return;
+		}
+		refresher = Executors.newSingleThreadScheduledExecutor(
+				Thread.ofPlatform().name("dashboard-refresh").daemon().factory());
+		refresher.scheduleWithFixedDelay(this::refreshInBackground, 0, refreshIntervalMs,
+				TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		if (refresher != null) {
+			refresher.shutdownNow();
+		}
+	}
 
 	/* ===== KPI « cards » ===== */
 	@Override
+	@Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
 	public DashboardCardsDto getDashboardStats() {
-		return cardsRepo.fetchCards() // 0 ou 1 ligne
-				.map(cardsMapper::toDto).orElseThrow(() -> new ResourceNotFoundException(
-						"La vue v_dashboard_cards n’a retourné aucune ligne."));
+		DashboardCardsDto current = snapshot;
+		if (current != null && !isStale(current)) {
+			return current;
+		}
+		try {
+			return refresh().join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw e;
+		}
+	}
+
+	@Override
+	public void invalidate() {
+		generation.incrementAndGet();
+		snapshot = null;
 	}
 
 	/* ===== Série chronologique ===== */
 	@Override
-	public List<DashboardGraphicDto> getDashboardGraphicSeries() {
-		return graphicMapper.toDtoList(graphicRepo.findAllSeries());
+	public List<DashboardGraphicDto> getDashboardGraphicSeries(LocalDate from, LocalDate to) {
+		if (from != null && to != null && from.isAfter(to)) {
+			throw new ApiErrorException(HttpStatus.BAD_REQUEST, ApiErrorCode.BAD_REQUEST.code(),
+					"from", "La date de début doit précéder la date de fin.");
+		}
+		LocalDate firstDay = dailyStatsRepo.findFirstDay();
+		if (firstDay == null) {
+			return List.of();
+		}
+		LocalDate start = (from == null || from.isBefore(firstDay)) ? firstDay : from;
+		LocalDate today = LocalDate.now();
+		LocalDate end = (to == null || to.isAfter(today)) ? today : to;
+
+		// Le point d'un jour compte les enchères créées la veille : la veille est aussi chargée
+		Map<LocalDate, AuctionDailyStats> rows = dailyStatsRepo
+				.findBetween(start.minusDays(1), end).stream()
+				.collect(Collectors.toMap(AuctionDailyStats::getStatDate, Function.identity()));
+		long open = dailyStatsRepo.countOpenAt(start);
+
+		List<DashboardGraphicDto> series = new ArrayList<>();
+		for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+			AuctionDailyStats previous = rows.get(day.minusDays(1));
+			series.add(DashboardGraphicDto.builder().date(day.atStartOfDay())
+					.totalOpenAuctions(open)
+					.totalNewAuctions(previous != null ? previous.getNewAuctions() : 0L).build());
+			AuctionDailyStats current = rows.get(day);
+			if (current != null) {
+				open += current.getNewAuctions() - current.getEndedAuctions();
+			}
+		}
+		return series;
+	}
+
+	/**
+	 * Recalcule les KPI, sauf si un recalcul est déjà en cours : son résultat est alors partagé.
+	 */
+	private CompletableFuture<DashboardCardsDto> refresh() {
+		CompletableFuture<DashboardCardsDto> mine = new CompletableFuture<>();
+		CompletableFuture<DashboardCardsDto> running = inFlight.compareAndExchange(null, mine);
+		if (running != null) {
+			return running;
+		}
+		try {
+			long loadedGeneration = generation.get();
+			LocalDateTime asOf = LocalDateTime.now();
+			DashboardCardsDto computed = cardsRepo.fetchCards() // 0 ou 1 ligne
+					.map(view -> cardsMapper.toDto(view, asOf))
+					.orElseThrow(() -> new ResourceNotFoundException(
+							"La vue v_dashboard_cards n’a retourné aucune ligne."));
+			if (generation.get() == loadedGeneration) {
+				snapshot = computed;
+			}
+			mine.complete(computed);
+		} catch (RuntimeException e) {
+			mine.completeExceptionally(e);
+		} finally {
+			inFlight.set(null);
+		}
+		return mine;
+	}
+
+	private void refreshInBackground() {
+		try {
+			refresh().join();
+			log.debug("[Dashboard] KPI recalculés");
+		} catch (Exception e) {
+			// L'instantané précédent reste servi jusqu'à ce qu'il soit trop ancien
+			log.warn("[Dashboard] Échec du recalcul des KPI : {}", e.getMessage());
+		}
+	}
+
+	// Au-delà de deux intervalles, le recalcul de fond est considéré comme défaillant
+	private boolean isStale(DashboardCardsDto cards) {
+		return cards.getAsOf()
+				.isBefore(LocalDateTime.now().minus(Duration.ofMillis(2 * refreshIntervalMs)));
 	}
 }
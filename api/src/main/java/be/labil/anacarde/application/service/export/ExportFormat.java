@@ -0,0 +1,57 @@
+package be.labil.anacarde.application.service.export;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Formats de fichier d'export des enchères.
+ */
+public enum ExportFormat {
+	JSON("json", MediaType.APPLICATION_JSON),
+	CSV("csv", MediaType.parseMediaType("text/csv"));
+
+	/** Type MIME d'un fichier d'export compressé. */
+	public static final MediaType GZIP = MediaType.parseMediaType("application/gzip");
+
+	private final String extension;
+	private final MediaType mediaType;
+
+	ExportFormat(String extension, MediaType mediaType) {
+		this.extension = extension;
+		this.mediaType = mediaType;
+	}
+
+	/**
+	 * Retourne le format correspondant au paramètre de requête, JSON par défaut.
+	 *
+	 * @param format
+	 *            « json » ou « csv », sans tenir compte de la casse
+	 * @return le format correspondant
+	 */
+	public static ExportFormat from(String format) {
+		return "csv".equalsIgnoreCase(format) ? CSV : JSON;
+	}
+
+	/**
+	 * Retourne le nom du fichier d'export.
+	 *
+	 * @param baseName
+	 *            nom du fichier sans extension
+	 * @param gzip
+	 *            {@code true} si le fichier est compressé
+	 * @return le nom du fichier, avec son extension
+	 */
+	public String filename(String baseName, boolean gzip) {
+		return baseName + "." + extension + (gzip ? ".gz" : "");
+	}
+
+	/**
+	 * Retourne le type MIME du fichier d'export.
+	 *
+	 * @param gzip
+	 *            {@code true} si le fichier est compressé
+	 * @return le type MIME
+	 */
+	public MediaType mediaType(boolean gzip) {
+		return gzip ? GZIP : mediaType;
+	}
+}
@@ -0,0 +1,55 @@
+package be.labil.anacarde.application.service.export;
+
+import be.labil.anacarde.domain.dto.db.ExportJobDto;
+import be.labil.anacarde.domain.dto.write.ExportJobRequestDto;
+import java.io.InputStream;
+
+/**
+ * Exports des enchères exécutés en tâche de fond.
+ * <p>
+ * Le fichier est écrit par morceaux dans le stockage pendant que la progression est enregistrée ;
+ * il est ensuite téléchargé, éventuellement par plages d'octets pour reprendre un téléchargement
+ * interrompu. Une soumission identique à un export terminé ou en cours, non expiré, renvoie ce
+ * même export au lieu d'en lancer un nouveau.
+ */
+public interface ExportJobService {
+
+	/**
+	 * Soumet un export. Si un export aux paramètres identiques est terminé ou en cours et n'a pas
+	 * expiré, il est renvoyé tel quel.
+	 *
+	 * @param request
+	 *            les paramètres de l'export
+	 * @return l'état du job créé ou réutilisé
+	 */
+	ExportJobDto submitJob(ExportJobRequestDto request);
+
+	/**
+	 * Retourne l'état d'un export.
+	 *
+	 * @param id
+	 *            l'ID du job
+	 * @return l'état du job
+	 */
+	ExportJobDto getJob(Integer id);
+
+	/**
+	 * Ouvre une plage d'octets du fichier d'un export terminé.
+	 *
+	 * @param id
+	 *            l'ID du job
+	 * @param offset
+	 *            position du premier octet lu
+	 * @param length
+	 *            nombre d'octets à lire
+	 * @return un flux sur la plage demandée, à fermer par l'appelant
+	 */
+	InputStream openFile(Integer id, long offset, long length);
+
+	/**
+	 * Marque en échec les exports abandonnés, puis supprime les exports expirés et leur fichier.
+	 *
+	 * @return le nombre d'exports supprimés
+	 */
+	int purgeExpired();
+}
@@ -0,0 +1,313 @@
+package be.labil.anacarde.application.service.export;
+
+import be.labil.anacarde.application.exception.ApiErrorCode;
+import be.labil.anacarde.application.exception.ApiErrorException;
+import be.labil.anacarde.application.exception.ResourceNotFoundException;
+import be.labil.anacarde.application.service.storage.StorageOutputStream;
+import be.labil.anacarde.application.service.storage.StorageService;
+import be.labil.anacarde.domain.dto.db.ExportJobDto;
+import be.labil.anacarde.domain.dto.write.ExportJobRequestDto;
+import be.labil.anacarde.domain.mapper.ExportJobMapper;
+import be.labil.anacarde.domain.model.ExportJob;
+import be.labil.anacarde.domain.model.ExportJobStatus;
+import be.labil.anacarde.infrastructure.persistence.ExportJobRepository;
+import jakarta.annotation.PreDestroy;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Service
+public class ExportJobServiceImpl implements ExportJobService {
+	private static final Logger log = LoggerFactory.getLogger(ExportJobServiceImpl.class);
+	private static final String STORAGE_PREFIX = "exports/";
+	private static final int MAX_ERROR_LENGTH = 255;
+	private final ExportJobRepository exportJobRepository;
+	private final ExportJobMapper exportJobMapper;
+	private final ExportService exportService;
+	private final StorageService storageService;
+	// Chaque étape d'un job est validée immédiatement, indépendamment de la lecture en cours
+	private final TransactionTemplate requiresNew;
+	private final Duration ttl;
+	private final Duration staleAfter;
+	private final long progressInterval;
+	private final long cleanupIntervalMs;
+	private final ExecutorService workers;
+	private final ScheduledExecutorService cleaner;
+
+	@Autowired
+	public ExportJobServiceImpl(ExportJobRepository exportJobRepository,
+			ExportJobMapper exportJobMapper, ExportService exportService,
+			StorageService storageService, PlatformTransactionManager transactionManager,
+			@Value("${app.export.jobs.ttl-ms:3600000}") long ttlMs,
+			@Value("${app.export.jobs.stale-after-ms:600000}") long staleAfterMs,
+			@Value("${app.export.jobs.concurrency:2}") int concurrency,
+			@Value("${app.export.jobs.progress-interval:1000}") long progressInterval,
+			@Value("${app.export.jobs.cleanup-interval-ms:600000}") long cleanupIntervalMs) {
+		this.exportJobRepository = exportJobRepository;
+		this.exportJobMapper = exportJobMapper;
+		this.exportService = exportService;
+		this.storageService = storageService;
+		this.requiresNew = new TransactionTemplate(transactionManager);
+		this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.ttl = Duration.ofMillis(ttlMs);
+		this.staleAfter = Duration.ofMillis(staleAfterMs);
+		this.progressInterval = progressInterval;
+		this.cleanupIntervalMs = cleanupIntervalMs;
+		this.workers = Executors.newFixedThreadPool(concurrency,
+				Thread.ofPlatform().name("export-job-", 0).daemon().factory());
+		this.cleaner = Executors.newSingleThreadScheduledExecutor(
+				Thread.ofPlatform().name("export-job-cleanup").daemon().factory());
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		cleaner.scheduleWithFixedDelay(this::purgeSafely, cleanupIntervalMs, cleanupIntervalMs,
+				TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		workers.shutdownNow();
+		cleaner.shutdownNow();
+	}
+
+	@Override
+	public ExportJobDto submitJob(ExportJobRequestDto request) {
+		LocalDateTime start = request.getStart();
+		LocalDateTime end = request.getEnd();
+		if ((start != null && end == null) || (start == null && end != null)) {
+			throw new ApiErrorException(HttpStatus.BAD_REQUEST, ApiErrorCode.BAD_REQUEST.code(),
+					"start",
+					"Les paramètres 'start' et 'end' doivent être fournis ensemble ou omis ensemble.");
+		}
+		if (start != null && start.isAfter(end)) {
+			throw new ApiErrorException(HttpStatus.BAD_REQUEST, ApiErrorCode.BAD_REQUEST.code(),
+					"end", "La date 'start' ne peut pas être postérieure à la date 'end'.");
+		}
+
+		ExportFormat format = ExportFormat.from(request.getFormat());
+		boolean onlyEnded = request.isOnlyEnded();
+		boolean gzip = request.isGzip();
+		String paramsHash = paramsHash(start, end, onlyEnded, format, gzip);
+		LocalDateTime now = LocalDateTime.now();
+
+		List<ExportJob> reusable = exportJobRepository.findReusable(paramsHash, now,
+				now.minus(staleAfter), Limit.of(1));
+		if (!reusable.isEmpty()) {
+			log.debug("[Export] Export ID {} réutilisé", reusable.getFirst().getId());
+			return exportJobMapper.toDto(reusable.getFirst());
+		}
+
+		String timestamp = now.format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+		ExportJob newJob = ExportJob.builder().paramsHash(paramsHash).activeParamsHash(paramsHash)
+				.startDate(start).endDate(end).onlyEnded(onlyEnded)
+				.format(format.name().toLowerCase()).gzip(gzip).status(ExportJobStatus.PENDING)
+				.rowsWritten(0L)
+				.storageKey(format.filename(STORAGE_PREFIX + UUID.randomUUID(), gzip))
+				.filename(format.filename("auctions_export_" + timestamp, gzip))
+				.contentType(format.mediaType(gzip).toString()).creationDate(now).updateDate(now)
+				.expirationDate(now.plus(ttl)).build();
+		ExportJob job;
+		try {
+			job = requiresNew.execute(status -> {
+				exportJobRepository.releaseParamsHash(paramsHash, now, now.minus(staleAfter));
+				return exportJobRepository.saveAndFlush(newJob);
+			});
+		} catch (DataIntegrityViolationException e) {
+			// Une soumission identique concurrente a créé le job : il est réutilisé
+			reusable = exportJobRepository.findReusable(paramsHash, now, now.minus(staleAfter),
+					Limit.of(1));
+			if (reusable.isEmpty()) {
+				throw e;
+			}
+			return exportJobMapper.toDto(reusable.getFirst());
+		}
+
+		Integer jobId = job.getId();
+		// Le job est validé : il est déjà visible des workers
+		workers.execute(() -> run(jobId));
+		log.info("[Export] Export ID {} soumis (format: {}, gzip: {})", jobId, job.getFormat(),
+				gzip);
+		return exportJobMapper.toDto(job);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public ExportJobDto getJob(Integer id) {
+		return exportJobMapper.toDto(findJob(id));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public InputStream openFile(Integer id, long offset, long length) {
+		ExportJob job = findJob(id);
+		if (job.getStatus() != ExportJobStatus.COMPLETED) {
+			throw new ApiErrorException(HttpStatus.CONFLICT, ApiErrorCode.CONFLICT.code(), "status",
+					"L'export n'est pas terminé.");
+		}
+		if (!job.getExpirationDate().isAfter(LocalDateTime.now())) {
+			throw new ResourceNotFoundException("Export expiré");
+		}
+		return storageService.get(job.getStorageKey(), offset, length);
+	}
+
+	@Override
+	public int purgeExpired() {
+		LocalDateTime now = LocalDateTime.now();
+		int failed = requiresNew
+				.execute(status -> exportJobRepository.failStale(now.minus(staleAfter)));
+		if (failed > 0) {
+			log.warn("[Export] {} export(s) abandonné(s) marqué(s) en échec", failed);
+		}
+
+		List<ExportJob> expired = requiresNew
+				.execute(status -> exportJobRepository.findExpired(now));
+		for (ExportJob job : expired) {
+			try {
+				storageService.delete(job.getStorageKey());
+			} catch (Exception e) {
+				// Un fichier jamais écrit (job en échec) n'empêche pas la suppression du job
+				log.debug("[Export] Fichier {} non supprimé : {}", job.getStorageKey(),
+						e.getMessage());
+			}
+		}
+		requiresNew.executeWithoutResult(status -> exportJobRepository.deleteAllInBatch(expired));
+		if (!expired.isEmpty()) {
+			log.info("[Export] {} export(s) expiré(s) supprimé(s)", expired.size());
+		}
+		return expired.size();
+	}
+
+	private ExportJob findJob(Integer id) {
+		return exportJobRepository.findById(id)
+				.orElseThrow(() -> new ResourceNotFoundException("Export non trouvé"));
+	}
+
+	/**
+	 * Exécute un export : les lignes sont écrites par morceaux dans le stockage et la progression
+	 * est enregistrée toutes les {@code progressInterval} lignes.
+	 */
+	private void run(Integer jobId) {
+		ExportJob job = requiresNew.execute(status -> markRunning(jobId));
+		if (job == null) {
+			return;
+		}
+		StorageOutputStream out = null;
+		try {
+			out = storageService.openOutput(job.getStorageKey());
+			long rows = exportService.writeAnalyses(job.getStartDate(), job.getEndDate(),
+					job.getOnlyEnded(), ExportFormat.from(job.getFormat()), job.getGzip(), out,
+					written -> {
+						if (written % progressInterval == 0) {
+							requiresNew.executeWithoutResult(status -> exportJobRepository
+									.updateProgress(jobId, written, LocalDateTime.now()));
+						}
+					});
+			out.close();
+			long size = out.size();
+			requiresNew.executeWithoutResult(status -> markCompleted(jobId, rows, size));
+			log.info("[Export] Export ID {} terminé : {} ligne(s), {} octet(s)", jobId, rows,
+					size);
+		} catch (Exception e) {
+			abortQuietly(out, jobId);
+			log.error("[Export] Échec de l'export ID {}", jobId, e);
+			requiresNew.executeWithoutResult(status -> markFailed(jobId, e));
+		}
+	}
+
+	private ExportJob markRunning(Integer jobId) {
+		ExportJob job = exportJobRepository.findById(jobId).orElse(null);
+		if (job == null || job.getStatus() != ExportJobStatus.PENDING) {
+			return null;
+		}
+		job.setTotalRows(exportService.countAnalyses(job.getStartDate(), job.getEndDate(),
+				job.getOnlyEnded()));
+		job.setStatus(ExportJobStatus.RUNNING);
+		job.setUpdateDate(LocalDateTime.now());
+		return job;
+	}
+
+	private void markCompleted(Integer jobId, long rows, long size) {
+		exportJobRepository.findById(jobId).ifPresent(job -> {
+			LocalDateTime now = LocalDateTime.now();
+			job.setStatus(ExportJobStatus.COMPLETED);
+			job.setRowsWritten(rows);
+			job.setSize(size);
+			job.setCompletionDate(now);
+			job.setUpdateDate(now);
+			// La durée de vie du fichier court à partir de la fin de l'export
+			job.setExpirationDate(now.plus(ttl));
+		});
+	}
+
+	private void markFailed(Integer jobId, Exception cause) {
+		exportJobRepository.findById(jobId).ifPresent(job -> {
+			String message = String.valueOf(cause.getMessage());
+			job.setStatus(ExportJobStatus.FAILED);
+			job.setActiveParamsHash(null);
+			job.setErrorMessage(message.length() > MAX_ERROR_LENGTH
+					? message.substring(0, MAX_ERROR_LENGTH)
+					: message);
+			job.setUpdateDate(LocalDateTime.now());
+		});
+	}
+
+	// Un échec de l'abandon n'empêche pas de marquer le job en échec
+	private static void abortQuietly(StorageOutputStream out, Integer jobId) {
+		if (out == null) {
+			return;
+		}
+		try {
+			out.abort();
+		} catch (Exception e) {
+			log.warn("[Export] Abandon du fichier de l'export ID {} impossible : {}", jobId,
+					e.getMessage());
+		}
+	}
+
+	private void purgeSafely() {
+		try {
+			purgeExpired();
+		} catch (Exception e) {
+			log.error("[Export] Échec du nettoyage des exports expirés", e);
+		}
+	}
+
+	// Deux soumissions aux paramètres identiques produisent le même fichier
+	private static String paramsHash(LocalDateTime start, LocalDateTime end, boolean onlyEnded,
+			ExportFormat format, boolean gzip) {
+		String params = start + "|" + end + "|" + onlyEnded + "|" + format + "|" + gzip;
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256")
+					.digest(params.getBytes(StandardCharsets.UTF_8));
+			return HexFormat.of().formatHex(digest);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 indisponible", e);
+		}
+	}
+}
@@ -1,21 +1,17 @@
 package be.labil.anacarde.application.service.export;
 
 import be.labil.anacarde.domain.dto.db.view.ExportAuctionDto;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
 
 /**
  * Services de reporting basés sur la vue v_auction_bid_analysis.
  */
 public interface ExportService {
 
-	/**
-	 * Renvoie la liste complète des enchères.
-	 *
-	 * @return Liste de tous les DTO projeté sur la vue
-	 */
-	List<ExportAuctionDto> getAllAnalyses();
-
 	/**
 	 * Renvoie l’analyse complète d’une enchère.
 	 *
@@ -26,15 +22,60 @@ public interface ExportService {
 	ExportAuctionDto getAuctionById(Integer auctionId);
 
 	/**
-	 * Renvoie toutes les enchères démarrées entre {@code start} et {@code end}.
-	 * 
+	 * Parcourt les enchères de la vue ligne par ligne, sans jamais les charger toutes en mémoire :
+	 * chaque ligne est transmise à {@code consumer} puis libérée.
+	 * <p>
+	 * Si {@code start} et {@code end} sont {@code null}, toutes les enchères sont parcourues ;
+	 * sinon, seules celles démarrées entre {@code start} et {@code end}.
+	 *
+	 * @param start
+	 *            borne incluse, ou {@code null}
+	 * @param end
+	 *            borne incluse, ou {@code null}
+	 * @param onlyEnded
+	 *            {@code true} → ne garder que les enchères terminées de la période
+	 * @param consumer
+	 *            traitement appliqué à chaque ligne, dans l'ordre de lecture
+	 */
+	void forEachAnalysis(LocalDateTime start, LocalDateTime end, boolean onlyEnded,
+			Consumer<ExportAuctionDto> consumer);
+
+	/**
+	 * Compte les enchères qu'un export avec les mêmes critères parcourrait.
+	 *
+	 * @param start
+	 *            borne incluse, ou {@code null}
+	 * @param end
+	 *            borne incluse, ou {@code null}
+	 * @param onlyEnded
+	 *            {@code true} → ne compter que les enchères terminées de la période
+	 * @return le nombre de lignes de l'export
+	 */
+	long countAnalyses(LocalDateTime start, LocalDateTime end, boolean onlyEnded);
+
+	/**
+	 * Écrit les enchères dans un fichier d'export, ligne par ligne (voir
+	 * {@link #forEachAnalysis}).
+	 *
 	 * @param start
-	 *            borne incluse
+	 *            borne incluse, ou {@code null}
 	 * @param end
-	 *            borne incluse
+	 *            borne incluse, ou {@code null}
 	 * @param onlyEnded
-	 *            {@code true} → ne garder que les enchères terminées
+	 *            {@code true} → ne garder que les enchères terminées de la période
+	 * @param format
+	 *            format du fichier
+	 * @param gzip
+	 *            {@code true} → compresser le fichier en gzip
+	 * @param out
+	 *            flux de destination, laissé ouvert
+	 * @param onRow
+	 *            appelé après chaque ligne avec le nombre de lignes écrites
+	 * @return le nombre de lignes écrites
+	 * @throws IOException
+	 *             si l'écriture dans {@code out} échoue
 	 */
-	List<ExportAuctionDto> getAnalysesBetween(LocalDateTime start, LocalDateTime end,
-			boolean onlyEnded);
+	long writeAnalyses(LocalDateTime start, LocalDateTime end, boolean onlyEnded,
+			ExportFormat format, boolean gzip, OutputStream out, LongConsumer onRow)
+			throws IOException;
 }
@@ -3,25 +3,55 @@ package be.labil.anacarde.application.service.export;
 import be.labil.anacarde.application.exception.ResourceNotFoundException;
 import be.labil.anacarde.domain.dto.db.view.ExportAuctionDto;
 import be.labil.anacarde.domain.mapper.ExportAuctionMapper;
+import be.labil.anacarde.domain.model.ExportAuction;
 import be.labil.anacarde.infrastructure.persistence.view.ExportAuctionRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jakarta.persistence.EntityManager;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
-import java.util.List;
-import lombok.RequiredArgsConstructor;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
-@RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ExportServiceImpl implements ExportService {
 
 	private final ExportAuctionRepository repo;
 	private final ExportAuctionMapper mapper;
+	private final EntityManager entityManager;
+	// Writers immuables, construits une seule fois et partagés entre les exports
+	private final ObjectWriter jsonWriter;
+	private final ObjectWriter csvWriter;
 
-	@Override
-	public List<ExportAuctionDto> getAllAnalyses() {
-		return repo.findAllView() // ← la nouvelle requête native
-				.stream().map(mapper::toDto).toList();
+	public ExportServiceImpl(ExportAuctionRepository repo, ExportAuctionMapper mapper,
+			EntityManager entityManager, ObjectMapper objectMapper) {
+		this.repo = repo;
+		this.mapper = mapper;
+		this.entityManager = entityManager;
+		this.jsonWriter = objectMapper.writerWithDefaultPrettyPrinter()
+				.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+				.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+		CsvMapper csvMapper = new CsvMapper();
+		csvMapper.findAndRegisterModules();
+		csvMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+		CsvSchema schema = csvMapper.schemaFor(ExportAuctionDto.class).withHeader()
+				.withColumnSeparator(';');
+		this.csvWriter = csvMapper.writer(schema)
+				.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+				.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
 	}
 
 	@Override
@@ -31,9 +61,49 @@ public class ExportServiceImpl implements ExportService {
 	}
 
 	@Override
-	public List<ExportAuctionDto> getAnalysesBetween(LocalDateTime start, LocalDateTime end,
-			boolean onlyEnded) {
-		return repo.findAllByStartDateBetween(start, end, onlyEnded).stream().map(mapper::toDto)
-				.toList();
+	public void forEachAnalysis(LocalDateTime start, LocalDateTime end, boolean onlyEnded,
+			Consumer<ExportAuctionDto> consumer) {
+		try (Stream<ExportAuction> rows = (start != null && end != null)
+				? repo.streamByStartDateBetween(start, end, onlyEnded)
+				: repo.streamAll()) {
+			rows.forEach(row -> {
+				consumer.accept(mapper.toDto(row));
+				// Sans détachement, le contexte de persistance retiendrait toutes les lignes lues
+				entityManager.detach(row);
+			});
+		}
+	}
+
+	@Override
+	public long countAnalyses(LocalDateTime start, LocalDateTime end, boolean onlyEnded) {
+		return (start != null && end != null)
+				? repo.countByStartDateBetween(start, end, onlyEnded)
+				: repo.countAll();
+	}
+
+	@Override
+	public long writeAnalyses(LocalDateTime start, LocalDateTime end, boolean onlyEnded,
+			ExportFormat format, boolean gzip, OutputStream out, LongConsumer onRow)
+			throws IOException {
+		OutputStream target = gzip ? new GZIPOutputStream(out, 8192) : out;
+		long[] count = {0};
+		try (SequenceWriter rows = (format == ExportFormat.CSV)
+				? csvWriter.writeValues(target)
+				: jsonWriter.writeValuesAsArray(target)) {
+			forEachAnalysis(start, end, onlyEnded, dto -> {
+				try {
+					rows.write(dto);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+				onRow.accept(++count[0]);
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+		if (target instanceof GZIPOutputStream gzipStream) {
+			gzipStream.finish();
+		}
+		return count[0];
 	}
 }
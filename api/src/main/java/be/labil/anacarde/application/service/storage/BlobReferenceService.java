@@ -0,0 +1,45 @@
+package be.labil.anacarde.application.service.storage;
+
+import be.labil.anacarde.domain.model.Document;
+
+/**
+ * Références des documents vers leur contenu, stocké une seule fois sous son empreinte SHA-256.
+ * <p>
+ * Les implémentations de {@link StorageService} prennent une référence à chaque document enregistré
+ * et la rendent à sa suppression ; le contenu n'est supprimé du stockage que lorsque plus aucun
+ * document ne le référence.
+ */
+public interface BlobReferenceService {
+
+	/**
+	 * Ajoute une référence au contenu, enregistré s'il est encore inconnu. Doit être appelée dans
+	 * la transaction qui enregistre le document, <strong>avant</strong> d'écrire le contenu dans
+	 * le stockage : le contenu ne peut alors plus être supprimé avant la fin de la transaction. Si
+	 * la transaction est annulée, le contenu est supprimé du stockage, sauf s'il est référencé
+	 * par ailleurs.
+	 *
+	 * @param hash
+	 *            l'empreinte SHA-256 du contenu
+	 * @param size
+	 *            la taille du contenu en octets
+	 */
+	void acquire(String hash, long size);
+
+	/**
+	 * Retire la référence d'un document à son contenu, dans la transaction qui supprime le
+	 * document.
+	 *
+	 * @param doc
+	 *            le document supprimé
+	 * @return {@code false} si le document n'est pas stocké sous son empreinte (document antérieur
+	 *         au stockage par contenu) : son fichier doit alors être supprimé directement
+	 */
+	boolean release(Document doc);
+
+	/**
+	 * Supprime du stockage les contenus qui ne sont plus référencés par aucun document.
+	 *
+	 * @return le nombre de contenus supprimés
+	 */
+	int collectUnreferenced();
+}
@@ -0,0 +1,149 @@
+package be.labil.anacarde.application.service.storage;
+
+import be.labil.anacarde.domain.model.Document;
+import be.labil.anacarde.domain.model.StoredBlob;
+import be.labil.anacarde.infrastructure.persistence.StoredBlobRepository;
+import be.labil.anacarde.infrastructure.util.TransactionHelper;
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Service
+public class BlobReferenceServiceImpl implements BlobReferenceService {
+	private static final Logger log = LoggerFactory.getLogger(BlobReferenceServiceImpl.class);
+	private final StoredBlobRepository blobRepository;
+	// Le stockage dépend lui-même de ce service : il est résolu au premier nettoyage
+	private final ObjectProvider<StorageService> storageService;
+	private final TransactionTemplate transactionTemplate;
+	// Les actions exécutées après une annulation ne peuvent plus utiliser sa transaction
+	private final TransactionTemplate requiresNew;
+	private final long collectIntervalMs;
+	private final int batchSize;
+	private final ScheduledExecutorService collector;
+
+	@Autowired
+	public BlobReferenceServiceImpl(StoredBlobRepository blobRepository,
+			ObjectProvider<StorageService> storageService, TransactionTemplate transactionTemplate,
+			@Value("${app.storage.blobs.collect-interval-ms:600000}") long collectIntervalMs,
+			@Value("${app.storage.blobs.collect-batch-size:500}") int batchSize) {
+		this.blobRepository = blobRepository;
+		this.storageService = storageService;
+		this.transactionTemplate = transactionTemplate;
+		this.requiresNew = new TransactionTemplate(transactionTemplate.getTransactionManager());
+		this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.collectIntervalMs = collectIntervalMs;
+		this.batchSize = batchSize;
+		this.collector = Executors.newSingleThreadScheduledExecutor(
+				Thread.ofPlatform().name("blob-collector").daemon().factory());
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		collector.scheduleWithFixedDelay(this::collectSafely, collectIntervalMs,
+				collectIntervalMs, TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		collector.shutdownNow();
+	}
+
+	@Override
+	@Transactional
+	public void acquire(String hash, long size) {
+		blobRepository.insertIfAbsent(hash, DiskStorageUtils.blobKey(hash), size,
+				LocalDateTime.now());
+		blobRepository.acquire(hash);
+		// Annulée, la référence disparaît avec la ligne : le fichier écrit ensuite ne serait plus
+		// jamais nettoyé, il est supprimé s'il n'est pas référencé par ailleurs
+		TransactionHelper.afterRollback(() -> discardSafely(hash, size));
+	}
+
+	@Override
+	@Transactional
+	public boolean release(Document doc) {
+		String hash = doc.getContentHash();
+		if (hash == null || !doc.getStoragePath().endsWith(DiskStorageUtils.blobKey(hash))) {
+			return false;
+		}
+		blobRepository.release(hash);
+		return true;
+	}
+
+	@Override
+	public int collectUnreferenced() {
+		int total = 0;
+		List<StoredBlob> candidates;
+		do {
+			candidates = transactionTemplate
+					.execute(status -> blobRepository.findUnreferenced(Limit.of(batchSize)));
+			for (StoredBlob blob : candidates) {
+				if (Boolean.TRUE.equals(transactionTemplate.execute(
+						status -> collect(blob.getContentHash(), blob.getStorageKey())))) {
+					total++;
+				}
+			}
+		} while (candidates.size() == batchSize);
+		if (total > 0) {
+			log.info("[Storage] {} contenu(s) non référencé(s) supprimé(s)", total);
+		}
+		return total;
+	}
+
+	/**
+	 * Supprime un contenu et son fichier. Le fichier est supprimé avant la validation, tant que la
+	 * ligne est verrouillée : un envoi concurrent du même contenu réécrit ensuite le fichier.
+	 */
+	private boolean collect(String hash, String storageKey) {
+		if (blobRepository.deleteIfUnreferenced(hash) == 0) {
+			return false;
+		}
+		storageService.getObject().delete(storageKey);
+		return true;
+	}
+
+	/**
+	 * Supprime le fichier d'un contenu dont la référence a été annulée. La ligne est recréée au
+	 * besoin afin d'être verrouillée comme lors d'un nettoyage : un contenu référencé par une
+	 * autre transaction validée est conservé.
+	 */
+	private void discardSafely(String hash, long size) {
+		String storageKey = DiskStorageUtils.blobKey(hash);
+		try {
+			requiresNew.executeWithoutResult(status -> {
+				blobRepository.insertIfAbsent(hash, storageKey, size, LocalDateTime.now());
+				if (collect(hash, storageKey)) {
+					log.debug("[Storage] Contenu {} supprimé après annulation", hash);
+				}
+			});
+		} catch (Exception e) {
+			// La ligne non référencée sera reprise par le prochain nettoyage
+			log.warn("[Storage] Échec de la suppression du contenu {} après annulation : {}",
+					hash, e.getMessage());
+		}
+	}
+
+	private void collectSafely() {
+		try {
+			collectUnreferenced();
+		} catch (Exception e) {
+			// Les contenus restants seront supprimés au prochain passage
+			log.error("[Storage] Échec de la suppression des contenus non référencés", e);
+		}
+	}
+}
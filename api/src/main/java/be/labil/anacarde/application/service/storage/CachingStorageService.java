@@ -0,0 +1,427 @@
+package be.labil.anacarde.application.service.storage;
+
+import be.labil.anacarde.application.exception.DocumentStorageException;
+import be.labil.anacarde.domain.model.Document;
+import be.labil.anacarde.domain.model.QualityControl;
+import be.labil.anacarde.domain.model.User;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Cache disque local, borné en taille, placé devant le stockage S3 – actif avec le profil
+ * <b>s3</b>.
+ * <p>
+ * Les documents lus sont copiés dans le répertoire du cache, sous leur empreinte de contenu (ou
+ * leur identifiant pour les documents sans empreinte), puis servis depuis le disque tant qu'ils
+ * n'ont pas été évincés : les documents les moins récemment lus sont supprimés dès que la taille
+ * maximale est dépassée. Un même document lu simultanément n'est téléchargé qu'une fois. Les
+ * fichiers d'export ne transitent pas par le cache.
+ */
+@Service
+@Primary
+@Profile("s3")
+@ConditionalOnProperty(prefix = "app.storage.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class CachingStorageService implements StorageService {
+	private static final Logger log = LoggerFactory.getLogger(CachingStorageService.class);
+	private static final String PARTIAL_SUFFIX = ".part";
+	private final StorageService delegate;
+	private final Path cacheDir;
+	private final long maxBytes;
+	// Ordre d'accès : la première entrée est la moins récemment lue
+	private final Map<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private long totalBytes;
+	private final Map<String, CompletableFuture<Path>> fills = new ConcurrentHashMap<>();
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong bytesSaved = new AtomicLong();
+	private long reportIntervalMs;
+	private ScheduledExecutorService reporter;
+	private long lastReportedRequests;
+
+	@Autowired
+	public CachingStorageService(S3StorageService delegate,
+			@Value("${app.storage.cache.dir:./data/s3-cache}") Path cacheDir,
+			@Value("${app.storage.cache.max-bytes:1073741824}") long maxBytes,
+			@Value("${app.storage.cache.report-interval-ms:300000}") long reportIntervalMs) {
+		this(delegate, cacheDir, maxBytes);
+		this.reportIntervalMs = reportIntervalMs;
+	}
+
+	CachingStorageService(StorageService delegate, Path cacheDir, long maxBytes) {
+		this.delegate = delegate;
+		this.cacheDir = cacheDir.toAbsolutePath().normalize();
+		this.maxBytes = maxBytes;
+		loadIndex();
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		reporter = Executors.newSingleThreadScheduledExecutor(
+				Thread.ofPlatform().name("storage-cache-report").daemon().factory());
+		reporter.scheduleWithFixedDelay(this::report, reportIntervalMs, reportIntervalMs,
+				TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		if (reporter != null) {
+			reporter.shutdownNow();
+		}
+	}
+
+	@Override
+	public List<Document> storeAll(User user, List<MultipartFile> files) {
+		return delegate.storeAll(user, files);
+	}
+
+	@Override
+	public List<Document> storeAll(QualityControl qualityControl, List<MultipartFile> files) {
+		return delegate.storeAll(qualityControl, files);
+	}
+
+	@Override
+	public Document store(StreamedUpload upload) {
+		return delegate.store(upload);
+	}
+
+	@Override
+	public InputStream get(Document doc) {
+		if (!isCacheable(doc)) {
+			return delegate.get(doc);
+		}
+		try {
+			return Files.newInputStream(fetch(doc));
+		} catch (NoSuchFileException e) {
+			// Évincé entre-temps par un autre remplissage
+			return delegate.get(doc);
+		} catch (IOException e) {
+			throw new DocumentStorageException("Impossible de lire le document", e);
+		}
+	}
+
+	@Override
+	public Resource getResource(Document doc) {
+		if (!isCacheable(doc)) {
+			return delegate.getResource(doc);
+		}
+		return new CachedResource(fetch(doc), doc);
+	}
+
+	@Override
+	public void delete(Document doc) {
+		delegate.delete(doc);
+		// Un contenu identifié par son empreinte ne change jamais : il est simplement évincé plus
+		// tard s'il n'est plus lu
+		if (doc.getContentHash() == null) {
+			evict(cacheKey(doc));
+		}
+	}
+
+	@Override
+	public Optional<URI> presignDownload(Document doc) {
+		return delegate.presignDownload(doc);
+	}
+
+	@Override
+	public Optional<PresignedUpload> presignUpload(String contentHash, long size,
+			String contentType) {
+		return delegate.presignUpload(contentHash, size, contentType);
+	}
+
+	@Override
+	public String attachUpload(String uploadId, String contentHash, long size) {
+		return delegate.attachUpload(uploadId, contentHash, size);
+	}
+
+	@Override
+	public String attachStored(String contentHash, long size) {
+		return delegate.attachStored(contentHash, size);
+	}
+
+	@Override
+	public StorageOutputStream openOutput(String key) {
+		return delegate.openOutput(key);
+	}
+
+	@Override
+	public InputStream get(String key, long offset, long length) {
+		return delegate.get(key, offset, length);
+	}
+
+	@Override
+	public void delete(String key) {
+		delegate.delete(key);
+	}
+
+	/**
+	 * Retourne les statistiques du cache depuis le démarrage.
+	 */
+	public CacheStats stats() {
+		synchronized (entries) {
+			return new CacheStats(hits.get(), misses.get(), bytesSaved.get(), entries.size(),
+					totalBytes);
+		}
+	}
+
+	/**
+	 * Retourne le fichier en cache du document, téléchargé depuis le stockage s'il est absent.
+	 */
+	private Path fetch(Document doc) {
+		String key = cacheKey(doc);
+		Path file = cacheDir.resolve(key);
+		if (touch(key)) {
+			recordHit(doc);
+			return file;
+		}
+
+		CompletableFuture<Path> mine = new CompletableFuture<>();
+		CompletableFuture<Path> running = fills.putIfAbsent(key, mine);
+		if (running != null) {
+			// Téléchargement déjà en cours pour ce document : son résultat est partagé
+			Path shared = join(running);
+			recordHit(doc);
+			return shared;
+		}
+		try {
+			// Un remplissage concurrent a pu se terminer entre la recherche et l'inscription
+			if (touch(key)) {
+				recordHit(doc);
+			} else {
+				misses.incrementAndGet();
+				fill(doc, key, file);
+			}
+			mine.complete(file);
+			return file;
+		} catch (RuntimeException e) {
+			mine.completeExceptionally(e);
+			throw e;
+		} finally {
+			fills.remove(key, mine);
+		}
+	}
+
+	// Écrit dans un fichier temporaire renommé une fois complet : un fichier du cache n'est jamais
+	// lu partiellement écrit
+	private void fill(Document doc, String key, Path file) {
+		Path partial = null;
+		try {
+			Files.createDirectories(cacheDir);
+			partial = Files.createTempFile(cacheDir, key, PARTIAL_SUFFIX);
+			try (InputStream in = delegate.get(doc)) {
+				Files.copy(in, partial, StandardCopyOption.REPLACE_EXISTING);
+			}
+			long size = Files.size(partial);
+			Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+			add(key, size);
+		} catch (IOException e) {
+			throw new DocumentStorageException("Impossible de mettre le document en cache", e);
+		} finally {
+			if (partial != null) {
+				try {
+					Files.deleteIfExists(partial);
+				} catch (IOException e) {
+					log.warn("[Storage] Fichier temporaire {} non supprimé", partial);
+				}
+			}
+		}
+	}
+
+	private boolean touch(String key) {
+		synchronized (entries) {
+			return entries.get(key) != null;
+		}
+	}
+
+	private void add(String key, long size) {
+		synchronized (entries) {
+			Long previous = entries.put(key, size);
+			totalBytes += size - (previous != null ? previous : 0L);
+			Iterator<Map.Entry<String, Long>> eldest = entries.entrySet().iterator();
+			while (totalBytes > maxBytes && eldest.hasNext()) {
+				Map.Entry<String, Long> entry = eldest.next();
+				if (entry.getKey().equals(key)) {
+					continue;
+				}
+				eldest.remove();
+				totalBytes -= entry.getValue();
+				deleteQuietly(cacheDir.resolve(entry.getKey()));
+			}
+		}
+	}
+
+	private void evict(String key) {
+		synchronized (entries) {
+			Long size = entries.remove(key);
+			if (size != null) {
+				totalBytes -= size;
+				deleteQuietly(cacheDir.resolve(key));
+			}
+		}
+	}
+
+	// Reconstruit l'index depuis le répertoire : les fichiers les plus anciens sont évincés en
+	// premier
+	private void loadIndex() {
+		if (!Files.isDirectory(cacheDir)) {
+			return;
+		}
+		try (Stream<Path> files = Files.list(cacheDir)) {
+			List<Path> cached = files.filter(Files::isRegularFile).toList();
+			cached.stream().filter(f -> f.getFileName().toString().endsWith(PARTIAL_SUFFIX))
+					.forEach(this::deleteQuietly);
+			cached.stream().filter(f -> !f.getFileName().toString().endsWith(PARTIAL_SUFFIX))
+					.sorted(Comparator.comparing(this::lastModified))
+					.forEach(f -> add(f.getFileName().toString(), sizeOf(f)));
+			log.info("[Storage] Cache disque chargé : {} document(s), {} octet(s)", entries.size(),
+					totalBytes);
+		} catch (IOException e) {
+			log.warn("[Storage] Impossible de charger le cache disque {} : {}", cacheDir,
+					e.getMessage());
+		}
+	}
+
+	private FileTime lastModified(Path file) {
+		try {
+			return Files.readAttributes(file, BasicFileAttributes.class).lastModifiedTime();
+		} catch (IOException e) {
+			return FileTime.fromMillis(0);
+		}
+	}
+
+	private long sizeOf(Path file) {
+		try {
+			return Files.size(file);
+		} catch (IOException e) {
+			return 0L;
+		}
+	}
+
+	private void deleteQuietly(Path file) {
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException e) {
+			log.warn("[Storage] Fichier {} du cache non supprimé : {}", file, e.getMessage());
+		}
+	}
+
+	private void recordHit(Document doc) {
+		hits.incrementAndGet();
+		bytesSaved.addAndGet(doc.getSize());
+	}
+
+	private boolean isCacheable(Document doc) {
+		return doc.getSize() <= maxBytes;
+	}
+
+	private static String cacheKey(Document doc) {
+		return doc.getContentHash() != null ? doc.getContentHash() : "document-" + doc.getId();
+	}
+
+	private static Path join(CompletableFuture<Path> future) {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw e;
+		}
+	}
+
+	private void report() {
+		CacheStats stats = stats();
+		long requests = stats.hits() + stats.misses();
+		if (requests == lastReportedRequests) {
+			return;
+		}
+		lastReportedRequests = requests;
+		log.info("[Storage] Cache disque : {}% de succès ({} / {}), {} octet(s) non téléchargés, "
+				+ "{} document(s) pour {} octet(s)", Math.round(stats.hitRatio() * 100),
+				stats.hits(), requests, stats.bytesSaved(), stats.entries(), stats.bytes());
+	}
+
+	/**
+	 * Statistiques du cache disque.
+	 *
+	 * @param hits
+	 *            lectures servies sans téléchargement
+	 * @param misses
+	 *            lectures ayant téléchargé le document
+	 * @param bytesSaved
+	 *            octets servis sans téléchargement
+	 * @param entries
+	 *            nombre de documents en cache
+	 * @param bytes
+	 *            taille totale des documents en cache
+	 */
+	public record CacheStats(long hits, long misses, long bytesSaved, long entries, long bytes) {
+
+		/** Part des lectures servies depuis le cache, entre 0 et 1. */
+		public double hitRatio() {
+			long requests = hits + misses;
+			return requests == 0 ? 0.0 : (double) hits / requests;
+		}
+	}
+
+	/**
+	 * Document en cache, relu depuis le stockage s'il est évincé avant d'être envoyé.
+	 */
+	private final class CachedResource extends FileSystemResource {
+		private final Document doc;
+
+		private CachedResource(Path file, Document doc) {
+			super(file);
+			this.doc = doc;
+		}
+
+		@Override
+		public InputStream getInputStream() throws IOException {
+			try {
+				return super.getInputStream();
+			} catch (NoSuchFileException e) {
+				return delegate.get(doc);
+			}
+		}
+
+		@Override
+		public long contentLength() {
+			return doc.getSize();
+		}
+	}
+}
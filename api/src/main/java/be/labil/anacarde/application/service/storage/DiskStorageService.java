@@ -1,19 +1,33 @@
 package be.labil.anacarde.application.service.storage;
 
+import be.labil.anacarde.application.exception.ApiErrorCode;
+import be.labil.anacarde.application.exception.ApiErrorException;
 import be.labil.anacarde.application.exception.DocumentStorageException;
 import be.labil.anacarde.domain.model.Document;
 import be.labil.anacarde.domain.model.QualityControl;
 import be.labil.anacarde.domain.model.User;
-import com.github.slugify.Slugify;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.file.*;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.function.BiFunction;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 import lombok.RequiredArgsConstructor;
+import org.apache.commons.io.input.BoundedInputStream;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -25,6 +39,11 @@ import org.springframework.web.multipart.MultipartFile;
 @RequiredArgsConstructor
 public class DiskStorageService implements StorageService {
 
+	// Envois en cours, sur le même disque que les contenus pour permettre un renommage atomique
+	private static final String UPLOAD_DIR = "tmp";
+
+	private final BlobReferenceService blobReferences;
+
 	@Value("${storage.disk.root}")
 	private Path rootDir;
 
@@ -32,7 +51,7 @@ public class DiskStorageService implements StorageService {
 	public List<Document> storeAll(User user, List<MultipartFile> files) {
 		if (user.getId() == null) throw new IllegalArgumentException("User ID is null");
 
-		return storeAllGeneric(user.getId().toString(), files,
+		return storeAllGeneric(files,
 				(file, path) -> DiskStorageUtils.buildDocument(user, file, path));
 	}
 
@@ -41,10 +60,24 @@ public class DiskStorageService implements StorageService {
 		if (qualityControl.getId() == null)
 			throw new IllegalArgumentException("QualityControl ID is null");
 
-		return storeAllGeneric(qualityControl.getId().toString(), files,
+		return storeAllGeneric(files,
 				(file, path) -> DiskStorageUtils.buildDocument(qualityControl, file, path));
 	}
 
+	@Override
+	public Document store(StreamedUpload upload) {
+		try {
+			UploadInputStream in = new UploadInputStream(upload);
+			String hash = storeBlob(in, in::contentHash, in::size);
+			Document document = DiskStorageUtils.buildDocument(upload.originalFilename(),
+					in.contentType(), in.size(), blobPath(hash).toString());
+			document.setContentHash(hash);
+			return document;
+		} catch (IOException e) {
+			throw new DocumentStorageException("Impossible de stocker le document", e);
+		}
+	}
+
 	@Override
 	public InputStream get(Document doc) {
 		try {
@@ -54,8 +87,22 @@ public class DiskStorageService implements StorageService {
 		}
 	}
 
+	@Override
+	public Resource getResource(Document doc) {
+		FileSystemResource resource = new FileSystemResource(Paths.get(doc.getStoragePath()));
+		if (!resource.isReadable()) {
+			throw new DocumentStorageException("Impossible de lire le document",
+					new NoSuchFileException(doc.getStoragePath()));
+		}
+		return resource;
+	}
+
 	@Override
 	public void delete(Document doc) {
+		if (blobReferences.release(doc)) {
+			// Contenu partagé : supprimé en tâche de fond quand plus aucun document ne le référence
+			return;
+		}
 		try {
 			Files.deleteIfExists(Paths.get(doc.getStoragePath()));
 		} catch (IOException e) {
@@ -63,20 +110,120 @@ public class DiskStorageService implements StorageService {
 		}
 	}
 
-	private List<Document> storeAllGeneric(String uniqueId, List<MultipartFile> files,
-			BiFunction<MultipartFile, String, Document> documentBuilder) {
+	@Override
+	public Optional<URI> presignDownload(Document doc) {
+		return Optional.empty();
+	}
+
+	@Override
+	public Optional<PresignedUpload> presignUpload(String contentHash, long size,
+			String contentType) {
+		return Optional.empty();
+	}
+
+	@Override
+	public String attachUpload(String uploadId, String contentHash, long size) {
+		throw new ApiErrorException(HttpStatus.BAD_REQUEST, ApiErrorCode.BAD_REQUEST.code(), null,
+				"L'envoi direct n'est pas disponible.");
+	}
+
+	@Override
+	public String attachStored(String contentHash, long size) {
+		// Référence prise avant la vérification : le contenu ne peut plus être supprimé
+		blobReferences.acquire(contentHash, size);
+		Path target = blobPath(contentHash);
 		try {
-			Files.createDirectories(rootDir);
+			if (Files.size(target) != size) {
+				throw new ApiErrorException(HttpStatus.CONFLICT, ApiErrorCode.CONFLICT.code(),
+						"contentHash", "La taille du fichier ne correspond pas.");
+			}
+		} catch (IOException e) {
+			throw new DocumentStorageException("Impossible de lire le document", e);
+		}
+		return target.toString();
+	}
 
-			List<Document> result = new ArrayList<>();
-			for (MultipartFile file : files) {
-				Path target = getFiletTarget(file, uniqueId);
+	@Override
+	public StorageOutputStream openOutput(String key) {
+		Path target = resolve(key);
+		try {
+			Files.createDirectories(target.getParent());
+			// Écrit dans un fichier temporaire, renommé à la fermeture : le fichier n'est jamais lu
+			// partiellement écrit
+			Path partial = target.resolveSibling(target.getFileName() + ".part");
+			OutputStream out = Files.newOutputStream(partial);
+			return new StorageOutputStream() {
+				@Override
+				protected void writeChunk(byte[] b, int off, int len) throws IOException {
+					out.write(b, off, len);
+				}
+
+				@Override
+				public void close() throws IOException {
+					out.close();
+					Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING,
+							StandardCopyOption.ATOMIC_MOVE);
+				}
 
-				try (var in = file.getInputStream()) {
-					Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+				@Override
+				public void abort() {
+					try {
+						out.close();
+						Files.deleteIfExists(partial);
+					} catch (IOException e) {
+						throw new DocumentStorageException("Impossible de supprimer le fichier", e);
+					}
 				}
+			};
+		} catch (IOException e) {
+			throw new DocumentStorageException("Impossible de créer le fichier", e);
+		}
+	}
+
+	@Override
+	public InputStream get(String key, long offset, long length) {
+		try {
+			SeekableByteChannel channel = Files.newByteChannel(resolve(key),
+					StandardOpenOption.READ);
+			channel.position(offset);
+			return BoundedInputStream.builder().setInputStream(Channels.newInputStream(channel))
+					.setMaxCount(length).get();
+		} catch (IOException e) {
+			throw new DocumentStorageException("Impossible de lire le fichier", e);
+		}
+	}
 
-				result.add(documentBuilder.apply(file, target.toString()));
+	@Override
+	public void delete(String key) {
+		try {
+			Files.deleteIfExists(resolve(key));
+		} catch (IOException e) {
+			throw new DocumentStorageException("Impossible de supprimer le fichier", e);
+		}
+	}
+
+	private Path resolve(String key) {
+		Path root = rootDir.toAbsolutePath().normalize();
+		Path path = root.resolve(key).normalize();
+		if (!path.startsWith(root)) {
+			throw new IllegalArgumentException("Clé de stockage invalide : " + key);
+		}
+		return path;
+	}
+
+	private List<Document> storeAllGeneric(List<MultipartFile> files,
+			BiFunction<MultipartFile, String, Document> documentBuilder) {
+		try {
+			List<Document> result = new ArrayList<>();
+			for (MultipartFile file : files) {
+				MessageDigest digest = DiskStorageUtils.newContentDigest();
+				String hash;
+				try (var in = new DigestInputStream(file.getInputStream(), digest)) {
+					hash = storeBlob(in, () -> DiskStorageUtils.toHex(digest), file::getSize);
+				}
+				Document document = documentBuilder.apply(file, blobPath(hash).toString());
+				document.setContentHash(hash);
+				result.add(document);
 			}
 			return result;
 		} catch (IOException e) {
@@ -84,13 +231,43 @@ public class DiskStorageService implements StorageService {
 		}
 	}
 
-	private Path getFiletTarget(MultipartFile file, String uniqueId) {
-		String ts = String.valueOf(System.currentTimeMillis());
+	/**
+	 * Écrit un contenu dans un fichier temporaire puis le renomme vers sa clé d'empreinte, s'il
+	 * n'y est pas déjà : le contenu n'est écrit qu'une fois sur le disque.
+	 *
+	 * @param in
+	 *            le flux du contenu, lu entièrement mais non fermé
+	 * @param hash
+	 *            l'empreinte du contenu, disponible une fois le flux lu
+	 * @param size
+	 *            la taille du contenu, disponible une fois le flux lu
+	 * @return l'empreinte du contenu
+	 */
+	private String storeBlob(InputStream in, Supplier<String> hash, LongSupplier size)
+			throws IOException {
+		Path uploadDir = rootDir.resolve(UPLOAD_DIR);
+		Files.createDirectories(uploadDir);
+		Path upload = Files.createTempFile(uploadDir, "upload-", ".part");
+		try {
+			// L'empreinte du contenu est calculée pendant la copie, sans relire le fichier
+			Files.copy(in, upload, StandardCopyOption.REPLACE_EXISTING);
+			String contentHash = hash.get();
 
-		String filename = "%s_%s_%s".formatted(uniqueId, ts, file.getOriginalFilename());
-		filename = Slugify.builder().build().slugify(filename);
+			// Référence prise avant l'écriture : le contenu ne peut plus être supprimé
+			blobReferences.acquire(contentHash, size.getAsLong());
+			Path target = blobPath(contentHash);
+			if (!Files.exists(target)) {
+				Files.createDirectories(target.getParent());
+				Files.move(upload, target, StandardCopyOption.REPLACE_EXISTING,
+						StandardCopyOption.ATOMIC_MOVE);
+			}
+			return contentHash;
+		} finally {
+			Files.deleteIfExists(upload);
+		}
+	}
 
-		Path target = rootDir.resolve(filename);
-		return target;
+	private Path blobPath(String hash) {
+		return rootDir.resolve(DiskStorageUtils.blobKey(hash));
 	}
-}
\ No newline at end of file
+}
@@ -3,7 +3,12 @@ package be.labil.anacarde.application.service.storage;
 import be.labil.anacarde.domain.model.Document;
 import be.labil.anacarde.domain.model.QualityControl;
 import be.labil.anacarde.domain.model.User;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.HexFormat;
 import java.util.Objects;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -59,6 +64,93 @@ public class DiskStorageUtils {
 
 	}
 
+	/**
+	 * Construit un {@link Document} sans propriétaire à partir d'un fichier reçu en flux.
+	 *
+	 * @param originalFilename
+	 *            le nom d'origine du fichier
+	 * @param contentType
+	 *            le type MIME du contenu
+	 * @param size
+	 *            la taille du contenu
+	 * @param path
+	 *            le chemin de stockage du fichier
+	 * @return un objet {@link Document} initialisé, à rattacher à son propriétaire
+	 */
+	public static Document buildDocument(String originalFilename, String contentType, long size,
+			String path) {
+		return Document.builder().originalFilename(originalFilename).size(size)
+				.contentType(contentType).extension(getExt(originalFilename)).storagePath(path)
+				.uploadDate(LocalDateTime.now()).build();
+	}
+
+	/**
+	 * Crée l'algorithme d'empreinte du contenu des documents (SHA-256).
+	 *
+	 * @return un {@link MessageDigest} SHA-256 vierge
+	 */
+	public static MessageDigest newContentDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 indisponible", e);
+		}
+	}
+
+	/**
+	 * Calcule l'empreinte d'un contenu en le lisant entièrement.
+	 *
+	 * @param in
+	 *            le flux du contenu, lu jusqu'au bout mais non fermé
+	 * @return l'empreinte SHA-256 en hexadécimal
+	 * @throws IOException
+	 *             si la lecture du flux échoue
+	 */
+	public static String contentHash(InputStream in) throws IOException {
+		MessageDigest digest = newContentDigest();
+		byte[] buffer = new byte[8192];
+		int read;
+		while ((read = in.read(buffer)) != -1) {
+			digest.update(buffer, 0, read);
+		}
+		return toHex(digest);
+	}
+
+	/**
+	 * Termine le calcul d'une empreinte et la retourne en hexadécimal.
+	 *
+	 * @param digest
+	 *            l'empreinte en cours de calcul
+	 * @return l'empreinte en hexadécimal (64 caractères pour SHA-256)
+	 */
+	public static String toHex(MessageDigest digest) {
+		return HexFormat.of().formatHex(digest.digest());
+	}
+
+	/**
+	 * Retourne la clé de stockage d'un contenu, répartie sur deux niveaux de répertoires pour
+	 * limiter le nombre de fichiers par répertoire.
+	 *
+	 * @param hash
+	 *            l'empreinte SHA-256 du contenu, en hexadécimal
+	 * @return la clé du contenu, relative à la racine du stockage (ex. {@code blobs/ab/cd/abcd…})
+	 */
+	public static String blobKey(String hash) {
+		return "blobs/%s/%s/%s".formatted(hash.substring(0, 2), hash.substring(2, 4), hash);
+	}
+
+	/**
+	 * Remplace les caractères d'un nom de fichier qui ne peuvent pas figurer tels quels dans un
+	 * en-tête {@code Content-Disposition}.
+	 *
+	 * @param name
+	 *            le nom d'origine du fichier
+	 * @return le nom ne contenant que des lettres ASCII, chiffres, '.', '-' et '_'
+	 */
+	public static String safeFilename(String name) {
+		return name.replaceAll("[^a-zA-Z0-9.\\-_]", "_");
+	}
+
 	/**
 	 * Extrait l'extension d'un nom de fichier.
 	 *
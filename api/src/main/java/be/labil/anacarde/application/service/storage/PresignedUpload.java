@@ -0,0 +1,21 @@
+package be.labil.anacarde.application.service.storage;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Envoi direct d'un contenu par le client vers le stockage, sans transiter par l'API.
+ *
+ * @param uploadId
+ *            identifiant de la session d'envoi, à rappeler lors de la confirmation
+ * @param url
+ *            URL signée à laquelle envoyer le contenu par {@code PUT}
+ * @param headers
+ *            en-têtes signés à joindre tels quels à la requête
+ * @param expiresAt
+ *            instant d'expiration de l'URL
+ */
+public record PresignedUpload(String uploadId, URI url, Map<String, String> headers,
+		Instant expiresAt) {
+}
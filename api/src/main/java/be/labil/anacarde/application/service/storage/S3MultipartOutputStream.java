@@ -0,0 +1,155 @@
+package be.labil.anacarde.application.service.storage;
+
+import be.labil.anacarde.application.exception.DocumentStorageException;
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+
+/**
+ * Flux d'écriture vers un objet S3 par « multipart upload » : les octets sont envoyés par parties
+ * de taille fixe, en parallèle, pendant que l'écriture continue.
+ * <p>
+ * Le nombre de parties en cours d'envoi est borné : l'écriture attend qu'un envoi se termine, si
+ * bien qu'au plus {@code maxPartsInFlight + 1} parties sont gardées en mémoire quelle que soit la
+ * taille de l'objet. Les tampons des parties envoyées sont réutilisés.
+ */
+class S3MultipartOutputStream extends StorageOutputStream {
+
+	// Taille minimale d'une partie imposée par S3 (sauf pour la dernière)
+	static final int PART_SIZE = 8 * 1024 * 1024;
+
+	private final S3Client s3;
+	private final String bucket;
+	private final String key;
+	private final String uploadId;
+	private final Executor executor;
+	private final Semaphore partsInFlight;
+	private final Deque<byte[]> freeBuffers = new ConcurrentLinkedDeque<>();
+	private final List<CompletableFuture<CompletedPart>> parts = new ArrayList<>();
+	private volatile Throwable failure;
+	private byte[] buffer;
+	private int buffered;
+	private boolean closed;
+	private boolean aborted;
+
+	S3MultipartOutputStream(S3Client s3, String bucket, String key, String contentType,
+			Executor executor, int maxPartsInFlight) {
+		this.s3 = s3;
+		this.bucket = bucket;
+		this.key = key;
+		this.executor = executor;
+		this.partsInFlight = new Semaphore(maxPartsInFlight);
+		this.uploadId = s3.createMultipartUpload(CreateMultipartUploadRequest.builder()
+				.bucket(bucket).key(key).contentType(contentType).build()).uploadId();
+	}
+
+	@Override
+	protected void writeChunk(byte[] b, int off, int len) {
+		while (len > 0) {
+			if (buffer == null) {
+				byte[] free = freeBuffers.poll();
+				buffer = free != null ? free : new byte[PART_SIZE];
+			}
+			int n = Math.min(len, PART_SIZE - buffered);
+			System.arraycopy(b, off, buffer, buffered, n);
+			buffered += n;
+			off += n;
+			len -= n;
+			if (buffered == PART_SIZE) {
+				uploadPart();
+			}
+		}
+	}
+
+	@Override
+	public void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			if (buffered > 0 || parts.isEmpty()) {
+				uploadPart();
+			}
+			List<CompletedPart> completed = new ArrayList<>(parts.size());
+			for (CompletableFuture<CompletedPart> part : parts) {
+				completed.add(part.join());
+			}
+			s3.completeMultipartUpload(CompleteMultipartUploadRequest.builder().bucket(bucket)
+					.key(key).uploadId(uploadId)
+					.multipartUpload(CompletedMultipartUpload.builder().parts(completed).build())
+					.build());
+		} catch (S3Exception | CompletionException | DocumentStorageException e) {
+			abort();
+			throw new DocumentStorageException("Impossible de stocker le fichier",
+					e instanceof CompletionException ? e.getCause() : e);
+		}
+	}
+
+	@Override
+	public void abort() {
+		if (aborted) {
+			return;
+		}
+		closed = true;
+		aborted = true;
+		// Les parties en cours d'envoi sont attendues, sans quoi elles survivraient à l'abandon
+		for (CompletableFuture<CompletedPart> part : parts) {
+			part.handle((completed, e) -> null).join();
+		}
+		s3.abortMultipartUpload(AbortMultipartUploadRequest.builder().bucket(bucket).key(key)
+				.uploadId(uploadId).build());
+	}
+
+	private void uploadPart() {
+		if (failure != null) {
+			throw new DocumentStorageException("Impossible de stocker le fichier", failure);
+		}
+		try {
+			partsInFlight.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new DocumentStorageException("Envoi du fichier interrompu", e);
+		}
+
+		int partNumber = parts.size() + 1;
+		byte[] part = buffer != null ? buffer : new byte[0];
+		int length = buffered;
+		buffer = null;
+		buffered = 0;
+		parts.add(CompletableFuture.supplyAsync(() -> {
+			try {
+				String eTag = s3.uploadPart(
+						UploadPartRequest.builder().bucket(bucket).key(key).uploadId(uploadId)
+								.partNumber(partNumber).contentLength((long) length).build(),
+						RequestBody.fromInputStream(new ByteArrayInputStream(part, 0, length),
+								length))
+						.eTag();
+				return CompletedPart.builder().partNumber(partNumber).eTag(eTag).build();
+			} catch (RuntimeException e) {
+				failure = e;
+				throw e;
+			} finally {
+				if (part.length == PART_SIZE) {
+					freeBuffers.push(part);
+				}
+				partsInFlight.release();
+			}
+		}, executor));
+	}
+}
@@ -1,25 +1,55 @@
 package be.labil.anacarde.application.service.storage;
 
+import be.labil.anacarde.application.exception.ApiErrorCode;
+import be.labil.anacarde.application.exception.ApiErrorException;
 import be.labil.anacarde.application.exception.DocumentStorageException;
 import be.labil.anacarde.domain.model.Document;
 import be.labil.anacarde.domain.model.QualityControl;
 import be.labil.anacarde.domain.model.User;
-import com.github.slugify.Slugify;
+import jakarta.annotation.PreDestroy;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
 import lombok.RequiredArgsConstructor;
-import org.apache.commons.lang3.NotImplementedException;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ServiceClientConfiguration;
+import software.amazon.awssdk.services.s3.model.ChecksumMode;
+import software.amazon.awssdk.services.s3.model.CopyObjectRequest;
 import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
 
 /**
  * Implémentation « Amazon S3 » – activée si le profil <b>s3</b> est présent.
@@ -29,35 +59,91 @@ import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 @RequiredArgsConstructor
 public class S3StorageService implements StorageService {
 
+	// Envois en cours, dont la clé définitive n'est connue qu'une fois le contenu lu
+	private static final String UPLOAD_PREFIX = "tmp/";
+
 	private final S3Client s3;
+	private final BlobReferenceService blobReferences;
 
 	@Value("${storage.s3.bucket}")
 	private String bucket;
 
+	@Value("${app.storage.s3.upload.parallelism:4}")
+	private int uploadParallelism;
+
+	@Value("${app.storage.s3.upload.threads:8}")
+	private int uploadThreads;
+
+	/** Construit au premier envoi par parties, partagé par tous les envois. */
+	private volatile ExecutorService partUploads;
+
+	@Value("${app.storage.s3.presigned.enabled:false}")
+	private boolean presignedEnabled;
+
+	@Value("${app.storage.s3.presigned.ttl-ms:300000}")
+	private long presignedTtlMs;
+
+	@Value("${app.storage.s3.presigned.max-upload-bytes:104857600}")
+	private long presignedMaxUploadBytes;
+
+	/** Construit à la première signature, avec la configuration du client S3. */
+	private volatile S3Presigner presigner;
+
 	@Override
 	public List<Document> storeAll(User user, List<MultipartFile> files) {
-		List<Document> result = new ArrayList<>();
-		for (MultipartFile f : files) {
-			String key = "users/%d/%d_%s".formatted(user.getId(), System.currentTimeMillis(),
-					f.getOriginalFilename());
-			key = Slugify.builder().build().slugify(key);
-			try (var in = f.getInputStream()) {
-				s3.putObject(
-						PutObjectRequest.builder().bucket(bucket).key(key)
-								.contentType(f.getContentType()).build(),
-						RequestBody.fromInputStream(in, f.getSize()));
-			} catch (IOException e) {
-				throw new DocumentStorageException("Impossible de stocker les fichiers", e);
-			}
-			result.add(
-					DiskStorageUtils.buildDocument(user, f, "s3://%s/%s".formatted(bucket, key)));
-		}
-		return result;
+		return storeAllGeneric(files, (f, path) -> DiskStorageUtils.buildDocument(user, f, path));
 	}
 
 	@Override
 	public List<Document> storeAll(QualityControl qualityControl, List<MultipartFile> files) {
-		throw new NotImplementedException();
+		return storeAllGeneric(files,
+				(f, path) -> DiskStorageUtils.buildDocument(qualityControl, f, path));
+	}
+
+	@Override
+	public Document store(StreamedUpload upload) {
+		UploadInputStream in;
+		try {
+			in = new UploadInputStream(upload);
+		} catch (IOException e) {
+			throw new DocumentStorageException("Impossible de lire le fichier", e);
+		}
+
+		// Envoi par parties au fil de la lecture, sous une clé temporaire : l'empreinte, et donc la
+		// clé du contenu, ne sont connues qu'à la fin
+		String uploadKey = UPLOAD_PREFIX + UUID.randomUUID();
+		S3MultipartOutputStream out = new S3MultipartOutputStream(s3, bucket, uploadKey,
+				in.contentType(), partUploads(), uploadParallelism);
+		try {
+			in.transferTo(out);
+		} catch (IOException e) {
+			out.abort();
+			throw new DocumentStorageException("Impossible de lire le fichier", e);
+		} catch (RuntimeException e) {
+			out.abort();
+			throw e;
+		}
+		out.close();
+
+		String hash = in.contentHash();
+		String key = DiskStorageUtils.blobKey(hash);
+		try {
+			// Référence prise avant la copie : le contenu ne peut plus être supprimé
+			blobReferences.acquire(hash, in.size());
+			if (!exists(key)) {
+				// Copie effectuée par S3, sans transférer le contenu une seconde fois
+				s3.copyObject(CopyObjectRequest.builder().sourceBucket(bucket)
+						.sourceKey(uploadKey).destinationBucket(bucket).destinationKey(key)
+						.build());
+			}
+		} finally {
+			delete(uploadKey);
+		}
+
+		Document document = DiskStorageUtils.buildDocument(upload.originalFilename(),
+				in.contentType(), in.size(), "s3://%s/%s".formatted(bucket, key));
+		document.setContentHash(hash);
+		return document;
 	}
 
 	@Override
@@ -67,11 +153,282 @@ public class S3StorageService implements StorageService {
 		return resp;
 	}
 
+	@Override
+	public Resource getResource(Document d) {
+		// Taille connue sans requête à S3 ; l'objet n'est ouvert qu'à l'écriture de la réponse
+		return new AbstractResource() {
+			@Override
+			public InputStream getInputStream() {
+				return get(d);
+			}
+
+			@Override
+			public long contentLength() {
+				return d.getSize();
+			}
+
+			@Override
+			public String getDescription() {
+				return "S3 object [" + d.getStoragePath() + "]";
+			}
+		};
+	}
+
 	@Override
 	public void delete(Document d) {
+		if (blobReferences.release(d)) {
+			// Contenu partagé : supprimé en tâche de fond quand plus aucun document ne le référence
+			return;
+		}
 		s3.deleteObject(DeleteObjectRequest.builder().bucket(bucket).key(extractKey(d)).build());
 	}
 
+	@Override
+	public Optional<URI> presignDownload(Document d) {
+		if (!presignedEnabled) {
+			return Optional.empty();
+		}
+		// Les en-têtes de la réponse S3 reprennent ceux d'un téléchargement via l'API
+		GetObjectRequest request = GetObjectRequest.builder().bucket(bucket).key(extractKey(d))
+				.responseContentType(d.getContentType())
+				.responseContentDisposition("attachment; filename=\""
+						+ DiskStorageUtils.safeFilename(d.getOriginalFilename()) + "\"")
+				.build();
+		PresignedGetObjectRequest presigned = presigner()
+				.presignGetObject(GetObjectPresignRequest.builder()
+						.signatureDuration(Duration.ofMillis(presignedTtlMs))
+						.getObjectRequest(request).build());
+		return Optional.of(toUri(presigned.url()));
+	}
+
+	@Override
+	public Optional<PresignedUpload> presignUpload(String contentHash, long size,
+			String contentType) {
+		if (!presignedEnabled) {
+			return Optional.empty();
+		}
+		if (size > presignedMaxUploadBytes) {
+			throw new ApiErrorException(HttpStatus.BAD_REQUEST, ApiErrorCode.BAD_REQUEST.code(),
+					"size", "Le fichier dépasse la taille maximale autorisée.");
+		}
+		// Chaque session écrit sous sa propre clé : seul ce contenu pourra être confirmé. Les
+		// envois abandonnés restent sous tmp/, à expirer par une règle de cycle de vie du bucket
+		String uploadId = UUID.randomUUID().toString();
+
+		// Taille et empreinte font partie de la signature : S3 refuse tout autre contenu
+		PutObjectRequest request = PutObjectRequest.builder().bucket(bucket)
+				.key(UPLOAD_PREFIX + uploadId).contentType(contentType).contentLength(size)
+				.checksumSHA256(base64Checksum(contentHash)).build();
+		PresignedPutObjectRequest presigned = presigner()
+				.presignPutObject(PutObjectPresignRequest.builder()
+						.signatureDuration(Duration.ofMillis(presignedTtlMs))
+						.putObjectRequest(request).build());
+
+		Map<String, String> headers = new LinkedHashMap<>();
+		presigned.signedHeaders().forEach((name, values) -> {
+			if (!"host".equalsIgnoreCase(name)) {
+				headers.put(name, String.join(",", values));
+			}
+		});
+		return Optional.of(new PresignedUpload(uploadId, toUri(presigned.url()), headers,
+				presigned.expiration()));
+	}
+
+	@Override
+	public String attachUpload(String uploadId, String contentHash, long size) {
+		String uploadKey;
+		try {
+			uploadKey = UPLOAD_PREFIX + UUID.fromString(uploadId);
+		} catch (IllegalArgumentException e) {
+			throw new ApiErrorException(HttpStatus.BAD_REQUEST, ApiErrorCode.BAD_REQUEST.code(),
+					"uploadId", "Identifiant d'envoi invalide.");
+		}
+		String key = DiskStorageUtils.blobKey(contentHash);
+		try {
+			verifyUpload(uploadKey, contentHash, size);
+
+			// Référence prise avant la copie : le contenu ne peut plus être supprimé
+			blobReferences.acquire(contentHash, size);
+			if (!exists(key)) {
+				s3.copyObject(CopyObjectRequest.builder().sourceBucket(bucket)
+						.sourceKey(uploadKey).destinationBucket(bucket).destinationKey(key)
+						.build());
+			}
+		} finally {
+			delete(uploadKey);
+		}
+		return "s3://%s/%s".formatted(bucket, key);
+	}
+
+	@Override
+	public String attachStored(String contentHash, long size) {
+		String key = DiskStorageUtils.blobKey(contentHash);
+
+		// Référence prise avant la vérification : le contenu ne peut plus être supprimé
+		blobReferences.acquire(contentHash, size);
+		verifyUpload(key, contentHash, size);
+		return "s3://%s/%s".formatted(bucket, key);
+	}
+
+	/** Vérifie que l'objet {@code key} existe et a la taille et l'empreinte annoncées. */
+	private void verifyUpload(String key, String contentHash, long size) {
+		HeadObjectResponse head;
+		try {
+			head = s3.headObject(HeadObjectRequest.builder().bucket(bucket).key(key)
+					.checksumMode(ChecksumMode.ENABLED).build());
+		} catch (S3Exception e) {
+			if (e.statusCode() == 404) {
+				throw uploadMismatch("Le fichier n'a pas été envoyé.");
+			}
+			throw e;
+		}
+		if (head.contentLength() == null || head.contentLength() != size) {
+			throw uploadMismatch("La taille du fichier envoyé ne correspond pas.");
+		}
+		if (head.checksumSHA256() != null
+				&& !head.checksumSHA256().equals(base64Checksum(contentHash))) {
+			throw uploadMismatch("L'empreinte du fichier envoyé ne correspond pas.");
+		}
+	}
+
+	@Override
+	public StorageOutputStream openOutput(String key) {
+		try {
+			return new S3MultipartOutputStream(s3, bucket, key, "application/octet-stream",
+					partUploads(), uploadParallelism);
+		} catch (S3Exception e) {
+			throw new DocumentStorageException("Impossible de créer le fichier", e);
+		}
+	}
+
+	@Override
+	public InputStream get(String key, long offset, long length) {
+		// Seule la portion demandée est transférée depuis S3
+		String range = "bytes=%d-%d".formatted(offset, offset + length - 1);
+		return s3.getObject(
+				GetObjectRequest.builder().bucket(bucket).key(key).range(range).build());
+	}
+
+	@Override
+	public void delete(String key) {
+		s3.deleteObject(DeleteObjectRequest.builder().bucket(bucket).key(key).build());
+	}
+
+	private List<Document> storeAllGeneric(List<MultipartFile> files,
+			BiFunction<MultipartFile, String, Document> documentBuilder) {
+		List<Document> result = new ArrayList<>();
+		for (MultipartFile f : files) {
+			String hash;
+			// L'empreinte est calculée sur une lecture séparée : le SDK peut relire le flux envoyé
+			try (var in = f.getInputStream()) {
+				hash = DiskStorageUtils.contentHash(in);
+			} catch (IOException e) {
+				throw new DocumentStorageException("Impossible de lire le fichier", e);
+			}
+			String key = DiskStorageUtils.blobKey(hash);
+
+			// Référence prise avant l'envoi : le contenu ne peut plus être supprimé
+			blobReferences.acquire(hash, f.getSize());
+			if (!exists(key)) {
+				try (var in = f.getInputStream()) {
+					s3.putObject(
+							PutObjectRequest.builder().bucket(bucket).key(key)
+									.contentType(f.getContentType()).build(),
+							RequestBody.fromInputStream(in, f.getSize()));
+				} catch (IOException e) {
+					throw new DocumentStorageException("Impossible de stocker les fichiers", e);
+				}
+			}
+
+			Document document = documentBuilder.apply(f, "s3://%s/%s".formatted(bucket, key));
+			document.setContentHash(hash);
+			result.add(document);
+		}
+		return result;
+	}
+
+	private boolean exists(String key) {
+		try {
+			s3.headObject(HeadObjectRequest.builder().bucket(bucket).key(key).build());
+			return true;
+		} catch (S3Exception e) {
+			if (e.statusCode() == 404) {
+				return false;
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Threads d'envoi des parties, en nombre fixe quel que soit le nombre d'envois simultanés.
+	 * Threads et file d'attente occupés, la partie est envoyée par le thread qui écrit : l'écriture
+	 * ralentit au lieu d'accumuler des tampons en mémoire.
+	 */
+	private ExecutorService partUploads() {
+		ExecutorService current = partUploads;
+		if (current == null) {
+			synchronized (this) {
+				if (partUploads == null) {
+					ThreadPoolExecutor pool = new ThreadPoolExecutor(uploadThreads, uploadThreads,
+							60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(uploadThreads),
+							Thread.ofPlatform().name("s3-part-", 0).daemon().factory(),
+							// Exécutée même après l'arrêt : un envoi n'attend jamais en vain
+							(task, executor) -> task.run());
+					pool.allowCoreThreadTimeOut(true);
+					partUploads = pool;
+				}
+				current = partUploads;
+			}
+		}
+		return current;
+	}
+
+	private S3Presigner presigner() {
+		S3Presigner current = presigner;
+		if (current == null) {
+			synchronized (this) {
+				if (presigner == null) {
+					// Même région, identité et point d'accès que le client S3
+					S3ServiceClientConfiguration config = s3.serviceClientConfiguration();
+					S3Presigner.Builder builder = S3Presigner.builder().s3Client(s3)
+							.region(config.region())
+							.credentialsProvider(config.credentialsProvider());
+					config.endpointOverride().ifPresent(builder::endpointOverride);
+					presigner = builder.build();
+				}
+				current = presigner;
+			}
+		}
+		return current;
+	}
+
+	@PreDestroy
+	void close() {
+		if (partUploads != null) {
+			partUploads.shutdownNow();
+		}
+		if (presigner != null) {
+			presigner.close();
+		}
+	}
+
+	private static String base64Checksum(String contentHash) {
+		return Base64.getEncoder().encodeToString(HexFormat.of().parseHex(contentHash));
+	}
+
+	private static URI toUri(URL url) {
+		try {
+			return url.toURI();
+		} catch (URISyntaxException e) {
+			throw new IllegalStateException("URL signée invalide : " + url, e);
+		}
+	}
+
+	private static ApiErrorException uploadMismatch(String message) {
+		return new ApiErrorException(HttpStatus.CONFLICT, ApiErrorCode.CONFLICT.code(),
+				"contentHash", message);
+	}
+
 	private String extractKey(Document d) {
 		return d.getStoragePath().split("/", 4)[3];
 	}
@@ -0,0 +1,42 @@
+package be.labil.anacarde.application.service.storage;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Flux d'écriture d'un objet du stockage, envoyé par morceaux au fur et à mesure de l'écriture.
+ * <p>
+ * L'objet n'est visible sous sa clé qu'après {@link #close()} ; en cas d'échec, {@link #abort()}
+ * libère les morceaux déjà envoyés sans créer l'objet.
+ */
+public abstract class StorageOutputStream extends OutputStream {
+
+	private long size;
+
+	@Override
+	public void write(int b) throws IOException {
+		write(new byte[]{(byte) b}, 0, 1);
+	}
+
+	@Override
+	public final void write(byte[] b, int off, int len) throws IOException {
+		writeChunk(b, off, len);
+		size += len;
+	}
+
+	/**
+	 * Retourne le nombre d'octets écrits jusqu'ici.
+	 *
+	 * @return la taille de l'objet en cours d'écriture
+	 */
+	public long size() {
+		return size;
+	}
+
+	/**
+	 * Abandonne l'écriture : l'objet n'est pas créé et les morceaux déjà envoyés sont supprimés.
+	 */
+	public abstract void abort();
+
+	protected abstract void writeChunk(byte[] b, int off, int len) throws IOException;
+}
@@ -4,10 +4,18 @@ import be.labil.anacarde.domain.model.Document;
 import be.labil.anacarde.domain.model.QualityControl;
 import be.labil.anacarde.domain.model.User;
 import java.io.InputStream;
+import java.net.URI;
 import java.util.List;
+import java.util.Optional;
+import org.springframework.core.io.Resource;
 import org.springframework.web.multipart.MultipartFile;
 
-/** Service chargé d’enregistrer des documents et de renvoyer les entités persistables. */
+/**
+ * Service chargé d’enregistrer des documents et de renvoyer les entités persistables.
+ * <p>
+ * Il stocke également des fichiers produits par l'application (exports), désignés par une clé
+ * relative à la racine du stockage.
+ */
 public interface StorageService {
 
 	/**
@@ -30,9 +38,98 @@ public interface StorageService {
 	 */
 	List<Document> storeAll(QualityControl qualityControl, List<MultipartFile> files);
 
+	/**
+	 * Stocke un fichier au fil de la lecture de son flux, sans copie intermédiaire : la taille,
+	 * l'empreinte et le type du contenu sont déterminés pendant l'écriture.
+	 *
+	 * @param upload
+	 *            le fichier reçu
+	 * @return le document à enregistrer, sans propriétaire
+	 */
+	Document store(StreamedUpload upload);
+
 	/** Retourne le flux du document (contrôle d’accès déjà fait). */
 	InputStream get(Document doc);
 
+	/**
+	 * Retourne le contenu du document sous forme de {@link Resource} de taille connue, servie par
+	 * plages d'octets sans charger le fichier en mémoire (contrôle d’accès déjà fait).
+	 */
+	Resource getResource(Document doc);
+
 	/** Supprime physiquement le document. */
 	void delete(Document doc);
+
+	/**
+	 * Retourne une URL signée de courte durée permettant au client de télécharger le document
+	 * directement depuis le stockage (contrôle d’accès déjà fait).
+	 *
+	 * @return l'URL signée, ou vide si le stockage ne sait pas en émettre
+	 */
+	Optional<URI> presignDownload(Document doc);
+
+	/**
+	 * Prépare l'envoi direct d'un contenu par le client vers un emplacement propre à cette session,
+	 * confirmé ensuite par {@link #attachUpload(String, String, long)}.
+	 *
+	 * @param contentHash
+	 *            empreinte SHA-256 annoncée du contenu
+	 * @param size
+	 *            taille annoncée du contenu
+	 * @param contentType
+	 *            type MIME du contenu
+	 * @return l'envoi à effectuer, ou vide si le stockage ne sait pas en émettre
+	 */
+	Optional<PresignedUpload> presignUpload(String contentHash, long size, String contentType);
+
+	/**
+	 * Vérifie que la session d'envoi {@code uploadId} a bien écrit un contenu conforme à ce qui a
+	 * été annoncé, puis le range parmi les contenus stockés avec une référence pour le nouveau
+	 * document.
+	 *
+	 * @param uploadId
+	 *            identifiant de la session renvoyé par {@link #presignUpload}
+	 * @param contentHash
+	 *            empreinte SHA-256 du contenu
+	 * @param size
+	 *            taille du contenu
+	 * @return le chemin de stockage du document
+	 */
+	String attachUpload(String uploadId, String contentHash, long size);
+
+	/**
+	 * Ajoute une référence à un contenu déjà stocké, sans nouvel envoi. L'appelant doit s'être
+	 * assuré que le propriétaire du nouveau document possède déjà ce contenu : l'empreinte seule ne
+	 * donne pas accès au contenu.
+	 *
+	 * @param contentHash
+	 *            empreinte SHA-256 du contenu
+	 * @param size
+	 *            taille du contenu
+	 * @return le chemin de stockage du document
+	 */
+	String attachStored(String contentHash, long size);
+
+	/**
+	 * Ouvre un flux d'écriture vers le fichier {@code key}, remplacé s'il existe déjà.
+	 *
+	 * @param key
+	 *            clé du fichier, relative à la racine du stockage (ex. {@code exports/42.csv})
+	 */
+	StorageOutputStream openOutput(String key);
+
+	/**
+	 * Retourne le flux d'une portion du fichier {@code key}.
+	 *
+	 * @param key
+	 *            clé du fichier
+	 * @param offset
+	 *            position du premier octet lu
+	 * @param length
+	 *            nombre d'octets lus
+	 */
+	InputStream get(String key, long offset, long length);
+
+	/** Supprime physiquement le fichier {@code key}, s'il existe. */
+	void delete(String key);
 }
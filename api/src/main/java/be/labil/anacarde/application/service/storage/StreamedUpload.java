@@ -0,0 +1,20 @@
+package be.labil.anacarde.application.service.storage;
+
+import java.io.InputStream;
+
+/**
+ * Fichier reçu tel quel dans le corps d'une requête, stocké au fil de sa lecture.
+ *
+ * @param originalFilename
+ *            nom d'origine du fichier
+ * @param contentType
+ *            type MIME annoncé par le client, ou {@code null} : il est alors détecté sur les
+ *            premiers octets
+ * @param content
+ *            flux du fichier, lu une seule fois
+ * @param maxBytes
+ *            taille maximale acceptée
+ */
+public record StreamedUpload(String originalFilename, String contentType, InputStream content,
+		long maxBytes) {
+}
@@ -0,0 +1,128 @@
+package be.labil.anacarde.application.service.storage;
+
+import be.labil.anacarde.application.exception.ApiErrorCode;
+import be.labil.anacarde.application.exception.ApiErrorException;
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.net.URLConnection;
+import java.security.MessageDigest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+
+/**
+ * Flux d'un fichier envoyé, lu en une seule passe : la taille et l'empreinte SHA-256 sont
+ * calculées au fil de la lecture, le type est détecté sur les premiers octets et la taille
+ * maximale est imposée dès qu'elle est dépassée, sans attendre la fin du flux.
+ */
+final class UploadInputStream extends FilterInputStream {
+
+	private final MessageDigest digest = DiskStorageUtils.newContentDigest();
+	private final long maxBytes;
+	private final String contentType;
+	private long size;
+
+	UploadInputStream(StreamedUpload upload) throws IOException {
+		super(new BufferedInputStream(upload.content()));
+		this.maxBytes = upload.maxBytes();
+		this.contentType = detectContentType(upload);
+
+		// Rien n'est écrit dans le stockage pour un envoi vide
+		in.mark(1);
+		if (in.read() == -1) {
+			throw new ApiErrorException(HttpStatus.BAD_REQUEST, ApiErrorCode.BAD_REQUEST.code(),
+					"file", "Le fichier est vide.");
+		}
+		in.reset();
+	}
+
+	/** Type MIME annoncé, ou détecté si le client n'en a pas fourni de précis. */
+	String contentType() {
+		return contentType;
+	}
+
+	/** Nombre d'octets lus jusqu'ici. */
+	long size() {
+		return size;
+	}
+
+	/** Empreinte SHA-256 du contenu, à n'appeler qu'une fois le flux lu entièrement. */
+	String contentHash() {
+		return DiskStorageUtils.toHex(digest);
+	}
+
+	@Override
+	public int read() throws IOException {
+		int b = in.read();
+		if (b != -1) {
+			count(1);
+			digest.update((byte) b);
+		}
+		return b;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		int n = in.read(b, off, len);
+		if (n > 0) {
+			count(n);
+			digest.update(b, off, n);
+		}
+		return n;
+	}
+
+	@Override
+	public long skip(long n) throws IOException {
+		// Les octets sautés doivent aussi être comptés et pris dans l'empreinte
+		byte[] buffer = new byte[(int) Math.min(n, 8192)];
+		long skipped = 0;
+		while (skipped < n) {
+			int read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+			if (read == -1) {
+				break;
+			}
+			skipped += read;
+		}
+		return skipped;
+	}
+
+	@Override
+	public boolean markSupported() {
+		return false;
+	}
+
+	@Override
+	public synchronized void mark(int readlimit) {
+	}
+
+	@Override
+	public synchronized void reset() throws IOException {
+		throw new IOException("mark/reset non supporté");
+	}
+
+	private void count(int n) {
+		size += n;
+		if (size > maxBytes) {
+			throw new ApiErrorException(HttpStatus.PAYLOAD_TOO_LARGE,
+					ApiErrorCode.PAYLOAD_TOO_LARGE.code(), "file",
+					"Le fichier dépasse la taille maximale autorisée.");
+		}
+	}
+
+	private String detectContentType(StreamedUpload upload) throws IOException {
+		String declared = upload.contentType();
+		if (declared != null && !declared.isBlank()
+				&& !MediaType.APPLICATION_OCTET_STREAM.isCompatibleWith(
+						MediaType.parseMediaType(declared))) {
+			return declared;
+		}
+		// Signature des premiers octets, puis extension du nom de fichier
+		String sniffed = URLConnection.guessContentTypeFromStream(in);
+		if (sniffed != null) {
+			return sniffed;
+		}
+		return MediaTypeFactory.getMediaType(upload.originalFilename())
+				.orElse(MediaType.APPLICATION_OCTET_STREAM).toString();
+	}
+}
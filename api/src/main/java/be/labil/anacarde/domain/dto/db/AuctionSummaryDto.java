@@ -0,0 +1,64 @@
+package be.labil.anacarde.domain.dto.db;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Vue résumée d'une enchère pour les listes : les agrégats des offres sont calculés par la base de
+ * données, sans charger les offres ni le détail du produit et des utilisateurs.
+ * <p>
+ * L'ordre des champs correspond au constructeur utilisé par la projection JPQL de
+ * {@link be.labil.anacarde.infrastructure.persistence.AuctionRepository}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Résumé d'une enchère, avec les agrégats de ses offres.")
+public class AuctionSummaryDto {
+
+	@Schema(description = "Identifiant unique", example = "1")
+	private Integer id;
+
+	@Schema(description = "Prix de l'enchère", example = "100.50")
+	private Double price;
+
+	@Schema(description = "Quantité de produit associée à l'enchère", example = "10")
+	private Integer productQuantity;
+
+	@Schema(description = "Date d'expiration de l'enchère", example = "2025-12-31T23:59:59")
+	private LocalDateTime expirationDate;
+
+	@Schema(description = "Date de création de l'enchère", example = "2025-01-01T00:00:00")
+	private LocalDateTime creationDate;
+
+	@Schema(description = "Nom du statut de l'enchère", example = "Ouvert")
+	private String status;
+
+	@Schema(description = "Identifiant du trader ayant créé l'enchère", example = "1")
+	private Integer traderId;
+
+	@Schema(description = "Identifiant du produit mis en vente", example = "1")
+	private Integer productId;
+
+	@Schema(description = "Poids du produit en kg", example = "1000.0")
+	private Double productWeightKg;
+
+	@Schema(description = "Qualité du produit, si un contrôle qualité a été réalisé", example = "WW320")
+	private String productQuality;
+
+	@Schema(description = "Région du magasin où est entreposé le produit", example = "Borgou")
+	private String region;
+
+	@Schema(description = "Montant de la meilleure offre", example = "1200.00")
+	private BigDecimal bestBidAmount;
+
+	@Schema(description = "Nombre d'offres placées", example = "3")
+	private Long bidCount;
+
+	@Schema(description = "Date de la dernière offre", example = "2025-01-02T10:00:00")
+	private LocalDateTime lastBidDate;
+}
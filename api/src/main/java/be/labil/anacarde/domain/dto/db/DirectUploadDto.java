@@ -0,0 +1,38 @@
+package be.labil.anacarde.domain.dto.db;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.LocalDateTime;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO décrivant l'envoi direct d'un fichier vers le stockage.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Envoi direct d'un fichier vers le stockage, à confirmer une fois terminé.")
+public class DirectUploadDto {
+
+	@Schema(description = "Contenu déjà stocké : aucun envoi n'est nécessaire avant la confirmation", example = "false")
+	private boolean alreadyStored;
+
+	@Schema(description = "Identifiant de l'envoi, à rappeler lors de la confirmation", example = "3f2b8c1e-5a7d-4e0f-9b6a-2c4d8e1f0a3b")
+	private String uploadId;
+
+	@Schema(description = "URL signée à laquelle envoyer le fichier", example = "https://anacarde.s3.eu-west-1.amazonaws.com/tmp/3f2b8c1e-5a7d-4e0f-9b6a-2c4d8e1f0a3b")
+	private String uploadUrl;
+
+	@Schema(description = "Méthode HTTP de l'envoi", example = "PUT")
+	private String method;
+
+	@Schema(description = "En-têtes à joindre tels quels à l'envoi")
+	private Map<String, String> headers;
+
+	@Schema(description = "Expiration de l'URL signée", example = "2025-05-01T10:05:00")
+	private LocalDateTime expiresAt;
+}
@@ -42,6 +42,10 @@ public class DocumentDto extends BaseDto {
 	@NotBlank(message = "Le storagePath est requis")
 	private String storagePath;
 
+	/** Empreinte SHA-256 du contenu du document. */
+	@Schema(description = "Empreinte SHA-256 du contenu du document", example = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08", accessMode = Schema.AccessMode.READ_ONLY)
+	private String contentHash;
+
 	/** Date et heure de l'upload du document. */
 	@Schema(description = "Date et heure de l'envoi du document", example = "2025-03-13T10:15:30", accessMode = Schema.AccessMode.READ_ONLY)
 	private LocalDateTime uploadDate;
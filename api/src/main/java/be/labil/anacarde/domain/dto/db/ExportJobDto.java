@@ -0,0 +1,64 @@
+package be.labil.anacarde.domain.dto.db;
+
+import be.labil.anacarde.domain.model.ExportJobStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.LocalDateTime;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * DTO pour l'entité ExportJob.
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@Schema(description = "État d'un export des enchères exécuté en tâche de fond.")
+public class ExportJobDto extends BaseDto {
+
+	@Schema(description = "État du job", example = "RUNNING")
+	private ExportJobStatus status;
+
+	@Schema(description = "Début de la période exportée", example = "2025-03-01T00:00:00")
+	private LocalDateTime startDate;
+
+	@Schema(description = "Fin de la période exportée", example = "2025-07-01T00:00:00")
+	private LocalDateTime endDate;
+
+	@Schema(description = "Seules les enchères terminées sont exportées", example = "false")
+	private Boolean onlyEnded;
+
+	@Schema(description = "Format du fichier", example = "csv")
+	private String format;
+
+	@Schema(description = "Fichier compressé en gzip", example = "true")
+	private Boolean gzip;
+
+	@Schema(description = "Nombre de lignes écrites", example = "12000")
+	private Long rowsWritten;
+
+	@Schema(description = "Nombre de lignes à exporter, calculé au démarrage de l'export", example = "48000")
+	private Long totalRows;
+
+	@Schema(description = "Progression de l'export, entre 0 et 1", example = "0.25")
+	private Double progress;
+
+	@Schema(description = "Nom du fichier téléchargé", example = "auctions_export_20250701_101500.csv.gz")
+	private String filename;
+
+	@Schema(description = "Type MIME du fichier", example = "application/gzip")
+	private String contentType;
+
+	@Schema(description = "Taille du fichier en octets, une fois l'export terminé", example = "1048576")
+	private Long size;
+
+	@Schema(description = "Cause de l'échec de l'export", example = "Export interrompu")
+	private String errorMessage;
+
+	@Schema(description = "Date de soumission", example = "2025-07-01T10:15:00")
+	private LocalDateTime creationDate;
+
+	@Schema(description = "Date de fin de l'export", example = "2025-07-01T10:16:30")
+	private LocalDateTime completionDate;
+
+	@Schema(description = "Date d'expiration : le fichier est ensuite supprimé", example = "2025-07-01T11:15:00")
+	private LocalDateTime expirationDate;
+}
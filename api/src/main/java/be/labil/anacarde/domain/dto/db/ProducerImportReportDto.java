@@ -0,0 +1,29 @@
+package be.labil.anacarde.domain.dto.db;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Rapport d'import d'un fichier CSV de producteurs. Les lignes sont écrites au fil du traitement,
+ * les totaux en fin de rapport.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Rapport d'import d'un fichier CSV de producteurs")
+public class ProducerImportReportDto {
+
+	@Schema(description = "Résultat de chaque ligne, dans l'ordre du fichier")
+	private List<ProducerImportResultDto> rows;
+
+	@Schema(description = "Nombre de producteurs créés", example = "120")
+	private int created;
+
+	@Schema(description = "Nombre de lignes rejetées", example = "3")
+	private int rejected;
+}
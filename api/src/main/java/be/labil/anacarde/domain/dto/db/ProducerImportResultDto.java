@@ -0,0 +1,42 @@
+package be.labil.anacarde.domain.dto.db;
+
+import be.labil.anacarde.application.exception.ErrorDetail;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Résultat de l'import d'une ligne du fichier CSV de producteurs.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Résultat de l'import d'une ligne du fichier CSV")
+public class ProducerImportResultDto {
+
+	/** Issue de l'import d'une ligne. */
+	public enum Status {
+		CREATED, REJECTED
+	}
+
+	@Schema(description = "Numéro de ligne dans le fichier, en-tête compris", example = "2")
+	private int line;
+
+	@Schema(description = "Adresse email de la ligne", example = "awa.kora@example.com")
+	private String email;
+
+	@Schema(description = "Issue de l'import", example = "CREATED")
+	private Status status;
+
+	@Schema(description = "Identifiant du producteur créé", example = "42")
+	private Integer userId;
+
+	@Schema(description = "Erreurs ayant conduit au rejet de la ligne")
+	private List<ErrorDetail> errors;
+}
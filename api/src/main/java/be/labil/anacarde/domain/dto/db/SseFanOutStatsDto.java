@@ -0,0 +1,30 @@
+package be.labil.anacarde.domain.dto.db;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Compteurs cumulés de diffusion des événements SSE de ce nœud, depuis son démarrage.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Compteurs cumulés de diffusion des événements SSE de ce nœud")
+public class SseFanOutStatsDto {
+
+	@Schema(description = "Nombre d'événements diffusés", example = "1500")
+	private long events;
+
+	@Schema(description = "Nombre total de messages publiés (somme des tailles de diffusion)", example = "42000")
+	private long deliveries;
+
+	@Schema(description = "Plus grande taille de diffusion observée pour un événement", example = "350")
+	private long maxFanOut;
+
+	@Schema(description = "Latence moyenne de diffusion d'un événement, en millisecondes", example = "1.8")
+	private double averageLatencyMillis;
+}
@@ -1,6 +1,7 @@
 package be.labil.anacarde.domain.dto.db.view;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import lombok.*;
 
 /**
@@ -12,6 +13,9 @@ import lombok.*;
 @AllArgsConstructor
 public class DashboardCardsDto {
 
+	/** Date et heure du calcul des indicateurs */
+	private LocalDateTime asOf;
+
 	/** Nombre total d'utilisateurs */
 	private Long totalNbUsers;
 
@@ -0,0 +1,37 @@
+package be.labil.anacarde.domain.dto.write;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Schema(description = "Description d'un fichier envoyé directement au stockage, sans transiter par l'API")
+public class DirectUploadRequestDto {
+
+	@Schema(description = "Nom d'origine du fichier", example = "certificat.pdf")
+	@NotBlank(message = "Le nom du fichier est requis")
+	private String originalFilename;
+
+	@Schema(description = "Type MIME du fichier", example = "application/pdf")
+	@NotBlank(message = "Le type du fichier est requis")
+	private String contentType;
+
+	@Schema(description = "Taille du fichier en octets", example = "204800")
+	@NotNull(message = "La taille du fichier est requise")
+	@Positive(message = "La taille du fichier doit être positive")
+	private Long size;
+
+	@Schema(description = "Empreinte SHA-256 du contenu, en hexadécimal minuscule", example = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08")
+	@NotNull(message = "L'empreinte du fichier est requise")
+	@Pattern(regexp = "[0-9a-f]{64}", message = "L'empreinte doit être un SHA-256 hexadécimal")
+	private String contentHash;
+
+	@Schema(description = "Identifiant de l'envoi renvoyé lors de la préparation, requis pour confirmer un fichier envoyé", example = "3f2b8c1e-5a7d-4e0f-9b6a-2c4d8e1f0a3b")
+	@Pattern(regexp = "[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}", message = "L'identifiant d'envoi est invalide")
+	private String uploadId;
+}
@@ -0,0 +1,29 @@
+package be.labil.anacarde.domain.dto.write;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Pattern;
+import java.time.LocalDateTime;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Schema(description = "Requête de soumission d'un export des enchères en tâche de fond")
+public class ExportJobRequestDto {
+
+	@Schema(description = "Date/heure de début de la période d'analyse (inclus). Laisser vide avec 'end' pour exporter toutes les données.", example = "2025-03-01T00:00:00")
+	private LocalDateTime start;
+
+	@Schema(description = "Date/heure de fin de la période d'analyse (inclus). Laisser vide avec 'start' pour exporter toutes les données.", example = "2025-07-01T00:00:00")
+	private LocalDateTime end;
+
+	@Schema(description = "Si vrai, n'exporte que les enchères terminées de la période", example = "false")
+	private boolean onlyEnded;
+
+	@Schema(description = "Format du fichier exporté", example = "csv", allowableValues = {"json", "csv"})
+	@Pattern(regexp = "(?i)json|csv", message = "Le format doit être 'json' ou 'csv'")
+	private String format = "json";
+
+	@Schema(description = "Si vrai, le fichier est compressé en gzip", example = "true")
+	private boolean gzip;
+}
@@ -0,0 +1,66 @@
+package be.labil.anacarde.domain.dto.write;
+
+import be.labil.anacarde.domain.validation.StrongPassword;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Ligne du fichier CSV d'import de producteurs. Les noms de colonnes de l'en-tête correspondent aux
+ * noms des propriétés ; les identifiants sont lus comme du texte pour que chaque valeur invalide
+ * soit signalée sur sa ligne.
+ */
+@Data
+@NoArgsConstructor
+@Schema(description = "Ligne du fichier CSV d'import de producteurs")
+public class ProducerImportRowDto {
+
+	@Schema(description = "Prénom", example = "Awa")
+	@NotBlank(message = "Le prénom est requis")
+	private String firstName;
+
+	@Schema(description = "Nom de famille", example = "Kora")
+	@NotBlank(message = "Le nom de famille est requis")
+	private String lastName;
+
+	@Schema(description = "Adresse email", example = "awa.kora@example.com")
+	@NotBlank(message = "L'adresse email est requise")
+	@Email(message = "Invalid email format")
+	private String email;
+
+	@Schema(description = "Numéro de téléphone", example = "+2290178123456")
+	@NotBlank(message = "Le numéro de téléphone est requis")
+	@Pattern(regexp = "^\\+22901\\d{8}$", message = "Le numéro de téléphone doit commencer par +22901 suivi de 8 chiffres (ex: +2290123456789).")
+	private String phone;
+
+	@Schema(description = "Mot de passe initial", example = "p@ssw0rD")
+	@NotBlank(message = "Le mot de passe est requis")
+	@Size(min = 8, message = "Le mot de passe doit contenir au moins {min} caractères")
+	@StrongPassword(message = "Le mot de passe doit contenir au moins une majuscule, une minuscule, un chiffre et un caractère spécial")
+	private String password;
+
+	@Schema(description = "Identifiant agricole", example = "AGRI123456")
+	@NotBlank(message = "L'identifiant agricole est requis")
+	private String agriculturalIdentifier;
+
+	@Schema(description = "Rue/Quartier/Numéro du champ et de l'adresse", example = "46 Rue de passion")
+	private String street;
+
+	@Schema(description = "Id de la ville", example = "1")
+	@NotBlank(message = "La ville est requise")
+	@Pattern(regexp = "\\d{1,9}", message = "L'identifiant de la ville doit être un entier positif")
+	private String cityId;
+
+	@Schema(description = "Identifiant de la langue préférée", example = "1")
+	@NotBlank(message = "La langue est requise")
+	@Pattern(regexp = "\\d{1,9}", message = "L'identifiant de la langue doit être un entier positif")
+	private String languageId;
+
+	public String getEmail() {
+		return email != null ? email.trim().toLowerCase() : null;
+	}
+}
@@ -20,6 +20,10 @@ public abstract class AuctionMapper {
 	@Mapping(target = "bids", ignore = true)
 	@Mapping(target = "id", ignore = true)
 	@Mapping(target = "creationDate", ignore = true)
+	@Mapping(target = "bestBidAmount", ignore = true)
+	@Mapping(target = "bidCount", ignore = true)
+	@Mapping(target = "lastBidderId", ignore = true)
+	@Mapping(target = "acceptedBidId", ignore = true)
 	public abstract Auction toEntity(AuctionUpdateDto dto);
 
 	public abstract AuctionDto toDto(Auction auction);
@@ -32,6 +36,10 @@ public abstract class AuctionMapper {
 	@Mapping(target = "id", ignore = true)
 	@Mapping(target = "options", ignore = true)
 	@Mapping(target = "creationDate", ignore = true)
+	@Mapping(target = "bestBidAmount", ignore = true)
+	@Mapping(target = "bidCount", ignore = true)
+	@Mapping(target = "lastBidderId", ignore = true)
+	@Mapping(target = "acceptedBidId", ignore = true)
 	public abstract Auction partialUpdate(AuctionUpdateDto dto, @MappingTarget Auction entity);
 
 	@AfterMapping
@@ -1,8 +1,10 @@
 package be.labil.anacarde.domain.mapper;
 
+import be.labil.anacarde.application.exception.BadRequestException;
 import be.labil.anacarde.domain.dto.db.ContractOfferDto;
 import be.labil.anacarde.domain.dto.write.ContractOfferUpdateDto;
 import be.labil.anacarde.domain.model.ContractOffer;
+import be.labil.anacarde.domain.model.ContractOfferStatus;
 import be.labil.anacarde.domain.model.Quality;
 import be.labil.anacarde.domain.model.Trader;
 import jakarta.persistence.EntityManager;
@@ -44,4 +46,19 @@ public abstract class ContractOfferMapper {
 			a.setQuality(em.getReference(Quality.class, dto.getQualityId()));
 		}
 	}
+
+	protected String statusToLabel(ContractOfferStatus status) {
+		return status != null ? status.getLabel() : null;
+	}
+
+	protected ContractOfferStatus labelToStatus(String label) {
+		if (label == null) {
+			return null;
+		}
+		ContractOfferStatus status = ContractOfferStatus.fromLabel(label);
+		if (status == null) {
+			throw new BadRequestException("Statut de contrat inconnu : " + label);
+		}
+		return status;
+	}
 }
@@ -2,6 +2,7 @@ package be.labil.anacarde.domain.mapper;
 
 import be.labil.anacarde.domain.dto.db.view.DashboardCardsDto;
 import be.labil.anacarde.domain.model.DashboardCards;
+import java.time.LocalDateTime;
 import org.mapstruct.Mapper;
 
 /**
@@ -10,5 +11,5 @@ import org.mapstruct.Mapper;
 @Mapper(componentModel = "spring")
 public interface DashboardCardsMapper {
 
-	DashboardCardsDto toDto(DashboardCards view);
-}
\ No newline at end of file
+	DashboardCardsDto toDto(DashboardCards view, LocalDateTime asOf);
+}
@@ -0,0 +1,28 @@
+package be.labil.anacarde.domain.mapper;
+
+import be.labil.anacarde.domain.dto.db.ExportJobDto;
+import be.labil.anacarde.domain.model.ExportJob;
+import be.labil.anacarde.domain.model.ExportJobStatus;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * Mapper pour convertir l'entité ExportJob en DTO.
+ */
+@Mapper(componentModel = "spring")
+public interface ExportJobMapper {
+
+	@Mapping(target = "progress", expression = "java(progress(job))")
+	ExportJobDto toDto(ExportJob job);
+
+	/** Part des lignes écrites, ou {@code null} si le nombre de lignes est inconnu. */
+	default Double progress(ExportJob job) {
+		if (job.getStatus() == ExportJobStatus.COMPLETED) {
+			return 1.0;
+		}
+		if (job.getTotalRows() == null || job.getTotalRows() == 0) {
+			return null;
+		}
+		return Math.min(1.0, (double) job.getRowsWritten() / job.getTotalRows());
+	}
+}
@@ -1,5 +1,6 @@
 package be.labil.anacarde.domain.mapper;
 
+import be.labil.anacarde.domain.dto.db.AuctionStrategyDto;
 import be.labil.anacarde.domain.dto.db.GlobalSettingsDto;
 import be.labil.anacarde.domain.dto.write.GlobalSettingsUpdateDto;
 import be.labil.anacarde.domain.model.AuctionStrategy;
@@ -16,6 +17,14 @@ public abstract class GlobalSettingsMapper {
 
 	public abstract GlobalSettingsDto toDto(GlobalSettings entity);
 
+	/**
+	 * Copie profonde d'un DTO de réglages, utilisée pour ne jamais exposer l'instance mise en
+	 * cache.
+	 */
+	public abstract GlobalSettingsDto copy(GlobalSettingsDto dto);
+
+	protected abstract AuctionStrategyDto copy(AuctionStrategyDto dto);
+
 	@Mapping(target = "defaultStrategy", ignore = true)
 	@Mapping(target = "id", ignore = true)
 	public abstract GlobalSettings toEntity(GlobalSettingsUpdateDto dto);
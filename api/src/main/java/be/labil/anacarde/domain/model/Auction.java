@@ -1,9 +1,11 @@
 package be.labil.anacarde.domain.model;
 
 import jakarta.persistence.*;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -14,7 +16,9 @@ import org.hibernate.annotations.CreationTimestamp;
  * Entité représentant une offre de vente d'un Produit.
  */
 @Entity
-@Table(name = "auction")
+@Table(name = "auction", indexes = {
+		@Index(name = "idx_auction_expiration_date", columnList = "expiration_date, id"),
+		@Index(name = "idx_auction_creation_date", columnList = "creation_date")})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -53,6 +57,29 @@ public class Auction extends BaseEntity {
 	@JoinColumn(name = "status_id", nullable = false)
 	private TradeStatus status;
 
+	/*
+	 * Agrégats des offres, dénormalisés pour le placement atomique des offres : ils ne sont écrits
+	 * que par les mises à jour conditionnelles de AuctionRepository, jamais par l'enregistrement de
+	 * l'entité, dont la copie peut être périmée.
+	 */
+
+	/** Montant de la meilleure offre, dénormalisé pour le placement atomique des offres. */
+	@Column(name = "best_bid_amount", updatable = false)
+	private BigDecimal bestBidAmount;
+
+	/** Nombre d'offres placées, dénormalisé pour le placement atomique des offres. */
+	@Column(name = "bid_count", nullable = false, updatable = false)
+	@Builder.Default
+	private Integer bidCount = 0;
+
+	/** Identifiant du trader ayant placé la dernière offre. */
+	@Column(name = "last_bidder_id", updatable = false)
+	private Integer lastBidderId;
+
+	/** Identifiant de l'offre acceptée, qui ferme l'enchère aux nouvelles offres. */
+	@Column(name = "accepted_bid_id", updatable = false)
+	private Integer acceptedBidId;
+
 	@OneToMany(mappedBy = "auctionId", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
 	private List<Bid> bids;
 }
@@ -0,0 +1,39 @@
+package be.labil.anacarde.domain.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Agrégat journalier des enchères, alimentant la courbe « Open vs New » du tableau de bord.
+ * <p>
+ * Chaque ligne compte les enchères créées et celles arrivées à échéance un jour donné ; le nombre
+ * d'enchères ouvertes à une date s'obtient par somme cumulée des jours précédents. Les jours sans
+ * activité n'ont pas de ligne.
+ */
+@Entity
+@Table(name = "auction_daily_stats")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuctionDailyStats {
+
+	@Id
+	@Column(name = "stat_date")
+	private LocalDate statDate;
+
+	/** Nombre d'enchères créées ce jour-là. */
+	@Column(name = "new_auctions", nullable = false)
+	private long newAuctions;
+
+	/** Nombre d'enchères dont la date d'expiration (ou d'acceptation) tombe ce jour-là. */
+	@Column(name = "ended_auctions", nullable = false)
+	private long endedAuctions;
+}
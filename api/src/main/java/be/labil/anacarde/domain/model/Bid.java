@@ -14,7 +14,8 @@ import org.hibernate.annotations.CreationTimestamp;
  * Entité représentant une offre d'achat sur une offre de vente.
  */
 @Entity
-@Table(name = "bid")
+@Table(name = "bid", indexes = {
+		@Index(name = "idx_bid_auction_id", columnList = "auction_id, id")})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -1,7 +1,9 @@
 package be.labil.anacarde.domain.model;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import java.math.BigDecimal;
@@ -17,7 +19,8 @@ import org.hibernate.annotations.CreationTimestamp;
  * Entité représentant une offre de contrat faite entre deux Trader (un acheteur et un vendeur).
  */
 @Entity
-@Table(name = "contract_offer")
+@Table(name = "contract_offer", indexes = {@Index(name = "idx_contract_offer_lookup",
+		columnList = "quality_id, seller_id, buyer_id, status, creation_date")})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -25,8 +28,9 @@ import org.hibernate.annotations.CreationTimestamp;
 @SuperBuilder
 public class ContractOffer extends BaseEntity {
 
-	@Column(nullable = false)
-	private String status;
+	@Column(nullable = false, length = 1)
+	@Convert(converter = ContractOfferStatusConverter.class)
+	private ContractOfferStatus status;
 
 	@Column(nullable = false)
 	private BigDecimal pricePerKg;
@@ -0,0 +1,73 @@
+package be.labil.anacarde.domain.model;
+
+/**
+ * Énumération des status d'une offre de contrat. Chaque status est enregistré en base de données
+ * sous un code d'un caractère et exposé par l'API sous son libellé.
+ */
+public enum ContractOfferStatus {
+	OPEN("O", "Ouvert"),
+	ACCEPTED("A", "Accepté"),
+	REJECTED("R", "Refusé"),
+	EXPIRED("E", "Expiré");
+
+	private final String code;
+	private final String label;
+
+	ContractOfferStatus(String code, String label) {
+		this.code = code;
+		this.label = label;
+	}
+
+	/**
+	 * Retourne le code du status tel qu'enregistré en base de données.
+	 *
+	 * @return le code du status
+	 */
+	public String getCode() {
+		return code;
+	}
+
+	/**
+	 * Retourne le libellé du status tel qu'exposé par l'API.
+	 *
+	 * @return le libellé du status
+	 */
+	public String getLabel() {
+		return label;
+	}
+
+	/**
+	 * Retourne le status correspondant au code enregistré en base de données.
+	 *
+	 * @param code
+	 *            le code du status
+	 * @return le status correspondant
+	 * @throws IllegalArgumentException
+	 *             si le code est inconnu
+	 */
+	public static ContractOfferStatus fromCode(String code) {
+		for (ContractOfferStatus status : values()) {
+			if (status.code.equals(code)) {
+				return status;
+			}
+		}
+		throw new IllegalArgumentException("Code de status de contrat inconnu : " + code);
+	}
+
+	/**
+	 * Retourne le status correspondant à un libellé (« Accepté ») ou à un nom d'énumération
+	 * (« ACCEPTED »), sans tenir compte de la casse.
+	 *
+	 * @param label
+	 *            le libellé ou le nom du status
+	 * @return le status correspondant, ou {@code null} si le libellé est inconnu
+	 */
+	public static ContractOfferStatus fromLabel(String label) {
+		for (ContractOfferStatus status : values()) {
+			if (status.label.equalsIgnoreCase(label) || status.name().equalsIgnoreCase(label)) {
+				return status;
+			}
+		}
+		return null;
+	}
+}
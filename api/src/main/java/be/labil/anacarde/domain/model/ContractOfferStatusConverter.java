@@ -0,0 +1,23 @@
+package be.labil.anacarde.domain.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Convertisseur JPA enregistrant un {@link ContractOfferStatus} sous son code d'un caractère.
+ */
+@Converter
+public class ContractOfferStatusConverter
+		implements
+			AttributeConverter<ContractOfferStatus, String> {
+
+	@Override
+	public String convertToDatabaseColumn(ContractOfferStatus status) {
+		return status != null ? status.getCode() : null;
+	}
+
+	@Override
+	public ContractOfferStatus convertToEntityAttribute(String code) {
+		return code != null ? ContractOfferStatus.fromCode(code) : null;
+	}
+}
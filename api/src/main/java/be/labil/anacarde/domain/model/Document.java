@@ -41,6 +41,10 @@ public class Document extends BaseEntity {
 	@Column(nullable = false)
 	private String storagePath;
 
+	/** Empreinte SHA-256 du contenu, servie comme ETag lors du téléchargement */
+	@Column(length = 64)
+	private String contentHash;
+
 	@CreationTimestamp
 	@Column(nullable = false, updatable = false)
 	private LocalDateTime uploadDate;
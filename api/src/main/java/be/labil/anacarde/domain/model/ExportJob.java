@@ -0,0 +1,89 @@
+package be.labil.anacarde.domain.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * Entité représentant un export des enchères exécuté en tâche de fond, dont le fichier est écrit
+ * dans le stockage puis téléchargé.
+ */
+@Entity
+@Table(name = "export_job", indexes = {
+		@Index(name = "idx_export_job_params_hash", columnList = "params_hash")})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder
+public class ExportJob extends BaseEntity {
+
+	/** Empreinte des paramètres de l'export, pour réutiliser un fichier identique. */
+	@Column(name = "params_hash", nullable = false, length = 64)
+	private String paramsHash;
+
+	/**
+	 * Copie de {@link #paramsHash} tant que le job est réutilisable, effacée lorsqu'il échoue,
+	 * expire ou est abandonné : l'unicité garantit qu'un seul job réutilisable existe par jeu de
+	 * paramètres, même lorsque deux soumissions identiques sont concurrentes.
+	 */
+	@Column(name = "active_params_hash", unique = true, length = 64)
+	private String activeParamsHash;
+
+	@Column(name = "start_date")
+	private LocalDateTime startDate;
+
+	@Column(name = "end_date")
+	private LocalDateTime endDate;
+
+	@Column(nullable = false)
+	private Boolean onlyEnded;
+
+	@Column(nullable = false, length = 8)
+	private String format;
+
+	@Column(nullable = false)
+	private Boolean gzip;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false, length = 16)
+	private ExportJobStatus status;
+
+	/** Nombre de lignes à exporter, calculé au démarrage de l'export. */
+	private Long totalRows;
+
+	@Column(nullable = false)
+	private Long rowsWritten;
+
+	/** Clé du fichier dans le stockage. */
+	@Column(nullable = false)
+	private String storageKey;
+
+	@Column(nullable = false)
+	private String filename;
+
+	@Column(nullable = false)
+	private String contentType;
+
+	/** Taille du fichier en octets, connue une fois l'export terminé. */
+	private Long size;
+
+	private String errorMessage;
+
+	@Column(nullable = false)
+	private LocalDateTime creationDate;
+
+	/** Date de la dernière progression : un job en cours qui ne progresse plus est abandonné. */
+	@Column(nullable = false)
+	private LocalDateTime updateDate;
+
+	private LocalDateTime completionDate;
+
+	/** Date à partir de laquelle le fichier est supprimé et le job n'est plus réutilisé. */
+	@Column(nullable = false)
+	private LocalDateTime expirationDate;
+}
@@ -0,0 +1,15 @@
+package be.labil.anacarde.domain.model;
+
+/**
+ * Énumération des états d'un job d'export.
+ */
+public enum ExportJobStatus {
+	/** Soumis, en attente d'un thread d'export. */
+	PENDING,
+	/** Fichier en cours d'écriture. */
+	RUNNING,
+	/** Fichier écrit et téléchargeable jusqu'à expiration du job. */
+	COMPLETED,
+	/** Échec de l'export ; un nouveau job peut être soumis. */
+	FAILED
+}
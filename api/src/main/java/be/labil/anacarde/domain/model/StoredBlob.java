@@ -0,0 +1,48 @@
+package be.labil.anacarde.domain.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Contenu stocké une seule fois sous son empreinte SHA-256, partagé par tous les documents au
+ * contenu identique.
+ * <p>
+ * Le compteur de références suit le nombre de documents qui pointent vers le contenu ; un contenu
+ * qui n'est plus référencé est supprimé du stockage en tâche de fond.
+ */
+@Entity
+@Table(name = "stored_blob", indexes = {
+		@Index(name = "idx_stored_blob_ref_count", columnList = "ref_count")})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredBlob {
+
+	@Id
+	@Column(name = "content_hash", length = 64)
+	private String contentHash;
+
+	/** Clé du contenu dans le stockage, relative à sa racine. */
+	@Column(name = "storage_key", nullable = false)
+	private String storageKey;
+
+	/** Taille du contenu en octets. */
+	@Column(nullable = false)
+	private long size;
+
+	/** Nombre de documents qui référencent le contenu. */
+	@Column(name = "ref_count", nullable = false)
+	private int refCount;
+
+	@Column(name = "creation_date", nullable = false)
+	private LocalDateTime creationDate;
+}
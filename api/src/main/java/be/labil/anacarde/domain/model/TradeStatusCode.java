@@ -0,0 +1,27 @@
+package be.labil.anacarde.domain.model;
+
+/**
+ * Énumération des status d'offre connus de l'application, associés au nom sous lequel ils sont
+ * enregistrés en base de données.
+ */
+public enum TradeStatusCode {
+	PENDING("Ouvert"),
+	ACCEPTED("Accepté"),
+	REJECTED("Refusé"),
+	EXPIRED("Expiré");
+
+	private final String statusName;
+
+	TradeStatusCode(String statusName) {
+		this.statusName = statusName;
+	}
+
+	/**
+	 * Retourne le nom du status tel qu'enregistré en base de données.
+	 *
+	 * @return le nom du status
+	 */
+	public String getStatusName() {
+		return statusName;
+	}
+}
@@ -0,0 +1,434 @@
+package be.labil.anacarde.infrastructure.datafaker;
+
+import be.labil.anacarde.application.service.TradeStatusRegistry;
+import be.labil.anacarde.domain.model.Auction;
+import be.labil.anacarde.domain.model.AuctionStrategy;
+import be.labil.anacarde.domain.model.Bid;
+import be.labil.anacarde.domain.model.City;
+import be.labil.anacarde.domain.model.Field;
+import be.labil.anacarde.domain.model.HarvestProduct;
+import be.labil.anacarde.domain.model.Language;
+import be.labil.anacarde.domain.model.Store;
+import be.labil.anacarde.domain.model.TradeStatusCode;
+import be.labil.anacarde.domain.model.User;
+import be.labil.anacarde.infrastructure.persistence.AuctionStrategyRepository;
+import be.labil.anacarde.infrastructure.persistence.CityRepository;
+import be.labil.anacarde.infrastructure.persistence.LanguageRepository;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import net.datafaker.Faker;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.DatabaseStructure;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Peuplement volumineux de la base pour reproduire localement les volumes de production
+ * (producteurs, acheteurs, enchères et offres).
+ * <p>
+ * Contrairement à {@code DatabaseServiceImpl.initTestData()}, les lignes sont écrites directement
+ * en JDBC (COPY sur PostgreSQL, lots d'INSERT ailleurs), sans passer par les services : pas de
+ * hachage BCrypt par utilisateur, pas de planification Quartz par enchère ni de notification par
+ * offre. Les enchères ouvertes sont clôturées par le balayage périodique des enchères expirées.
+ * <p>
+ * La génération est découpée en blocs de {@code batch-size} lignes traités en parallèle, chacun sur
+ * sa propre connexion et sa propre transaction. Chaque bloc tire ses valeurs d'un générateur
+ * initialisé à partir de la graine et de son numéro : le contenu produit ne dépend donc ni du
+ * parallélisme ni de l'ordre d'exécution, seules les dates sont relatives au jour du peuplement.
+ * Les identifiants sont réservés à l'avance dans les séquences Hibernate.
+ */
+@Component
+@Slf4j
+public class BulkDataSeeder {
+
+	private static final String DEFAULT_PASSWORD = "password";
+	private static final String EMAIL_DOMAIN = "@bulk.anacarde.local";
+	private static final int HISTORY_DAYS = 365;
+	private static final int MIN_AUCTION_DURATION_DAYS = 15;
+	private static final int MAX_AUCTION_DURATION_DAYS = 60;
+	private static final int MIN_PRODUCT_50KG_BAG = 1;
+	private static final int MAX_PRODUCT_50KG_BAG = 100;
+	private static final int MIN_AUCTION_INCREMENT = 1; // kCFA
+	private static final int MAX_AUCTION_INCREMENT = 5; // kCFA
+	// Fourchettes de prix au kilo des différentes qualités de cajou
+	private static final double[][] PRICE_RANGES = {{600.0, 800.0}, {500.0, 700.0},
+			{400.0, 600.0}, {300.0, 500.0}};
+
+	private static final BulkRowWriter.Table USERS = BulkRowWriter.Table.of("users", "id",
+			"last_name", "first_name", "email", "password", "registration_date",
+			"validation_date", "enabled", "street", "city_id", "region_id", "phone",
+			"language_id");
+	private static final BulkRowWriter.Table TRADER = BulkRowWriter.Table.of("trader", "id");
+	private static final BulkRowWriter.Table PRODUCER = BulkRowWriter.Table.of("producer", "id",
+			"agricultural_identifier");
+	private static final BulkRowWriter.Table TRANSFORMER = BulkRowWriter.Table.of("transformer",
+			"id");
+	private static final BulkRowWriter.Table STORE = BulkRowWriter.Table.of("store", "id", "name",
+			"street", "city_id", "region_id", "user_id");
+	private static final BulkRowWriter.Table FIELD = BulkRowWriter.Table.of("field", "id",
+			"identifier", "street", "city_id", "region_id", "producer_id");
+	private static final BulkRowWriter.Table HARVEST_PRODUCT = BulkRowWriter.Table.of(
+			"harvest_product", "id", "delivery_date", "store_id", "weight_kg",
+			"weight_kg_available", "producer_id", "field_id");
+	private static final BulkRowWriter.Table AUCTION = BulkRowWriter.Table.of("auction", "id",
+			"price", "product_quantity", "expiration_date", "creation_date", "active",
+			"strategy_id", "max_price_kg", "min_price_kg", "buy_now_price", "show_public",
+			"force_better_bids", "min_increment", "product_id", "trader_id", "status_id",
+			"best_bid_amount", "bid_count", "last_bidder_id", "accepted_bid_id");
+	private static final BulkRowWriter.Table BID = BulkRowWriter.Table.of("bid", "id", "amount",
+			"creation_date", "auction_id", "trader_id", "status_id");
+
+	private final DataSource dataSource;
+	private final SessionFactoryImplementor sessionFactory;
+	private final PasswordEncoder passwordEncoder;
+	private final TradeStatusRegistry tradeStatusRegistry;
+	private final LanguageRepository languageRepository;
+	private final CityRepository cityRepository;
+	private final AuctionStrategyRepository auctionStrategyRepository;
+	private final int producers;
+	private final int buyers;
+	private final int auctions;
+	private final int bids;
+	private final long seed;
+	private final int batchSize;
+	private final int parallelism;
+
+	public BulkDataSeeder(DataSource dataSource, EntityManagerFactory entityManagerFactory,
+			PasswordEncoder passwordEncoder, TradeStatusRegistry tradeStatusRegistry,
+			LanguageRepository languageRepository, CityRepository cityRepository,
+			AuctionStrategyRepository auctionStrategyRepository,
+			@Value("${app.init.bulk.producers:0}") int producers,
+			@Value("${app.init.bulk.buyers:0}") int buyers,
+			@Value("${app.init.bulk.auctions:0}") int auctions,
+			@Value("${app.init.bulk.bids:0}") int bids,
+			@Value("${app.init.bulk.seed:42}") long seed,
+			@Value("${app.init.bulk.batch-size:10000}") int batchSize,
+			@Value("${app.init.bulk.parallelism:4}") int parallelism) {
+		this.dataSource = dataSource;
+		this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+		this.passwordEncoder = passwordEncoder;
+		this.tradeStatusRegistry = tradeStatusRegistry;
+		this.languageRepository = languageRepository;
+		this.cityRepository = cityRepository;
+		this.auctionStrategyRepository = auctionStrategyRepository;
+		this.producers = producers;
+		this.buyers = buyers;
+		this.auctions = auctions;
+		this.bids = bids;
+		this.seed = seed;
+		this.batchSize = Math.max(1, batchSize);
+		this.parallelism = Math.max(1, parallelism);
+	}
+
+	/**
+	 * Indique si un peuplement volumineux est configuré ({@code app.init.bulk.producers > 0}).
+	 */
+	public boolean isEnabled() {
+		return producers > 0;
+	}
+
+	/**
+	 * Génère et écrit le jeu de données configuré. Les données de référence (langues, régions et
+	 * villes, statuts, stratégies) doivent déjà être validées en base.
+	 * <p>
+	 * Les blocs déjà écrits ne sont pas annulés en cas d'échec : la base doit alors être vidée avec
+	 * {@code DatabaseService.dropDatabase()}.
+	 *
+	 * @throws IllegalStateException
+	 *             si la configuration est incohérente, si les données de référence manquent ou si
+	 *             l'écriture d'un bloc échoue
+	 */
+	public void seed() {
+		if (!isEnabled()) {
+			return;
+		}
+		if (auctions < 0 || bids < 0 || (bids > 0 && (auctions == 0 || buyers <= 0))) {
+			throw new IllegalStateException(
+					"Les offres nécessitent au moins une enchère et un acheteur");
+		}
+		if (bids > auctions && buyers < 2) {
+			throw new IllegalStateException(
+					"Plusieurs offres par enchère nécessitent au moins deux acheteurs");
+		}
+		long started = System.nanoTime();
+		log.info("Peuplement volumineux : {} producteurs, {} acheteurs, {} enchères, {} offres "
+				+ "(graine {}, blocs de {}, {} threads)", producers, buyers, auctions, bids, seed,
+				batchSize, parallelism);
+
+		Reference reference = loadReference();
+		int users = producers + Math.max(0, buyers);
+		Ids ids = new Ids(reserveIds(User.class, users), reserveIds(Store.class, producers),
+				reserveIds(Field.class, producers), reserveIds(HarvestProduct.class, auctions),
+				reserveIds(Auction.class, auctions), reserveIds(Bid.class, bids));
+		LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+		ExecutorService workers = Executors.newFixedThreadPool(parallelism,
+				Thread.ofPlatform().name("bulk-seed-", 0).daemon().factory());
+		try {
+			runChunks(workers, "utilisateurs", 0, users,
+					(out, from, to, random) -> writeUsers(out, from, to, random, reference, ids,
+							now));
+			runChunks(workers, "enchères", 1, auctions,
+					(out, from, to, random) -> writeAuctions(out, from, to, random, reference,
+							ids, now));
+		} finally {
+			workers.shutdownNow();
+		}
+		log.info("Peuplement volumineux terminé en {} s",
+				(System.nanoTime() - started) / 1_000_000_000);
+	}
+
+	private void writeUsers(BulkRowWriter out, int from, int to, Random random,
+			Reference reference, Ids ids, LocalDateTime now) {
+		Faker faker = new Faker(Locale.of("fr"), random);
+		for (int index = from; index < to; index++) {
+			boolean producer = index < producers;
+			int id = ids.user() + index;
+			String firstName = faker.name().firstName();
+			String lastName = faker.name().lastName();
+			String street = faker.address().streetAddress();
+			int[] city = reference.cities().get(random.nextInt(reference.cities().size()));
+			LocalDateTime registration = now.minusDays(HISTORY_DAYS + random.nextInt(HISTORY_DAYS))
+					.minusSeconds(random.nextInt(86_400));
+			String email = (producer ? "producteur" + index : "acheteur" + (index - producers))
+					+ EMAIL_DOMAIN;
+
+			out.add(USERS, id, lastName, firstName, email, reference.passwordHash(), registration,
+					registration.plusDays(1 + random.nextInt(7)), true, street, city[0], city[1],
+					"+22990%08d".formatted(index), reference.languageId());
+			out.add(TRADER, id);
+			if (producer) {
+				out.add(PRODUCER, id, "BULK-%08d".formatted(index));
+				out.add(STORE, ids.store() + index, "Magasin " + lastName, street, city[0],
+						city[1], id);
+				out.add(FIELD, ids.field() + index, "BULK-F-%08d".formatted(index), street,
+						city[0], city[1], id);
+			} else {
+				out.add(TRANSFORMER, id);
+			}
+		}
+	}
+
+	/**
+	 * Écrit les enchères {@code [from, to)} avec leur produit et leurs offres. Les offres sont
+	 * réparties exactement : l'enchère {@code i} reçoit les offres
+	 * {@code [bids * i / auctions, bids * (i + 1) / auctions)}, ce qui permet à chaque bloc de
+	 * calculer ses identifiants sans connaître les autres.
+	 */
+	private void writeAuctions(BulkRowWriter out, int from, int to, Random random,
+			Reference reference, Ids ids, LocalDateTime now) {
+		for (int index = from; index < to; index++) {
+			int seller = index % producers;
+			int sellerId = ids.user() + seller;
+			int productId = ids.product() + index;
+			int auctionId = ids.auction() + index;
+			long firstBid = (long) bids * index / auctions;
+			int bidCount = (int) ((long) bids * (index + 1) / auctions - firstBid);
+
+			LocalDateTime creation = now.minusDays(random.nextInt(HISTORY_DAYS))
+					.minusSeconds(random.nextInt(86_400));
+			LocalDateTime expiration = creation.plusDays(MIN_AUCTION_DURATION_DAYS
+					+ random.nextInt(MAX_AUCTION_DURATION_DAYS - MIN_AUCTION_DURATION_DAYS + 1));
+			boolean open = expiration.isAfter(now);
+			boolean accepted = !open && bidCount > 0;
+
+			int quantity = 50 * (MIN_PRODUCT_50KG_BAG
+					+ random.nextInt(MAX_PRODUCT_50KG_BAG - MIN_PRODUCT_50KG_BAG + 1));
+			double[] range = PRICE_RANGES[random.nextInt(PRICE_RANGES.length)];
+			double priceKg = range[0] + random.nextDouble() * (range[1] - range[0]);
+			long price = roundTo100(priceKg * quantity);
+
+			// Offres croissantes, réparties entre la création et la clôture de l'enchère
+			long firstAmount = roundTo100(price * 0.8);
+			long step = Math.max(100, roundTo100(price * 0.4 / Math.max(1, bidCount)));
+			long span = ChronoUnit.SECONDS.between(creation, open ? now : expiration);
+			List<Object[]> auctionBids = new ArrayList<>(bidCount);
+			// Un acheteur ne surenchérit jamais sur sa propre offre
+			int lastBidder = 0;
+			for (int k = 0; k < bidCount; k++) {
+				int buyer = ids.user() + producers + random.nextInt(k == 0 ? buyers : buyers - 1);
+				lastBidder = k > 0 && buyer >= lastBidder ? buyer + 1 : buyer;
+				TradeStatusCode status = open
+						? TradeStatusCode.PENDING
+						: k == bidCount - 1 ? TradeStatusCode.ACCEPTED : TradeStatusCode.REJECTED;
+				auctionBids.add(new Object[]{(int) (ids.bid() + firstBid + k),
+						BigDecimal.valueOf(firstAmount + (k + 1) * step),
+						creation.plusSeconds(span * (k + 1) / (bidCount + 1)), auctionId,
+						lastBidder, reference.statusId(status)});
+			}
+
+			out.add(HARVEST_PRODUCT, productId, creation.minusDays(1 + random.nextInt(30)),
+					ids.store() + seller, (double) quantity, accepted ? 0.0 : quantity, sellerId,
+					ids.field() + seller);
+			TradeStatusCode status = open
+					? TradeStatusCode.PENDING
+					: accepted ? TradeStatusCode.ACCEPTED : TradeStatusCode.EXPIRED;
+			out.add(AUCTION, auctionId, (double) price, quantity, expiration, creation, true,
+					reference.strategyId(), range[1], range[0], (double) price, true,
+					random.nextBoolean(),
+					MIN_AUCTION_INCREMENT
+							+ random.nextInt(MAX_AUCTION_INCREMENT - MIN_AUCTION_INCREMENT + 1),
+					productId, sellerId, reference.statusId(status),
+					bidCount > 0 ? auctionBids.getLast()[1] : null, bidCount,
+					bidCount > 0 ? lastBidder : null, accepted ? auctionBids.getLast()[0] : null);
+			for (Object[] bid : auctionBids) {
+				out.add(BID, bid);
+			}
+		}
+	}
+
+	/**
+	 * Découpe {@code [0, total)} en blocs écrits en parallèle, chacun dans sa propre transaction,
+	 * et attend leur fin. Le premier échec interrompt les blocs restants.
+	 */
+	private void runChunks(ExecutorService workers, String label, int phase, int total,
+			ChunkGenerator generator) {
+		if (total <= 0) {
+			return;
+		}
+		long started = System.nanoTime();
+		int chunks = Math.ceilDiv(total, batchSize);
+		List<Future<?>> futures = new ArrayList<>(chunks);
+		for (int chunk = 0; chunk < chunks; chunk++) {
+			int from = chunk * batchSize;
+			int to = Math.min(total, from + batchSize);
+			Random random = new Random(chunkSeed(phase, chunk));
+			futures.add(workers.submit(() -> {
+				BulkRowWriter out = new BulkRowWriter();
+				generator.generate(out, from, to, random);
+				try (Connection connection = dataSource.getConnection()) {
+					connection.setAutoCommit(false);
+					out.writeTo(connection);
+					connection.commit();
+				}
+				return null;
+			}));
+		}
+		try {
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} catch (ExecutionException e) {
+			futures.forEach(future -> future.cancel(true));
+			throw new IllegalStateException("Échec du peuplement des " + label, e.getCause());
+		} catch (InterruptedException e) {
+			futures.forEach(future -> future.cancel(true));
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Peuplement des " + label + " interrompu", e);
+		}
+		log.info("→ {} {} écrits en {} ms", total, label,
+				(System.nanoTime() - started) / 1_000_000);
+	}
+
+	private static long roundTo100(double amount) {
+		return (long) (amount / 100) * 100;
+	}
+
+	/**
+	 * Graine propre à un bloc, mélangée pour que des blocs voisins ne produisent pas des suites
+	 * corrélées.
+	 */
+	private long chunkSeed(int phase, int chunk) {
+		long z = seed + 0x9E3779B97F4A7C15L * (((long) phase << 32) | chunk);
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * Réserve {@code count} identifiants consécutifs dans la séquence de l'entité et renvoie le
+	 * premier. La séquence est avancée au-delà de la plage réservée, en tenant compte des blocs
+	 * d'identifiants que l'optimiseur Hibernate alloue à partir de chaque valeur.
+	 */
+	private int reserveIds(Class<?> entity, int count) {
+		if (count <= 0) {
+			return 0;
+		}
+		if (!(sessionFactory.getMappingMetamodel().getEntityDescriptor(entity)
+				.getGenerator() instanceof SequenceStyleGenerator generator)) {
+			throw new IllegalStateException(
+					"L'entité " + entity.getSimpleName() + " n'utilise pas de séquence");
+		}
+		DatabaseStructure structure = generator.getDatabaseStructure();
+		String sequence = structure.getPhysicalName().render();
+		String nextValue = sessionFactory.getJdbcServices().getDialect().getSequenceSupport()
+				.getSequenceNextValString(sequence);
+		try (Connection connection = dataSource.getConnection();
+				Statement statement = connection.createStatement()) {
+			long start;
+			try (ResultSet result = statement.executeQuery(nextValue)) {
+				result.next();
+				start = result.getLong(1);
+			}
+			long restart = start + count + structure.getIncrementSize();
+			if (restart > Integer.MAX_VALUE) {
+				throw new IllegalStateException("La séquence " + sequence + " est épuisée");
+			}
+			statement.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + restart);
+			return (int) start;
+		} catch (SQLException e) {
+			throw new IllegalStateException("Réservation impossible dans " + sequence, e);
+		}
+	}
+
+	private Reference loadReference() {
+		List<Language> languages = languageRepository.findAll(Sort.by("id"));
+		Integer languageId = languages.stream().filter(l -> "fr".equals(l.getCode()))
+				.findFirst().or(() -> languages.stream().findFirst()).map(Language::getId)
+				.orElseThrow(() -> new IllegalStateException("Aucune langue en base"));
+		List<int[]> cities = new ArrayList<>();
+		for (City city : cityRepository.findAll(Sort.by("id"))) {
+			cities.add(new int[]{city.getId(), city.getRegion().getId()});
+		}
+		if (cities.isEmpty()) {
+			throw new IllegalStateException("Aucune ville en base");
+		}
+		Integer strategyId = auctionStrategyRepository.findAll(Sort.by("id")).stream()
+				.findFirst().map(AuctionStrategy::getId)
+				.orElseThrow(() -> new IllegalStateException("Aucune stratégie en base"));
+		int[] statuses = new int[TradeStatusCode.values().length];
+		for (TradeStatusCode code : TradeStatusCode.values()) {
+			statuses[code.ordinal()] = tradeStatusRegistry.getId(code);
+		}
+		// Un seul hachage pour tous les comptes : BCrypt est volontairement lent
+		return new Reference(languageId, List.copyOf(cities), strategyId, statuses,
+				passwordEncoder.encode(DEFAULT_PASSWORD));
+	}
+
+	@FunctionalInterface
+	private interface ChunkGenerator {
+		void generate(BulkRowWriter out, int from, int to, Random random);
+	}
+
+	/** Identifiants de référence partagés par tous les blocs. */
+	private record Reference(int languageId, List<int[]> cities, int strategyId, int[] statuses,
+			String passwordHash) {
+
+		int statusId(TradeStatusCode code) {
+			return statuses[code.ordinal()];
+		}
+	}
+
+	/** Premier identifiant réservé pour chaque table. */
+	private record Ids(int user, int store, int field, int product, int auction, int bid) {
+	}
+}
@@ -0,0 +1,119 @@
+package be.labil.anacarde.infrastructure.datafaker;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.postgresql.PGConnection;
+
+/**
+ * Tampon de lignes écrites en une seule fois sur une connexion JDBC : par
+ * {@code COPY ... FROM STDIN} sur PostgreSQL, par lots d'{@code INSERT} sur les autres bases (H2 en
+ * test).
+ * <p>
+ * Les tables sont écrites dans l'ordre de leur première ligne : les lignes parentes doivent donc
+ * être ajoutées avant les lignes qui les référencent.
+ */
+final class BulkRowWriter {
+
+	/**
+	 * Table cible et colonnes renseignées, dans l'ordre des valeurs de chaque ligne.
+	 */
+	record Table(String name, List<String> columns) {
+
+		static Table of(String name, String... columns) {
+			return new Table(name, List.of(columns));
+		}
+	}
+
+	private final Map<Table, List<Object[]>> rows = new LinkedHashMap<>();
+
+	void add(Table table, Object... values) {
+		if (values.length != table.columns().size()) {
+			throw new IllegalArgumentException("La table " + table.name() + " attend "
+					+ table.columns().size() + " valeurs, " + values.length + " reçues");
+		}
+		rows.computeIfAbsent(table, t -> new ArrayList<>()).add(values);
+	}
+
+	/**
+	 * Écrit toutes les lignes en attente sur la connexion puis vide le tampon. La transaction
+	 * reste à la charge de l'appelant.
+	 */
+	void writeTo(Connection connection) throws SQLException, IOException {
+		boolean copy = connection.isWrapperFor(PGConnection.class);
+		for (Map.Entry<Table, List<Object[]>> entry : rows.entrySet()) {
+			if (copy) {
+				copy(connection.unwrap(PGConnection.class), entry.getKey(), entry.getValue());
+			} else {
+				insert(connection, entry.getKey(), entry.getValue());
+			}
+		}
+		rows.clear();
+	}
+
+	private static void copy(PGConnection connection, Table table, List<Object[]> lines)
+			throws SQLException, IOException {
+		StringBuilder data = new StringBuilder(lines.size() * 64);
+		for (Object[] line : lines) {
+			for (int i = 0; i < line.length; i++) {
+				if (i > 0) {
+					data.append('\t');
+				}
+				appendCopyValue(data, line[i]);
+			}
+			data.append('\n');
+		}
+		String sql = "COPY " + table.name() + " (" + String.join(", ", table.columns())
+				+ ") FROM STDIN";
+		connection.getCopyAPI().copyIn(sql, new StringReader(data.toString()));
+	}
+
+	private static void insert(Connection connection, Table table, List<Object[]> lines)
+			throws SQLException {
+		String sql = "INSERT INTO " + table.name() + " (" + String.join(", ", table.columns())
+				+ ") VALUES (" + "?, ".repeat(table.columns().size() - 1) + "?)";
+		try (PreparedStatement statement = connection.prepareStatement(sql)) {
+			for (Object[] line : lines) {
+				for (int i = 0; i < line.length; i++) {
+					statement.setObject(i + 1, line[i]);
+				}
+				statement.addBatch();
+			}
+			statement.executeBatch();
+		}
+	}
+
+	/**
+	 * Ajoute une valeur au format texte de {@code COPY} : {@code \N} pour {@code null}, caractères
+	 * de contrôle échappés.
+	 */
+	private static void appendCopyValue(StringBuilder data, Object value) {
+		if (value == null) {
+			data.append("\\N");
+		} else if (value instanceof Boolean bool) {
+			data.append(bool ? 't' : 'f');
+		} else if (value instanceof BigDecimal decimal) {
+			data.append(decimal.toPlainString());
+		} else if (value instanceof String text) {
+			for (int i = 0; i < text.length(); i++) {
+				char c = text.charAt(i);
+				switch (c) {
+					case '\\' -> data.append("\\\\");
+					case '\t' -> data.append("\\t");
+					case '\n' -> data.append("\\n");
+					case '\r' -> data.append("\\r");
+					default -> data.append(c);
+				}
+			}
+		} else {
+			data.append(value);
+		}
+	}
+}
@@ -0,0 +1,14 @@
+package be.labil.anacarde.infrastructure.persistence;
+
+import java.time.LocalDate;
+
+/**
+ * Nombre d'enchères par jour, résultat des agrégations de {@link AuctionDailyStatsRepository}.
+ *
+ * @param day
+ *            le jour
+ * @param count
+ *            le nombre d'enchères
+ */
+public record AuctionDailyCount(LocalDate day, Long count) {
+}
@@ -0,0 +1,81 @@
+package be.labil.anacarde.infrastructure.persistence;
+
+import be.labil.anacarde.domain.model.AuctionDailyStats;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Repository Spring Data JPA pour l’agrégat journalier {@link AuctionDailyStats}.
+ * <p>
+ * Fournit également les agrégations par jour de la table {@code auction} utilisées pour recalculer
+ * les lignes de l'agrégat ; elles s'appuient sur les index des dates de création et d'expiration.
+ */
+public interface AuctionDailyStatsRepository extends JpaRepository<AuctionDailyStats, LocalDate> {
+
+	/**
+	 * Récupère les lignes de l'agrégat comprises entre deux jours inclus, par ordre chronologique.
+	 */
+	@Query("""
+			SELECT s FROM AuctionDailyStats s
+			WHERE s.statDate BETWEEN :from AND :to
+			ORDER BY s.statDate
+			""")
+	List<AuctionDailyStats> findBetween(@Param("from") LocalDate from,
+			@Param("to") LocalDate to);
+
+	/**
+	 * Nombre d'enchères ouvertes à minuit du jour donné : enchères créées avant ce jour moins
+	 * celles arrivées à échéance avant ce jour.
+	 */
+	@Query("""
+			SELECT COALESCE(SUM(s.newAuctions - s.endedAuctions), 0) FROM AuctionDailyStats s
+			WHERE s.statDate < :day
+			""")
+	long countOpenAt(@Param("day") LocalDate day);
+
+	/** Premier jour où une enchère a été créée, ou {@code null} si aucune enchère n'existe. */
+	@Query("SELECT MIN(s.statDate) FROM AuctionDailyStats s WHERE s.newAuctions > 0")
+	LocalDate findFirstDay();
+
+	/** Supprime les lignes de l'agrégat du jour {@code from} inclus au jour {@code to} exclu. */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("DELETE FROM AuctionDailyStats s WHERE s.statDate >= :from AND s.statDate < :to")
+	void deleteRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+	/* ===== Agrégations sur la table auction ===== */
+
+	/** Compte, par jour de création, les enchères créées dans l'intervalle [from, to[. */
+	@Query("""
+			SELECT new be.labil.anacarde.infrastructure.persistence.AuctionDailyCount(
+				CAST(a.creationDate AS LocalDate), COUNT(a))
+			FROM Auction a
+			WHERE a.creationDate >= :from AND a.creationDate < :to
+			GROUP BY CAST(a.creationDate AS LocalDate)
+			""")
+	List<AuctionDailyCount> countCreatedPerDay(@Param("from") LocalDateTime from,
+			@Param("to") LocalDateTime to);
+
+	/** Compte, par jour d'expiration, les enchères échues dans l'intervalle [from, to[. */
+	@Query("""
+			SELECT new be.labil.anacarde.infrastructure.persistence.AuctionDailyCount(
+				CAST(a.expirationDate AS LocalDate), COUNT(a))
+			FROM Auction a
+			WHERE a.expirationDate >= :from AND a.expirationDate < :to
+			GROUP BY CAST(a.expirationDate AS LocalDate)
+			""")
+	List<AuctionDailyCount> countEndedPerDay(@Param("from") LocalDateTime from,
+			@Param("to") LocalDateTime to);
+
+	/** Date de création de la plus ancienne enchère, ou {@code null} si aucune enchère n'existe. */
+	@Query("SELECT MIN(a.creationDate) FROM Auction a")
+	LocalDateTime findFirstAuctionCreation();
+
+	/** Date d'expiration la plus tardive, ou {@code null} si aucune enchère n'existe. */
+	@Query("SELECT MAX(a.expirationDate) FROM Auction a")
+	LocalDateTime findLastAuctionExpiration();
+}
@@ -1,9 +1,12 @@
 package be.labil.anacarde.infrastructure.persistence;
 
+import be.labil.anacarde.domain.dto.db.AuctionSummaryDto;
 import be.labil.anacarde.domain.model.Auction;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -20,41 +23,156 @@ public interface AuctionRepository extends JpaRepository<Auction, Integer> {
 	/**
 	 * Recherche les enchères actives, selon des paramètres de filtrage. Une enchère est active si
 	 * l'entité n'a pas été supprimée de la base de données.
+	 * <p>
+	 * Les enchères sont triées par date d'expiration puis par identifiant, et paginées par clé :
+	 * la page suivante reprend après la dernière enchère de la page précédente.
 	 *
 	 * @param traderId
 	 *            (optionnel) Identifiant du trader ayant créé l'enchère.
 	 * @param status
 	 *            (optionnel) Status de l'enchère.
+	 * @param afterExpirationDate
+	 *            (optionnel) Date d'expiration de la dernière enchère de la page précédente.
+	 * @param afterId
+	 *            (optionnel) Identifiant de la dernière enchère de la page précédente.
+	 * @param limit
+	 *            Le nombre maximum d'enchères à retourner.
 	 *
 	 * @return Une liste d'enchères actives et filtrées.
 	 */
 	@Query("""
-			    SELECT a FROM Auction a
-			    WHERE a.active = true
-			      AND (:traderId IS NULL OR a.trader.id = :traderId)
-			      AND (:status IS NULL OR a.status.name = :status)
+			SELECT a FROM Auction a
+			WHERE a.active = true
+			  AND (:traderId IS NULL OR a.trader.id = :traderId)
+			  AND (:status IS NULL OR a.status.name = :status)
+			  AND (:afterExpirationDate IS NULL OR a.expirationDate > :afterExpirationDate
+			       OR (a.expirationDate = :afterExpirationDate AND a.id > :afterId))
+			ORDER BY a.expirationDate, a.id
 			""")
-	Page<Auction> findByTraderAndStatus(@Param("traderId") Integer traderId,
-			@Param("status") String status, Pageable pageable);
+	List<Auction> findByTraderAndStatus(@Param("traderId") Integer traderId,
+			@Param("status") String status,
+			@Param("afterExpirationDate") LocalDateTime afterExpirationDate,
+			@Param("afterId") Integer afterId, Limit limit);
 
 	/**
-	 * Recherche les enchères actives, selon des paramètres de filtrage. Une enchère est active si
-	 * l'entité n'a pas été supprimée de la base de données.
+	 * Recherche les enchères actives auxquelles un trader a participé, selon des paramètres de
+	 * filtrage. Chaque enchère n'est retournée qu'une fois, quel que soit le nombre d'offres du
+	 * trader.
+	 * <p>
+	 * Les enchères sont triées par date d'expiration puis par identifiant, et paginées par clé.
 	 *
 	 * @param buyerId
 	 *            (obligatoire) Identifiant du trader ayant participé à l'enchère.
 	 * @param status
-	 *            (optionnel) Status de l'enchère.
+	 *            (optionnel) Status des offres du trader.
+	 * @param afterExpirationDate
+	 *            (optionnel) Date d'expiration de la dernière enchère de la page précédente.
+	 * @param afterId
+	 *            (optionnel) Identifiant de la dernière enchère de la page précédente.
+	 * @param limit
+	 *            Le nombre maximum d'enchères à retourner.
 	 *
 	 * @return Une liste d'enchères actives et filtrées.
 	 */
 	@Query("""
-			   SELECT a FROM Auction a
-			   LEFT JOIN Bid b ON b.auctionId = a.id
-			   WHERE a.active = true AND b.trader.id = :buyerId AND (:status IS NULL OR b.status.name = :status)
+			SELECT a FROM Auction a
+			WHERE a.active = true
+			  AND EXISTS (SELECT 1 FROM Bid b
+			              WHERE b.auctionId = a.id AND b.trader.id = :buyerId
+			                AND (:status IS NULL OR b.status.name = :status))
+			  AND (:afterExpirationDate IS NULL OR a.expirationDate > :afterExpirationDate
+			       OR (a.expirationDate = :afterExpirationDate AND a.id > :afterId))
+			ORDER BY a.expirationDate, a.id
 			""")
-	Page<Auction> findByBuyerAndStatus(@Param("buyerId") Integer buyerId,
-			@Param("status") String status, Pageable pageable);
+	List<Auction> findByBuyerAndStatus(@Param("buyerId") Integer buyerId,
+			@Param("status") String status,
+			@Param("afterExpirationDate") LocalDateTime afterExpirationDate,
+			@Param("afterId") Integer afterId, Limit limit);
+
+	/**
+	 * Recherche les résumés des enchères actives, selon les mêmes filtres et la même pagination
+	 * que {@link #findByTraderAndStatus}. Le meilleur montant et le nombre d'offres sont lus dans
+	 * les colonnes dénormalisées de l'enchère ; seule la date de la dernière offre est recherchée,
+	 * via l'index des offres par enchère, pour les enchères de la page.
+	 *
+	 * @param traderId
+	 *            (optionnel) Identifiant du trader ayant créé l'enchère.
+	 * @param status
+	 *            (optionnel) Status de l'enchère.
+	 * @param afterExpirationDate
+	 *            (optionnel) Date d'expiration de la dernière enchère de la page précédente.
+	 * @param afterId
+	 *            (optionnel) Identifiant de la dernière enchère de la page précédente.
+	 * @param limit
+	 *            Le nombre maximum d'enchères à retourner.
+	 * @return Une liste de résumés d'enchères actives et filtrées.
+	 */
+	@Query("""
+			SELECT new be.labil.anacarde.domain.dto.db.AuctionSummaryDto(
+			       a.id, a.price, a.productQuantity, a.expirationDate, a.creationDate, st.name,
+			       a.trader.id, p.id, p.weightKg, q.name, r.name,
+			       a.bestBidAmount, CAST(a.bidCount AS Long),
+			       (SELECT MAX(b.creationDate) FROM Bid b WHERE b.auctionId = a.id))
+			FROM Auction a
+			JOIN a.status st
+			JOIN a.product p
+			LEFT JOIN p.qualityControl qc
+			LEFT JOIN qc.quality q
+			LEFT JOIN p.store s
+			LEFT JOIN s.address.region r
+			WHERE a.active = true
+			  AND (:traderId IS NULL OR a.trader.id = :traderId)
+			  AND (:status IS NULL OR st.name = :status)
+			  AND (:afterExpirationDate IS NULL OR a.expirationDate > :afterExpirationDate
+			       OR (a.expirationDate = :afterExpirationDate AND a.id > :afterId))
+			ORDER BY a.expirationDate, a.id
+			""")
+	List<AuctionSummaryDto> findSummariesByTraderAndStatus(@Param("traderId") Integer traderId,
+			@Param("status") String status,
+			@Param("afterExpirationDate") LocalDateTime afterExpirationDate,
+			@Param("afterId") Integer afterId, Limit limit);
+
+	/**
+	 * Recherche les résumés des enchères actives auxquelles un trader a participé, selon les mêmes
+	 * filtres et la même pagination que {@link #findByBuyerAndStatus}.
+	 *
+	 * @param buyerId
+	 *            (obligatoire) Identifiant du trader ayant participé à l'enchère.
+	 * @param status
+	 *            (optionnel) Status des offres du trader.
+	 * @param afterExpirationDate
+	 *            (optionnel) Date d'expiration de la dernière enchère de la page précédente.
+	 * @param afterId
+	 *            (optionnel) Identifiant de la dernière enchère de la page précédente.
+	 * @param limit
+	 *            Le nombre maximum d'enchères à retourner.
+	 * @return Une liste de résumés d'enchères actives et filtrées.
+	 */
+	@Query("""
+			SELECT new be.labil.anacarde.domain.dto.db.AuctionSummaryDto(
+			       a.id, a.price, a.productQuantity, a.expirationDate, a.creationDate, st.name,
+			       a.trader.id, p.id, p.weightKg, q.name, r.name,
+			       a.bestBidAmount, CAST(a.bidCount AS Long),
+			       (SELECT MAX(b.creationDate) FROM Bid b WHERE b.auctionId = a.id))
+			FROM Auction a
+			JOIN a.status st
+			JOIN a.product p
+			LEFT JOIN p.qualityControl qc
+			LEFT JOIN qc.quality q
+			LEFT JOIN p.store s
+			LEFT JOIN s.address.region r
+			WHERE a.active = true
+			  AND EXISTS (SELECT 1 FROM Bid own
+			              WHERE own.auctionId = a.id AND own.trader.id = :buyerId
+			                AND (:status IS NULL OR own.status.name = :status))
+			  AND (:afterExpirationDate IS NULL OR a.expirationDate > :afterExpirationDate
+			       OR (a.expirationDate = :afterExpirationDate AND a.id > :afterId))
+			ORDER BY a.expirationDate, a.id
+			""")
+	List<AuctionSummaryDto> findSummariesByBuyerAndStatus(@Param("buyerId") Integer buyerId,
+			@Param("status") String status,
+			@Param("afterExpirationDate") LocalDateTime afterExpirationDate,
+			@Param("afterId") Integer afterId, Limit limit);
 
 	@Modifying
 	@Transactional
@@ -66,6 +184,214 @@ public interface AuctionRepository extends JpaRepository<Auction, Integer> {
 	void overrideCreationDateNative(@Param("id") Integer id,
 			@Param("newDate") LocalDateTime newDate);
 
+	/**
+	 * Enregistre atomiquement une nouvelle offre sur l'enchère (compare-and-set). La mise à jour
+	 * n'est appliquée que si, au moment même de l'écriture, l'enchère est active, n'a aucune offre
+	 * acceptée, n'a pas pour dernier enchérisseur le trader plaçant l'offre et que le montant
+	 * respecte les règles de surenchère par rapport à la meilleure offre courante. Le verrou de
+	 * ligne posé par la mise à jour sérialise les enchérisseurs concurrents.
+	 *
+	 * @param auctionId
+	 *            identifiant de l'enchère
+	 * @param amount
+	 *            montant de la nouvelle offre
+	 * @param traderId
+	 *            identifiant du trader plaçant l'offre
+	 * @param forceBetterBids
+	 *            si {@code true}, l'offre doit être strictement supérieure à la meilleure offre
+	 * @param minIncrement
+	 *            incrément minimum par rapport à la meilleure offre ({@code 0} pour désactiver)
+	 * @return {@code 1} si l'offre a été acceptée par l'enchère, {@code 0} sinon
+	 */
+	@Modifying
+	@Query("""
+			UPDATE Auction a
+			SET a.bestBidAmount = CASE
+			        WHEN a.bestBidAmount IS NULL OR a.bestBidAmount < :amount THEN :amount
+			        ELSE a.bestBidAmount END,
+			    a.bidCount = a.bidCount + 1,
+			    a.lastBidderId = :traderId
+			WHERE a.id = :auctionId
+			  AND a.active = true
+			  AND a.acceptedBidId IS NULL
+			  AND (a.lastBidderId IS NULL OR a.lastBidderId <> :traderId)
+			  AND (a.bestBidAmount IS NULL
+			       OR ((:forceBetterBids = false OR :amount > a.bestBidAmount)
+			           AND (:minIncrement = 0 OR :amount >= a.bestBidAmount + :minIncrement)))
+			""")
+	int placeBid(@Param("auctionId") Integer auctionId, @Param("amount") BigDecimal amount,
+			@Param("traderId") Integer traderId, @Param("forceBetterBids") boolean forceBetterBids,
+			@Param("minIncrement") BigDecimal minIncrement);
+
+	/**
+	 * Réserve l'acceptation d'une offre sur l'enchère (compare-and-set) : la mise à jour n'est
+	 * appliquée que si aucune offre de l'enchère n'est encore acceptée. Elle pose le même verrou de
+	 * ligne que {@link #placeBid}, de sorte qu'une offre concurrente ne peut plus être placée une
+	 * fois l'acceptation validée.
+	 *
+	 * @param auctionId
+	 *            identifiant de l'enchère
+	 * @param bidId
+	 *            identifiant de l'offre acceptée
+	 * @return {@code 1} si l'acceptation a été réservée, {@code 0} sinon
+	 */
+	@Modifying
+	@Query("""
+			UPDATE Auction a
+			SET a.acceptedBidId = :bidId
+			WHERE a.id = :auctionId
+			  AND a.acceptedBidId IS NULL
+			""")
+	int markBidAccepted(@Param("auctionId") Integer auctionId, @Param("bidId") Integer bidId);
+
+	/**
+	 * Recalcule les agrégats dénormalisés des offres d'une enchère (meilleur montant, nombre
+	 * d'offres, dernier enchérisseur et offre acceptée) à partir de la table des offres. À appeler
+	 * après toute modification, refus ou suppression d'offre.
+	 *
+	 * @param auctionId
+	 *            identifiant de l'enchère
+	 * @param acceptedStatusId
+	 *            identifiant du status « Accepté »
+	 */
+	@Modifying
+	@Transactional
+	@Query(value = """
+			UPDATE auction
+			SET best_bid_amount = (SELECT MAX(b.amount) FROM bid b WHERE b.auction_id = :auctionId),
+			    bid_count = (SELECT COUNT(*) FROM bid b WHERE b.auction_id = :auctionId),
+			    last_bidder_id = (SELECT b.trader_id FROM bid b WHERE b.auction_id = :auctionId
+			                      ORDER BY b.id DESC LIMIT 1),
+			    accepted_bid_id = (SELECT MIN(b.id) FROM bid b WHERE b.auction_id = :auctionId
+			                       AND b.status_id = :acceptedStatusId)
+			WHERE id = :auctionId
+			""", nativeQuery = true)
+	void refreshBidStats(@Param("auctionId") Integer auctionId,
+			@Param("acceptedStatusId") Integer acceptedStatusId);
+
+	/**
+	 * Réserve un lot d'enchères arrivées à expiration. Les lignes retournées sont verrouillées
+	 * jusqu'à la fin de la transaction ; les lignes déjà verrouillées par un autre nœud sont
+	 * ignorées ({@code SKIP LOCKED}), de sorte que plusieurs nœuds peuvent traiter les
+	 * expirations en parallèle sans jamais réserver la même enchère.
+	 *
+	 * @param pendingStatusId
+	 *            identifiant du status « Ouvert »
+	 * @param now
+	 *            instant de référence : les enchères expirant au plus tard à cet instant sont
+	 *            réservées
+	 * @param batchSize
+	 *            nombre maximum d'enchères à réserver
+	 * @return les identifiants des enchères réservées, par date d'expiration croissante
+	 */
+	@Query(value = """
+			SELECT id FROM auction
+			WHERE status_id = :pendingStatusId
+			  AND active = true
+			  AND expiration_date <= :now
+			ORDER BY expiration_date, id
+			LIMIT :batchSize
+			FOR UPDATE SKIP LOCKED
+			""", nativeQuery = true)
+	List<Integer> claimExpired(@Param("pendingStatusId") Integer pendingStatusId,
+			@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
+
+	/**
+	 * Affecte un status à un ensemble d'enchères, en une seule instruction ensembliste.
+	 * <p>
+	 * Le contexte de persistance est vidé avant et après la mise à jour : les entités chargées
+	 * auparavant sont détachées et ne portent plus le status périmé.
+	 *
+	 * @param auctionIds
+	 *            identifiants des enchères à mettre à jour
+	 * @param statusId
+	 *            identifiant du nouveau status
+	 * @return le nombre d'enchères mises à jour
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query(value = """
+			UPDATE auction
+			SET status_id = :statusId
+			WHERE id IN (:auctionIds)
+			""", nativeQuery = true)
+	int updateStatus(@Param("auctionIds") Collection<Integer> auctionIds,
+			@Param("statusId") Integer statusId);
+
+	/**
+	 * Clôt une enchère encore ouverte (compare-and-set) : le status n'est modifié que si, au moment
+	 * même de l'écriture, l'enchère est toujours au status « Ouvert ». Une enchère déjà expirée par
+	 * le balayage, ou acceptée entre-temps, n'est donc jamais écrasée.
+	 *
+	 * @param auctionId
+	 *            identifiant de l'enchère
+	 * @param pendingStatusId
+	 *            identifiant du status « Ouvert »
+	 * @param statusId
+	 *            identifiant du nouveau status
+	 * @return {@code 1} si l'enchère a été close, {@code 0} sinon
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query(value = """
+			UPDATE auction
+			SET status_id = :statusId
+			WHERE id = :auctionId
+			  AND status_id = :pendingStatusId
+			""", nativeQuery = true)
+	int closePending(@Param("auctionId") Integer auctionId,
+			@Param("pendingStatusId") Integer pendingStatusId, @Param("statusId") Integer statusId);
+
+	/**
+	 * Accepte une enchère encore ouverte (compare-and-set) et avance son échéance à l'instant de
+	 * l'acceptation, dans les mêmes conditions que {@link #closePending}.
+	 *
+	 * @param auctionId
+	 *            identifiant de l'enchère
+	 * @param pendingStatusId
+	 *            identifiant du status « Ouvert »
+	 * @param acceptedStatusId
+	 *            identifiant du status « Accepté »
+	 * @param closedAt
+	 *            nouvelle date d'expiration de l'enchère
+	 * @return {@code 1} si l'enchère a été acceptée, {@code 0} sinon
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query(value = """
+			UPDATE auction
+			SET status_id = :acceptedStatusId,
+			    expiration_date = :closedAt
+			WHERE id = :auctionId
+			  AND status_id = :pendingStatusId
+			""", nativeQuery = true)
+	int acceptPending(@Param("auctionId") Integer auctionId,
+			@Param("pendingStatusId") Integer pendingStatusId,
+			@Param("acceptedStatusId") Integer acceptedStatusId,
+			@Param("closedAt") LocalDateTime closedAt);
+
+	/**
+	 * Lit les agrégats dénormalisés des offres d'une enchère, sans charger l'enchère ni ses offres.
+	 *
+	 * @param auctionId
+	 *            identifiant de l'enchère
+	 * @return les agrégats de l'enchère, ou {@code null} si l'enchère n'existe pas
+	 */
+	@Query("""
+			SELECT a.bestBidAmount AS bestBidAmount, a.bidCount AS bidCount,
+			       a.lastBidderId AS lastBidderId, a.acceptedBidId AS acceptedBidId
+			FROM Auction a
+			WHERE a.id = :auctionId
+			""")
+	BidStats findBidStatsById(@Param("auctionId") Integer auctionId);
+
+	/**
+	 * Retourne l'email (nom d'utilisateur) du créateur d'une enchère, sans charger l'enchère.
+	 *
+	 * @param auctionId
+	 *            identifiant de l'enchère
+	 * @return l'email du trader ayant créé l'enchère, ou {@code null} si l'enchère n'existe pas
+	 */
+	@Query("SELECT a.trader.email FROM Auction a WHERE a.id = :auctionId")
+	String findTraderEmailById(@Param("auctionId") Integer auctionId);
+
 	/**
 	 * Vérifie si un trader donné a au moins une enchère créée.
 	 *
@@ -85,4 +411,17 @@ public interface AuctionRepository extends JpaRepository<Auction, Integer> {
 	 * @return {@code true} si l’enchère existe et appartient au trader, {@code false} sinon
 	 */
 	boolean existsByIdAndTraderId(Integer auctionId, Integer userId);
+
+	/**
+	 * Projection des agrégats dénormalisés des offres d'une enchère.
+	 */
+	interface BidStats {
+		BigDecimal getBestBidAmount();
+
+		Integer getBidCount();
+
+		Integer getLastBidderId();
+
+		Integer getAcceptedBidId();
+	}
 }
@@ -3,6 +3,7 @@ package be.labil.anacarde.infrastructure.persistence;
 import be.labil.anacarde.domain.model.Bid;
 import java.time.LocalDateTime;
 import java.util.List;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -34,6 +35,32 @@ public interface BidRepository extends JpaRepository<Bid, Integer> {
 	 */
 	List<Bid> findByAuctionIdOrderByIdAsc(Integer auctionId);
 
+	/**
+	 * Recherche les offres, optionnellement filtrées par enchère, triées par enchère puis par
+	 * identifiant et paginées par clé : la page suivante reprend après la dernière offre de la page
+	 * précédente, sans parcourir les pages déjà lues.
+	 *
+	 * @param auctionId
+	 *            (optionnel) L'ID de l'enchère correspondante.
+	 * @param afterAuctionId
+	 *            (optionnel) L'ID de l'enchère de la dernière offre de la page précédente.
+	 * @param afterId
+	 *            (optionnel) L'ID de la dernière offre de la page précédente.
+	 * @param limit
+	 *            Le nombre maximum d'offres à retourner.
+	 * @return Une liste d'offres.
+	 */
+	@Query("""
+			SELECT b FROM Bid b
+			WHERE (:auctionId IS NULL OR b.auctionId = :auctionId)
+			  AND (:afterAuctionId IS NULL OR b.auctionId > :afterAuctionId
+			       OR (b.auctionId = :afterAuctionId AND b.id > :afterId))
+			ORDER BY b.auctionId, b.id
+			""")
+	List<Bid> findPage(@Param("auctionId") Integer auctionId,
+			@Param("afterAuctionId") Integer afterAuctionId, @Param("afterId") Integer afterId,
+			Limit limit);
+
 	/**
 	 * Met à jour nativement la date de création ({@code creation_date}) d’une offre identifiée par
 	 * son ID.
@@ -55,6 +82,35 @@ public interface BidRepository extends JpaRepository<Bid, Integer> {
 	void overrideCreationDateNative(@Param("id") Integer id,
 			@Param("newDate") LocalDateTime newDate);
 
+	/**
+	 * Accepte une offre et refuse toutes les autres offres de la même enchère, en une seule
+	 * instruction ensembliste.
+	 * <p>
+	 * Le contexte de persistance est vidé avant et après la mise à jour : les entités chargées
+	 * auparavant sont détachées et ne portent plus le status périmé.
+	 *
+	 * @param bidId
+	 *            identifiant de l'offre acceptée
+	 * @param auctionId
+	 *            identifiant de l'enchère de l'offre
+	 * @param acceptedStatusId
+	 *            identifiant du status « Accepté »
+	 * @param rejectedStatusId
+	 *            identifiant du status « Refusé »
+	 * @return le nombre d'offres mises à jour (offre acceptée comprise)
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query(value = """
+			UPDATE bid
+			SET status_id = CASE WHEN id = :bidId THEN :acceptedStatusId
+			                     ELSE :rejectedStatusId END
+			WHERE auction_id = :auctionId
+			""", nativeQuery = true)
+	int acceptAndRejectOthers(@Param("bidId") Integer bidId,
+			@Param("auctionId") Integer auctionId,
+			@Param("acceptedStatusId") Integer acceptedStatusId,
+			@Param("rejectedStatusId") Integer rejectedStatusId);
+
 	/**
 	 * Vérifie si une offre existe et appartient à un trader donné.
 	 *
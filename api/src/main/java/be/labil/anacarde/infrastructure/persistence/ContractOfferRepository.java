@@ -1,9 +1,12 @@
 package be.labil.anacarde.infrastructure.persistence;
 
 import be.labil.anacarde.domain.model.ContractOffer;
+import be.labil.anacarde.domain.model.ContractOfferStatus;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -30,7 +33,9 @@ public interface ContractOfferRepository extends JpaRepository<ContractOffer, In
 	List<ContractOffer> findBySellerOrBuyerId(@Param("traderId") Integer traderId);
 
 	/**
-	 * Recherche une offre de contrat selon l'ID de la qualité, du vendeur et de l'acheteur.
+	 * Recherche les offres de contrat en cours de validité selon l'ID de la qualité, du vendeur et
+	 * de l'acheteur, de la plus récente à la plus ancienne. Les critères d'égalité et le tri
+	 * suivent l'index {@code idx_contract_offer_lookup}.
 	 *
 	 * @param qualityId
 	 *            ID de la qualité.
@@ -40,7 +45,9 @@ public interface ContractOfferRepository extends JpaRepository<ContractOffer, In
 	 *            ID de l'acheteur.
 	 * @param status
 	 *            status du contrat
-	 * @return Une Optional contenant l'offre de contrat correspondante, si elle existe.
+	 * @param pageable
+	 *            La pagination à appliquer (typiquement une seule ligne).
+	 * @return Les offres de contrat correspondantes.
 	 */
 	@Query("""
 			SELECT c FROM ContractOffer c
@@ -51,9 +58,61 @@ public interface ContractOfferRepository extends JpaRepository<ContractOffer, In
 			  AND CURRENT_TIMESTAMP BETWEEN c.creationDate AND c.endDate
 			ORDER BY c.creationDate DESC
 			""")
-	Optional<ContractOffer> findValidContractOffer(@Param("qualityId") Integer qualityId,
+	List<ContractOffer> findValidContractOffers(@Param("qualityId") Integer qualityId,
 			@Param("sellerId") Integer sellerId, @Param("buyerId") Integer buyerId,
-			@Param("status") String status);
+			@Param("status") ContractOfferStatus status, Pageable pageable);
+
+	/**
+	 * Recherche l'offre de contrat en cours de validité la plus récente selon l'ID de la qualité,
+	 * du vendeur et de l'acheteur.
+	 *
+	 * @param qualityId
+	 *            ID de la qualité.
+	 * @param sellerId
+	 *            ID du vendeur.
+	 * @param buyerId
+	 *            ID de l'acheteur.
+	 * @param status
+	 *            status du contrat
+	 * @return Une Optional contenant l'offre de contrat correspondante, si elle existe.
+	 */
+	default Optional<ContractOffer> findValidContractOffer(Integer qualityId, Integer sellerId,
+			Integer buyerId, ContractOfferStatus status) {
+		return findValidContractOffers(qualityId, sellerId, buyerId, status, PageRequest.of(0, 1))
+				.stream().findFirst();
+	}
+
+	/**
+	 * Refuse, en une seule requête, toutes les offres de contrat portant sur la même qualité, le
+	 * même vendeur et le même acheteur qu'une offre donnée, à l'exception de celle-ci.
+	 * <p>
+	 * Les modifications en attente sont écrites avant la mise à jour et le contexte de persistance
+	 * est vidé ensuite : les entités chargées auparavant sont détachées.
+	 *
+	 * @param contractOfferId
+	 *            ID de l'offre de contrat à conserver.
+	 * @param qualityId
+	 *            ID de la qualité.
+	 * @param sellerId
+	 *            ID du vendeur.
+	 * @param buyerId
+	 *            ID de l'acheteur.
+	 * @param rejected
+	 *            status à appliquer aux autres offres
+	 * @return le nombre d'offres refusées
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("""
+			UPDATE ContractOffer c
+			SET c.status = :rejected
+			WHERE c.quality.id = :qualityId
+			  AND c.seller.id = :sellerId
+			  AND c.buyer.id = :buyerId
+			  AND c.id <> :contractOfferId
+			""")
+	int rejectOtherContractOffers(@Param("contractOfferId") Integer contractOfferId,
+			@Param("qualityId") Integer qualityId, @Param("sellerId") Integer sellerId,
+			@Param("buyerId") Integer buyerId, @Param("rejected") ContractOfferStatus rejected);
 
 	/**
 	 * Recherche une liste de contrats selon l'ID de la qualité, du vendeur et de l'acheteur.
@@ -45,4 +45,26 @@ public interface DocumentRepository extends JpaRepository<Document, Integer> {
 	 * @return {@code true} si un tel document existe pour cet utilisateur, {@code false} sinon
 	 */
 	boolean existsByIdAndUserId(Integer docId, Integer userId);
+
+	/**
+	 * Vérifie qu'un utilisateur possède déjà un document avec ce contenu.
+	 *
+	 * @param userId
+	 *            identifiant de l’utilisateur
+	 * @param contentHash
+	 *            empreinte SHA-256 du contenu
+	 * @return {@code true} si un tel document existe pour cet utilisateur, {@code false} sinon
+	 */
+	boolean existsByUserIdAndContentHash(Integer userId, String contentHash);
+
+	/**
+	 * Vérifie qu'un contrôle qualité possède déjà un document avec ce contenu.
+	 *
+	 * @param qualityControlId
+	 *            identifiant du contrôle qualité
+	 * @param contentHash
+	 *            empreinte SHA-256 du contenu
+	 * @return {@code true} si un tel document existe pour ce contrôle, {@code false} sinon
+	 */
+	boolean existsByQualityControlIdAndContentHash(Integer qualityControlId, String contentHash);
 }
@@ -0,0 +1,107 @@
+package be.labil.anacarde.infrastructure.persistence;
+
+import be.labil.anacarde.domain.model.ExportJob;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Repository Spring Data JPA pour l’entité {@link ExportJob}.
+ */
+public interface ExportJobRepository extends JpaRepository<ExportJob, Integer> {
+
+	/**
+	 * Recherche les jobs réutilisables pour un jeu de paramètres : non expirés, et terminés ou
+	 * encore actifs (en attente ou progressant depuis {@code staleBefore}). Le plus récent est
+	 * renvoyé en premier.
+	 *
+	 * @param paramsHash
+	 *            empreinte des paramètres de l'export
+	 * @param now
+	 *            date courante
+	 * @param staleBefore
+	 *            un job actif sans progression depuis cette date est considéré comme abandonné
+	 * @param limit
+	 *            nombre maximum de jobs renvoyés
+	 */
+	@Query("""
+			SELECT j FROM ExportJob j
+			WHERE j.paramsHash = :paramsHash
+			  AND j.expirationDate > :now
+			  AND (j.status = be.labil.anacarde.domain.model.ExportJobStatus.COMPLETED
+			       OR (j.status IN (be.labil.anacarde.domain.model.ExportJobStatus.PENDING,
+			                        be.labil.anacarde.domain.model.ExportJobStatus.RUNNING)
+			           AND j.updateDate > :staleBefore))
+			ORDER BY j.creationDate DESC
+			""")
+	List<ExportJob> findReusable(@Param("paramsHash") String paramsHash,
+			@Param("now") LocalDateTime now, @Param("staleBefore") LocalDateTime staleBefore,
+			Limit limit);
+
+	/**
+	 * Libère l'empreinte d'un job qui n'est plus réutilisable (expiré, en échec ou abandonné),
+	 * afin qu'un nouveau job aux mêmes paramètres puisse être créé.
+	 *
+	 * @param paramsHash
+	 *            empreinte des paramètres de l'export
+	 * @param now
+	 *            date courante
+	 * @param staleBefore
+	 *            un job actif sans progression depuis cette date est considéré comme abandonné
+	 * @return le nombre de jobs mis à jour
+	 */
+	@Modifying
+	@Query("""
+			UPDATE ExportJob j
+			SET j.activeParamsHash = NULL
+			WHERE j.activeParamsHash = :paramsHash
+			  AND (j.expirationDate <= :now
+			       OR j.status = be.labil.anacarde.domain.model.ExportJobStatus.FAILED
+			       OR (j.status <> be.labil.anacarde.domain.model.ExportJobStatus.COMPLETED
+			           AND j.updateDate <= :staleBefore))
+			""")
+	int releaseParamsHash(@Param("paramsHash") String paramsHash,
+			@Param("now") LocalDateTime now, @Param("staleBefore") LocalDateTime staleBefore);
+
+	/**
+	 * Enregistre la progression d'un job en cours.
+	 *
+	 * @return le nombre de jobs mis à jour
+	 */
+	@Modifying
+	@Query("""
+			UPDATE ExportJob j
+			SET j.rowsWritten = :rowsWritten, j.updateDate = :now
+			WHERE j.id = :id
+			""")
+	int updateProgress(@Param("id") Integer id, @Param("rowsWritten") long rowsWritten,
+			@Param("now") LocalDateTime now);
+
+	/**
+	 * Recherche les jobs expirés, dont le fichier doit être supprimé.
+	 */
+	@Query("SELECT j FROM ExportJob j WHERE j.expirationDate <= :now")
+	List<ExportJob> findExpired(@Param("now") LocalDateTime now);
+
+	/**
+	 * Marque en échec les jobs actifs sans progression depuis {@code staleBefore} (nœud arrêté en
+	 * cours d'export).
+	 *
+	 * @return le nombre de jobs marqués en échec
+	 */
+	@Modifying
+	@Query("""
+			UPDATE ExportJob j
+			SET j.status = be.labil.anacarde.domain.model.ExportJobStatus.FAILED,
+			    j.errorMessage = 'Export interrompu',
+			    j.activeParamsHash = NULL
+			WHERE j.status IN (be.labil.anacarde.domain.model.ExportJobStatus.PENDING,
+			                   be.labil.anacarde.domain.model.ExportJobStatus.RUNNING)
+			  AND j.updateDate <= :staleBefore
+			""")
+	int failStale(@Param("staleBefore") LocalDateTime staleBefore);
+}
@@ -1,7 +1,10 @@
 package be.labil.anacarde.infrastructure.persistence;
 
 import be.labil.anacarde.domain.model.GlobalSettings;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.lang.NonNull;
 
 /**
  * Repository Spring Data JPA pour l’entité {@link GlobalSettings}.
@@ -10,4 +13,13 @@ import org.springframework.data.jpa.repository.JpaRepository;
  * l’application stockée en base de données.
  */
 public interface GlobalSettingsRepository extends JpaRepository<GlobalSettings, Integer> {
+
+	/**
+	 * Charge les réglages globaux avec leur stratégie par défaut, en une seule requête. L'entité
+	 * retournée peut ainsi être convertie en DTO hors transaction.
+	 */
+	@Override
+	@NonNull
+	@EntityGraph(attributePaths = {"defaultStrategy"})
+	Optional<GlobalSettings> findById(@NonNull Integer id);
 }
\ No newline at end of file
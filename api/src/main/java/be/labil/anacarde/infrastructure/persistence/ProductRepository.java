@@ -1,7 +1,11 @@
 package be.labil.anacarde.infrastructure.persistence;
 
 import be.labil.anacarde.domain.model.Product;
+import java.util.Collection;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 /**
  * Repository Spring Data JPA pour l’entité {@link Product}.
@@ -10,4 +14,27 @@ import org.springframework.data.jpa.repository.JpaRepository;
  * la pagination et le tri.
  */
 public interface ProductRepository extends JpaRepository<Product, Integer> {
+
+	/**
+	 * Restitue aux produits les quantités mises en vente par un ensemble d'enchères, en une seule
+	 * instruction ensembliste par table de produits. Les quantités de plusieurs enchères portant
+	 * sur le même produit sont additionnées.
+	 * <p>
+	 * La quantité disponible ne dépasse jamais la quantité totale du produit : une enchère dont la
+	 * quantité n'a pas été réservée à sa création (données importées ou générées) ne crée pas de
+	 * stock fictif.
+	 *
+	 * @param auctionIds
+	 *            identifiants des enchères dont la quantité est restituée
+	 * @return le nombre de produits mis à jour
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("""
+			UPDATE Product p
+			SET p.weightKgAvailable = LEAST(p.weightKg, p.weightKgAvailable
+			        + (SELECT SUM(a.productQuantity) FROM Auction a
+			           WHERE a.product.id = p.id AND a.id IN :auctionIds))
+			WHERE p.id IN (SELECT a.product.id FROM Auction a WHERE a.id IN :auctionIds)
+			""")
+	int restoreWeightKgAvailable(@Param("auctionIds") Collection<Integer> auctionIds);
 }
@@ -0,0 +1,70 @@
+package be.labil.anacarde.infrastructure.persistence;
+
+import be.labil.anacarde.domain.model.StoredBlob;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Repository Spring Data JPA pour l’entité {@link StoredBlob}.
+ */
+public interface StoredBlobRepository extends JpaRepository<StoredBlob, String> {
+
+	/**
+	 * Enregistre un contenu sans référence s'il n'est pas encore connu. Une insertion concurrente
+	 * du même contenu attend la fin de la première transaction au lieu d'échouer.
+	 *
+	 * @return 1 si le contenu a été inséré, 0 s'il existait déjà
+	 */
+	@Modifying
+	@Query(value = """
+			INSERT INTO stored_blob (content_hash, storage_key, size, ref_count, creation_date)
+			VALUES (:hash, :storageKey, :size, 0, :now)
+			ON CONFLICT DO NOTHING
+			""", nativeQuery = true)
+	int insertIfAbsent(@Param("hash") String hash, @Param("storageKey") String storageKey,
+			@Param("size") long size, @Param("now") LocalDateTime now);
+
+	/**
+	 * Ajoute une référence au contenu. La ligne reste verrouillée jusqu'à la fin de la
+	 * transaction : le contenu ne peut pas être supprimé entre-temps.
+	 *
+	 * @return le nombre de contenus mis à jour
+	 */
+	@Modifying
+	@Query("UPDATE StoredBlob b SET b.refCount = b.refCount + 1 WHERE b.contentHash = :hash")
+	int acquire(@Param("hash") String hash);
+
+	/**
+	 * Retire une référence au contenu.
+	 *
+	 * @return le nombre de contenus mis à jour
+	 */
+	@Modifying
+	@Query("""
+			UPDATE StoredBlob b SET b.refCount = b.refCount - 1
+			WHERE b.contentHash = :hash AND b.refCount > 0
+			""")
+	int release(@Param("hash") String hash);
+
+	/**
+	 * Recherche les contenus qui ne sont plus référencés.
+	 */
+	@Query("SELECT b FROM StoredBlob b WHERE b.refCount = 0")
+	List<StoredBlob> findUnreferenced(Limit limit);
+
+	/**
+	 * Supprime un contenu s'il n'est toujours pas référencé. La ligne supprimée reste verrouillée
+	 * jusqu'à la fin de la transaction : un envoi concurrent du même contenu attend que le fichier
+	 * soit supprimé avant de l'écrire à nouveau.
+	 *
+	 * @return 1 si le contenu a été supprimé, 0 s'il est de nouveau référencé
+	 */
+	@Modifying
+	@Query("DELETE FROM StoredBlob b WHERE b.contentHash = :hash AND b.refCount = 0")
+	int deleteIfUnreferenced(@Param("hash") String hash);
+}
@@ -1,8 +1,10 @@
 package be.labil.anacarde.infrastructure.persistence.user;
 
 import be.labil.anacarde.domain.model.Producer;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
@@ -42,4 +44,15 @@ public interface ProducerRepository extends GenericUserRepository<Producer> {
 	 * @return liste de {@link Producer} associés à la coopérative
 	 */
 	List<Producer> findByCooperativeId(Integer cooperativeId);
+
+	/**
+	 * Retourne, parmi les identifiants agricoles fournis, ceux déjà attribués, en une seule
+	 * requête.
+	 *
+	 * @param agriculturalIdentifiers
+	 *            identifiants agricoles à vérifier
+	 * @return les identifiants déjà présents en base
+	 */
+	@Query("SELECT p.agriculturalIdentifier FROM Producer p WHERE p.agriculturalIdentifier IN :agriculturalIdentifiers")
+	Set<String> findExistingAgriculturalIdentifiers(Collection<String> agriculturalIdentifiers);
 }
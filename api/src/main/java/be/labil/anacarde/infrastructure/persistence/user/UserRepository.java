@@ -2,8 +2,10 @@ package be.labil.anacarde.infrastructure.persistence.user;
 
 import be.labil.anacarde.domain.model.User;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -93,4 +95,24 @@ public interface UserRepository extends JpaRepository<User, Integer> {
 	 * @return true si un utilisateur existe avec ce numéro de téléphone, false sinon.
 	 */
 	boolean existsByPhone(String phone);
+
+	/**
+	 * Retourne, parmi les adresses e-mail fournies, celles déjà utilisées, en une seule requête.
+	 *
+	 * @param emails
+	 *            adresses e-mail à vérifier (normalisées en minuscules)
+	 * @return les adresses e-mail déjà présentes en base
+	 */
+	@Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+	Set<String> findExistingEmails(Collection<String> emails);
+
+	/**
+	 * Retourne, parmi les numéros de téléphone fournis, ceux déjà utilisés, en une seule requête.
+	 *
+	 * @param phones
+	 *            numéros de téléphone à vérifier
+	 * @return les numéros déjà présents en base
+	 */
+	@Query("SELECT u.phone FROM User u WHERE u.phone IN :phones")
+	Set<String> findExistingPhones(Collection<String> phones);
 }
@@ -1,28 +1,38 @@
 package be.labil.anacarde.infrastructure.persistence.view;
 
 import be.labil.anacarde.domain.model.ExportAuction;
+import jakarta.persistence.QueryHint;
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 /**
  * Repository en lecture seule pour la vue SQL <code>v_auction_bid_analysis</code>.
  * <p>
  * Expose des méthodes natives pour récupérer les données agrégées des enchères sous forme
- * d’instances de {@link ExportAuction}.
+ * d’instances de {@link ExportAuction}. Les méthodes d'export renvoient un {@link Stream} adossé
+ * à un curseur JDBC en lecture seule, parcouru par paquets de {@value #EXPORT_FETCH_SIZE} lignes :
+ * elles doivent être appelées dans une transaction et le flux doit être fermé après usage.
  */
 public interface ExportAuctionRepository extends JpaRepository<ExportAuction, Integer> {
 
+	/** Nombre de lignes rapatriées par aller-retour lors du parcours d'un export. */
+	String EXPORT_FETCH_SIZE = "500";
+
 	/**
-	 * Récupère toutes les lignes de la vue sans aucun filtre.
+	 * Parcourt toutes les lignes de la vue sans aucun filtre.
 	 *
-	 * @return liste complète de {@link ExportAuction} issues de la vue
+	 * @return flux de {@link ExportAuction} issues de la vue
 	 */
+	@QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+			@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
 	@Query(value = "SELECT * FROM v_auction_bid_analysis", nativeQuery = true)
-	List<ExportAuction> findAllView();
+	Stream<ExportAuction> streamAll();
 
 	/**
 	 * Recherche une entrée de la vue correspondant à une enchère précise.
@@ -39,7 +49,7 @@ public interface ExportAuctionRepository extends JpaRepository<ExportAuction, In
 	Optional<ExportAuction> findByAuctionId(@Param("id") Integer id);
 
 	/**
-	 * Récupère les enchères dont la date de début est comprise entre deux bornes.
+	 * Parcourt les enchères dont la date de début est comprise entre deux bornes.
 	 * <p>
 	 * Si {@code onlyEnded} est à {@code true}, ne renvoie que celles dont le flag
 	 * {@code auction_ended} est à {@code true}.
@@ -50,14 +60,39 @@ public interface ExportAuctionRepository extends JpaRepository<ExportAuction, In
 	 *            date de début maximale (inclusive)
 	 * @param onlyEnded
 	 *            indicateur pour ne renvoyer que les enchères terminées
-	 * @return liste des {@link ExportAuction} correspondant aux critères
+	 * @return flux des {@link ExportAuction} correspondant aux critères
 	 */
+	@QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+			@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
 	@Query(value = """
 			SELECT *
 			FROM   v_auction_bid_analysis
 			WHERE  auction_start_date BETWEEN :start AND :end
 			  AND  (:onlyEnded = false OR auction_ended = true)
 			""", nativeQuery = true)
-	List<ExportAuction> findAllByStartDateBetween(@Param("start") LocalDateTime start,
+	Stream<ExportAuction> streamByStartDateBetween(@Param("start") LocalDateTime start,
+			@Param("end") LocalDateTime end, @Param("onlyEnded") boolean onlyEnded);
+
+	/**
+	 * Compte toutes les lignes de la vue.
+	 *
+	 * @return le nombre de lignes
+	 */
+	@Query(value = "SELECT COUNT(*) FROM v_auction_bid_analysis", nativeQuery = true)
+	long countAll();
+
+	/**
+	 * Compte les enchères dont la date de début est comprise entre deux bornes (voir
+	 * {@link #streamByStartDateBetween}).
+	 *
+	 * @return le nombre de lignes correspondant aux critères
+	 */
+	@Query(value = """
+			SELECT COUNT(*)
+			FROM   v_auction_bid_analysis
+			WHERE  auction_start_date BETWEEN :start AND :end
+			  AND  (:onlyEnded = false OR auction_ended = true)
+			""", nativeQuery = true)
+	long countByStartDateBetween(@Param("start") LocalDateTime start,
 			@Param("end") LocalDateTime end, @Param("onlyEnded") boolean onlyEnded);
 }
@@ -1,5 +1,8 @@
 package be.labil.anacarde.infrastructure.security;
 
+import be.labil.anacarde.application.service.AuthenticatedPrincipalCache;
+import be.labil.anacarde.application.service.AuthenticatedPrincipalCache.CachedPrincipal;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
@@ -34,6 +37,7 @@ public class AuthTokenFilter extends OncePerRequestFilter {
 	private Environment env;
 	private final JwtUtil jwtUtil;
 	private final UserDetailsService userDetailsService;
+	private final AuthenticatedPrincipalCache principalCache;
 
 	/**
 	 * Cette méthode extrait le token JWT depuis la requête, le valide, et, s'il est valide, définit
@@ -57,17 +61,7 @@ public class AuthTokenFilter extends OncePerRequestFilter {
 		try {
 			String jwt = parseJwt(request);
 			if (jwt != null) {
-				String username = jwtUtil.extractUsername(jwt);
-				UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-				if (!userDetails.isEnabled()) {
-					clearJwtCookie(response);
-					throw new AuthenticationCredentialsNotFoundException(
-							"Compte utilisateur désactivé");
-				}
-				if (!jwtUtil.validateToken(jwt, userDetails)) {
-					clearJwtCookie(response);
-					throw new BadCredentialsException("Token JWT invalide ou expiré");
-				}
+				UserDetails userDetails = principalCache.get(jwt, this::authenticate);
 				UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
 						userDetails, null, userDetails.getAuthorities());
 				authentication
@@ -82,6 +76,28 @@ public class AuthTokenFilter extends OncePerRequestFilter {
 		filterChain.doFilter(request, response);
 	}
 
+	/**
+	 * Vérifie le token JWT (une seule analyse) et charge l'utilisateur correspondant. Appelée
+	 * uniquement lorsque le token n'est pas déjà dans le cache des principaux.
+	 *
+	 * @param jwt
+	 *            Le token JWT à vérifier.
+	 * @return L'utilisateur authentifié et la date d'expiration du token.
+	 * @throws AuthenticationException
+	 *             si le compte est désactivé ou si le token est invalide ou expiré.
+	 */
+	private CachedPrincipal authenticate(String jwt) {
+		Claims claims = jwtUtil.extractAllClaims(jwt);
+		UserDetails userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+		if (!userDetails.isEnabled()) {
+			throw new AuthenticationCredentialsNotFoundException("Compte utilisateur désactivé");
+		}
+		if (!jwtUtil.validateClaims(claims, userDetails)) {
+			throw new BadCredentialsException("Token JWT invalide ou expiré");
+		}
+		return new CachedPrincipal(userDetails, claims.getExpiration());
+	}
+
 	/**
 	 * Parcourt les cookies de la requête et retourne la valeur du cookie nommé "jwt". Si aucun
 	 * cookie de ce nom n'est trouvé, retourne null.
@@ -3,6 +3,7 @@ package be.labil.anacarde.infrastructure.security;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -29,14 +30,38 @@ public class JwtUtil {
 	@Value("${jwt.token.validity.months}")
 	private long tokenValidityMonths;
 
+	// Clé et parser construits au premier usage puis réutilisés (tous deux sont thread-safe)
+	private volatile SecretKey signingKey;
+	private volatile JwtParser parser;
+
 	/**
-	 * Convertit la clé secrète encodée en Base64 en un objet SecretKey.
+	 * Convertit la clé secrète encodée en Base64 en un objet SecretKey. La clé n'est décodée
+	 * qu'une fois.
 	 *
 	 * @return La SecretKey générée à partir de la clé secrète décodée.
 	 */
 	private SecretKey getSigningKey() {
-		byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-		return Keys.hmacShaKeyFor(keyBytes);
+		SecretKey key = signingKey;
+		if (key == null) {
+			byte[] keyBytes = Decoders.BASE64.decode(secretKey);
+			key = Keys.hmacShaKeyFor(keyBytes);
+			signingKey = key;
+		}
+		return key;
+	}
+
+	/**
+	 * Retourne le parser vérifiant la signature des tokens, construit une seule fois.
+	 *
+	 * @return Le parser de tokens JWT signés.
+	 */
+	private JwtParser getParser() {
+		JwtParser current = parser;
+		if (current == null) {
+			current = Jwts.parser().verifyWith(getSigningKey()).build();
+			parser = current;
+		}
+		return current;
 	}
 
 	/**
@@ -47,8 +72,7 @@ public class JwtUtil {
 	 * @return L'objet Claims contenant toutes les informations du token.
 	 */
 	public Claims extractAllClaims(String token) {
-		return Jwts.parser().verifyWith(getSigningKey()).build().parseSignedClaims(token)
-				.getPayload();
+		return getParser().parseSignedClaims(token).getPayload();
 	}
 
 	/**
@@ -89,17 +113,6 @@ public class JwtUtil {
 		return extractClaim(token, Claims::getExpiration);
 	}
 
-	/**
-	 * Vérifie si le token JWT a expiré.
-	 *
-	 * @param token
-	 *            Le token JWT à vérifier.
-	 * @return true si le token a expiré, false sinon.
-	 */
-	private Boolean isTokenExpired(String token) {
-		return extractExpiration(token).before(new Date());
-	}
-
 	/**
 	 * Génère un token JWT pour l'utilisateur spécifié.
 	 *
@@ -145,10 +158,24 @@ public class JwtUtil {
 	 */
 	public Boolean validateToken(String token, UserDetails userDetails) {
 		try {
-			final String username = extractUsername(token);
-			return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+			return validateClaims(extractAllClaims(token), userDetails);
 		} catch (ExpiredJwtException e) {
 			return false;
 		}
 	}
+
+	/**
+	 * Valide les claims d'un token déjà vérifié, sans analyser le token une seconde fois.
+	 *
+	 * @param claims
+	 *            Les claims extraites du token JWT.
+	 * @param userDetails
+	 *            L'objet UserDetails avec lequel valider le token.
+	 * @return true si le token n'a pas expiré et correspond aux informations de l'utilisateur,
+	 *         false sinon.
+	 */
+	public boolean validateClaims(Claims claims, UserDetails userDetails) {
+		return userDetails.getUsername().equals(claims.getSubject())
+				&& claims.getExpiration().after(new Date());
+	}
 }
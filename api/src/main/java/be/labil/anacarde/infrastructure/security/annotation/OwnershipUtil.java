@@ -1,12 +1,12 @@
 package be.labil.anacarde.infrastructure.security.annotation;
 
+import be.labil.anacarde.application.service.AuctionOrderBookService;
 import be.labil.anacarde.domain.dto.write.BidUpdateDto;
 import be.labil.anacarde.domain.dto.write.product.HarvestProductUpdateDto;
 import be.labil.anacarde.domain.dto.write.product.ProductUpdateDto;
 import be.labil.anacarde.domain.dto.write.product.TransformedProductUpdateDto;
 import be.labil.anacarde.domain.model.Bid;
 import be.labil.anacarde.infrastructure.persistence.*;
-import java.util.List;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
@@ -27,6 +27,7 @@ public class OwnershipUtil {
 	private final HarvestProductRepository harvestProductRepository;
 	private final TransformedProductRepository transformedProductRepository;
 	private final StoreRepository storeRepository;
+	private final AuctionOrderBookService auctionOrderBookService;
 
 	/**
 	 * Vérifie qu’un document appartient à un utilisateur.
@@ -105,8 +106,9 @@ public class OwnershipUtil {
 		if (traderId == null || bidDto == null) return false;
 		if (!traderId.equals(bidDto.getTraderId())) return false;
 		if (isAuctionOwner(traderId, bidDto.getTraderId())) return false;
-		List<Bid> bids = bidRepository.findByAuctionIdOrderByIdAsc(bidDto.getAuctionId());
-		if (bids.size() > 0 && bids.getLast().getTrader().getId().equals(traderId)) return false;
+		Integer lastBidderId = auctionOrderBookService.getOrderBook(bidDto.getAuctionId())
+				.lastBidderId();
+		if (traderId.equals(lastBidderId)) return false;
 
 		return true;
 	}
@@ -0,0 +1,268 @@
+package be.labil.anacarde.infrastructure.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * {@link SseEmitter} à envoi asynchrone.
+ * <p>
+ * Les événements sont déposés dans une file bornée propre à l'émetteur, vidée par un thread
+ * virtuel dédié : un client lent ne bloque jamais le thread qui publie l'événement. Lorsque la
+ * file est pleine, la politique de débordement choisit entre abandonner l'événement le plus ancien
+ * ou déconnecter le client.
+ * <p>
+ * Lors d'une reconnexion, les événements manqués sont relus par ce même thread, hors de tout
+ * verrou des services : les événements reçus pendant la lecture sont retenus, puis envoyés après
+ * les événements rejoués, sans doublon.
+ */
+public class AsyncSseEmitter extends SseEmitter {
+	private static final Logger log = LoggerFactory.getLogger(AsyncSseEmitter.class);
+
+	/**
+	 * Politique appliquée lorsque la file d'un émetteur est pleine.
+	 */
+	public enum OverflowPolicy {
+		/** Abandonne l'événement le plus ancien de la file. */
+		DROP_OLDEST,
+		/** Ferme la connexion du client trop lent. */
+		DISCONNECT
+	}
+
+	/**
+	 * Événement en attente d'envoi.
+	 *
+	 * @param id
+	 *            l'identifiant de l'événement, ou {@code null}
+	 * @param data
+	 *            l'événement construit
+	 */
+	public record QueuedEvent(String id, Set<DataWithMediaType> data) {
+	}
+
+	// Réveille le thread d'envoi lorsque les événements manqués peuvent être relus
+	private static final QueuedEvent REPLAY_READY = new QueuedEvent(null, Set.of());
+
+	private final BlockingQueue<QueuedEvent> queue;
+	private final OverflowPolicy overflowPolicy;
+	private final AtomicBoolean closed = new AtomicBoolean();
+	private final AtomicLong dropped = new AtomicLong();
+	private volatile boolean holding;
+	private volatile Supplier<List<QueuedEvent>> pendingReplay;
+	private final Thread drainer;
+
+	/**
+	 * Crée un émetteur et démarre son thread virtuel d'envoi.
+	 *
+	 * @param timeout
+	 *            délai d'expiration de la connexion en millisecondes
+	 * @param queueCapacity
+	 *            nombre maximal d'événements en attente d'envoi
+	 * @param overflowPolicy
+	 *            politique appliquée lorsque la file est pleine
+	 */
+	public AsyncSseEmitter(long timeout, int queueCapacity, OverflowPolicy overflowPolicy) {
+		super(timeout);
+		this.queue = new ArrayBlockingQueue<>(queueCapacity);
+		this.overflowPolicy = overflowPolicy;
+		this.drainer = Thread.ofVirtual().name("sse-emitter").start(this::drain);
+		onCompletion(this::close);
+		onTimeout(this::close);
+		onError(e -> close());
+	}
+
+	/**
+	 * Construit un événement SSE nommé dont les données sont sérialisées en JSON. L'événement
+	 * construit peut être partagé entre plusieurs émetteurs.
+	 *
+	 * @param eventName
+	 *            le nom de l'événement
+	 * @param data
+	 *            les données de l'événement
+	 * @return l'événement prêt à être déposé via {@link #enqueue(Set)}
+	 */
+	public static Set<DataWithMediaType> event(String eventName, Object data) {
+		return event(null, eventName, data);
+	}
+
+	/**
+	 * Construit un événement SSE identifié, nommé et dont les données sont sérialisées en JSON.
+	 * L'identifiant est renvoyé par le client dans l'en-tête {@code Last-Event-ID} lors d'une
+	 * reconnexion.
+	 *
+	 * @param eventId
+	 *            l'identifiant de l'événement, ou {@code null}
+	 * @param eventName
+	 *            le nom de l'événement
+	 * @param data
+	 *            les données de l'événement
+	 * @return l'événement prêt à être déposé via {@link #enqueue(Set)}
+	 */
+	public static Set<DataWithMediaType> event(String eventId, String eventName, Object data) {
+		SseEventBuilder builder = SseEmitter.event();
+		if (eventId != null) {
+			builder.id(eventId);
+		}
+		return builder.name(eventName).data(data, MediaType.APPLICATION_JSON).build();
+	}
+
+	/**
+	 * Construit un commentaire SSE, ignoré par les clients, servant de battement de cœur.
+	 *
+	 * @return le commentaire prêt à être déposé via {@link #enqueue(Set)}
+	 */
+	public static Set<DataWithMediaType> heartbeat() {
+		return SseEmitter.event().comment("heartbeat").build();
+	}
+
+	/**
+	 * Dépose un événement dans la file d'envoi, sans jamais bloquer l'appelant.
+	 *
+	 * @param event
+	 *            l'événement à envoyer
+	 * @return {@code false} si l'émetteur est fermé ou vient d'être déconnecté pour débordement
+	 */
+	public boolean enqueue(Set<DataWithMediaType> event) {
+		return enqueue(null, event);
+	}
+
+	/**
+	 * Dépose un événement identifié dans la file d'envoi, sans jamais bloquer l'appelant. Un
+	 * événement déjà envoyé lors du rejeu n'est pas envoyé une seconde fois.
+	 *
+	 * @param eventId
+	 *            l'identifiant de l'événement, ou {@code null}
+	 * @param event
+	 *            l'événement à envoyer
+	 * @return {@code false} si l'émetteur est fermé ou vient d'être déconnecté pour débordement
+	 */
+	public boolean enqueue(String eventId, Set<DataWithMediaType> event) {
+		return offer(new QueuedEvent(eventId, event));
+	}
+
+	/**
+	 * Retient les événements déposés jusqu'au rejeu programmé par {@link #replay(Supplier)}. À
+	 * appeler avant que l'émetteur ne soit visible des services qui publient les événements.
+	 */
+	public void holdForReplay() {
+		holding = true;
+	}
+
+	/**
+	 * Programme le rejeu des événements manqués. Ils sont lus par le thread d'envoi de
+	 * l'émetteur, puis envoyés avant les événements retenus depuis {@link #holdForReplay()}. À
+	 * appeler une fois l'émetteur inscrit, pour qu'aucun événement publié entre la lecture et
+	 * l'inscription ne soit perdu.
+	 *
+	 * @param missedEvents
+	 *            lit les événements manqués, du plus ancien au plus récent
+	 */
+	public void replay(Supplier<List<QueuedEvent>> missedEvents) {
+		pendingReplay = missedEvents;
+		offer(REPLAY_READY);
+	}
+
+	private boolean offer(QueuedEvent event) {
+		if (closed.get()) {
+			return false;
+		}
+		while (!queue.offer(event)) {
+			if (overflowPolicy == OverflowPolicy.DISCONNECT) {
+				log.debug("[SSE] File pleine, déconnexion du client lent");
+				completeWithError(new IllegalStateException("File SSE saturée"));
+				close();
+				return false;
+			}
+			if (queue.poll() != null) {
+				dropped.incrementAndGet();
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Indique si l'émetteur est fermé.
+	 *
+	 * @return {@code true} si plus aucun événement ne sera envoyé
+	 */
+	public boolean isClosed() {
+		return closed.get();
+	}
+
+	/**
+	 * Retourne le nombre d'événements abandonnés suite à un débordement de la file.
+	 *
+	 * @return le nombre d'événements abandonnés
+	 */
+	public long getDroppedCount() {
+		return dropped.get();
+	}
+
+	private void drain() {
+		List<QueuedEvent> held = new ArrayList<>();
+		Set<String> replayedIds = new HashSet<>();
+		try {
+			while (!closed.get()) {
+				QueuedEvent event = queue.take();
+				if (holding) {
+					held.add(event);
+					Supplier<List<QueuedEvent>> missedEvents = pendingReplay;
+					if (missedEvents == null) {
+						continue;
+					}
+					holding = false;
+					pendingReplay = null;
+					for (QueuedEvent missed : missedEvents.get()) {
+						send(missed.data());
+						if (missed.id() != null) {
+							replayedIds.add(missed.id());
+						}
+					}
+					for (QueuedEvent live : held) {
+						sendUnlessReplayed(live, replayedIds);
+					}
+					held.clear();
+				} else {
+					sendUnlessReplayed(event, replayedIds);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (Exception e) {
+			// Connexion rompue : le client sera retiré via les callbacks de complétion
+			log.debug("[SSE] Échec d'envoi, fermeture de l'émetteur : {}", e.getMessage());
+			try {
+				completeWithError(e);
+			} catch (Exception ignored) {
+			}
+			close();
+		}
+	}
+
+	private void sendUnlessReplayed(QueuedEvent event, Set<String> replayedIds)
+			throws IOException {
+		if (event == REPLAY_READY
+				|| (event.id() != null && replayedIds.remove(event.id()))) {
+			return;
+		}
+		send(event.data());
+	}
+
+	private void close() {
+		if (closed.compareAndSet(false, true)) {
+			queue.clear();
+			drainer.interrupt();
+		}
+	}
+}
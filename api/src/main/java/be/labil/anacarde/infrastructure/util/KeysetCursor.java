@@ -0,0 +1,198 @@
+package be.labil.anacarde.infrastructure.util;
+
+import be.labil.anacarde.application.exception.BadRequestException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Limit;
+
+/**
+ * Helper utilitaire pour la pagination par clé (« keyset » ou « seek »).
+ * <p>
+ * Une page est délimitée par la clé de tri de sa dernière ligne plutôt que par un décalage : la
+ * requête de la page suivante reprend directement après cette clé grâce à l’index, quel que soit
+ * le nombre de pages déjà parcourues. La clé est transmise au client sous forme d’un curseur
+ * opaque, qu’il renvoie tel quel pour obtenir la page suivante.
+ */
+public class KeysetCursor {
+	private static final String SEPARATOR = "|";
+
+	/**
+	 * Taille de page appliquée lorsque le client poursuit un parcours par curseur sans préciser de
+	 * limite. Sans limite ni curseur, tout est retourné, comme avant la pagination.
+	 */
+	public static final int DEFAULT_PAGE_SIZE = 50;
+
+	/**
+	 * Encode les valeurs de la clé de tri d’une ligne en un curseur opaque.
+	 *
+	 * @param parts
+	 *            les valeurs de la clé de tri, dans l’ordre du tri
+	 * @return le curseur encodé
+	 */
+	public static String encode(Object... parts) {
+		String raw = Stream.of(parts).map(String::valueOf)
+				.collect(Collectors.joining(SEPARATOR));
+		return Base64.getUrlEncoder().withoutPadding()
+				.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Décode un curseur produit par {@link #encode(Object...)}.
+	 *
+	 * @param cursor
+	 *            le curseur reçu du client, ou {@code null} pour la première page
+	 * @param expectedParts
+	 *            le nombre de valeurs attendues dans la clé de tri
+	 * @return les valeurs de la clé de tri, ou {@code null} si aucun curseur n’est fourni
+	 * @throws BadRequestException
+	 *             si le curseur est invalide
+	 */
+	public static String[] decode(String cursor, int expectedParts) {
+		if (cursor == null || cursor.isBlank()) {
+			return null;
+		}
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(cursor),
+					StandardCharsets.UTF_8);
+			String[] parts = raw.split("\\|", -1);
+			if (parts.length == expectedParts) {
+				return parts;
+			}
+		} catch (IllegalArgumentException e) {
+			// Curseur non Base64 : traité comme un curseur invalide
+		}
+		throw new BadRequestException("Curseur de pagination invalide");
+	}
+
+	/**
+	 * Lit une date et heure issue d’un curseur.
+	 *
+	 * @param value
+	 *            la valeur extraite du curseur
+	 * @return la date et heure
+	 * @throws BadRequestException
+	 *             si la valeur est invalide
+	 */
+	public static LocalDateTime toDateTime(String value) {
+		try {
+			return LocalDateTime.parse(value);
+		} catch (DateTimeParseException e) {
+			throw new BadRequestException("Curseur de pagination invalide");
+		}
+	}
+
+	/**
+	 * Lit un identifiant issu d’un curseur.
+	 *
+	 * @param value
+	 *            la valeur extraite du curseur
+	 * @return l’identifiant
+	 * @throws BadRequestException
+	 *             si la valeur est invalide
+	 */
+	public static Integer toInteger(String value) {
+		try {
+			return Integer.valueOf(value);
+		} catch (NumberFormatException e) {
+			throw new BadRequestException("Curseur de pagination invalide");
+		}
+	}
+
+	/**
+	 * Retourne la limite à appliquer à la requête : une ligne de plus que la taille de page, afin
+	 * de savoir si une page suivante existe.
+	 *
+	 * @param pageSize
+	 *            la taille de page demandée, ou {@code null}
+	 * @param cursor
+	 *            le curseur reçu du client, ou {@code null} pour la première page
+	 * @return la limite de la requête, sans borne si ni taille ni curseur ne sont fournis
+	 * @throws BadRequestException
+	 *             si la taille de page n’est pas strictement positive
+	 */
+	public static Limit limit(Integer pageSize, String cursor) {
+		Integer size = pageSize(pageSize, cursor);
+		return size != null ? Limit.of(size + 1) : Limit.unlimited();
+	}
+
+	/**
+	 * Construit une page à partir des lignes récupérées avec {@link #limit(Integer, String)}.
+	 *
+	 * @param rows
+	 *            les lignes récupérées, triées selon la clé
+	 * @param pageSize
+	 *            la taille de page demandée, ou {@code null}
+	 * @param cursor
+	 *            le curseur reçu du client, ou {@code null} pour la première page
+	 * @param cursorOf
+	 *            fonction calculant le curseur d’une ligne
+	 * @param <T>
+	 *            le type des lignes
+	 * @return la page, avec le curseur de la page suivante s’il en existe une
+	 */
+	public static <T> CursorPage<T> page(List<T> rows, Integer pageSize, String cursor,
+			Function<T, String> cursorOf) {
+		Integer size = pageSize(pageSize, cursor);
+		if (size == null || rows.size() <= size) {
+			return new CursorPage<>(rows, null);
+		}
+		List<T> content = rows.subList(0, size);
+		return new CursorPage<>(content, cursorOf.apply(content.get(size - 1)));
+	}
+
+	/** Taille de page effective, ou {@code null} pour tout récupérer. */
+	private static Integer pageSize(Integer pageSize, String cursor) {
+		if (pageSize == null) {
+			// Les clients qui ne paginent pas reçoivent toujours la liste complète
+			return cursor == null || cursor.isBlank() ? null : DEFAULT_PAGE_SIZE;
+		}
+		if (pageSize < 1) {
+			throw new BadRequestException("La limite doit être strictement positive");
+		}
+		return pageSize;
+	}
+
+	/**
+	 * Page de résultats obtenue par pagination par clé.
+	 *
+	 * @param content
+	 *            les éléments de la page
+	 * @param nextCursor
+	 *            le curseur de la page suivante, ou {@code null} s’il s’agit de la dernière page
+	 * @param <T>
+	 *            le type des éléments
+	 */
+	public record CursorPage<T>(List<T> content, String nextCursor) {
+
+		/** En-tête HTTP portant le curseur de la page suivante. */
+		public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+		/**
+		 * Convertit les éléments de la page, en conservant son curseur.
+		 *
+		 * @param mapper
+		 *            la fonction de conversion
+		 * @param <R>
+		 *            le type des éléments convertis
+		 * @return la page convertie
+		 */
+		public <R> CursorPage<R> map(Function<T, R> mapper) {
+			return new CursorPage<>(content.stream().map(mapper).toList(), nextCursor);
+		}
+
+		/**
+		 * Indique si une page suivante existe.
+		 *
+		 * @return {@code true} si un curseur de page suivante est disponible
+		 */
+		public boolean hasNext() {
+			return nextCursor != null;
+		}
+	}
+}
@@ -0,0 +1,136 @@
+package be.labil.anacarde.infrastructure.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Roue temporelle hachée ({@code hashed timing wheel}).
+ * <p>
+ * Chaque élément est rangé dans l'encoche correspondant à son échéance, arrondie au tick. Avancer
+ * la roue ne parcourt que les encoches écoulées depuis le dernier appel, quel que soit le nombre
+ * d'éléments programmés : l'ajout, le remplacement et l'expiration d'un élément sont en temps
+ * constant. Les échéances situées au-delà d'un tour complet restent dans leur encoche jusqu'au
+ * tour concerné.
+ *
+ * @param <T>
+ *            le type des éléments programmés
+ */
+public class TimingWheel<T> {
+	private final long tickMs;
+	private final List<Set<T>> slots;
+	private final Map<T, Long> ticks = new HashMap<>();
+	private long lastTick;
+
+	/**
+	 * Crée une roue vide.
+	 *
+	 * @param tickMs
+	 *            durée d'un tick en millisecondes
+	 * @param wheelSize
+	 *            nombre d'encoches de la roue
+	 * @param startMs
+	 *            instant de départ de la roue, en millisecondes
+	 */
+	public TimingWheel(long tickMs, int wheelSize, long startMs) {
+		if (tickMs < 1 || wheelSize < 1) {
+			throw new IllegalArgumentException("Tick et taille de la roue doivent être positifs");
+		}
+		this.tickMs = tickMs;
+		this.slots = new ArrayList<>(wheelSize);
+		for (int i = 0; i < wheelSize; i++) {
+			slots.add(new HashSet<>());
+		}
+		this.lastTick = startMs / tickMs;
+	}
+
+	/**
+	 * Programme un élément à l'échéance donnée. Un élément déjà programmé est déplacé vers sa
+	 * nouvelle échéance ; une échéance déjà passée est rendue au prochain tick.
+	 *
+	 * @param item
+	 *            l'élément à programmer
+	 * @param deadlineMs
+	 *            l'échéance de l'élément, en millisecondes
+	 */
+	public synchronized void schedule(T item, long deadlineMs) {
+		cancel(item);
+		long tick = Math.max(Math.ceilDiv(deadlineMs, tickMs), lastTick + 1);
+		slots.get(slotOf(tick)).add(item);
+		ticks.put(item, tick);
+	}
+
+	/**
+	 * Retire un élément de la roue.
+	 *
+	 * @param item
+	 *            l'élément à retirer
+	 * @return {@code true} si l'élément était programmé
+	 */
+	public synchronized boolean cancel(T item) {
+		Long tick = ticks.remove(item);
+		if (tick == null) {
+			return false;
+		}
+		slots.get(slotOf(tick)).remove(item);
+		return true;
+	}
+
+	/**
+	 * Indique si un élément est programmé.
+	 *
+	 * @param item
+	 *            l'élément recherché
+	 * @return {@code true} si l'élément est programmé et n'est pas encore échu
+	 */
+	public synchronized boolean contains(T item) {
+		return ticks.containsKey(item);
+	}
+
+	/**
+	 * Retourne le nombre d'éléments programmés.
+	 *
+	 * @return le nombre d'éléments programmés
+	 */
+	public synchronized int size() {
+		return ticks.size();
+	}
+
+	/**
+	 * Avance la roue jusqu'à l'instant donné et retire les éléments échus.
+	 *
+	 * @param nowMs
+	 *            l'instant courant, en millisecondes
+	 * @return les éléments dont l'échéance est atteinte
+	 */
+	public synchronized List<T> advance(long nowMs) {
+		long nowTick = nowMs / tickMs;
+		List<T> due = new ArrayList<>();
+		if (nowTick <= lastTick) {
+			return due;
+		}
+		// Un tour complet suffit : chaque encoche n'est visitée qu'une fois
+		long from = Math.max(lastTick + 1, nowTick - slots.size() + 1);
+		for (long tick = from; tick <= nowTick; tick++) {
+			Iterator<T> it = slots.get(slotOf(tick)).iterator();
+			while (it.hasNext()) {
+				T item = it.next();
+				if (ticks.get(item) <= nowTick) {
+					it.remove();
+					ticks.remove(item);
+					due.add(item);
+				}
+			}
+		}
+		lastTick = nowTick;
+		return due;
+	}
+
+	private int slotOf(long tick) {
+		return (int) Math.floorMod(tick, (long) slots.size());
+	}
+}
@@ -0,0 +1,77 @@
+package be.labil.anacarde.infrastructure.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Helper utilitaire pour les transactions Spring.
+ * <p>
+ * Permet de différer une action (mise à jour d’un cache, notification, …) jusqu’au commit de la
+ * transaction courante, afin de ne jamais exposer un état qui serait ensuite annulé par un
+ * rollback.
+ */
+public class TransactionHelper {
+
+	/**
+	 * Exécute l’action après le commit de la transaction courante, ou immédiatement si aucune
+	 * transaction n’est active.
+	 *
+	 * @param action
+	 *            l’action à exécuter
+	 */
+	public static void afterCommit(Runnable action) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager
+					.registerSynchronization(new TransactionSynchronization() {
+						@Override
+						public void afterCommit() {
+							action.run();
+						}
+					});
+		} else {
+			action.run();
+		}
+	}
+
+	/**
+	 * Exécute l’action à la fin de la transaction courante, qu’elle soit validée ou annulée, ou
+	 * immédiatement si aucune transaction n’est active.
+	 *
+	 * @param action
+	 *            l’action à exécuter
+	 */
+	public static void afterCompletion(Runnable action) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager
+					.registerSynchronization(new TransactionSynchronization() {
+						@Override
+						public void afterCompletion(int status) {
+							action.run();
+						}
+					});
+		} else {
+			action.run();
+		}
+	}
+
+	/**
+	 * Exécute l’action si la transaction courante est annulée. Sans transaction active, rien ne
+	 * peut être annulé et l’action n’est jamais exécutée.
+	 *
+	 * @param action
+	 *            l’action à exécuter
+	 */
+	public static void afterRollback(Runnable action) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager
+					.registerSynchronization(new TransactionSynchronization() {
+						@Override
+						public void afterCompletion(int status) {
+							if (status == STATUS_ROLLED_BACK) {
+								action.run();
+							}
+						}
+					});
+		}
+	}
+}
@@ -1,9 +1,11 @@
 package be.labil.anacarde.presentation.controller;
 
 import be.labil.anacarde.application.exception.ApiErrorResponse;
+import be.labil.anacarde.domain.dto.db.SseFanOutStatsDto;
 import be.labil.anacarde.domain.dto.db.view.DashboardCardsDto;
 import be.labil.anacarde.domain.dto.db.view.DashboardGraphicDto;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -11,18 +13,21 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.time.LocalDate;
 import java.util.List;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 /**
  * Interface REST pour les points d’accès d’administration du tableau de bord.
  * <p>
- * Définit deux opérations :
+ * Définit trois opérations :
  * <ul>
  * <li>Récupération des KPI globaux (cartes) via la vue SQL <code>v_dashboard_cards</code>.</li>
- * <li>Récupération de la série chronologique "Open vs New" via la vue SQL
- * <code>v_dashboard_graphic</code>.</li>
+ * <li>Récupération de la série chronologique "Open vs New" via l'agrégat journalier
+ * <code>auction_daily_stats</code>.</li>
+ * <li>Récupération des compteurs de diffusion des événements SSE du nœud.</li>
  * </ul>
  * <p>
  * Toutes les requêtes sont sécurisées par JWT.
@@ -52,16 +57,35 @@ public interface AdminDashboardApi {
 	/**
 	 * Obtient la série chronologique "Open vs New" pour le dashboard.
 	 * <p>
-	 * Interroge la vue matérialisée <code>v_dashboard_graphic</code> pour récupérer une liste de
+	 * Lit l'agrégat journalier <code>auction_daily_stats</code> pour récupérer une liste de
 	 * {@link DashboardGraphicDto}, chacun représentant un point dans le temps avec les valeurs
 	 * "ouvertes" et "nouvelles".
 	 *
+	 * @param from
+	 *            premier jour de la série (inclus), facultatif
+	 * @param to
+	 *            dernier jour de la série (inclus), facultatif
 	 * @return {@link ResponseEntity} contenant la liste de {@link DashboardGraphicDto} et un code
 	 *         200.
 	 */
 	@Operation(summary = "Obtenir la série chronologique « Open vs New »")
 	@GetMapping("/graphic")
 	@ApiResponses({
-			@ApiResponse(responseCode = "200", description = "Liste récupérée", content = @Content(array = @ArraySchema(schema = @Schema(implementation = DashboardGraphicDto.class))))})
-	ResponseEntity<List<DashboardGraphicDto>> getDashboardGraphicSeries();
+			@ApiResponse(responseCode = "200", description = "Liste récupérée", content = @Content(array = @ArraySchema(schema = @Schema(implementation = DashboardGraphicDto.class)))),
+			@ApiResponse(responseCode = "400", content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))})
+	ResponseEntity<List<DashboardGraphicDto>> getDashboardGraphicSeries(
+			@Parameter(description = "Premier jour de la série (inclus). Par défaut, le jour de la première enchère.") @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@Parameter(description = "Dernier jour de la série (inclus). Par défaut, aujourd'hui.") @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to);
+
+	/**
+	 * Obtient les compteurs cumulés de diffusion des événements SSE du nœud qui traite la requête
+	 * (nombre d'événements, messages publiés, plus grande diffusion et latence moyenne).
+	 *
+	 * @return {@link ResponseEntity} contenant le {@link SseFanOutStatsDto} et un code 200.
+	 */
+	@Operation(summary = "Obtenir les compteurs de diffusion SSE du nœud")
+	@GetMapping("/sse-stats")
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = SseFanOutStatsDto.class)))})
+	ResponseEntity<SseFanOutStatsDto> getSseFanOutStats();
 }
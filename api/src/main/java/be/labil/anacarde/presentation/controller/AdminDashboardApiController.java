@@ -1,8 +1,11 @@
 package be.labil.anacarde.presentation.controller;
 
+import be.labil.anacarde.application.service.SseFanOutService;
 import be.labil.anacarde.application.service.export.DashboardService;
+import be.labil.anacarde.domain.dto.db.SseFanOutStatsDto;
 import be.labil.anacarde.domain.dto.db.view.DashboardCardsDto;
 import be.labil.anacarde.domain.dto.db.view.DashboardGraphicDto;
+import java.time.LocalDate;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -16,6 +19,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class AdminDashboardApiController implements AdminDashboardApi {
 
 	private final DashboardService dashboardService;
+	private final SseFanOutService sseFanOutService;
 
 	@Override
 	public ResponseEntity<DashboardCardsDto> getDashboardCards() {
@@ -23,7 +27,13 @@ public class AdminDashboardApiController implements AdminDashboardApi {
 	}
 
 	@Override
-	public ResponseEntity<List<DashboardGraphicDto>> getDashboardGraphicSeries() {
-		return ResponseEntity.ok(dashboardService.getDashboardGraphicSeries());
+	public ResponseEntity<List<DashboardGraphicDto>> getDashboardGraphicSeries(LocalDate from,
+			LocalDate to) {
+		return ResponseEntity.ok(dashboardService.getDashboardGraphicSeries(from, to));
+	}
+
+	@Override
+	public ResponseEntity<SseFanOutStatsDto> getSseFanOutStats() {
+		return ResponseEntity.ok(sseFanOutService.getStats());
 	}
 }
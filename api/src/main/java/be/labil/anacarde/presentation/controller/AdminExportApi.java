@@ -10,13 +10,13 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import java.time.LocalDateTime;
-import org.springframework.core.io.Resource;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * End-points « Export des données d'enchères » (API de Business Intelligence pour l'export de
@@ -32,6 +32,9 @@ public interface AdminExportApi {
 	 * peuvent être filtrées par période (start/end) et par statut (onlyEnded). Si start et end ne
 	 * sont pas fournis, toutes les données sont retournées. Le format de sortie peut être JSON (par
 	 * défaut) ou CSV.
+	 * <p>
+	 * Le fichier est produit en flux : les lignes sont lues par curseur et écrites une à une dans la
+	 * réponse, éventuellement compressée en gzip, sans jamais charger l'export complet en mémoire.
 	 *
 	 * @param start
 	 *            Date/heure de début de la période d'analyse (inclus, optionnel).
@@ -41,23 +44,28 @@ public interface AdminExportApi {
 	 *            Si vrai, ne retourne que les enchères terminées (optionnel, défaut false).
 	 * @param format
 	 *            Format du fichier exporté : "json" ou "csv" (optionnel, défaut "json").
-	 * @return ResponseEntity<Resource> permettant le téléchargement du fichier de données (JSON ou
-	 *         CSV).
+	 * @param gzip
+	 *            Si vrai, le fichier est compressé en gzip (optionnel, défaut false).
+	 * @return ResponseEntity<StreamingResponseBody> permettant le téléchargement du fichier de
+	 *         données (JSON ou CSV).
 	 */
 	@Operation(summary = "Exporter et télécharger les données d'analyse BI des enchères (JSON/CSV)", description = "Permet de récupérer toutes les données ou de filtrer par période. Le résultat est un fichier (JSON ou CSV) à télécharger.")
-	@GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, "text/csv"})
+	@GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, "text/csv", "application/gzip"})
 	@ApiResponses({
 			@ApiResponse(responseCode = "200", description = "Fichier de données (JSON ou CSV) généré et prêt pour le téléchargement.", content = {
 					@Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(type = "string", format = "binary", description = "Fichier JSON contenant les données d'enchères.")),
-					@Content(mediaType = "text/csv", schema = @Schema(type = "string", format = "binary", description = "Fichier CSV contenant les données d'enchères."))}),
+					@Content(mediaType = "text/csv", schema = @Schema(type = "string", format = "binary", description = "Fichier CSV contenant les données d'enchères.")),
+					@Content(mediaType = "application/gzip", schema = @Schema(type = "string", format = "binary", description = "Fichier JSON ou CSV compressé en gzip."))}),
 			@ApiResponse(responseCode = "400", description = "Paramètres de requête invalides.", content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
 			@ApiResponse(responseCode = "500", description = "Erreur interne du serveur.", content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))})
-	ResponseEntity<Resource> getFilteredData( // Type de retour modifié
+	ResponseEntity<StreamingResponseBody> getFilteredData(
 			@Parameter(description = "Date/heure de début de la période d'analyse (inclus). Laisser vide avec 'end' pour récupérer toutes les données.") @RequestParam(name = "start", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
 
 			@Parameter(description = "Date/heure de fin de la période d'analyse (inclus). Laisser vide avec 'start' pour récupérer toutes les données.") @RequestParam(name = "end", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
 
 			@Parameter(description = "Si vrai, ne retourne que les enchères terminées dans la période spécifiée (si période spécifiée) ou toutes les enchères terminées si aucune période n'est spécifiée.") @RequestParam(name = "onlyEnded", defaultValue = "false") boolean onlyEnded,
 
-			@Parameter(description = "Format du fichier exporté : 'json' (défaut) ou 'csv'.") @RequestParam(name = "format", defaultValue = "json") String format);
+			@Parameter(description = "Format du fichier exporté : 'json' (défaut) ou 'csv'.") @RequestParam(name = "format", defaultValue = "json") String format,
+
+			@Parameter(description = "Si vrai, le fichier est compressé en gzip (extension '.gz').") @RequestParam(name = "gzip", defaultValue = "false") boolean gzip);
 }
\ No newline at end of file
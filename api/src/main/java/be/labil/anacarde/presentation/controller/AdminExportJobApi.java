@@ -0,0 +1,76 @@
+package be.labil.anacarde.presentation.controller;
+
+import be.labil.anacarde.application.exception.ApiErrorResponse;
+import be.labil.anacarde.domain.dto.db.ExportJobDto;
+import be.labil.anacarde.domain.dto.write.ExportJobRequestDto;
+import be.labil.anacarde.presentation.controller.annotations.ApiValidId;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * End-points « Exports en tâche de fond » : un export volumineux est soumis, suivi, puis
+ * téléchargé une fois terminé, éventuellement par plages d'octets.
+ */
+@Validated
+@SecurityRequirement(name = "jwt")
+@RequestMapping(value = "/api/admin/export/jobs", produces = MediaType.APPLICATION_JSON_VALUE)
+@Tag(name = "admin")
+public interface AdminExportJobApi {
+
+	/**
+	 * Soumet un export des enchères exécuté en tâche de fond. Un export aux paramètres identiques,
+	 * terminé ou en cours et non expiré, est renvoyé au lieu d'en lancer un nouveau.
+	 */
+	@Operation(summary = "Soumettre un export des enchères en tâche de fond")
+	@PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+	@ApiResponses({
+			@ApiResponse(responseCode = "202", description = "Export soumis ou réutilisé", content = @Content(schema = @Schema(implementation = ExportJobDto.class))),
+			@ApiResponse(responseCode = "400", description = "Paramètres invalides", content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))})
+	ResponseEntity<ExportJobDto> submitExportJob(
+			@Validated @RequestBody ExportJobRequestDto request);
+
+	/**
+	 * Retourne l'état et la progression d'un export.
+	 */
+	@Operation(summary = "Obtenir l'état d'un export")
+	@GetMapping("/{id}")
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "État de l'export", content = @Content(schema = @Schema(implementation = ExportJobDto.class))),
+			@ApiResponse(responseCode = "404", description = "Export non trouvé", content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))})
+	ResponseEntity<ExportJobDto> getExportJob(@ApiValidId @PathVariable("id") Integer id);
+
+	/**
+	 * Télécharge le fichier d'un export terminé. Une seule plage d'octets peut être demandée via
+	 * l'en-tête {@code Range} pour reprendre un téléchargement interrompu ; avec {@code If-Range},
+	 * la plage n'est servie que si l'ETag correspond encore au fichier.
+	 */
+	@Operation(summary = "Télécharger le fichier d'un export terminé")
+	@GetMapping(value = "/{id}/file", produces = MediaType.ALL_VALUE)
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "Fichier complet", content = @Content(mediaType = MediaType.APPLICATION_OCTET_STREAM_VALUE, schema = @Schema(type = "string", format = "binary"))),
+			@ApiResponse(responseCode = "206", description = "Plage d'octets demandée", content = @Content(mediaType = MediaType.APPLICATION_OCTET_STREAM_VALUE, schema = @Schema(type = "string", format = "binary"))),
+			@ApiResponse(responseCode = "404", description = "Export non trouvé ou expiré", content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
+			@ApiResponse(responseCode = "409", description = "Export non terminé", content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
+			@ApiResponse(responseCode = "416", description = "Plage d'octets invalide")})
+	ResponseEntity<StreamingResponseBody> downloadExportJobFile(
+			@ApiValidId @PathVariable("id") Integer id,
+			@Parameter(description = "Plage d'octets demandée, par exemple 'bytes=1024-'") @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+			@Parameter(description = "ETag du fichier déjà partiellement téléchargé") @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange);
+}
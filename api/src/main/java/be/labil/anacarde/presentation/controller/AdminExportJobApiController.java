@@ -0,0 +1,97 @@
+package be.labil.anacarde.presentation.controller;
+
+import be.labil.anacarde.application.exception.ApiErrorCode;
+import be.labil.anacarde.application.exception.ApiErrorException;
+import be.labil.anacarde.application.service.export.ExportJobService;
+import be.labil.anacarde.domain.dto.db.ExportJobDto;
+import be.labil.anacarde.domain.dto.write.ExportJobRequestDto;
+import be.labil.anacarde.domain.model.ExportJobStatus;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+@RestController
+@RequiredArgsConstructor
+public class AdminExportJobApiController implements AdminExportJobApi {
+
+	private final ExportJobService exportJobService;
+
+	@Override
+	public ResponseEntity<ExportJobDto> submitExportJob(ExportJobRequestDto request) {
+		ExportJobDto job = exportJobService.submitJob(request);
+		URI location = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}")
+				.buildAndExpand(job.getId()).toUri();
+		return ResponseEntity.accepted().location(location).body(job);
+	}
+
+	@Override
+	public ResponseEntity<ExportJobDto> getExportJob(Integer id) {
+		return ResponseEntity.ok(exportJobService.getJob(id));
+	}
+
+	@Override
+	public ResponseEntity<StreamingResponseBody> downloadExportJobFile(Integer id, String range,
+			String ifRange) {
+		ExportJobDto job = exportJobService.getJob(id);
+		if (job.getStatus() != ExportJobStatus.COMPLETED) {
+			throw new ApiErrorException(HttpStatus.CONFLICT, ApiErrorCode.CONFLICT.code(), "status",
+					"L'export n'est pas terminé.");
+		}
+		long size = job.getSize();
+		String eTag = "\"export-" + job.getId() + "-" + size + "\"";
+
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.parseMediaType(job.getContentType()));
+		headers.set(HttpHeaders.CONTENT_DISPOSITION,
+				"attachment; filename=\"" + job.getFilename() + "\"");
+		headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+		headers.setETag(eTag);
+
+		// Une plage n'est servie que si le fichier n'a pas changé depuis le premier téléchargement
+		boolean partial = range != null && (ifRange == null || ifRange.equals(eTag));
+		long start = 0;
+		long end = size - 1;
+		if (partial) {
+			try {
+				List<HttpRange> ranges = HttpRange.parseRanges(range);
+				if (ranges.size() != 1) {
+					throw new IllegalArgumentException("Une seule plage est acceptée");
+				}
+				start = ranges.getFirst().getRangeStart(size);
+				end = ranges.getFirst().getRangeEnd(size);
+			} catch (IllegalArgumentException e) {
+				return rangeNotSatisfiable(size);
+			}
+			if (start >= size || start > end) {
+				return rangeNotSatisfiable(size);
+			}
+			headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+		}
+		long length = end - start + 1;
+		headers.setContentLength(length);
+
+		// Le flux est ouvert avant l'envoi des en-têtes : une erreur de stockage reste visible
+		InputStream in = exportJobService.openFile(id, start, length);
+		StreamingResponseBody body = out -> {
+			try (in) {
+				in.transferTo(out);
+			}
+		};
+		return new ResponseEntity<>(body, headers, partial ? HttpStatus.PARTIAL_CONTENT
+				: HttpStatus.OK);
+	}
+
+	private static ResponseEntity<StreamingResponseBody> rangeNotSatisfiable(long size) {
+		return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+				.header(HttpHeaders.CONTENT_RANGE, "bytes */" + size).build();
+	}
+}
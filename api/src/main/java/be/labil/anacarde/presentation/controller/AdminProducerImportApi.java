@@ -0,0 +1,47 @@
+package be.labil.anacarde.presentation.controller;
+
+import be.labil.anacarde.application.exception.ApiErrorResponse;
+import be.labil.anacarde.domain.dto.db.ProducerImportReportDto;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.InputStream;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * End-points « Import de producteurs » : enrôlement en masse des membres d'une coopérative à partir
+ * d'un fichier CSV.
+ */
+@Validated
+@SecurityRequirement(name = "jwt")
+@RequestMapping(value = "/api/admin/producers", produces = MediaType.APPLICATION_JSON_VALUE)
+@Tag(name = "admin")
+public interface AdminProducerImportApi {
+
+	/**
+	 * Importe un fichier CSV de producteurs envoyé tel quel dans le corps de la requête. Les lignes
+	 * sont traitées par lots : chaque lot enregistré est définitif, et le rapport est écrit au fil
+	 * de l'import, ligne par ligne, avant les totaux.
+	 */
+	@Operation(summary = "Importer des producteurs depuis un fichier CSV")
+	@PostMapping(value = "/import", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE,
+			MediaType.APPLICATION_OCTET_STREAM_VALUE})
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "Rapport d'import", content = @Content(schema = @Schema(implementation = ProducerImportReportDto.class))),
+			@ApiResponse(responseCode = "400", description = "Fichier illisible ou colonne manquante", content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
+			@ApiResponse(responseCode = "404", description = "Coopérative non trouvée", content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))})
+	ResponseEntity<StreamingResponseBody> importProducers(
+			@Parameter(description = "Coopérative à laquelle rattacher les producteurs") @RequestParam(value = "cooperativeId", required = false) Integer cooperativeId,
+			@Parameter(description = "Contenu du fichier CSV", content = @Content(mediaType = "text/csv", schema = @Schema(type = "string", format = "binary"))) InputStream content);
+}
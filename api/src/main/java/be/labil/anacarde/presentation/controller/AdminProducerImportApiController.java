@@ -0,0 +1,56 @@
+package be.labil.anacarde.presentation.controller;
+
+import be.labil.anacarde.application.service.ProducerImportService;
+import be.labil.anacarde.domain.dto.db.ProducerImportResultDto;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequiredArgsConstructor
+public class AdminProducerImportApiController implements AdminProducerImportApi {
+
+	private final ProducerImportService producerImportService;
+	private final ObjectMapper objectMapper;
+
+	@Override
+	public ResponseEntity<StreamingResponseBody> importProducers(Integer cooperativeId,
+			InputStream content) {
+		// La coopérative et l'en-tête sont vérifiés avant l'envoi de la réponse
+		ProducerImportService.ProducerImport producerImport = producerImportService
+				.prepareImport(content, cooperativeId);
+		StreamingResponseBody body = out -> {
+			try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+				json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+				int[] totals = new int[2];
+				json.writeStartObject();
+				json.writeArrayFieldStart("rows");
+				producerImport.run(results -> {
+					try {
+						for (ProducerImportResultDto result : results) {
+							json.writeObject(result);
+							totals[result.getStatus() == ProducerImportResultDto.Status.CREATED
+									? 0
+									: 1]++;
+						}
+						json.flush();
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				});
+				json.writeEndArray();
+				json.writeNumberField("created", totals[0]);
+				json.writeNumberField("rejected", totals[1]);
+				json.writeEndObject();
+			}
+		};
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+	}
+}
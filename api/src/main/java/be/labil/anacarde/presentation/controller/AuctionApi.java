@@ -2,12 +2,14 @@ package be.labil.anacarde.presentation.controller;
 
 import be.labil.anacarde.application.exception.ApiErrorResponse;
 import be.labil.anacarde.domain.dto.db.AuctionDto;
+import be.labil.anacarde.domain.dto.db.AuctionSummaryDto;
 import be.labil.anacarde.domain.dto.db.GlobalSettingsDto;
 import be.labil.anacarde.domain.dto.db.ValidationGroups;
 import be.labil.anacarde.domain.dto.write.AuctionUpdateDto;
 import be.labil.anacarde.presentation.controller.annotations.ApiValidId;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -33,6 +35,7 @@ import org.springframework.web.bind.annotation.*;
  * <li>Mettre à jour une enchère existante.</li>
  * <li>Accepter (clore) une enchère.</li>
  * <li>Lister les enchères avec filtres facultatifs (créateur, participant, statut).</li>
+ * <li>Lister les résumés des enchères ({@code view=summary}), avec les agrégats des offres.</li>
  * <li>Supprimer (désactiver) une enchère.</li>
  * </ul>
  * Toutes les méthodes sont sécurisées par JWT.
@@ -119,7 +122,8 @@ public interface AuctionApi {
 	@PutMapping(value = "/{id}/accept")
 	@ApiResponses({
 			@ApiResponse(responseCode = "200", description = "", content = @Content(schema = @Schema(implementation = AuctionDto.class))),
-			@ApiResponse(responseCode = "404", description = "", content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),})
+			@ApiResponse(responseCode = "404", description = "", content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
+			@ApiResponse(responseCode = "409", description = "Enchère plus ouverte", content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),})
 	ResponseEntity<AuctionDto> acceptAuction(@ApiValidId @PathVariable("id") Integer id);
 
 	/**
@@ -132,18 +136,53 @@ public interface AuctionApi {
 	 * @param auctionStatus
 	 *            (optionnel) statut pour filtrer les enchères
 	 * @param limit
-	 *            (optionnel) nombre maximum de résultats
-	 * @return {@code 200 OK} avec la liste des {@link AuctionDto}
+	 *            (optionnel) nombre maximum de résultats ; sans limite ni curseur, tous les
+	 *            résultats sont retournés, et 50 par page lorsqu'un curseur est fourni
+	 * @param cursor
+	 *            (optionnel) curseur de la page à obtenir, tel que reçu dans {@code X-Next-Cursor}
+	 * @return {@code 200 OK} avec la liste des {@link AuctionDto}, triée par date d'expiration ;
+	 *         le curseur de la page suivante est renvoyé dans l'en-tête {@code X-Next-Cursor}
 	 */
 	@Operation(summary = "Obtenir toutes les enchères")
 	@GetMapping
 	@ApiResponses({
-			@ApiResponse(responseCode = "200", description = "Liste récupérée avec succès", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = AuctionDto.class))))})
+			@ApiResponse(responseCode = "200", description = "Liste récupérée avec succès", headers = @Header(name = "X-Next-Cursor", description = "Curseur de la page suivante, absent sur la dernière page"), content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = AuctionDto.class))))})
 	ResponseEntity<List<AuctionDto>> listAuctions(
 			@Parameter(description = "ID du trader ayant créé les enchères") @RequestParam(value = "traderId", required = false) Integer traderId,
 			@Parameter(description = "ID du trader ayant participé aux enchères") @RequestParam(value = "buyerId", required = false) Integer buyerId,
 			@Parameter(description = "Status pour filtrer les enchères") @RequestParam(value = "status", required = false) String auctionStatus,
-			@Parameter(description = "Nombre maximum d'enchères à obtenir") @RequestParam(value = "limit", required = false) Integer limit);
+			@Parameter(description = "Nombre maximum d'enchères à obtenir (tous sans curseur, 50 par défaut avec un curseur)") @RequestParam(value = "limit", required = false) Integer limit,
+			@Parameter(description = "Curseur de la page à obtenir (en-tête X-Next-Cursor de la page précédente)") @RequestParam(value = "cursor", required = false) String cursor);
+
+	/**
+	 * Liste les résumés des enchères, avec les mêmes filtres que {@link #listAuctions}. Sélectionné
+	 * par le paramètre {@code view=summary} : chaque résumé porte la meilleure offre, le nombre
+	 * d'offres, la date de la dernière offre, la qualité, la région et le poids du produit, sans le
+	 * détail des offres ni des utilisateurs.
+	 *
+	 * @param traderId
+	 *            (optionnel) ID du créateur des enchères
+	 * @param buyerId
+	 *            (optionnel) ID d’un participant aux enchères
+	 * @param auctionStatus
+	 *            (optionnel) statut pour filtrer les enchères
+	 * @param limit
+	 *            (optionnel) nombre maximum de résultats ; sans limite ni curseur, tous les
+	 *            résultats sont retournés, et 50 par page lorsqu'un curseur est fourni
+	 * @param cursor
+	 *            (optionnel) curseur de la page à obtenir, tel que reçu dans {@code X-Next-Cursor}
+	 * @return {@code 200 OK} avec la liste des {@link AuctionSummaryDto}
+	 */
+	@Operation(summary = "Obtenir le résumé de toutes les enchères")
+	@GetMapping(params = "view=summary")
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "Liste récupérée avec succès", headers = @Header(name = "X-Next-Cursor", description = "Curseur de la page suivante, absent sur la dernière page"), content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = AuctionSummaryDto.class))))})
+	ResponseEntity<List<AuctionSummaryDto>> listAuctionSummaries(
+			@Parameter(description = "ID du trader ayant créé les enchères") @RequestParam(value = "traderId", required = false) Integer traderId,
+			@Parameter(description = "ID du trader ayant participé aux enchères") @RequestParam(value = "buyerId", required = false) Integer buyerId,
+			@Parameter(description = "Status pour filtrer les enchères") @RequestParam(value = "status", required = false) String auctionStatus,
+			@Parameter(description = "Nombre maximum d'enchères à obtenir (tous sans curseur, 50 par défaut avec un curseur)") @RequestParam(value = "limit", required = false) Integer limit,
+			@Parameter(description = "Curseur de la page à obtenir (en-tête X-Next-Cursor de la page précédente)") @RequestParam(value = "cursor", required = false) String cursor);
 
 	/**
 	 * Supprime (désactive) une enchère.
@@ -3,8 +3,10 @@ package be.labil.anacarde.presentation.controller;
 import be.labil.anacarde.application.service.AuctionService;
 import be.labil.anacarde.application.service.GlobalSettingsService;
 import be.labil.anacarde.domain.dto.db.AuctionDto;
+import be.labil.anacarde.domain.dto.db.AuctionSummaryDto;
 import be.labil.anacarde.domain.dto.db.GlobalSettingsDto;
 import be.labil.anacarde.domain.dto.write.AuctionUpdateDto;
+import be.labil.anacarde.infrastructure.util.KeysetCursor.CursorPage;
 import java.net.URI;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
@@ -32,10 +34,16 @@ public class AuctionApiController implements AuctionApi {
 
 	@Override
 	public ResponseEntity<List<AuctionDto>> listAuctions(Integer traderId, Integer buyerId,
-			String auctionStatus, Integer limit) {
-		List<AuctionDto> auctions = auctionService.listAuctions(traderId, buyerId, auctionStatus,
-				limit);
-		return ResponseEntity.ok(auctions);
+			String auctionStatus, Integer limit, String cursor) {
+		return toResponse(
+				auctionService.listAuctions(traderId, buyerId, auctionStatus, limit, cursor));
+	}
+
+	@Override
+	public ResponseEntity<List<AuctionSummaryDto>> listAuctionSummaries(Integer traderId,
+			Integer buyerId, String auctionStatus, Integer limit, String cursor) {
+		return toResponse(auctionService.listAuctionSummaries(traderId, buyerId, auctionStatus,
+				limit, cursor));
 	}
 
 	@Override
@@ -63,4 +71,12 @@ public class AuctionApiController implements AuctionApi {
 		auctionService.deleteAuction(id);
 		return ResponseEntity.noContent().build();
 	}
+
+	private static <T> ResponseEntity<List<T>> toResponse(CursorPage<T> page) {
+		ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+		if (page.hasNext()) {
+			builder.header(CursorPage.NEXT_CURSOR_HEADER, page.nextCursor());
+		}
+		return builder.body(page.content());
+	}
 }
@@ -7,6 +7,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
@@ -37,11 +38,15 @@ public interface AuctionSseApi {
 	 *            indique si l’abonné est un simple visiteur (true) ou un participant (false)
 	 * @param token
 	 *            jeton d’accès pour les visiteurs non authentifiés (facultatif)
+	 * @param lastEventId
+	 *            identifiant du dernier événement reçu, envoyé automatiquement par le navigateur
+	 *            lors d’une reconnexion : seuls les événements manqués sont alors renvoyés
 	 * @return un {@link SseEmitter} pour diffuser les événements de l’enchère
 	 */
 	@GetMapping
 	SseEmitter subscribe(@PathVariable("auctionId") Integer auctionId,
 			@AuthenticationPrincipal UserDetails userDetails,
 			@RequestParam(value = "visitor", required = false, defaultValue = "false") boolean isVisitor,
-			@RequestParam(value = "token", required = false) String token);
+			@RequestParam(value = "token", required = false) String token,
+			@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId);
 }
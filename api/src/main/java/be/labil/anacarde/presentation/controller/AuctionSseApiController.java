@@ -8,6 +8,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
@@ -23,7 +24,8 @@ public class AuctionSseApiController implements AuctionSseApi {
 	public SseEmitter subscribe(@PathVariable("auctionId") Integer auctionId,
 			@AuthenticationPrincipal UserDetails userDetails,
 			@RequestParam(value = "visitor", required = false, defaultValue = "false") boolean isVisitor,
-			@RequestParam(value = "token", required = false) String token) {
+			@RequestParam(value = "token", required = false) String token,
+			@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
 		String userKey = null;
 		if (token != null && !token.isBlank()) {
 			log.info("[SSE] Token.");
@@ -42,6 +44,6 @@ public class AuctionSseApiController implements AuctionSseApi {
 		}
 		log.info("[SSE] Subscription to auction {} for userKey: {} (visitor: {}, token: {})",
 				auctionId, userKey, isVisitor, token);
-		return auctionSseService.subscribe(auctionId, userKey, isVisitor);
+		return auctionSseService.subscribe(auctionId, userKey, isVisitor, lastEventId);
 	}
 }
@@ -86,7 +86,8 @@ public class AuthenticationApiController implements AuthenticationApi {
 		if (currentUser == null) {
 			throw new AuthenticationCredentialsNotFoundException("Current user is null");
 		}
-		UserDetailDto dto = userDetailMapper.toDto(currentUser);
+		// Le principal ne porte que les informations d'autorisation : le profil est rechargé
+		UserDetailDto dto = userService.getUserById(currentUser.getId());
 		dto.setStoreAssociated(storeService.existsStoreByUserId(dto.getId()));
 		return ResponseEntity.ok(dto);
 	}
@@ -7,6 +7,7 @@ import be.labil.anacarde.domain.dto.write.BidUpdateDto;
 import be.labil.anacarde.presentation.controller.annotations.ApiValidId;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -117,18 +118,27 @@ public interface BidApi {
 	ResponseEntity<BidDto> rejectBid(@ApiValidId @PathVariable("bidId") Integer bidId);
 
 	/**
-	 * Liste toutes les offres, optionnellement filtrées par enchère.
+	 * Liste les offres, optionnellement filtrées par enchère, triées par enchère puis par
+	 * identifiant. Lorsqu'une page suivante existe, son curseur est renvoyé dans l'en-tête
+	 * {@code X-Next-Cursor}.
 	 *
 	 * @param auctionId
 	 *            (optionnel) Identifiant de l’enchère dont on veut les offres
+	 * @param limit
+	 *            (optionnel) nombre maximum de résultats ; sans limite ni curseur, tous les
+	 *            résultats sont retournés, et 50 par page lorsqu'un curseur est fourni
+	 * @param cursor
+	 *            (optionnel) curseur de la page à obtenir, tel que reçu dans {@code X-Next-Cursor}
 	 * @return {@code 200 OK} avec la liste de {@link BidDto}
 	 */
 	@Operation(summary = "Obtenir toutes les offres")
 	@GetMapping
 	@ApiResponses({
-			@ApiResponse(responseCode = "200", description = "Liste récupérée avec succès", content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = BidDto.class))))})
+			@ApiResponse(responseCode = "200", description = "Liste récupérée avec succès", headers = @Header(name = "X-Next-Cursor", description = "Curseur de la page suivante, absent sur la dernière page"), content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = BidDto.class))))})
 	ResponseEntity<List<BidDto>> listBids(
-			@Parameter(description = "ID de l'enchère contenant les offres") @RequestParam(value = "auctionId", required = false) Integer auctionId);
+			@Parameter(description = "ID de l'enchère contenant les offres") @RequestParam(value = "auctionId", required = false) Integer auctionId,
+			@Parameter(description = "Nombre maximum d'offres à obtenir (tous sans curseur, 50 par défaut avec un curseur)") @RequestParam(value = "limit", required = false) Integer limit,
+			@Parameter(description = "Curseur de la page à obtenir (en-tête X-Next-Cursor de la page précédente)") @RequestParam(value = "cursor", required = false) String cursor);
 
 	/**
 	 * Supprime une offre.
@@ -3,6 +3,7 @@ package be.labil.anacarde.presentation.controller;
 import be.labil.anacarde.application.service.BidService;
 import be.labil.anacarde.domain.dto.db.BidDto;
 import be.labil.anacarde.domain.dto.write.BidUpdateDto;
+import be.labil.anacarde.infrastructure.util.KeysetCursor.CursorPage;
 import java.net.URI;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
@@ -22,9 +23,9 @@ public class BidApiController implements BidApi {
 	}
 
 	@Override
-	public ResponseEntity<List<BidDto>> listBids(Integer auctionId) {
-		List<BidDto> bids = bidService.listBids(auctionId);
-		return ResponseEntity.ok(bids);
+	public ResponseEntity<List<BidDto>> listBids(Integer auctionId, Integer limit,
+			String cursor) {
+		return toResponse(bidService.listBids(auctionId, limit, cursor));
 	}
 
 	@Override
@@ -58,4 +59,12 @@ public class BidApiController implements BidApi {
 		bidService.deleteBid(id);
 		return ResponseEntity.noContent().build();
 	}
+
+	private static <T> ResponseEntity<List<T>> toResponse(CursorPage<T> page) {
+		ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+		if (page.hasNext()) {
+			builder.header(CursorPage.NEXT_CURSOR_HEADER, page.nextCursor());
+		}
+		return builder.body(page.content());
+	}
 }
@@ -13,9 +13,12 @@ import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.groups.Default;
+import java.io.InputStream;
 import java.util.List;
 import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -30,7 +33,8 @@ import org.springframework.web.multipart.MultipartFile;
  * <ul>
  * <li>Télécharger le contenu binaire d’un document.</li>
  * <li>Consulter les méta-informations d’un document.</li>
- * <li>Créer un document lié à un utilisateur ou à un contrôle qualité.</li>
+ * <li>Créer un document lié à un utilisateur ou à un contrôle qualité, par envoi
+ * {@code multipart/form-data} ou en corps de requête.</li>
  * <li>Supprimer un document (métadonnées et contenu physique).</li>
  * <li>Lister tous les documents d’un utilisateur.</li>
  * </ul>
@@ -43,16 +47,25 @@ public interface DocumentApi {
 	/**
 	 * Télécharge le contenu binaire brut du document identifié.
 	 * <p>
-	 * Renvoie un flux {@code application/octet-stream} avec les en-têtes {@code Content-Type} et
-	 * {@code Content-Disposition} appropriés.
+	 * Renvoie un flux {@code application/octet-stream} avec les en-têtes {@code Content-Type},
+	 * {@code Content-Length} et {@code Content-Disposition} appropriés. L'empreinte du contenu est
+	 * servie comme {@code ETag} : une requête conditionnelle ({@code If-None-Match} ou
+	 * {@code If-Modified-Since}) reçoit {@code 304} si le document n'a pas changé, et l'en-tête
+	 * {@code Range} permet de ne télécharger qu'une partie du fichier. Si le stockage émet des URL
+	 * signées, le client est redirigé vers une URL de téléchargement direct de courte durée.
 	 *
 	 * @param id
 	 *            Identifiant du document (doit être un entier positif et non null)
-	 * @return {@code 200 OK} avec le flux binaire en corps de réponse, {@code 404 Not Found} si le
-	 *         document n’existe pas, {@code 500 Internal Server Error} en cas d’erreur de lecture.
+	 * @return {@code 200 OK} avec le flux binaire en corps de réponse, {@code 206 Partial Content}
+	 *         pour une plage, {@code 302 Found} vers le stockage, {@code 304 Not Modified} si le document n'a pas changé,
+	 *         {@code 404 Not Found} si le document n’existe pas, {@code 500 Internal Server Error}
+	 *         en cas d’erreur de lecture.
 	 */
 	@Operation(summary = "Télécharger le fichier brut d’un document")
 	@ApiResponses({@ApiResponse(responseCode = "200", description = "Flux binaire renvoyé"),
+			@ApiResponse(responseCode = "206", description = "Plage d'octets demandée"),
+			@ApiResponse(responseCode = "302", description = "Redirection vers le stockage"),
+			@ApiResponse(responseCode = "304", description = "Document inchangé"),
 			@ApiResponse(responseCode = "404", description = "Document non trouvé", content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
 			@ApiResponse(responseCode = "500", description = "Erreur lecture document", content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))})
 	@GetMapping(value = "/{id}/download", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
@@ -125,6 +138,73 @@ public interface DocumentApi {
 			@Validated({Default.class,
 					ValidationGroups.Create.class}) @RequestPart("file") MultipartFile file);
 
+	/**
+	 * Crée un document pour un utilisateur à partir du fichier envoyé tel quel dans le corps de la
+	 * requête.
+	 * <p>
+	 * Contrairement à l'envoi {@code multipart/form-data}, le fichier est écrit dans le stockage
+	 * au fil de sa réception, sans copie temporaire sur le serveur. Le type du fichier est celui de
+	 * l'en-tête {@code Content-Type}, ou détecté sur son contenu s'il vaut
+	 * {@code application/octet-stream}.
+	 *
+	 * @param userId
+	 *            Identifiant de l’utilisateur propriétaire du document
+	 * @param filename
+	 *            Nom d'origine du fichier
+	 * @param contentType
+	 *            Type MIME du fichier
+	 * @param content
+	 *            Corps de la requête
+	 * @return {@code 201 Created} avec le {@link DocumentDto} créé, {@code 400 Bad Request} si le
+	 *         fichier est vide, {@code 404 Not Found} si l’utilisateur n’existe pas,
+	 *         {@code 413 Payload Too Large} si le fichier dépasse la taille maximale.
+	 */
+	@Operation(summary = "Créer un document à partir du fichier envoyé en corps de requête")
+	@RequestBody(required = true, content = @Content(mediaType = MediaType.APPLICATION_OCTET_STREAM_VALUE, schema = @Schema(type = "string", format = "binary")))
+	@ApiResponses({
+			@ApiResponse(responseCode = "201", description = "Document créé", content = @Content(schema = @Schema(implementation = DocumentDto.class))),
+			@ApiResponse(responseCode = "400", description = "Fichier vide", content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
+			@ApiResponse(responseCode = "404", description = "Utilisateur non trouvé", content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
+			@ApiResponse(responseCode = "413", description = "Fichier trop volumineux", content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
+			@ApiResponse(responseCode = "500", description = "Erreur stockage", content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))})
+	@PostMapping(path = "/users/{userId}/stream", consumes = "!" + MediaType.MULTIPART_FORM_DATA_VALUE)
+	ResponseEntity<DocumentDto> createDocumentUserStream(
+			@ApiValidId @PathVariable("userId") Integer userId,
+			@NotBlank @RequestParam("filename") String filename,
+			@RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+			InputStream content);
+
+	/**
+	 * Crée un document pour un contrôle qualité à partir du fichier envoyé tel quel dans le corps
+	 * de la requête, écrit dans le stockage au fil de sa réception.
+	 *
+	 * @param qualityControlId
+	 *            Identifiant du contrôle qualité
+	 * @param filename
+	 *            Nom d'origine du fichier
+	 * @param contentType
+	 *            Type MIME du fichier
+	 * @param content
+	 *            Corps de la requête
+	 * @return {@code 201 Created} avec le {@link DocumentDto} créé, {@code 400 Bad Request} si le
+	 *         fichier est vide, {@code 404 Not Found} si le contrôle qualité n’existe pas,
+	 *         {@code 413 Payload Too Large} si le fichier dépasse la taille maximale.
+	 */
+	@Operation(summary = "Créer un document de contrôle qualité à partir du fichier envoyé en corps de requête")
+	@RequestBody(required = true, content = @Content(mediaType = MediaType.APPLICATION_OCTET_STREAM_VALUE, schema = @Schema(type = "string", format = "binary")))
+	@ApiResponses({
+			@ApiResponse(responseCode = "201", description = "Document créé", content = @Content(schema = @Schema(implementation = DocumentDto.class))),
+			@ApiResponse(responseCode = "400", description = "Fichier vide", content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
+			@ApiResponse(responseCode = "404", description = "Contrôle qualité non trouvé", content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
+			@ApiResponse(responseCode = "413", description = "Fichier trop volumineux", content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
+			@ApiResponse(responseCode = "500", description = "Erreur stockage", content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))})
+	@PostMapping(path = "/quality-controls/{qualityControlId}/stream", consumes = "!" + MediaType.MULTIPART_FORM_DATA_VALUE)
+	ResponseEntity<DocumentDto> createDocumentQualityControlStream(
+			@ApiValidId @PathVariable("qualityControlId") Integer qualityControlId,
+			@NotBlank @RequestParam("filename") String filename,
+			@RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+			InputStream content);
+
 	/**
 	 * Supprime un document, à la fois ses méta-informations et son fichier physique.
 	 *
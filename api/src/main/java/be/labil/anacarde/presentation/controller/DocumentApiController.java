@@ -1,14 +1,18 @@
 package be.labil.anacarde.presentation.controller;
 
 import be.labil.anacarde.application.service.DocumentService;
+import be.labil.anacarde.application.service.DocumentService.DocumentContent;
+import be.labil.anacarde.application.service.storage.DiskStorageUtils;
 import be.labil.anacarde.domain.dto.db.DocumentDto;
 import java.io.InputStream;
 import java.net.URI;
+import java.time.ZoneId;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
@@ -26,19 +30,25 @@ public class DocumentApiController implements DocumentApi {
 
 	@Override
 	public ResponseEntity<Resource> downloadDocument(Integer id) {
-		// on récupère le flux binaire en une seule méthode
-		InputStream in = documentService.streamDocumentContent(id);
-		InputStreamResource resource = new InputStreamResource(in);
+		// méta-données et contenu en une seule lecture
+		DocumentContent content = documentService.loadDocumentContent(id);
+		DocumentDto meta = content.document();
+		if (content.directUrl() != null) {
+			// Le contenu est servi directement par le stockage ; l'URL signée expire rapidement
+			return ResponseEntity.status(HttpStatus.FOUND).location(content.directUrl())
+					.cacheControl(CacheControl.noStore()).build();
+		}
 
-		// retrouvez le content-type et le nom d’origine via getDocumentById
-		DocumentDto meta = documentService.getDocumentById(id);
-
-		String originalFilename = meta.getOriginalFilename().replaceAll("[^a-zA-Z0-9.\\-_]", "_");
+		String originalFilename = DiskStorageUtils.safeFilename(meta.getOriginalFilename());
 
+		// Spring répond 304 si l'ETag ou la date correspondent, et 206 si une plage est demandée
 		return ResponseEntity.ok().contentType(MediaType.parseMediaType(meta.getContentType()))
+				.eTag(meta.getContentHash())
+				.lastModified(meta.getUploadDate().atZone(ZoneId.systemDefault()))
+				.cacheControl(CacheControl.noCache().cachePrivate())
 				.header(HttpHeaders.CONTENT_DISPOSITION,
 						"attachment; filename=\"" + originalFilename + "\"")
-				.body(resource);
+				.body(content.resource());
 	}
 
 	@Override
@@ -64,6 +74,22 @@ public class DocumentApiController implements DocumentApi {
 		return ResponseEntity.created(location).body(created);
 	}
 
+	@Override
+	public ResponseEntity<DocumentDto> createDocumentUserStream(Integer userId, String filename,
+			String contentType, InputStream content) {
+		DocumentDto created = documentService.createDocumentUser(userId, filename, contentType,
+				content);
+		return created(created);
+	}
+
+	@Override
+	public ResponseEntity<DocumentDto> createDocumentQualityControlStream(
+			Integer qualityControlId, String filename, String contentType, InputStream content) {
+		DocumentDto created = documentService.createDocumentQualityControl(qualityControlId,
+				filename, contentType, content);
+		return created(created);
+	}
+
 	@Override
 	public ResponseEntity<Void> deleteDocument(Integer id) {
 		documentService.deleteDocument(id);
@@ -75,4 +101,10 @@ public class DocumentApiController implements DocumentApi {
 		List<DocumentDto> list = documentService.listDocumentsByUser(userId);
 		return ResponseEntity.ok(list);
 	}
+
+	private static ResponseEntity<DocumentDto> created(DocumentDto created) {
+		URI location = ServletUriComponentsBuilder.fromCurrentContextPath()
+				.path("/api/documents/{id}").buildAndExpand(created.getId()).toUri();
+		return ResponseEntity.created(location).body(created);
+	}
 }
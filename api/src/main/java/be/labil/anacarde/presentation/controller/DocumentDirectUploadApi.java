@@ -0,0 +1,92 @@
+package be.labil.anacarde.presentation.controller;
+
+import be.labil.anacarde.application.exception.ApiErrorResponse;
+import be.labil.anacarde.domain.dto.db.DirectUploadDto;
+import be.labil.anacarde.domain.dto.db.DocumentDto;
+import be.labil.anacarde.domain.dto.write.DirectUploadRequestDto;
+import be.labil.anacarde.presentation.controller.annotations.ApiValidId;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+/**
+ * End-points « Envoi direct » : le fichier est envoyé par le client directement au stockage via
+ * une URL signée, puis l'envoi est confirmé pour créer le document.
+ * <p>
+ * Déroulement :
+ * <ol>
+ * <li>{@code POST .../direct-uploads} avec la taille et l'empreinte SHA-256 du fichier ;</li>
+ * <li>{@code PUT} du fichier sur l'URL renvoyée, avec les en-têtes fournis (inutile si le contenu
+ * est déjà stocké) ;</li>
+ * <li>{@code POST .../direct-uploads/complete} avec la même description.</li>
+ * </ol>
+ */
+@Validated
+@RequestMapping(value = "/api/documents", produces = MediaType.APPLICATION_JSON_VALUE)
+@Tag(name = "documents", description = "Gestion des documents")
+public interface DocumentDirectUploadApi {
+
+	/**
+	 * Prépare l'envoi direct d'un fichier pour un utilisateur.
+	 */
+	@Operation(summary = "Préparer l'envoi direct d'un fichier d'utilisateur")
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "Envoi préparé", content = @Content(schema = @Schema(implementation = DirectUploadDto.class))),
+			@ApiResponse(responseCode = "400", description = "Validation KO ou envoi direct indisponible", content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
+			@ApiResponse(responseCode = "404", description = "Utilisateur non trouvé", content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))})
+	@PostMapping(path = "/users/{userId}/direct-uploads", consumes = MediaType.APPLICATION_JSON_VALUE)
+	ResponseEntity<DirectUploadDto> prepareDirectUploadUser(
+			@ApiValidId @PathVariable("userId") Integer userId,
+			@Validated @RequestBody DirectUploadRequestDto request);
+
+	/**
+	 * Confirme l'envoi direct d'un fichier d'utilisateur et crée le document.
+	 */
+	@Operation(summary = "Confirmer l'envoi direct d'un fichier d'utilisateur")
+	@ApiResponses({
+			@ApiResponse(responseCode = "201", description = "Document créé", content = @Content(schema = @Schema(implementation = DocumentDto.class))),
+			@ApiResponse(responseCode = "400", description = "Validation KO ou envoi direct indisponible", content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
+			@ApiResponse(responseCode = "404", description = "Utilisateur non trouvé", content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
+			@ApiResponse(responseCode = "409", description = "Fichier absent ou différent de sa description", content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))})
+	@PostMapping(path = "/users/{userId}/direct-uploads/complete", consumes = MediaType.APPLICATION_JSON_VALUE)
+	ResponseEntity<DocumentDto> completeDirectUploadUser(
+			@ApiValidId @PathVariable("userId") Integer userId,
+			@Validated @RequestBody DirectUploadRequestDto request);
+
+	/**
+	 * Prépare l'envoi direct d'un fichier pour un contrôle qualité.
+	 */
+	@Operation(summary = "Préparer l'envoi direct d'un fichier de contrôle qualité")
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "Envoi préparé", content = @Content(schema = @Schema(implementation = DirectUploadDto.class))),
+			@ApiResponse(responseCode = "400", description = "Validation KO ou envoi direct indisponible", content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
+			@ApiResponse(responseCode = "404", description = "Contrôle qualité non trouvé", content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))})
+	@PostMapping(path = "/quality-controls/{qualityControlId}/direct-uploads", consumes = MediaType.APPLICATION_JSON_VALUE)
+	ResponseEntity<DirectUploadDto> prepareDirectUploadQualityControl(
+			@ApiValidId @PathVariable("qualityControlId") Integer qualityControlId,
+			@Validated @RequestBody DirectUploadRequestDto request);
+
+	/**
+	 * Confirme l'envoi direct d'un fichier de contrôle qualité et crée le document.
+	 */
+	@Operation(summary = "Confirmer l'envoi direct d'un fichier de contrôle qualité")
+	@ApiResponses({
+			@ApiResponse(responseCode = "201", description = "Document créé", content = @Content(schema = @Schema(implementation = DocumentDto.class))),
+			@ApiResponse(responseCode = "400", description = "Validation KO ou envoi direct indisponible", content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
+			@ApiResponse(responseCode = "404", description = "Contrôle qualité non trouvé", content = @Content(schema = @Schema(implementation = ApiErrorResponse.class))),
+			@ApiResponse(responseCode = "409", description = "Fichier absent ou différent de sa description", content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))})
+	@PostMapping(path = "/quality-controls/{qualityControlId}/direct-uploads/complete", consumes = MediaType.APPLICATION_JSON_VALUE)
+	ResponseEntity<DocumentDto> completeDirectUploadQualityControl(
+			@ApiValidId @PathVariable("qualityControlId") Integer qualityControlId,
+			@Validated @RequestBody DirectUploadRequestDto request);
+}
@@ -0,0 +1,53 @@
+package be.labil.anacarde.presentation.controller;
+
+import be.labil.anacarde.application.service.DocumentService;
+import be.labil.anacarde.domain.dto.db.DirectUploadDto;
+import be.labil.anacarde.domain.dto.db.DocumentDto;
+import be.labil.anacarde.domain.dto.write.DirectUploadRequestDto;
+import java.net.URI;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+/**
+ * Implémentation de {@link DocumentDirectUploadApi}.
+ */
+@RestController
+@RequiredArgsConstructor
+public class DocumentDirectUploadApiController implements DocumentDirectUploadApi {
+
+	private final DocumentService documentService;
+
+	@Override
+	public ResponseEntity<DirectUploadDto> prepareDirectUploadUser(Integer userId,
+			DirectUploadRequestDto request) {
+		return ResponseEntity.ok(documentService.prepareDirectUploadUser(userId, request));
+	}
+
+	@Override
+	public ResponseEntity<DocumentDto> completeDirectUploadUser(Integer userId,
+			DirectUploadRequestDto request) {
+		return created(documentService.completeDirectUploadUser(userId, request));
+	}
+
+	@Override
+	public ResponseEntity<DirectUploadDto> prepareDirectUploadQualityControl(
+			Integer qualityControlId, DirectUploadRequestDto request) {
+		return ResponseEntity
+				.ok(documentService.prepareDirectUploadQualityControl(qualityControlId, request));
+	}
+
+	@Override
+	public ResponseEntity<DocumentDto> completeDirectUploadQualityControl(
+			Integer qualityControlId, DirectUploadRequestDto request) {
+		return created(
+				documentService.completeDirectUploadQualityControl(qualityControlId, request));
+	}
+
+	private static ResponseEntity<DocumentDto> created(DocumentDto document) {
+		URI location = ServletUriComponentsBuilder.fromCurrentContextPath()
+				.path("/api/documents/{id}").buildAndExpand(document.getId()).toUri();
+		return ResponseEntity.created(location).body(document);
+	}
+}
@@ -6,6 +6,7 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
@@ -21,5 +22,6 @@ import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 public interface NotificationSseApi {
 	@GetMapping("/stream")
 	SseEmitter subscribe(@AuthenticationPrincipal UserDetails userDetails,
-			@RequestParam(value = "token", required = false) String token);
+			@RequestParam(value = "token", required = false) String token,
+			@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId);
 }
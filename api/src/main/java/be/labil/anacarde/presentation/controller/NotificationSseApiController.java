@@ -8,6 +8,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
@@ -22,7 +23,8 @@ public class NotificationSseApiController implements NotificationSseApi {
 	@GetMapping("/stream")
 	@Override
 	public SseEmitter subscribe(@AuthenticationPrincipal UserDetails userDetails,
-			@RequestParam(value = "token", required = false) String token) {
+			@RequestParam(value = "token", required = false) String token,
+			@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
 		String userKey = null;
 		if (token != null && !token.isBlank()) {
 			log.info("[SSE] Token.");
@@ -41,6 +43,6 @@ public class NotificationSseApiController implements NotificationSseApi {
 			throw new RuntimeException("Utilisateur non authentifié pour SSE");
 		}
 		log.info("[SSE] Subscription OK for userKey: {}", userKey);
-		return notificationSseService.subscribe(userKey);
+		return notificationSseService.subscribe(userKey, lastEventId);
 	}
 }
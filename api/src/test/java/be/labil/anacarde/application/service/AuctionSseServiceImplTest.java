@@ -0,0 +1,149 @@
+package be.labil.anacarde.application.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+import be.labil.anacarde.infrastructure.util.AsyncSseEmitter;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Teste le cycle de vie de l'abonnement d'un nœud au canal Redis d'une enchère, selon
+ * l'ouverture et la fermeture des émetteurs locaux, ainsi que le rejeu des événements manqués
+ * lors d'une reconnexion avec {@code Last-Event-ID}.
+ */
+public class AuctionSseServiceImplTest {
+
+	private static final Integer AUCTION_ID = 7;
+
+	private RedisNotificationListener listener;
+	private SseDeliveryService sseDeliveryService;
+	private GatedSseReplayService replayService;
+	private AuctionSseServiceImpl service;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	public void setUp() {
+		StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+		when(redisTemplate.opsForSet()).thenReturn(mock(SetOperations.class));
+		listener = mock(RedisNotificationListener.class);
+		sseDeliveryService = mock(SseDeliveryService.class);
+		when(sseDeliveryService.createEmitter()).thenAnswer(invocation -> new TestSseEmitter());
+		service = new AuctionSseServiceImpl(redisTemplate,
+				new StaticListableBeanFactory(Map.of("listener", listener))
+						.getBeanProvider(RedisNotificationListener.class),
+				sseDeliveryService, replayService = new GatedSseReplayService());
+	}
+
+	/** Le canal est écouté dès le premier émetteur et libéré avec le dernier. */
+	@Test
+	public void testChannelFollowsLocalEmitters() {
+		TestSseEmitter first = subscribe();
+		TestSseEmitter second = subscribe();
+		verify(listener, times(1)).subscribeAuction(AUCTION_ID);
+
+		first.disconnect();
+		verify(listener, never()).unsubscribeAuction(anyInt());
+
+		second.disconnect();
+		verify(listener, times(1)).unsubscribeAuction(AUCTION_ID);
+		assertEquals(0, service.sendEvent(AUCTION_ID, "bid", "{}"));
+
+		// Un nouvel émetteur rouvre l'abonnement
+		subscribe();
+		verify(listener, times(2)).subscribeAuction(AUCTION_ID);
+	}
+
+	/** Un émetteur fermé détecté lors d'un envoi est retiré, et le canal libéré. */
+	@Test
+	public void testClosedEmitterIsDetachedOnSend() {
+		TestSseEmitter emitter = subscribe();
+		emitter.complete();
+		emitter.enqueue(AsyncSseEmitter.event("bid", "{}"));
+		emitter.awaitClosed();
+
+		assertEquals(0, service.sendEvent(AUCTION_ID, "bid", "{}"));
+		verify(listener, times(1)).unsubscribeAuction(AUCTION_ID);
+	}
+
+	/**
+	 * Un échec Redis n'empêche ni l'abonnement local ni l'envoi, et l'abonnement au canal est
+	 * retenté au prochain émetteur.
+	 */
+	@Test
+	public void testRedisFailureIsSwallowed() {
+		doThrow(new IllegalStateException("Redis indisponible")).doNothing().when(listener)
+				.subscribeAuction(AUCTION_ID);
+
+		TestSseEmitter first = subscribe();
+		assertEquals(1, service.sendEvent(AUCTION_ID, "bid", "{}"));
+
+		subscribe();
+		verify(listener, times(2)).subscribeAuction(AUCTION_ID);
+		assertEquals(2, service.sendEvent(AUCTION_ID, "bid", "{}"));
+
+		doThrow(new IllegalStateException("Redis indisponible")).when(listener)
+				.unsubscribeAuction(AUCTION_ID);
+		first.disconnect();
+		assertEquals(1, service.sendEvent(AUCTION_ID, "bid", "{}"));
+	}
+
+	/** Seuls les événements publiés après le dernier événement reçu sont rejoués, dans l'ordre. */
+	@Test
+	public void testReplayMissedEventsOnReconnect() {
+		service.sendEvent(AUCTION_ID, "n-1", "bid", "{}");
+		service.sendEvent(AUCTION_ID, "n-2", "bid", "{}");
+		service.sendEvent(AUCTION_ID, "n-3", "bid", "{}");
+
+		TestSseEmitter emitter = subscribe("n-1");
+
+		assertEquals(List.of("n-2", "n-3"), emitter.awaitSent(2));
+	}
+
+	/** Un identifiant sorti du tampon invite le client à recharger l'état complet. */
+	@Test
+	public void testUnknownLastEventIdRequestsResync() {
+		service.sendEvent(AUCTION_ID, "n-1", "bid", "{}");
+
+		TestSseEmitter emitter = subscribe("perdu");
+
+		assertEquals(List.of("resync"), emitter.awaitSent(1));
+	}
+
+	/**
+	 * La lecture des événements manqués ne bloque pas les envois : un événement publié pendant
+	 * cette lecture est reçu une seule fois, après les événements rejoués.
+	 */
+	@Test
+	public void testEventPublishedDuringReplayIsSentOnce() throws Exception {
+		service.sendEvent(AUCTION_ID, "n-1", "bid", "{}");
+		service.sendEvent(AUCTION_ID, "n-2", "bid", "{}");
+		replayService.gate = new CountDownLatch(1);
+
+		TestSseEmitter emitter = subscribe("n-1");
+		assertTrue(replayService.readStarted.await(5, TimeUnit.SECONDS));
+		// Conservé avant la fin de la lecture, il figure aussi dans le rejeu
+		assertEquals(1, service.sendEvent(AUCTION_ID, "n-3", "bid", "{}"));
+		replayService.gate.countDown();
+
+		assertEquals(List.of("n-2", "n-3"), emitter.awaitSent(2));
+		assertEquals(1, service.sendEvent(AUCTION_ID, "n-4", "bid", "{}"));
+		assertEquals(List.of("n-2", "n-3", "n-4"), emitter.awaitSent(3));
+	}
+
+	private TestSseEmitter subscribe() {
+		return (TestSseEmitter) service.subscribe(AUCTION_ID, "user", false);
+	}
+
+	private TestSseEmitter subscribe(String lastEventId) {
+		return (TestSseEmitter) service.subscribe(AUCTION_ID, "user", false, lastEventId);
+	}
+}
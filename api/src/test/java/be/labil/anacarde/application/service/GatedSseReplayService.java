@@ -0,0 +1,31 @@
+package be.labil.anacarde.application.service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tampon de rejeu local dont la lecture peut être retenue, pour simuler un Redis lent.
+ */
+class GatedSseReplayService extends SseReplayServiceImpl {
+	final CountDownLatch readStarted = new CountDownLatch(1);
+	volatile CountDownLatch gate;
+
+	GatedSseReplayService() {
+		super(100, 100);
+	}
+
+	@Override
+	public Optional<List<ReplayedEvent>> eventsAfter(String stream, String lastEventId) {
+		readStarted.countDown();
+		try {
+			if (gate != null && !gate.await(5, TimeUnit.SECONDS)) {
+				throw new IllegalStateException("Lecture jamais libérée");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return super.eventsAfter(stream, lastEventId);
+	}
+}
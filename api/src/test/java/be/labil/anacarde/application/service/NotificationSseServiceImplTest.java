@@ -0,0 +1,64 @@
+package be.labil.anacarde.application.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Teste le rejeu des notifications manquées lors d'une reconnexion avec {@code Last-Event-ID}.
+ */
+public class NotificationSseServiceImplTest {
+
+	private static final String USER = "producer@example.com";
+
+	private GatedSseReplayService replayService;
+	private NotificationSseServiceImpl service;
+
+	@BeforeEach
+	public void setUp() {
+		SseDeliveryService sseDeliveryService = mock(SseDeliveryService.class);
+		when(sseDeliveryService.createEmitter()).thenAnswer(invocation -> new TestSseEmitter());
+		replayService = new GatedSseReplayService();
+		service = new NotificationSseServiceImpl(mock(StringRedisTemplate.class),
+				new ObjectMapper(), sseDeliveryService, replayService);
+	}
+
+	/** Seules les notifications postérieures au dernier événement reçu sont rejouées. */
+	@Test
+	public void testReplayMissedNotificationsOnReconnect() {
+		service.sendEvent(USER, "n-1", "notification", "{}");
+		service.sendEvent(USER, "n-2", "notification", "{}");
+		service.sendEvent("autre@example.com", "n-3", "notification", "{}");
+
+		TestSseEmitter emitter = (TestSseEmitter) service.subscribe(USER, "n-1");
+
+		assertEquals(List.of("n-2"), emitter.awaitSent(1));
+	}
+
+	/**
+	 * La lecture des notifications manquées se fait hors du verrou de l'utilisateur : une
+	 * notification envoyée pendant cette lecture est reçue une seule fois, après le rejeu.
+	 */
+	@Test
+	public void testNotificationSentDuringReplayIsSentOnce() throws Exception {
+		service.sendEvent(USER, "n-1", "notification", "{}");
+		service.sendEvent(USER, "n-2", "notification", "{}");
+		replayService.gate = new CountDownLatch(1);
+
+		TestSseEmitter emitter = (TestSseEmitter) service.subscribe(USER, "n-1");
+		assertTrue(replayService.readStarted.await(5, TimeUnit.SECONDS));
+		service.sendEvent(USER, "n-3", "notification", "{}");
+		replayService.gate.countDown();
+
+		assertEquals(List.of("n-2", "n-3"), emitter.awaitSent(2));
+		service.sendEvent(USER, "n-4", "notification", "{}");
+		assertEquals(List.of("n-2", "n-3", "n-4"), emitter.awaitSent(3));
+	}
+}
@@ -0,0 +1,55 @@
+package be.labil.anacarde.application.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import be.labil.anacarde.infrastructure.util.AsyncSseEmitter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Teste la détection des connexions mortes par les battements de cœur de
+ * {@link SseDeliveryServiceImpl}.
+ */
+public class SseDeliveryServiceImplTest {
+
+	private SseDeliveryServiceImpl service;
+
+	@BeforeEach
+	public void setUp() {
+		service = new SseDeliveryServiceImpl(60_000, 16,
+				AsyncSseEmitter.OverflowPolicy.DROP_OLDEST, 20);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		service.shutdown();
+	}
+
+	/**
+	 * Une connexion terminée sans notification du conteneur est détectée au battement de cœur
+	 * suivant et retirée, tandis qu'une connexion vivante reste ouverte.
+	 */
+	@Test
+	public void testHeartbeatPrunesDeadConnections() {
+		AsyncSseEmitter alive = service.createEmitter();
+		AsyncSseEmitter dead = service.createEmitter();
+		assertEquals(2, service.getOpenEmitterCount());
+
+		// Tout envoi ultérieur échoue, comme sur une connexion rompue
+		dead.complete();
+
+		awaitOpenEmitterCount(1);
+		assertTrue(dead.isClosed());
+		assertFalse(alive.isClosed());
+	}
+
+	private void awaitOpenEmitterCount(int expected) {
+		long deadline = System.currentTimeMillis() + 5_000;
+		while (service.getOpenEmitterCount() != expected
+				&& System.currentTimeMillis() < deadline) {
+			Thread.onSpinWait();
+		}
+		assertEquals(expected, service.getOpenEmitterCount());
+	}
+}
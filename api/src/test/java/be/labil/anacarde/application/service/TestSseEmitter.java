@@ -0,0 +1,89 @@
+package be.labil.anacarde.application.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import be.labil.anacarde.infrastructure.util.AsyncSseEmitter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Émetteur de test : enregistre les événements envoyés et permet de simuler la fermeture de la
+ * connexion par le client, dont les callbacks ne sont normalement déclenchés que par le conteneur
+ * de servlets.
+ */
+class TestSseEmitter extends AsyncSseEmitter {
+	private static final Pattern FIELD = Pattern.compile("^(id|event):(.*)$", Pattern.MULTILINE);
+
+	// Sans initialiseur : renseignée dès le constructeur parent, qui enregistre ses callbacks
+	private List<Runnable> completionCallbacks;
+	private final List<Set<DataWithMediaType>> sent = new CopyOnWriteArrayList<>();
+
+	TestSseEmitter() {
+		super(60_000L, 16, OverflowPolicy.DROP_OLDEST);
+	}
+
+	@Override
+	public synchronized void onCompletion(Runnable callback) {
+		if (completionCallbacks == null) {
+			completionCallbacks = new ArrayList<>();
+		}
+		completionCallbacks.add(callback);
+		super.onCompletion(callback);
+	}
+
+	@Override
+	public void send(Set<DataWithMediaType> items) throws IOException {
+		super.send(items);
+		sent.add(items);
+	}
+
+	/** Simule la déconnexion du client. */
+	void disconnect() {
+		completionCallbacks.forEach(Runnable::run);
+	}
+
+	/** Attend que le thread d'envoi ait fermé l'émetteur. */
+	void awaitClosed() {
+		await(this::isClosed);
+		assertTrue(isClosed());
+	}
+
+	/**
+	 * Attend l'envoi d'un nombre donné d'événements, puis retourne leurs identifiants (ou leur
+	 * nom, à défaut d'identifiant) dans l'ordre d'envoi.
+	 */
+	List<String> awaitSent(int count) {
+		await(() -> sent.size() >= count);
+		assertEquals(count, sent.size());
+		List<String> keys = new ArrayList<>();
+		for (Set<DataWithMediaType> items : sent) {
+			StringBuilder text = new StringBuilder();
+			items.forEach(item -> text.append(item.getData()));
+			String id = null;
+			String event = null;
+			Matcher matcher = FIELD.matcher(text);
+			while (matcher.find()) {
+				if (matcher.group(1).equals("id")) {
+					id = matcher.group(2);
+				} else {
+					event = matcher.group(2);
+				}
+			}
+			keys.add(id != null ? id : event);
+		}
+		return keys;
+	}
+
+	private static void await(BooleanSupplier condition) {
+		long deadline = System.currentTimeMillis() + 5_000;
+		while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+			Thread.onSpinWait();
+		}
+	}
+}
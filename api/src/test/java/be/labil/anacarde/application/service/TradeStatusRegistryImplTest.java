@@ -0,0 +1,83 @@
+package be.labil.anacarde.application.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import be.labil.anacarde.application.exception.ResourceNotFoundException;
+import be.labil.anacarde.domain.model.TradeStatus;
+import be.labil.anacarde.domain.model.TradeStatusCode;
+import be.labil.anacarde.infrastructure.persistence.TradeStatusRepository;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Teste le registre en mémoire des status d'offre, avec un dépôt simulé.
+ */
+public class TradeStatusRegistryImplTest {
+
+	private TradeStatusRepository repository;
+	private TradeStatusRegistryImpl registry;
+
+	@BeforeEach
+	public void setUp() {
+		repository = mock(TradeStatusRepository.class);
+		when(repository.findAll()).thenReturn(List.of(status(1, "Ouvert"), status(2, "Accepté"),
+				status(3, "Refusé"), status(4, "Statut inconnu")));
+		registry = new TradeStatusRegistryImpl(repository);
+	}
+
+	/** Les status sont chargés une seule fois, puis servis depuis la mémoire. */
+	@Test
+	public void testStatusesAreLoadedOnce() {
+		assertEquals(2, registry.getId(TradeStatusCode.ACCEPTED));
+		assertEquals("Refusé", registry.get(TradeStatusCode.REJECTED).getName());
+		assertTrue(registry.is(status(1, "Ouvert"), TradeStatusCode.PENDING));
+		assertFalse(registry.is(status(3, "Refusé"), TradeStatusCode.PENDING));
+		assertFalse(registry.is(null, TradeStatusCode.PENDING));
+
+		verify(repository, times(1)).findAll();
+	}
+
+	/** Une copie modifiée par l'appelant n'altère pas le registre partagé. */
+	@Test
+	public void testReturnedStatusIsDetachedCopy() {
+		TradeStatus accepted = registry.get(TradeStatusCode.ACCEPTED);
+		accepted.setName("Modifié");
+
+		assertEquals("Accepté", registry.get(TradeStatusCode.ACCEPTED).getName());
+		assertNotSame(accepted, registry.get(TradeStatusCode.ACCEPTED));
+	}
+
+	/** Après invalidation, les status sont relus depuis la base de données. */
+	@Test
+	public void testInvalidateReloadsFromDatabase() {
+		assertEquals(2, registry.getId(TradeStatusCode.ACCEPTED));
+		when(repository.findAll()).thenReturn(List.of(status(12, "Accepté")));
+
+		registry.invalidate();
+
+		assertEquals(12, registry.getId(TradeStatusCode.ACCEPTED));
+		verify(repository, times(2)).findAll();
+	}
+
+	/**
+	 * Un status absent du registre est recherché à nouveau en base de données, puis signalé s'il
+	 * n'existe toujours pas.
+	 */
+	@Test
+	public void testMissingStatusTriggersReload() {
+		assertEquals(1, registry.getId(TradeStatusCode.PENDING));
+		when(repository.findAll()).thenReturn(List.of(status(1, "Ouvert"), status(5, "Expiré")));
+		assertEquals(5, registry.getId(TradeStatusCode.EXPIRED));
+
+		when(repository.findAll()).thenReturn(List.of(status(1, "Ouvert")));
+		registry.invalidate();
+		assertThrows(ResourceNotFoundException.class,
+				() -> registry.get(TradeStatusCode.ACCEPTED));
+	}
+
+	private static TradeStatus status(int id, String name) {
+		return TradeStatus.builder().id(id).name(name).build();
+	}
+}
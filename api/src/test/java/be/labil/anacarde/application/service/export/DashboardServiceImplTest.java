@@ -0,0 +1,116 @@
+package be.labil.anacarde.application.service.export;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import be.labil.anacarde.domain.dto.db.view.DashboardCardsDto;
+import be.labil.anacarde.domain.mapper.DashboardCardsMapper;
+import be.labil.anacarde.domain.model.DashboardCards;
+import be.labil.anacarde.infrastructure.persistence.AuctionDailyStatsRepository;
+import be.labil.anacarde.infrastructure.persistence.view.DashboardCardsRepository;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Teste l'instantané des KPI « cards » de {@link DashboardServiceImpl}, sans recalcul de fond.
+ */
+public class DashboardServiceImplTest {
+
+	private DashboardCardsRepository cardsRepo;
+	private DashboardServiceImpl service;
+
+	@BeforeEach
+	public void setUp() {
+		cardsRepo = mock(DashboardCardsRepository.class);
+		when(cardsRepo.fetchCards()).thenReturn(Optional.of(mock(DashboardCards.class)));
+		DashboardCardsMapper cardsMapper = mock(DashboardCardsMapper.class);
+		when(cardsMapper.toDto(any(), any())).thenAnswer(invocation -> DashboardCardsDto
+				.builder().asOf(invocation.getArgument(1)).build());
+		service = new DashboardServiceImpl(cardsRepo, mock(AuctionDailyStatsRepository.class),
+				cardsMapper, 60_000, false);
+	}
+
+	/**
+	 * L'instantané porte l'instant de son calcul et est resservi tel quel jusqu'à son
+	 * invalidation.
+	 */
+	@Test
+	public void testSnapshotCarriesAsOfUntilInvalidated() {
+		LocalDateTime before = LocalDateTime.now();
+		DashboardCardsDto first = service.getDashboardStats();
+		LocalDateTime after = LocalDateTime.now();
+
+		assertFalse(first.getAsOf().isBefore(before));
+		assertFalse(first.getAsOf().isAfter(after));
+		assertSame(first, service.getDashboardStats());
+		verify(cardsRepo, times(1)).fetchCards();
+
+		service.invalidate();
+		DashboardCardsDto second = service.getDashboardStats();
+		assertNotSame(first, second);
+		assertFalse(second.getAsOf().isBefore(first.getAsOf()));
+		verify(cardsRepo, times(2)).fetchCards();
+	}
+
+	/** Des appels concurrents sans instantané partagent un seul recalcul. */
+	@Test
+	public void testConcurrentCallersShareSingleRefresh() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(cardsRepo.fetchCards()).thenAnswer(invocation -> {
+			started.countDown();
+			release.await();
+			return Optional.of(mock(DashboardCards.class));
+		});
+
+		CompletableFuture<DashboardCardsDto> leader = CompletableFuture
+				.supplyAsync(service::getDashboardStats);
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		CompletableFuture<DashboardCardsDto> followerResult = new CompletableFuture<>();
+		Thread follower = new Thread(() -> followerResult.complete(service.getDashboardStats()));
+		follower.start();
+		awaitWaiting(follower);
+		release.countDown();
+
+		DashboardCardsDto result = leader.get(5, TimeUnit.SECONDS);
+		assertSame(result, followerResult.get(5, TimeUnit.SECONDS));
+		verify(cardsRepo, times(1)).fetchCards();
+	}
+
+	/** Un recalcul terminé après une invalidation n'est pas conservé comme instantané. */
+	@Test
+	public void testRefreshRacingInvalidationIsNotKept() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(cardsRepo.fetchCards()).thenAnswer(invocation -> {
+			started.countDown();
+			release.await();
+			return Optional.of(mock(DashboardCards.class));
+		}).thenReturn(Optional.of(mock(DashboardCards.class)));
+
+		CompletableFuture<DashboardCardsDto> racing = CompletableFuture
+				.supplyAsync(service::getDashboardStats);
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		service.invalidate();
+		release.countDown();
+
+		assertNotSame(racing.get(5, TimeUnit.SECONDS), service.getDashboardStats());
+		verify(cardsRepo, times(2)).fetchCards();
+	}
+
+	// Attend que le thread soit bloqué sur le recalcul en cours
+	private static void awaitWaiting(Thread thread) {
+		long deadline = System.currentTimeMillis() + 5_000;
+		while (thread.getState() != Thread.State.WAITING
+				&& System.currentTimeMillis() < deadline) {
+			Thread.onSpinWait();
+		}
+		assertEquals(Thread.State.WAITING, thread.getState());
+	}
+}
@@ -0,0 +1,128 @@
+package be.labil.anacarde.application.service.storage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import be.labil.anacarde.domain.model.Document;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Teste le cache disque placé devant {@link S3StorageService}, avec un client S3 en mémoire.
+ */
+public class CachingStorageServiceTest {
+
+	private static final String BUCKET = "anacarde";
+
+	@TempDir
+	private Path cacheDir;
+
+	private InMemoryS3Client s3;
+	private S3StorageService s3Storage;
+
+	@BeforeEach
+	public void setUp() {
+		s3 = new InMemoryS3Client();
+		s3Storage = new S3StorageService(s3, null);
+		ReflectionTestUtils.setField(s3Storage, "bucket", BUCKET);
+	}
+
+	/** Une deuxième lecture est servie depuis le disque, sans appel à S3. */
+	@Test
+	public void testRepeatedReadIsServedFromCache() throws Exception {
+		CachingStorageService cache = new CachingStorageService(s3Storage, cacheDir, 1024);
+		Document doc = storeDocument(1, "aa11", "rapport qualité");
+
+		assertEquals("rapport qualité", read(cache.get(doc)));
+		assertEquals("rapport qualité", read(cache.get(doc)));
+		assertEquals("rapport qualité",
+				read(cache.getResource(doc).getInputStream()));
+
+		assertEquals(1, s3.getCount("blobs/aa11"));
+		CachingStorageService.CacheStats stats = cache.stats();
+		assertEquals(2, stats.hits());
+		assertEquals(1, stats.misses());
+		assertEquals(2 * doc.getSize(), stats.bytesSaved());
+		assertEquals(2.0 / 3, stats.hitRatio(), 1e-9);
+	}
+
+	/** Des lectures simultanées d'un même document ne le téléchargent qu'une fois. */
+	@Test
+	public void testConcurrentReadsAreSingleFlighted() throws Exception {
+		CachingStorageService cache = new CachingStorageService(s3Storage, cacheDir, 1024);
+		Document doc = storeDocument(1, "bb22", "certificat");
+		s3.blockReads();
+
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<String>> reads = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				reads.add(pool.submit(() -> read(cache.get(doc))));
+			}
+			assertTrue(s3.awaitRead());
+			Thread.sleep(100); // Les autres lectures attendent le téléchargement en cours
+			s3.releaseReads();
+			for (Future<String> read : reads) {
+				assertEquals("certificat", read.get(5, TimeUnit.SECONDS));
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+		assertEquals(1, s3.getCount("blobs/bb22"));
+	}
+
+	/** Le document le moins récemment lu est évincé quand la taille maximale est dépassée. */
+	@Test
+	public void testLeastRecentlyUsedDocumentIsEvicted() throws Exception {
+		CachingStorageService cache = new CachingStorageService(s3Storage, cacheDir, 12);
+		Document first = storeDocument(1, "cc33", "premier");
+		Document second = storeDocument(2, "dd44", "second");
+
+		read(cache.get(first));
+		read(cache.get(second)); // 7 + 6 octets : le premier est évincé
+		read(cache.get(second));
+		read(cache.get(first));
+
+		assertEquals(2, s3.getCount("blobs/cc33"));
+		assertEquals(1, s3.getCount("blobs/dd44"));
+		assertTrue(cache.stats().bytes() <= 12);
+	}
+
+	/** Le contenu du répertoire est repris au redémarrage. */
+	@Test
+	public void testCacheIsReloadedOnRestart() throws Exception {
+		Document doc = storeDocument(1, "ee55", "photo");
+		read(new CachingStorageService(s3Storage, cacheDir, 1024).get(doc));
+
+		CachingStorageService restarted = new CachingStorageService(s3Storage, cacheDir, 1024);
+		assertEquals("photo", read(restarted.get(doc)));
+		assertEquals(1, s3.getCount("blobs/ee55"));
+		assertEquals(1, restarted.stats().entries());
+	}
+
+	private Document storeDocument(int id, String hash, String content) {
+		byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+		String key = "blobs/" + hash;
+		s3.put(key, bytes);
+		Document doc = Document.builder().contentHash(hash).size(bytes.length)
+				.storagePath("s3://%s/%s".formatted(BUCKET, key)).build();
+		doc.setId(id);
+		return doc;
+	}
+
+	private static String read(InputStream in) throws Exception {
+		try (in) {
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+}
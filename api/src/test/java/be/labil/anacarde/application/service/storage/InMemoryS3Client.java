@@ -0,0 +1,198 @@
+package be.labil.anacarde.application.service.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.core.sync.ResponseTransformer;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ServiceClientConfiguration;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CopyObjectRequest;
+import software.amazon.awssdk.services.s3.model.CopyObjectResponse;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectResponse;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+/**
+ * Client S3 minimal en mémoire : lecture, description, copie, suppression et envoi par parties
+ * d'objets.
+ */
+class InMemoryS3Client implements S3Client {
+	private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+	private final Map<String, String> checksums = new ConcurrentHashMap<>();
+	private final Map<String, Map<Integer, byte[]>> multipartUploads = new ConcurrentHashMap<>();
+	private final Map<String, AtomicInteger> getCounts = new ConcurrentHashMap<>();
+	private volatile CountDownLatch gate;
+	private final CountDownLatch firstRead = new CountDownLatch(1);
+
+	void put(String key, byte[] content) {
+		objects.put(key, content);
+	}
+
+	/** Enregistre un objet envoyé avec son empreinte SHA-256, comme un envoi signé. */
+	void put(String key, byte[] content, byte[] sha256) {
+		objects.put(key, content);
+		checksums.put(key, Base64.getEncoder().encodeToString(sha256));
+	}
+
+	byte[] get(String key) {
+		return objects.get(key);
+	}
+
+	Set<String> keys() {
+		return objects.keySet();
+	}
+
+	/** Nombre d'envois par parties ni terminés ni abandonnés. */
+	int openMultipartUploads() {
+		return multipartUploads.size();
+	}
+
+	int getCount(String key) {
+		return getCounts.getOrDefault(key, new AtomicInteger()).get();
+	}
+
+	void blockReads() {
+		gate = new CountDownLatch(1);
+	}
+
+	boolean awaitRead() throws InterruptedException {
+		return firstRead.await(5, TimeUnit.SECONDS);
+	}
+
+	void releaseReads() {
+		gate.countDown();
+	}
+
+	@Override
+	public <T> T getObject(GetObjectRequest request,
+			ResponseTransformer<GetObjectResponse, T> transformer) {
+		byte[] content = objects.get(request.key());
+		if (content == null) {
+			throw NoSuchKeyException.builder().message(request.key()).build();
+		}
+		getCounts.computeIfAbsent(request.key(), k -> new AtomicInteger()).incrementAndGet();
+		firstRead.countDown();
+		try {
+			if (gate != null && !gate.await(5, TimeUnit.SECONDS)) {
+				throw new IllegalStateException("Lecture bloquée");
+			}
+			GetObjectResponse response = GetObjectResponse.builder()
+					.contentLength((long) content.length).build();
+			return transformer.transform(response,
+					AbortableInputStream.create(new ByteArrayInputStream(content)));
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	public ResponseInputStream<GetObjectResponse> getObject(GetObjectRequest request) {
+		return getObject(request, ResponseTransformer.toInputStream());
+	}
+
+	@Override
+	public HeadObjectResponse headObject(HeadObjectRequest request) {
+		byte[] content = objects.get(request.key());
+		if (content == null) {
+			throw S3Exception.builder().statusCode(404).message(request.key()).build();
+		}
+		return HeadObjectResponse.builder().contentLength((long) content.length)
+				.checksumSHA256(checksums.get(request.key())).build();
+	}
+
+	@Override
+	public CreateMultipartUploadResponse createMultipartUpload(
+			CreateMultipartUploadRequest request) {
+		String uploadId = UUID.randomUUID().toString();
+		multipartUploads.put(uploadId, new ConcurrentHashMap<>());
+		return CreateMultipartUploadResponse.builder().uploadId(uploadId).build();
+	}
+
+	@Override
+	public UploadPartResponse uploadPart(UploadPartRequest request, RequestBody body) {
+		try (InputStream in = body.contentStreamProvider().newStream()) {
+			multipartUploads.get(request.uploadId()).put(request.partNumber(), in.readAllBytes());
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return UploadPartResponse.builder().eTag("etag-" + request.partNumber()).build();
+	}
+
+	@Override
+	public CompleteMultipartUploadResponse completeMultipartUpload(
+			CompleteMultipartUploadRequest request) {
+		Map<Integer, byte[]> parts = multipartUploads.remove(request.uploadId());
+		ByteArrayOutputStream content = new ByteArrayOutputStream();
+		for (CompletedPart part : request.multipartUpload().parts()) {
+			content.writeBytes(parts.get(part.partNumber()));
+		}
+		objects.put(request.key(), content.toByteArray());
+		return CompleteMultipartUploadResponse.builder().build();
+	}
+
+	@Override
+	public AbortMultipartUploadResponse abortMultipartUpload(
+			AbortMultipartUploadRequest request) {
+		multipartUploads.remove(request.uploadId());
+		return AbortMultipartUploadResponse.builder().build();
+	}
+
+	@Override
+	public CopyObjectResponse copyObject(CopyObjectRequest request) {
+		objects.put(request.destinationKey(), objects.get(request.sourceKey()));
+		return CopyObjectResponse.builder().build();
+	}
+
+	@Override
+	public DeleteObjectResponse deleteObject(DeleteObjectRequest request) {
+		objects.remove(request.key());
+		return DeleteObjectResponse.builder().build();
+	}
+
+	@Override
+	public S3ServiceClientConfiguration serviceClientConfiguration() {
+		return S3ServiceClientConfiguration.builder().region(Region.EU_WEST_1)
+				.credentialsProvider(StaticCredentialsProvider
+						.create(AwsBasicCredentials.create("access", "secret")))
+				.build();
+	}
+
+	@Override
+	public String serviceName() {
+		return "s3";
+	}
+
+	@Override
+	public void close() {
+	}
+}
@@ -0,0 +1,264 @@
+package be.labil.anacarde.application.service.storage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import be.labil.anacarde.application.exception.ApiErrorException;
+import be.labil.anacarde.domain.model.Document;
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Teste les URL signées de {@link S3StorageService}, avec un client S3 en mémoire.
+ */
+public class S3StorageServiceTest {
+
+	private static final String BUCKET = "anacarde";
+	private static final byte[] CONTENT = "certificat".getBytes(StandardCharsets.UTF_8);
+
+	private InMemoryS3Client s3;
+	private RecordingBlobReferences blobReferences;
+	private S3StorageService storage;
+	private String hash;
+
+	@BeforeEach
+	public void setUp() {
+		s3 = new InMemoryS3Client();
+		blobReferences = new RecordingBlobReferences();
+		storage = new S3StorageService(s3, blobReferences);
+		ReflectionTestUtils.setField(storage, "bucket", BUCKET);
+		ReflectionTestUtils.setField(storage, "presignedEnabled", true);
+		ReflectionTestUtils.setField(storage, "presignedTtlMs", 60_000L);
+		ReflectionTestUtils.setField(storage, "presignedMaxUploadBytes", 1024L);
+		ReflectionTestUtils.setField(storage, "uploadParallelism", 2);
+		ReflectionTestUtils.setField(storage, "uploadThreads", 2);
+		hash = HexOf.sha256(CONTENT);
+	}
+
+	/** Sans URL signées, les documents restent servis par l'API. */
+	@Test
+	public void testPresignedUrlsDisabled() {
+		ReflectionTestUtils.setField(storage, "presignedEnabled", false);
+		assertTrue(storage.presignDownload(document()).isEmpty());
+		assertTrue(storage.presignUpload(hash, CONTENT.length, "application/pdf").isEmpty());
+	}
+
+	/** L'URL de téléchargement désigne l'objet et reprend le nom du fichier. */
+	@Test
+	public void testPresignDownload() {
+		URI url = storage.presignDownload(document()).orElseThrow();
+
+		assertTrue(url.getHost().startsWith(BUCKET));
+		assertTrue(url.getPath().endsWith(DiskStorageUtils.blobKey(hash)));
+		assertTrue(url.getQuery().contains("X-Amz-Signature="));
+		assertTrue(url.getQuery().contains("X-Amz-Expires=60"));
+		assertTrue(url.getQuery().contains("filename=\"certificat_qualit_.pdf\""));
+	}
+
+	/** L'envoi signé impose la taille et l'empreinte annoncées, sous une clé de session. */
+	@Test
+	public void testPresignUpload() {
+		PresignedUpload upload = storage.presignUpload(hash, CONTENT.length, "application/pdf")
+				.orElseThrow();
+
+		assertTrue(upload.url().getPath().endsWith("/tmp/" + upload.uploadId()));
+		assertEquals(Base64.getEncoder().encodeToString(HexOf.bytes(hash)),
+				upload.headers().get("x-amz-checksum-sha256"));
+		assertEquals(String.valueOf(CONTENT.length), upload.headers().get("content-length"));
+		assertFalse(upload.headers().containsKey("host"));
+		assertTrue(upload.expiresAt().isAfter(Instant.now()));
+	}
+
+	/** La présence d'un contenu déjà stocké n'est pas révélée : un envoi est toujours signé. */
+	@Test
+	public void testPresignUploadDoesNotRevealStoredContent() {
+		s3.put(DiskStorageUtils.blobKey(hash), CONTENT);
+		PresignedUpload upload = storage.presignUpload(hash, CONTENT.length, "application/pdf")
+				.orElseThrow();
+		assertNotNull(upload.uploadId());
+		assertNotNull(upload.url());
+	}
+
+	/** Un fichier trop volumineux est refusé avant toute signature. */
+	@Test
+	public void testPresignUploadTooLarge() {
+		ApiErrorException e = assertThrows(ApiErrorException.class,
+				() -> storage.presignUpload(hash, 2048, "application/pdf"));
+		assertEquals(HttpStatus.BAD_REQUEST, e.getStatus());
+	}
+
+	/**
+	 * La confirmation vérifie la présence, la taille et l'empreinte du contenu écrit par la
+	 * session, puis le range sous la clé de son empreinte.
+	 */
+	@Test
+	public void testAttachUpload() {
+		String key = DiskStorageUtils.blobKey(hash);
+		String uploadId = storage.presignUpload(hash, CONTENT.length, "application/pdf")
+				.orElseThrow().uploadId();
+		assertEquals(HttpStatus.CONFLICT, assertThrows(ApiErrorException.class,
+				() -> storage.attachUpload(uploadId, hash, CONTENT.length)).getStatus());
+
+		s3.put("tmp/" + uploadId, CONTENT, HexOf.bytes(HexOf.sha256("autre".getBytes())));
+		assertEquals(HttpStatus.CONFLICT, assertThrows(ApiErrorException.class,
+				() -> storage.attachUpload(uploadId, hash, CONTENT.length)).getStatus());
+		assertEquals(Set.of(), s3.keys()); // Un contenu non conforme est abandonné
+
+		s3.put("tmp/" + uploadId, CONTENT, HexOf.bytes(hash));
+		assertEquals("s3://%s/%s".formatted(BUCKET, key),
+				storage.attachUpload(uploadId, hash, CONTENT.length));
+		assertArrayEquals(CONTENT, s3.get(key));
+		assertEquals(Set.of(key), s3.keys());
+		assertEquals(List.of(hash), blobReferences.acquired);
+	}
+
+	/** Un contenu déjà stocké ne peut pas être confirmé par une session qui ne l'a pas écrit. */
+	@Test
+	public void testAttachUploadRequiresSessionContent() {
+		s3.put(DiskStorageUtils.blobKey(hash), CONTENT, HexOf.bytes(hash));
+		String uploadId = storage.presignUpload(hash, CONTENT.length, "application/pdf")
+				.orElseThrow().uploadId();
+
+		assertEquals(HttpStatus.CONFLICT, assertThrows(ApiErrorException.class,
+				() -> storage.attachUpload(uploadId, hash, CONTENT.length)).getStatus());
+		assertEquals(HttpStatus.BAD_REQUEST, assertThrows(ApiErrorException.class,
+				() -> storage.attachUpload("../" + DiskStorageUtils.blobKey(hash), hash,
+						CONTENT.length)).getStatus());
+		assertTrue(blobReferences.acquired.isEmpty());
+	}
+
+	/** Un contenu déjà stocké est rattaché après vérification de sa taille et de son empreinte. */
+	@Test
+	public void testAttachStored() {
+		String key = DiskStorageUtils.blobKey(hash);
+		assertEquals(HttpStatus.CONFLICT, assertThrows(ApiErrorException.class,
+				() -> storage.attachStored(hash, CONTENT.length)).getStatus());
+
+		s3.put(key, CONTENT, HexOf.bytes(hash));
+		assertEquals(HttpStatus.CONFLICT, assertThrows(ApiErrorException.class,
+				() -> storage.attachStored(hash, CONTENT.length + 1)).getStatus());
+		assertEquals("s3://%s/%s".formatted(BUCKET, key),
+				storage.attachStored(hash, CONTENT.length));
+		assertEquals(3, blobReferences.acquired.size());
+	}
+
+	/** Un fichier reçu en flux est envoyé par parties puis rangé sous la clé de son empreinte. */
+	@Test
+	public void testStoreStreamInParts() {
+		byte[] content = new byte[2 * S3MultipartOutputStream.PART_SIZE + 1234];
+		new Random(42).nextBytes(content);
+		String contentHash = HexOf.sha256(content);
+
+		Document doc = storage.store(new StreamedUpload("photo.jpg", null,
+				new ByteArrayInputStream(content), content.length));
+
+		String key = DiskStorageUtils.blobKey(contentHash);
+		assertEquals("s3://%s/%s".formatted(BUCKET, key), doc.getStoragePath());
+		assertEquals(contentHash, doc.getContentHash());
+		assertEquals(content.length, doc.getSize());
+		assertEquals("image/jpeg", doc.getContentType());
+		assertArrayEquals(content, s3.get(key));
+		assertEquals(Set.of(key), s3.keys()); // L'objet temporaire est supprimé
+		assertEquals(List.of(contentHash), blobReferences.acquired);
+	}
+
+	/**
+	 * Des envois simultanés plus nombreux que les threads partagés aboutissent tous : une fois les
+	 * threads occupés, chaque partie est envoyée par le thread qui écrit.
+	 */
+	@Test
+	public void testConcurrentStreamsShareBoundedThreads() throws Exception {
+		ReflectionTestUtils.setField(storage, "uploadThreads", 1);
+		List<byte[]> contents = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			byte[] content = new byte[2 * S3MultipartOutputStream.PART_SIZE + i];
+			new Random(i).nextBytes(content);
+			contents.add(content);
+		}
+
+		try (ExecutorService writers = Executors.newFixedThreadPool(contents.size())) {
+			List<Future<Document>> stored = new ArrayList<>();
+			for (byte[] content : contents) {
+				stored.add(writers.submit(() -> storage.store(new StreamedUpload("photo.jpg", null,
+						new ByteArrayInputStream(content), content.length))));
+			}
+			for (int i = 0; i < contents.size(); i++) {
+				String key = DiskStorageUtils.blobKey(HexOf.sha256(contents.get(i)));
+				assertEquals("s3://%s/%s".formatted(BUCKET, key),
+						stored.get(i).get(30, TimeUnit.SECONDS).getStoragePath());
+				assertArrayEquals(contents.get(i), s3.get(key));
+			}
+		}
+		assertEquals(0, s3.openMultipartUploads());
+	}
+
+	/** Un fichier trop volumineux est abandonné dès que la limite est dépassée. */
+	@Test
+	public void testStoreStreamTooLarge() {
+		byte[] content = new byte[S3MultipartOutputStream.PART_SIZE + 1];
+
+		ApiErrorException e = assertThrows(ApiErrorException.class,
+				() -> storage.store(new StreamedUpload("archive.zip", "application/zip",
+						new ByteArrayInputStream(content), S3MultipartOutputStream.PART_SIZE)));
+		assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, e.getStatus());
+		assertTrue(s3.keys().isEmpty());
+		assertEquals(0, s3.openMultipartUploads());
+		assertTrue(blobReferences.acquired.isEmpty());
+	}
+
+	private Document document() {
+		Document doc = Document.builder().originalFilename("certificat qualité.pdf")
+				.contentType("application/pdf").contentHash(hash).size(CONTENT.length)
+				.storagePath("s3://%s/%s".formatted(BUCKET, DiskStorageUtils.blobKey(hash)))
+				.build();
+		doc.setId(1);
+		return doc;
+	}
+
+	/** Conversions d'empreintes. */
+	private static final class HexOf {
+		static String sha256(byte[] content) {
+			var digest = DiskStorageUtils.newContentDigest();
+			digest.update(content);
+			return DiskStorageUtils.toHex(digest);
+		}
+
+		static byte[] bytes(String hex) {
+			return java.util.HexFormat.of().parseHex(hex);
+		}
+	}
+
+	/** Enregistre les références prises, sans base de données. */
+	private static final class RecordingBlobReferences implements BlobReferenceService {
+		private final List<String> acquired = new ArrayList<>();
+
+		@Override
+		public void acquire(String hash, long size) {
+			acquired.add(hash);
+		}
+
+		@Override
+		public boolean release(Document doc) {
+			return true;
+		}
+
+		@Override
+		public int collectUnreferenced() {
+			return 0;
+		}
+	}
+}
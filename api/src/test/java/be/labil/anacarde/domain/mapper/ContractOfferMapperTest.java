@@ -34,7 +34,7 @@ class ContractOfferMapperTest {
 
 		ContractOffer entity = new ContractOffer();
 		entity.setId(10);
-		entity.setStatus("En attente");
+		entity.setStatus(ContractOfferStatus.OPEN);
 		entity.setPricePerKg(new BigDecimal("2.50"));
 		entity.setCreationDate(LocalDateTime.of(2025, 4, 7, 10, 0));
 		entity.setCreationDate(LocalDateTime.of(2025, 4, 7, 10, 0));
@@ -46,7 +46,7 @@ class ContractOfferMapperTest {
 
 		assertNotNull(dto);
 		assertEquals(entity.getId(), dto.getId());
-		assertEquals(entity.getStatus(), dto.getStatus());
+		assertEquals(entity.getStatus().getLabel(), dto.getStatus());
 		assertEquals(entity.getPricePerKg(), dto.getPricePerKg());
 		assertEquals(entity.getCreationDate(), dto.getCreationDate());
 		assertEquals(entity.getEndDate(), dto.getEndDate());
@@ -70,7 +70,7 @@ class ContractOfferMapperTest {
 		ContractOffer entity = contractOfferMapper.toEntity(dto);
 
 		assertNotNull(entity);
-		assertEquals(dto.getStatus(), entity.getStatus());
+		assertEquals(ContractOfferStatus.ACCEPTED, entity.getStatus());
 		assertEquals(dto.getPricePerKg(), entity.getPricePerKg());
 		assertEquals(dto.getCreationDate(), entity.getCreationDate());
 		assertEquals(dto.getEndDate(), entity.getEndDate());
@@ -0,0 +1,95 @@
+package be.labil.anacarde.infrastructure.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Teste la politique de débordement de {@link AsyncSseEmitter} face à un client lent.
+ */
+public class AsyncSseEmitterTest {
+
+	/** File pleine : l'événement le plus ancien en attente est abandonné, les suivants passent. */
+	@Test
+	public void testDropOldestKeepsMostRecentEvents() throws Exception {
+		SlowEmitter emitter = new SlowEmitter(2, AsyncSseEmitter.OverflowPolicy.DROP_OLDEST);
+		var first = AsyncSseEmitter.event("bid", "1");
+		var dropped = AsyncSseEmitter.event("bid", "2");
+		var kept = AsyncSseEmitter.event("bid", "3");
+		var last = AsyncSseEmitter.event("bid", "4");
+
+		assertTrue(emitter.enqueue(first));
+		emitter.awaitSendStarted();
+		assertTrue(emitter.enqueue(dropped));
+		assertTrue(emitter.enqueue(kept));
+		assertTrue(emitter.enqueue(last));
+		assertEquals(1, emitter.getDroppedCount());
+		assertFalse(emitter.isClosed());
+
+		emitter.release();
+		emitter.awaitSent(3);
+		assertEquals(List.of(first, kept, last), emitter.sent);
+	}
+
+	/** File pleine : le client lent est déconnecté et plus aucun événement n'est accepté. */
+	@Test
+	public void testDisconnectClosesSlowClient() throws Exception {
+		SlowEmitter emitter = new SlowEmitter(1, AsyncSseEmitter.OverflowPolicy.DISCONNECT);
+
+		assertTrue(emitter.enqueue(AsyncSseEmitter.event("bid", "1")));
+		emitter.awaitSendStarted();
+		assertTrue(emitter.enqueue(AsyncSseEmitter.event("bid", "2")));
+		assertFalse(emitter.enqueue(AsyncSseEmitter.event("bid", "3")));
+
+		assertTrue(emitter.isClosed());
+		assertFalse(emitter.enqueue(AsyncSseEmitter.heartbeat()));
+		emitter.release();
+	}
+
+	/**
+	 * Émetteur dont chaque envoi reste bloqué jusqu'à {@link #release()}, comme pour un client
+	 * qui ne lit plus sa connexion.
+	 */
+	private static class SlowEmitter extends AsyncSseEmitter {
+		private final CountDownLatch sendStarted = new CountDownLatch(1);
+		private final CountDownLatch released = new CountDownLatch(1);
+		private final List<Set<DataWithMediaType>> sent = new CopyOnWriteArrayList<>();
+
+		SlowEmitter(int queueCapacity, OverflowPolicy overflowPolicy) {
+			super(60_000L, queueCapacity, overflowPolicy);
+		}
+
+		@Override
+		public void send(Set<DataWithMediaType> items) {
+			sendStarted.countDown();
+			try {
+				released.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			sent.add(items);
+		}
+
+		void awaitSendStarted() throws InterruptedException {
+			assertTrue(sendStarted.await(5, TimeUnit.SECONDS));
+		}
+
+		void release() {
+			released.countDown();
+		}
+
+		void awaitSent(int count) {
+			long deadline = System.currentTimeMillis() + 5_000;
+			while (sent.size() < count && System.currentTimeMillis() < deadline) {
+				Thread.onSpinWait();
+			}
+			assertEquals(count, sent.size());
+		}
+	}
+}
@@ -608,6 +608,8 @@ public abstract class AbstractIntegrationTest {
 				.auctionId(auction2.getId()).trader(transformer).status(tradeStatusAccepted)
 				.build();
 		bidRepository.save(bid2);
+		auctionRepository.refreshBidStats(testAuction.getId(), tradeStatusAccepted.getId());
+		auctionRepository.refreshBidStats(auction2.getId(), tradeStatusAccepted.getId());
 
 		// A cooperative who has for president 'producer'
 		Cooperative cooperative = Cooperative.builder().name("Coopérative Agricole de Parakou")
@@ -629,7 +631,7 @@ public abstract class AbstractIntegrationTest {
 		mainTestQuality = qualityRepository.save(quality2);
 
 		// A contract
-		ContractOffer contractOffer = ContractOffer.builder().status("Accepté")
+		ContractOffer contractOffer = ContractOffer.builder().status(ContractOfferStatus.ACCEPTED)
 				.pricePerKg(new BigDecimal("20.0")).creationDate(LocalDateTime.now())
 				.endDate(LocalDateTime.now().plusDays(1)).seller(producer).buyer(transformer)
 				.quality(quality).build();
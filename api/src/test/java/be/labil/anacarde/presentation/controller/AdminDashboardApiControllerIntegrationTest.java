@@ -0,0 +1,101 @@
+package be.labil.anacarde.presentation.controller;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import be.labil.anacarde.application.service.AuctionDailyStatsService;
+import be.labil.anacarde.application.service.AuctionService;
+import be.labil.anacarde.application.service.SseFanOutService;
+import be.labil.anacarde.domain.dto.db.SseFanOutStatsDto;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+
+/** Tests d'intégration pour le contrôleur du tableau de bord admin. */
+public class AdminDashboardApiControllerIntegrationTest extends AbstractIntegrationTest {
+
+	@Autowired
+	private AuctionDailyStatsService auctionDailyStatsService;
+
+	@Autowired
+	private AuctionService auctionService;
+
+	@Autowired
+	private SseFanOutService sseFanOutService;
+
+	/**
+	 * Teste la série « Open vs New » sur une période : l'enchère créée le 15/01/2025 apparaît comme
+	 * nouvelle le lendemain et reste ouverte jusqu'à son expiration le 15/02/2025.
+	 */
+	@Test
+	public void testGetGraphicSeriesForRange() throws Exception {
+		auctionDailyStatsService.rebuild();
+
+		mockMvc.perform(get("/api/admin/dashboard/graphic").param("from", "2025-01-15")
+				.param("to", "2025-01-17").accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk()).andExpect(jsonPath("$.length()").value(3))
+				.andExpect(jsonPath("$[0].date").value("2025-01-15T00:00:00"))
+				.andExpect(jsonPath("$[0].totalOpenAuctions").value(0))
+				.andExpect(jsonPath("$[0].totalNewAuctions").value(0))
+				.andExpect(jsonPath("$[1].totalOpenAuctions").value(1))
+				.andExpect(jsonPath("$[1].totalNewAuctions").value(1))
+				.andExpect(jsonPath("$[2].totalOpenAuctions").value(1))
+				.andExpect(jsonPath("$[2].totalNewAuctions").value(0));
+
+		mockMvc.perform(get("/api/admin/dashboard/graphic").param("from", "2025-02-16")
+				.param("to", "2025-02-16").accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk()).andExpect(jsonPath("$[0].totalOpenAuctions").value(0));
+	}
+
+	/**
+	 * Teste la mise à jour incrémentale de l'agrégat : une enchère acceptée aujourd'hui reste
+	 * ouverte jusqu'à aujourd'hui, et non plus jusqu'à sa date d'expiration initiale.
+	 */
+	@Test
+	public void testGraphicSeriesFollowsAcceptedAuction() throws Exception {
+		auctionDailyStatsService.rebuild();
+		auctionService.acceptAuction(getTestAuctionByTransformer().getId());
+
+		mockMvc.perform(get("/api/admin/dashboard/graphic").param("from", "2025-02-16")
+				.param("to", "2025-02-16").accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk()).andExpect(jsonPath("$[0].totalOpenAuctions").value(0));
+
+		assertTrue(auctionDailyStatsService.flush() > 0);
+
+		mockMvc.perform(get("/api/admin/dashboard/graphic").param("from", "2025-02-16")
+				.param("to", "2025-02-16").accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk()).andExpect(jsonPath("$[0].totalOpenAuctions").value(1));
+	}
+
+	/**
+	 * Teste le rejet d'une période dont la date de début suit la date de fin.
+	 */
+	@Test
+	public void testGetGraphicSeriesWithInvalidRange() throws Exception {
+		mockMvc.perform(get("/api/admin/dashboard/graphic").param("from", "2025-02-01")
+				.param("to", "2025-01-01").accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isBadRequest());
+	}
+
+	/**
+	 * Teste l'exposition des compteurs de diffusion SSE : une diffusion vers deux utilisateurs
+	 * (l'auteur étant exclu) compte pour un événement et deux messages.
+	 */
+	@Test
+	public void testGetSseFanOutStats() throws Exception {
+		SseFanOutStatsDto before = sseFanOutService.getStats();
+
+		sseFanOutService.publishToUsers(List.of("user-a", "user-b", "author"), "author",
+				"test-event", Map.of("key", "value"));
+
+		mockMvc.perform(get("/api/admin/dashboard/sse-stats").accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.events").value(before.getEvents() + 1))
+				.andExpect(jsonPath("$.deliveries").value(before.getDeliveries() + 2))
+				.andExpect(jsonPath("$.maxFanOut").value(Math.max(before.getMaxFanOut(), 2)));
+	}
+}
@@ -1,17 +1,22 @@
 package be.labil.anacarde.presentation.controller;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import be.labil.anacarde.application.service.GlobalSettingsService;
 import be.labil.anacarde.domain.dto.write.GlobalSettingsUpdateDto;
+import be.labil.anacarde.domain.model.GlobalSettings;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.math.BigDecimal;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.request.RequestPostProcessor;
 
 /** Tests d'intégration pour le contrôleur des réglages globaux admin. */
@@ -20,6 +25,9 @@ public class AdminGlobalSettingsApiControllerIntegrationTest extends AbstractInt
 	@Autowired
 	private ObjectMapper objectMapper;
 
+	@Autowired
+	private GlobalSettingsService globalSettingsService;
+
 	/**
 	 * RequestPostProcessor qui ajoute automatiquement le cookie JWT à chaque requête.
 	 */
@@ -151,4 +159,35 @@ public class AdminGlobalSettingsApiControllerIntegrationTest extends AbstractInt
 				.content(objectMapper.writeValueAsString(updateDto)))
 				.andExpect(status().isForbidden());
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Teste l'invalidation du snapshot des réglages : une modification faite par un autre nœud
+	 * n'est visible qu'après son message d'invalidation, tandis que le message publié par ce nœud
+	 * lui-même ne jette pas le snapshot qu'il vient de mettre à jour.
+	 */
+	@Test
+	public void testSnapshotInvalidatedByOtherNodeOnly() {
+		GlobalSettingsUpdateDto update = new GlobalSettingsUpdateDto();
+		update.setForceBetterBids(true);
+		update.setDefaultMinPriceKg(BigDecimal.valueOf(1));
+		update.setDefaultMaxPriceKg(BigDecimal.valueOf(1000));
+		update.setMinIncrement(5);
+		update.setShowOnlyActive(false);
+		globalSettingsService.updateGlobalSettings(update);
+		assertEquals(5, globalSettingsService.getGlobalSettings().getMinIncrement());
+
+		// Modification enregistrée par un autre nœud, inconnue du snapshot local
+		GlobalSettings stored = globalSettingsRepository.findById(1).orElseThrow();
+		stored.setMinIncrement(50);
+		globalSettingsRepository.save(stored);
+		assertEquals(5, globalSettingsService.getGlobalSettings().getMinIncrement());
+
+		Object target = AopTestUtils.getUltimateTargetObject(globalSettingsService);
+		String nodeId = (String) ReflectionTestUtils.getField(target, "nodeId");
+		globalSettingsService.onInvalidation(nodeId + ":1");
+		assertEquals(5, globalSettingsService.getGlobalSettings().getMinIncrement());
+
+		globalSettingsService.onInvalidation("autre-noeud:1");
+		assertEquals(50, globalSettingsService.getGlobalSettings().getMinIncrement());
+	}
+}
@@ -0,0 +1,162 @@
+package be.labil.anacarde.presentation.controller;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import be.labil.anacarde.application.service.ProducerImportService;
+import be.labil.anacarde.domain.model.Field;
+import be.labil.anacarde.domain.model.Producer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+/**
+ * Tests d'intégration du contrôleur AdminProducerImportApi.
+ */
+@Sql(scripts = "classpath:schema-h2.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class AdminProducerImportApiControllerIntegrationTest extends AbstractIntegrationTest {
+
+	private static final String IMPORT_URL = "/api/admin/producers/import";
+	private static final String HEADER = "firstName;lastName;email;phone;password;"
+			+ "agriculturalIdentifier;street;cityId;languageId\n";
+
+	private @Autowired PasswordEncoder passwordEncoder;
+	private @Autowired ProducerImportService producerImportService;
+
+	private String row(String email, String phone, String password, String agriculturalId,
+			int cityId) {
+		return String.join(";", "Awa", "Kora", email, phone, password, agriculturalId,
+				"Rue du marché", String.valueOf(cityId),
+				String.valueOf(getMainLanguage().getId())) + "\n";
+	}
+
+	private ResultActions importCsv(String csv, Integer cooperativeId) throws Exception {
+		var request = post(IMPORT_URL).with(user(getMainTestUser()))
+				.contentType("text/csv").content(csv.getBytes(StandardCharsets.UTF_8));
+		if (cooperativeId != null) {
+			request.param("cooperativeId", cooperativeId.toString());
+		}
+		MvcResult result = mockMvc.perform(request).andExpect(request().asyncStarted())
+				.andReturn();
+		return mockMvc.perform(asyncDispatch(result));
+	}
+
+	@Test
+	void importProducers_createsValidRowsAndReportsRejectedOnes() throws Exception {
+		int cityId = cityRepository.findAll().getFirst().getId();
+		int cooperativeId = getMainTestCooperative().getId();
+		String csv = HEADER + row("Awa.Kora@example.com", "+2290155000001", "P@ssw0rd!", "IMP-1",
+				cityId) + row("moussa@example.com", "+2290155000002", "P@ssw0rd!", "IMP-2", cityId)
+				+ row(getMainTestUser().getEmail(), "+2290155000003", "P@ssw0rd!", "IMP-3", cityId)
+				+ row("double@example.com", "+2290155000001", "P@ssw0rd!", "IMP-4", cityId)
+				+ row("ville@example.com", "+2290155000005", "P@ssw0rd!", "IMP-5", 999)
+				+ row("faible@example.com", "+2290155000006", "faible", "IMP-6", cityId);
+
+		importCsv(csv, cooperativeId).andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_JSON))
+				.andExpect(jsonPath("$.created").value(2))
+				.andExpect(jsonPath("$.rejected").value(4))
+				.andExpect(jsonPath("$.rows", hasSize(6)))
+				.andExpect(jsonPath("$.rows[0].line").value(2))
+				.andExpect(jsonPath("$.rows[0].email").value("awa.kora@example.com"))
+				.andExpect(jsonPath("$.rows[0].status").value("CREATED"))
+				.andExpect(jsonPath("$.rows[0].userId").isNumber())
+				.andExpect(jsonPath("$.rows[1].status").value("CREATED"))
+				.andExpect(jsonPath("$.rows[2].status").value("REJECTED"))
+				.andExpect(jsonPath("$.rows[2].errors[0].field").value("email"))
+				.andExpect(jsonPath("$.rows[2].errors[0].code").value("email.exists"))
+				.andExpect(jsonPath("$.rows[3].errors[0].field").value("phone"))
+				.andExpect(jsonPath("$.rows[3].errors[0].message", containsString("ligne 2")))
+				.andExpect(jsonPath("$.rows[4].errors[0].field").value("cityId"))
+				.andExpect(jsonPath("$.rows[4].errors[0].code").value("resource.not_found"))
+				.andExpect(jsonPath("$.rows[5].errors[*].field", everyItem(is("password"))));
+
+		Producer producer = (Producer) userRepository.findByEmail("awa.kora@example.com")
+				.orElseThrow();
+		assertThat(producer.isEnabled(), is(true));
+		assertThat(producer.getCooperative().getId(), is(cooperativeId));
+		assertThat(passwordEncoder.matches("P@ssw0rd!", producer.getPassword()), is(true));
+		List<Field> fields = fieldRepository.findByProducerId(producer.getId());
+		assertThat(fields, hasSize(1));
+		assertThat(fields.getFirst().getIdentifier(), is("FIELD-" + producer.getId() + "001"));
+		assertThat(userRepository.findByEmail("double@example.com").isPresent(), is(false));
+	}
+
+	@Test
+	void importProducers_malformedRowAndFailedBatch_areRejectedAlone() throws Exception {
+		int cityId = cityRepository.findAll().getFirst().getId();
+		// Rue trop longue pour sa colonne : l'insertion du premier lot échoue
+		String failing = row("lot@example.com", "+2290155000021", "P@ssw0rd!", "IMP-21", cityId)
+				.replace("Rue du marché", "R".repeat(300));
+		String csv = HEADER
+				+ row("premier@example.com", "+2290155000020", "P@ssw0rd!", "IMP-20", cityId)
+				+ failing
+				+ row("lot@example.com", "+2290155000021", "P@ssw0rd!", "IMP-21", cityId)
+				+ "Awa;\"Kora\"x;mal@example.com\n"
+				+ row("premier@example.com", "+2290155000020", "P@ssw0rd!", "IMP-20", cityId);
+
+		// Lots de deux lignes : les lignes suivantes relèvent d'autres lots
+		Object batchSize = ReflectionTestUtils.getField(producerImportService, "batchSize");
+		ReflectionTestUtils.setField(producerImportService, "batchSize", 2);
+		try {
+			importCsv(csv, null).andExpect(status().isOk())
+					.andExpect(jsonPath("$.created").value(2))
+					.andExpect(jsonPath("$.rejected").value(3))
+					.andExpect(jsonPath("$.rows", hasSize(5)))
+					.andExpect(jsonPath("$.rows[0].status").value("REJECTED"))
+					.andExpect(jsonPath("$.rows[1].status").value("REJECTED"))
+					.andExpect(jsonPath("$.rows[2].status").value("CREATED"))
+					.andExpect(jsonPath("$.rows[3].line").value(5))
+					.andExpect(jsonPath("$.rows[3].status").value("REJECTED"))
+					.andExpect(jsonPath("$.rows[3].errors[0].message",
+							startsWith("La ligne est illisible")))
+					.andExpect(jsonPath("$.rows[4].status").value("CREATED"));
+		} finally {
+			ReflectionTestUtils.setField(producerImportService, "batchSize", batchSize);
+		}
+
+		assertThat(userRepository.findByEmail("lot@example.com").isPresent(), is(true));
+		assertThat(userRepository.findByEmail("premier@example.com").isPresent(), is(true));
+	}
+
+	@Test
+	void importProducers_commaSeparatedWithoutCooperative() throws Exception {
+		int cityId = cityRepository.findAll().getFirst().getId();
+		String csv = HEADER.replace(';', ',') + row("seul@example.com", "+2290155000010",
+				"P@ssw0rd!", "IMP-10", cityId).replace(';', ',');
+
+		importCsv(csv, null).andExpect(status().isOk())
+				.andExpect(jsonPath("$.created").value(1))
+				.andExpect(jsonPath("$.rejected").value(0));
+
+		Producer producer = (Producer) userRepository.findByEmail("seul@example.com")
+				.orElseThrow();
+		assertThat(producer.getCooperative(), nullValue());
+	}
+
+	@Test
+	void importProducers_missingColumn_returnsBadRequest() throws Exception {
+		mockMvc.perform(post(IMPORT_URL).with(user(getMainTestUser())).contentType("text/csv")
+				.content("firstName;lastName;email\nAwa;Kora;awa@example.com\n"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.errors[*].field", hasItems("phone", "password", "cityId")));
+	}
+
+	@Test
+	void importProducers_unknownCooperative_returnsNotFound() throws Exception {
+		mockMvc.perform(post(IMPORT_URL).with(user(getMainTestUser())).contentType("text/csv")
+				.param("cooperativeId", "99999").content(HEADER))
+				.andExpect(status().isNotFound());
+	}
+}
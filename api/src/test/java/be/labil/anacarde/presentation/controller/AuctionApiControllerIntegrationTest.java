@@ -4,14 +4,18 @@ import static org.hamcrest.Matchers.containsString;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import be.labil.anacarde.application.service.AuctionExpiryService;
+import be.labil.anacarde.application.service.AuctionService;
 import be.labil.anacarde.application.service.GlobalSettingsService;
 import be.labil.anacarde.domain.dto.db.AuctionStrategyDto;
 import be.labil.anacarde.domain.dto.write.AuctionOptionsUpdateDto;
 import be.labil.anacarde.domain.dto.write.AuctionUpdateDto;
+import be.labil.anacarde.domain.dto.write.BidUpdateDto;
 import be.labil.anacarde.domain.dto.write.GlobalSettingsUpdateDto;
 import be.labil.anacarde.domain.mapper.GlobalSettingsMapper;
 import be.labil.anacarde.domain.model.Auction;
@@ -21,14 +25,16 @@ import be.labil.anacarde.infrastructure.persistence.AuctionRepository;
 import be.labil.anacarde.infrastructure.persistence.HarvestProductRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.jayway.jsonpath.JsonPath;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
 import org.junit.jupiter.api.Test;
-import org.quartz.JobKey;
-import org.quartz.Scheduler;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
 /** Tests d'intégration pour le contrôleur des enchères. */
 public class AuctionApiControllerIntegrationTest extends AbstractIntegrationTest {
@@ -36,7 +42,8 @@ public class AuctionApiControllerIntegrationTest extends AbstractIntegrationTest
 	private @Autowired ObjectMapper objectMapper;
 	private @Autowired AuctionRepository auctionRepository;
 	private @Autowired HarvestProductRepository harvestProductRepository;
-	private @Autowired Scheduler scheduler;
+	private @Autowired AuctionExpiryService auctionExpiryService;
+	private @Autowired AuctionService auctionService;
 	private @Autowired GlobalSettingsService globalSettingsService;
 	private @Autowired GlobalSettingsMapper globalSettingsMapper;
 
@@ -104,13 +111,9 @@ public class AuctionApiControllerIntegrationTest extends AbstractIntegrationTest
 				.filter(auction -> auction.getPrice().equals(111.11)).findFirst()
 				.orElseThrow(() -> new AssertionError("Enchère non trouvée"));
 
-		// Vérifie que le job Quartz a bien été programmé
-		String jobKeyName = "auctionCloseJob-" + createdAuction.getId();
-		String group = "auction-jobs";
-		JobKey jobKey = new JobKey(jobKeyName, group);
-		boolean jobExists = scheduler.checkExists(jobKey);
-		assertTrue(jobExists,
-				"Le job Quartz pour la clôture de l'enchère n'a pas été trouvé dans le scheduler.");
+		// Vérifie que l'expiration de l'enchère a bien été programmée
+		assertTrue(auctionExpiryService.isScheduled(createdAuction.getId()),
+				"L'expiration de l'enchère n'a pas été programmée.");
 	}
 
 	/**
@@ -342,13 +345,9 @@ public class AuctionApiControllerIntegrationTest extends AbstractIntegrationTest
 				.filter(auction -> auction.getPrice().equals(111.11)).findFirst()
 				.orElseThrow(() -> new AssertionError("Enchère non trouvée"));
 
-		// Vérifie que le job Quartz a bien été programmé
-		String jobKeyName = "auctionCloseJob-" + createdAuction.getId();
-		String group = "auction-jobs";
-		JobKey jobKey = new JobKey(jobKeyName, group);
-		boolean jobExists = scheduler.checkExists(jobKey);
-		assertTrue(jobExists,
-				"Le job Quartz pour la clôture de l'enchère n'a pas été trouvé dans le scheduler.");
+		// Vérifie que l'expiration de l'enchère a bien été programmée
+		assertTrue(auctionExpiryService.isScheduled(createdAuction.getId()),
+				"L'expiration de l'enchère n'a pas été programmée.");
 	}
 
 	/**
@@ -388,6 +387,44 @@ public class AuctionApiControllerIntegrationTest extends AbstractIntegrationTest
 				.andExpect(jsonPath("$.length()").value(1));
 	}
 
+	/**
+	 * Teste le parcours de toutes les enchères page par page, en suivant le curseur renvoyé dans
+	 * l'en-tête X-Next-Cursor.
+	 *
+	 */
+	@Test
+	public void testListAuctionsWithCursor() throws Exception {
+		Set<Integer> seen = new HashSet<>();
+		String cursor = null;
+		for (int page = 0; page < 3; page++) {
+			MockHttpServletRequestBuilder request = get("/api/auctions").param("limit", "1")
+					.accept(MediaType.APPLICATION_JSON);
+			if (cursor != null) {
+				request.param("cursor", cursor);
+			}
+			MvcResult result = mockMvc.perform(request).andExpect(status().isOk())
+					.andExpect(jsonPath("$.length()").value(1)).andReturn();
+			seen.add(JsonPath.read(result.getResponse().getContentAsString(), "$[0].id"));
+			cursor = result.getResponse().getHeader("X-Next-Cursor");
+			if (page < 2) {
+				assertNotNull(cursor);
+			}
+		}
+		assertEquals(3, seen.size());
+		// Dernière page : aucun curseur n'est renvoyé
+		assertNull(cursor);
+	}
+
+	/**
+	 * Teste qu'un curseur invalide est refusé.
+	 *
+	 */
+	@Test
+	public void testListAuctionsWithInvalidCursor() throws Exception {
+		mockMvc.perform(get("/api/auctions").param("cursor", "invalide!")
+				.accept(MediaType.APPLICATION_JSON)).andExpect(status().isBadRequest());
+	}
+
 	/**
 	 * Teste la récupération de la liste des enchères créées par un utilisateur.
 	 *
@@ -412,6 +449,73 @@ public class AuctionApiControllerIntegrationTest extends AbstractIntegrationTest
 				.andExpect(jsonPath("$.length()").value(1));
 	}
 
+	/**
+	 * Teste la récupération des résumés des enchères créées par un utilisateur, avec les agrégats
+	 * de leurs offres.
+	 *
+	 */
+	@Test
+	public void testListAuctionSummariesByTraderId() throws Exception {
+		mockMvc.perform(get("/api/auctions").param("view", "summary")
+				.param("traderId", getProducerTestUser().getId().toString())
+				.accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(1))
+				.andExpect(jsonPath("$[0].id").value(getTestAuction().getId()))
+				.andExpect(jsonPath("$[0].status").value("Ouvert"))
+				.andExpect(jsonPath("$[0].productWeightKg").value(2000.0))
+				.andExpect(jsonPath("$[0].productQuality").value("WW160"))
+				.andExpect(jsonPath("$[0].region").value("sud"))
+				.andExpect(jsonPath("$[0].bestBidAmount").value(10.0))
+				.andExpect(jsonPath("$[0].bidCount").value(1))
+				.andExpect(jsonPath("$[0].lastBidDate").isNotEmpty())
+				.andExpect(jsonPath("$[0].bids").doesNotExist());
+	}
+
+	/**
+	 * Teste que les résumés suivent les offres placées et supprimées, via les colonnes
+	 * dénormalisées de l'enchère.
+	 */
+	@Test
+	public void testAuctionSummaryFollowsBids() throws Exception {
+		BidUpdateDto newBid = new BidUpdateDto();
+		newBid.setAmount(new BigDecimal("120.0"));
+		newBid.setCreationDate(LocalDateTime.now());
+		newBid.setTraderId(getProducerTestUser().getId());
+		newBid.setAuctionId(getTestAuction().getId());
+		mockMvc.perform(post("/api/bids").contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.valueToTree(newBid).toString()))
+				.andExpect(status().isCreated());
+
+		mockMvc.perform(get("/api/auctions").param("view", "summary")
+				.param("traderId", getProducerTestUser().getId().toString())
+				.accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].bestBidAmount").value(120.0))
+				.andExpect(jsonPath("$[0].bidCount").value(2));
+
+		mockMvc.perform(delete("/api/bids/" + getTestBid().getId()))
+				.andExpect(status().isNoContent());
+
+		mockMvc.perform(get("/api/auctions").param("view", "summary")
+				.param("traderId", getProducerTestUser().getId().toString())
+				.accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].bestBidAmount").value(120.0))
+				.andExpect(jsonPath("$[0].bidCount").value(1));
+	}
+
+	/**
+	 * Teste la récupération des résumés des enchères auxquelles un utilisateur a participé.
+	 *
+	 */
+	@Test
+	public void testListAuctionSummariesByBuyerId() throws Exception {
+		mockMvc.perform(get("/api/auctions").param("view", "summary")
+				.param("buyerId", getTransformerTestUser().getId().toString())
+				.param("status", "Accepté").param("limit", "5").accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk()).andExpect(jsonPath("$.length()").value(1))
+				.andExpect(jsonPath("$[0].bidCount").value(1))
+				.andExpect(jsonPath("$[0].bestBidAmount").value(500.0));
+	}
+
 	/**
 	 * Teste la mise à jour d'une enchère.
 	 *
@@ -443,11 +547,11 @@ public class AuctionApiControllerIntegrationTest extends AbstractIntegrationTest
 
 	/**
 	 * Teste la création d'une enchère suivie de sa mise à jour avec un changement de statut (vers
-	 * "Rejeté") et vérifie que : - le job Quartz est bien créé lors de la création de l'enchère, -
-	 * le job Quartz est supprimé après la mise à jour du statut.
+	 * "Rejeté") et vérifie que : - l'expiration est bien programmée lors de la création de
+	 * l'enchère, - l'enchère n'est plus clôturée par expiration après la mise à jour du statut.
 	 */
 	@Test
-	public void testCreateAuctionThenUpdateStatusAndCheckQuartzJobRemoval() throws Exception {
+	public void testCreateAuctionThenUpdateStatusAndCheckNoExpiry() throws Exception {
 		HarvestProduct product = harvestProductRepository.findById(getTestHarvestProduct().getId())
 				.orElseThrow(() -> new AssertionError("Produit non trouvé"));
 
@@ -479,10 +583,9 @@ public class AuctionApiControllerIntegrationTest extends AbstractIntegrationTest
 		Long auctionId = objectMapper.readTree(result.getResponse().getContentAsString()).get("id")
 				.asLong();
 
-		// Vérification du job Quartz
-		String jobKeyName = "auctionCloseJob-" + auctionId;
-		JobKey jobKey = new JobKey(jobKeyName, "auction-jobs");
-		assertTrue(scheduler.checkExists(jobKey), "Le job Quartz doit exister après la création.");
+		// Vérification de la programmation de l'expiration
+		assertTrue(auctionExpiryService.isScheduled(auctionId.intValue()),
+				"L'expiration doit être programmée après la création.");
 
 		AuctionUpdateDto updateAuction = new AuctionUpdateDto();
 		updateAuction.setPrice(999.99);
@@ -501,15 +604,17 @@ public class AuctionApiControllerIntegrationTest extends AbstractIntegrationTest
 				.content(jsonContent)).andExpect(status().isOk())
 				.andExpect(jsonPath("$.status.id").value(getTradeStatusRejected().getId()));
 
-		// Vérification que le job a été supprimé
-		assertFalse(scheduler.checkExists(jobKey),
-				"Le job Quartz doit être supprimé après le changement de statut.");
-
 		// Vérifie les poids liés au produit
 		product = harvestProductRepository.findById(getTestHarvestProduct().getId())
 				.orElseThrow(() -> new AssertionError("Produit non trouvé"));
 		assertEquals(INITIAL_WEIGHT, product.getWeightKg());
 		assertEquals(INITIAL_WEIGHT - AUCTION_WEIGHT, product.getWeightKgAvailable());
+
+		// Vérification qu'une enchère refusée n'est pas clôturée par expiration
+		expireNow(auctionId.intValue());
+		auctionExpiryService.sweep();
+		assertEquals(getTradeStatusRejected().getId(),
+				auctionRepository.findById(auctionId.intValue()).orElseThrow().getStatus().getId());
 	}
 
 	/**
@@ -545,12 +650,69 @@ public class AuctionApiControllerIntegrationTest extends AbstractIntegrationTest
 	}
 
 	/**
-	 * Teste la création d'une enchère suivie de son acceptation manuelle, et vérifie que : - le job
-	 * Quartz est bien créé après la création de l'enchère, - le job est supprimé après acceptation
-	 * de l'enchère, - le statut de l'enchère devient "Accepté".
+	 * Teste le refus d'accepter une enchère expirée entre-temps : son status n'est pas écrasé.
+	 */
+	@Test
+	public void testAcceptExpiredAuctionConflict() throws Exception {
+		auctionService.closeAuction(getTestAuction().getId());
+
+		mockMvc.perform(put("/api/auctions/" + getTestAuction().getId() + "/accept")
+				.contentType(MediaType.APPLICATION_JSON).content(""))
+				.andExpect(status().isConflict());
+		mockMvc.perform(get("/api/auctions/" + getTestAuction().getId()))
+				.andExpect(status().isOk()).andExpect(jsonPath("$.status.name").value("Expiré"));
+	}
+
+	/**
+	 * Teste que la clôture d'une enchère dont la quantité n'a pas été réservée ne porte pas la
+	 * quantité disponible du produit au-delà de sa quantité totale.
+	 */
+	@Test
+	public void testCloseAuctionRestoresCappedWeight() {
+		Integer productId = getTestAuction().getProduct().getId();
+		Product before = productRepository.findById(productId).orElseThrow();
+		assertEquals(before.getWeightKg(), before.getWeightKgAvailable());
+
+		auctionService.closeAuction(getTestAuction().getId());
+
+		Product after = productRepository.findById(productId).orElseThrow();
+		assertEquals(before.getWeightKg(), after.getWeightKgAvailable());
+	}
+
+	/**
+	 * Teste que l'enregistrement d'une copie périmée de l'enchère n'écrase pas les agrégats des
+	 * offres placées entre-temps.
+	 */
+	@Test
+	public void testSaveStaleAuctionKeepsBidTotals() throws Exception {
+		Auction stale = auctionRepository.findById(getTestAuction().getId()).orElseThrow();
+
+		BidUpdateDto newBid = new BidUpdateDto();
+		newBid.setAmount(new BigDecimal("100.0"));
+		newBid.setCreationDate(LocalDateTime.now());
+		newBid.setTraderId(getProducerTestUser().getId());
+		newBid.setAuctionId(getTestAuction().getId());
+		mockMvc.perform(post("/api/bids").contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.valueToTree(newBid).toString()))
+				.andExpect(status().isCreated());
+
+		stale.setPrice(600.0);
+		auctionRepository.save(stale);
+
+		Auction current = auctionRepository.findById(getTestAuction().getId()).orElseThrow();
+		assertEquals(600.0, current.getPrice());
+		assertEquals(2, current.getBidCount());
+		assertEquals(0, new BigDecimal("100.0").compareTo(current.getBestBidAmount()));
+		assertEquals(getProducerTestUser().getId(), current.getLastBidderId());
+	}
+
+	/**
+	 * Teste la création d'une enchère suivie de son acceptation manuelle, et vérifie que : -
+	 * l'expiration est bien programmée après la création de l'enchère, - le statut de l'enchère
+	 * devient "Accepté", - l'enchère acceptée n'est pas clôturée par expiration.
 	 */
 	@Test
-	public void testCreateThenAcceptAuctionAndCheckQuartzJobRemoval() throws Exception {
+	public void testCreateThenAcceptAuctionAndCheckNoExpiry() throws Exception {
 		AuctionOptionsUpdateDto optionsDto = new AuctionOptionsUpdateDto();
 		optionsDto.setStrategyId(getTestAuctionStrategy().getId());
 		optionsDto.setShowPublic(true);
@@ -574,18 +736,18 @@ public class AuctionApiControllerIntegrationTest extends AbstractIntegrationTest
 		Long auctionId = objectMapper.readTree(result.getResponse().getContentAsString()).get("id")
 				.asLong();
 
-		// Vérification que le job Quartz est bien créé
-		String jobKeyName = "auctionCloseJob-" + auctionId;
-		JobKey jobKey = new JobKey(jobKeyName, "auction-jobs");
-		assertTrue(scheduler.checkExists(jobKey), "Le job Quartz doit exister après la création.");
+		// Vérification de la programmation de l'expiration
+		assertTrue(auctionExpiryService.isScheduled(auctionId.intValue()),
+				"L'expiration doit être programmée après la création.");
 		mockMvc.perform(put("/api/auctions/" + auctionId + "/accept")
 				.contentType(MediaType.APPLICATION_JSON).content("")).andExpect(status().isOk())
 				.andExpect(jsonPath("$.productQuantity").value("11"))
 				.andExpect(jsonPath("$.status.name").value("Accepté"));
 
-		// Vérification que le job Quartz a été supprimé
-		assertFalse(scheduler.checkExists(jobKey),
-				"Le job Quartz doit être supprimé après l'acceptation de l'enchère.");
+		// Vérification qu'une enchère acceptée n'est pas clôturée par expiration
+		auctionExpiryService.sweep();
+		mockMvc.perform(get("/api/auctions/" + auctionId)).andExpect(status().isOk())
+				.andExpect(jsonPath("$.status.name").value("Accepté"));
 	}
 
 	/**
@@ -615,12 +777,12 @@ public class AuctionApiControllerIntegrationTest extends AbstractIntegrationTest
 	}
 
 	/**
-	 * Teste la création puis la suppression d'une enchère, et vérifie que : - le job Quartz de
-	 * clôture est bien créé après la création, - le job Quartz est supprimé après la suppression de
-	 * l'enchère, - l'enchère est bien marquée comme inactive (soft delete).
+	 * Teste la création puis la suppression d'une enchère, et vérifie que : - l'expiration est bien
+	 * programmée après la création, - l'enchère est bien marquée comme inactive (soft delete), -
+	 * l'enchère supprimée n'est pas clôturée par expiration.
 	 */
 	@Test
-	public void testCreateThenDeleteAuctionAndCheckQuartzJobRemoval() throws Exception {
+	public void testCreateThenDeleteAuctionAndCheckNoExpiry() throws Exception {
 		AuctionOptionsUpdateDto optionsDto = new AuctionOptionsUpdateDto();
 		optionsDto.setStrategyId(getTestAuctionStrategy().getId());
 		optionsDto.setShowPublic(true);
@@ -644,29 +806,30 @@ public class AuctionApiControllerIntegrationTest extends AbstractIntegrationTest
 		Long auctionId = objectMapper.readTree(result.getResponse().getContentAsString()).get("id")
 				.asLong();
 
-		// Vérification que le job Quartz est bien créé
-		String jobKeyName = "auctionCloseJob-" + auctionId;
-		JobKey jobKey = new JobKey(jobKeyName, "auction-jobs");
-		assertTrue(scheduler.checkExists(jobKey), "Le job Quartz doit exister après la création.");
+		// Vérification de la programmation de l'expiration
+		assertTrue(auctionExpiryService.isScheduled(auctionId.intValue()),
+				"L'expiration doit être programmée après la création.");
 
 		mockMvc.perform(delete("/api/auctions/" + auctionId)).andExpect(status().isNoContent());
 
-		// Vérification que le job Quartz a été supprimé
-		assertFalse(scheduler.checkExists(jobKey),
-				"Le job Quartz doit être supprimé après suppression de l'enchère.");
-
 		// Vérification que l'enchère est inactive (soft delete)
 		mockMvc.perform(get("/api/auctions/" + auctionId).accept(MediaType.APPLICATION_JSON))
 				.andExpect(status().isOk()).andExpect(jsonPath("$.active").value(false));
+
+		// Vérification qu'une enchère supprimée n'est pas clôturée par expiration
+		expireNow(auctionId.intValue());
+		auctionExpiryService.sweep();
+		mockMvc.perform(get("/api/auctions/" + auctionId)).andExpect(status().isOk())
+				.andExpect(jsonPath("$.status.name").value("Ouvert"));
 	}
 
 	/**
-	 * Teste la création d'une enchère avec expiration automatique rapide et vérifie que : - le job
-	 * Quartz est bien créé après la création, - le job est exécuté et supprimé automatiquement
-	 * après expiration, - l'enchère passe bien au statut "Expiré" après expiration.
+	 * Teste la création d'une enchère avec expiration automatique rapide et vérifie que : -
+	 * l'expiration est bien programmée après la création, - le balayage clôture l'enchère après
+	 * expiration, - l'enchère passe bien au statut "Expiré" et sa quantité est restituée.
 	 */
 	@Test
-	public void testCreateThenAutoCloseAuctionAndCheckQuartzJobRemovalSimple() throws Exception {
+	public void testCreateThenAutoCloseAuction() throws Exception {
 		HarvestProduct product = harvestProductRepository.findById(getTestHarvestProduct().getId())
 				.orElseThrow(() -> new AssertionError("Produit non trouvé"));
 
@@ -683,7 +846,7 @@ public class AuctionApiControllerIntegrationTest extends AbstractIntegrationTest
 		newAuction.setPrice(50.0);
 		newAuction.setProductQuantity(AUCTION_WEIGHT);
 		newAuction.setActive(true);
-		newAuction.setExpirationDate(LocalDateTime.now().plusSeconds(5)); // auto-close rapide
+		newAuction.setExpirationDate(LocalDateTime.now().plusSeconds(1)); // auto-close rapide
 		newAuction.setProductId(getTestHarvestProduct().getId());
 		newAuction.setTraderId(getProducerTestUser().getId());
 
@@ -696,11 +859,11 @@ public class AuctionApiControllerIntegrationTest extends AbstractIntegrationTest
 
 		Long auctionId = objectMapper.readTree(result.getResponse().getContentAsString()).get("id")
 				.asLong();
-		JobKey jobKey = new JobKey("auctionCloseJob-" + auctionId, "auction-jobs");
+		assertTrue(auctionExpiryService.isScheduled(auctionId.intValue()),
+				"L'expiration doit être programmée après création.");
 
-		assertTrue(scheduler.checkExists(jobKey), "Le job Quartz doit exister après création.");
-
-		Thread.sleep(11000);
+		Thread.sleep(1500);
+		auctionExpiryService.sweep();
 
 		MvcResult closedResult = mockMvc.perform(get("/api/auctions/" + auctionId))
 				.andExpect(status().isOk()).andReturn();
@@ -709,13 +872,50 @@ public class AuctionApiControllerIntegrationTest extends AbstractIntegrationTest
 				.get("status").get("name").asText();
 
 		assertEquals("Expiré", statusName, "Le statut de l'enchère doit être 'Expiré'.");
-		assertFalse(scheduler.checkExists(jobKey),
-				"Le job Quartz doit être supprimé après clôture.");
+		assertEquals(0, auctionExpiryService.sweep(),
+				"Une enchère ne doit être clôturée qu'une fois.");
 
-		// Vérifie les poids liés au produit
+		// Vérifie les poids liés au produit : la quantité réservée par l'enchère est restituée,
+		// celle de l'enchère de test (jamais réservée) n'est pas ajoutée au stock
 		product = harvestProductRepository.findById(getTestHarvestProduct().getId())
 				.orElseThrow(() -> new AssertionError("Produit non trouvé"));
 		assertEquals(INITIAL_WEIGHT, product.getWeightKg());
 		assertEquals(INITIAL_WEIGHT, product.getWeightKgAvailable());
 	}
+
+	/**
+	 * Teste le balayage des enchères expirées par lots : seules les enchères ouvertes et actives
+	 * sont clôturées, et leurs quantités sont restituées aux produits.
+	 */
+	@Test
+	public void testSweepClosesExpiredAuctionsInBatches() throws Exception {
+		Product product = productRepository.findById(getTestTransformedProduct().getId())
+				.orElseThrow(() -> new AssertionError("Produit non trouvé"));
+		final double INITIAL_WEIGHT_AVAILABLE = product.getWeightKgAvailable();
+
+		// Enchères de test expirées : 1 enchère sur le produit récolté, 2 sur le produit transformé
+		assertEquals(1, auctionService.closeExpiredAuctions(1));
+		assertEquals(2, auctionService.closeExpiredAuctions(10));
+		assertEquals(0, auctionService.closeExpiredAuctions(10));
+
+		mockMvc.perform(get("/api/auctions/" + getTestAuction().getId()))
+				.andExpect(status().isOk()).andExpect(jsonPath("$.status.name").value("Expiré"));
+		mockMvc.perform(get("/api/auctions/" + getTestAuctionByTransformer().getId()))
+				.andExpect(status().isOk()).andExpect(jsonPath("$.status.name").value("Expiré"));
+
+		// Les quantités des deux enchères du produit transformé sont cumulées, sans dépasser la
+		// quantité totale du produit
+		product = productRepository.findById(getTestTransformedProduct().getId())
+				.orElseThrow(() -> new AssertionError("Produit non trouvé"));
+		assertEquals(Math.min(product.getWeightKg(), INITIAL_WEIGHT_AVAILABLE + 1000 + 777),
+				product.getWeightKgAvailable());
+		assertTrue(product.getWeightKgAvailable() <= product.getWeightKg());
+	}
+
+	// Place la date d'expiration d'une enchère dans le passé, sans passer par l'API
+	private void expireNow(Integer auctionId) {
+		Auction auction = auctionRepository.findById(auctionId).orElseThrow();
+		auction.setExpirationDate(LocalDateTime.now().minusSeconds(1));
+		auctionRepository.save(auction);
+	}
 }
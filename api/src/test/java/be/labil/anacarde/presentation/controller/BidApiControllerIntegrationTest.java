@@ -1,21 +1,35 @@
 package be.labil.anacarde.presentation.controller;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import be.labil.anacarde.application.service.AuctionOrderBookService;
 import be.labil.anacarde.application.service.GlobalSettingsService;
 import be.labil.anacarde.domain.dto.write.BidUpdateDto;
 import be.labil.anacarde.domain.dto.write.GlobalSettingsUpdateDto;
 import be.labil.anacarde.domain.model.Bid;
+import be.labil.anacarde.domain.model.Trader;
 import be.labil.anacarde.infrastructure.persistence.BidRepository;
+import be.labil.anacarde.infrastructure.util.KeysetCursor;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManagerFactory;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MvcResult;
 
 /** Tests d'intégration pour le contrôleur des offres. */
 public class BidApiControllerIntegrationTest extends AbstractIntegrationTest {
@@ -23,6 +37,9 @@ public class BidApiControllerIntegrationTest extends AbstractIntegrationTest {
 	private @Autowired ObjectMapper objectMapper;
 	private @Autowired BidRepository bidRepository;
 	private @Autowired GlobalSettingsService globalSettingsService;
+	private @Autowired EntityManagerFactory entityManagerFactory;
+	private @Autowired AuctionOrderBookService auctionOrderBookService;
+	private @Autowired JdbcTemplate jdbcTemplate;
 
 	/**
 	 * Teste la récupération d'une offre existant.
@@ -125,6 +142,145 @@ public class BidApiControllerIntegrationTest extends AbstractIntegrationTest {
 				.andExpect(status().is4xxClientError());
 	}
 
+	/**
+	 * Teste qu'une offre validée est prise en compte par le carnet d'ordres pour les offres
+	 * suivantes.
+	 *
+	 */
+	@Test
+	public void testCreateBidFailOnForceBetterBidAfterNewBid() throws Exception {
+		GlobalSettingsUpdateDto globalSettingsUpdateDto = new GlobalSettingsUpdateDto();
+		globalSettingsUpdateDto.setForceBetterBids(true);
+		globalSettingsUpdateDto.setDefaultMinPriceKg(BigDecimal.valueOf(1));
+		globalSettingsUpdateDto.setDefaultMaxPriceKg(BigDecimal.valueOf(1000000000));
+		globalSettingsUpdateDto.setMinIncrement(1);
+		globalSettingsUpdateDto.setShowOnlyActive(false);
+		globalSettingsService.updateGlobalSettings(globalSettingsUpdateDto);
+
+		BidUpdateDto firstBid = new BidUpdateDto();
+		firstBid.setAmount(new BigDecimal("100.0"));
+		firstBid.setCreationDate(LocalDateTime.now());
+		firstBid.setTraderId(getProducerTestUser().getId());
+		firstBid.setAuctionId(getTestAuction().getId());
+
+		mockMvc.perform(post("/api/bids").contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.valueToTree(firstBid).toString()))
+				.andExpect(status().isCreated());
+
+		BidUpdateDto lowerBid = new BidUpdateDto();
+		lowerBid.setAmount(new BigDecimal("50.0")); // plus haut que l'offre initiale, trop bas
+		lowerBid.setCreationDate(LocalDateTime.now());
+		lowerBid.setTraderId(getTransformerTestUser().getId());
+		lowerBid.setAuctionId(getTestAuction().getId());
+
+		mockMvc.perform(post("/api/bids").contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.valueToTree(lowerBid).toString()))
+				.andExpect(status().is4xxClientError());
+	}
+
+	/**
+	 * Teste le rejet d'une offre lorsqu'une meilleure offre a été enregistrée sur l'enchère par une
+	 * autre instance, sans être connue du carnet d'ordres local.
+	 */
+	@Test
+	public void testCreateBidConflictOnConcurrentBetterBid() throws Exception {
+		GlobalSettingsUpdateDto globalSettingsUpdateDto = new GlobalSettingsUpdateDto();
+		globalSettingsUpdateDto.setForceBetterBids(true);
+		globalSettingsUpdateDto.setDefaultMinPriceKg(BigDecimal.valueOf(1));
+		globalSettingsUpdateDto.setDefaultMaxPriceKg(BigDecimal.valueOf(1000000000));
+		globalSettingsUpdateDto.setMinIncrement(1);
+		globalSettingsUpdateDto.setShowOnlyActive(false);
+		globalSettingsService.updateGlobalSettings(globalSettingsUpdateDto);
+
+		// Carnet local chargé avant l'offre de l'autre instance
+		auctionOrderBookService.getOrderBook(getTestAuction().getId());
+		// Agrégats écrits uniquement par des mises à jour conditionnelles, jamais par l'entité
+		jdbcTemplate.update("UPDATE auction SET best_bid_amount = 5000.0 WHERE id = ?",
+				getTestAuction().getId());
+
+		BidUpdateDto newBid = new BidUpdateDto();
+		newBid.setAmount(new BigDecimal("100.0"));
+		newBid.setCreationDate(LocalDateTime.now());
+		newBid.setTraderId(getProducerTestUser().getId());
+		newBid.setAuctionId(getTestAuction().getId());
+
+		mockMvc.perform(post("/api/bids").contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.valueToTree(newBid).toString()))
+				.andExpect(status().isConflict());
+	}
+
+	/**
+	 * Teste le rejet d'une offre sur une enchère dont une offre a été acceptée par une autre
+	 * instance, sans être connue du carnet d'ordres local.
+	 */
+	@Test
+	public void testCreateBidConflictOnConcurrentAcceptedBid() throws Exception {
+		auctionOrderBookService.getOrderBook(getTestAuction().getId());
+		jdbcTemplate.update("UPDATE auction SET accepted_bid_id = ? WHERE id = ?",
+				getTestBid().getId(), getTestAuction().getId());
+
+		BidUpdateDto newBid = new BidUpdateDto();
+		newBid.setAmount(new BigDecimal("100.0"));
+		newBid.setCreationDate(LocalDateTime.now());
+		newBid.setTraderId(getProducerTestUser().getId());
+		newBid.setAuctionId(getTestAuction().getId());
+
+		mockMvc.perform(post("/api/bids").contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.valueToTree(newBid).toString()))
+				.andExpect(status().isConflict());
+	}
+
+	/**
+	 * Teste le rejet d'une seconde offre consécutive du même trader, lorsque sa première offre a
+	 * été enregistrée par une autre instance sans être connue du carnet d'ordres local.
+	 */
+	@Test
+	public void testCreateBidConflictOnConsecutiveBidFromSameTrader() throws Exception {
+		auctionOrderBookService.getOrderBook(getTestAuction().getId());
+		jdbcTemplate.update("UPDATE auction SET last_bidder_id = ? WHERE id = ?",
+				getProducerTestUser().getId(), getTestAuction().getId());
+
+		BidUpdateDto newBid = new BidUpdateDto();
+		newBid.setAmount(new BigDecimal("100.0"));
+		newBid.setCreationDate(LocalDateTime.now());
+		newBid.setTraderId(getProducerTestUser().getId());
+		newBid.setAuctionId(getTestAuction().getId());
+
+		mockMvc.perform(post("/api/bids").contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.valueToTree(newBid).toString()))
+				.andExpect(status().isConflict());
+	}
+
+	/**
+	 * Teste l'invalidation du carnet d'ordres par un autre nœud : le carnet est reconstruit depuis
+	 * la base de données, tandis que les invalidations publiées par ce nœud lui-même sont ignorées.
+	 */
+	@Test
+	public void testOrderBookInvalidatedByOtherNodeOnly() {
+		Integer auctionId = getTestAuction().getId();
+		assertThat(auctionOrderBookService.getOrderBook(auctionId).bestAmount())
+				.isEqualByComparingTo("10.0");
+
+		// Offre enregistrée par un autre nœud, inconnue du carnet local
+		bidRepository.save(Bid.builder().amount(new BigDecimal("777.0"))
+				.creationDate(LocalDateTime.now()).auctionId(auctionId)
+				.trader((Trader) getProducerTestUser())
+				.status(getTestTradeStatus()).build());
+		jdbcTemplate.update("UPDATE auction SET best_bid_amount = 777.0, bid_count = 2, "
+				+ "last_bidder_id = ? WHERE id = ?", getProducerTestUser().getId(), auctionId);
+
+		String nodeId = (String) ReflectionTestUtils.getField(auctionOrderBookService, "nodeId");
+		auctionOrderBookService.onInvalidation(nodeId + ":" + auctionId);
+		assertThat(auctionOrderBookService.getOrderBook(auctionId).bestAmount())
+				.isEqualByComparingTo("10.0");
+
+		auctionOrderBookService.onInvalidation("autre-noeud:" + auctionId);
+		AuctionOrderBookService.OrderBook book = auctionOrderBookService.getOrderBook(auctionId);
+		assertThat(book.bestAmount()).isEqualByComparingTo("777.0");
+		assertThat(book.lastBidderId()).isEqualTo(getProducerTestUser().getId());
+		assertThat(book.bidCount()).isEqualTo(2);
+	}
+
 	/**
 	 * Teste la création d'une nouvelle enchère, avec un status par défaut.
 	 *
@@ -190,6 +346,55 @@ public class BidApiControllerIntegrationTest extends AbstractIntegrationTest {
 				.andExpect(status().isOk()).andExpect(jsonPath("$.amount").value("1234567.01"));
 	}
 
+	/**
+	 * Teste la pagination par curseur de la liste des offres.
+	 *
+	 */
+	@Test
+	public void testListBidsWithCursor() throws Exception {
+		MvcResult first = mockMvc
+				.perform(get("/api/bids").param("limit", "1").accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk()).andExpect(jsonPath("$.length()").value(1))
+				.andExpect(header().exists("X-Next-Cursor")).andReturn();
+		Integer firstId = JsonPath.read(first.getResponse().getContentAsString(), "$[0].id");
+
+		mockMvc.perform(get("/api/bids").param("limit", "1")
+				.param("cursor", first.getResponse().getHeader("X-Next-Cursor"))
+				.accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(1))
+				.andExpect(jsonPath("$[0].id").value(not(firstId)))
+				.andExpect(header().doesNotExist("X-Next-Cursor"));
+	}
+
+	/**
+	 * Teste que, sans limite ni curseur, toutes les offres sont retournées, et que la taille par
+	 * défaut ne s'applique qu'à la suite d'un parcours par curseur.
+	 */
+	@Test
+	public void testListBidsWithoutLimitReturnsAll() throws Exception {
+		Integer auctionId = getTestAuction().getId();
+		List<Bid> bids = new ArrayList<>();
+		for (int i = 0; i < 60; i++) {
+			bids.add(Bid.builder().amount(new BigDecimal(100 + i))
+					.creationDate(LocalDateTime.now()).auctionId(auctionId)
+					.trader((Trader) getProducerTestUser()).status(getTestTradeStatus()).build());
+		}
+		bidRepository.saveAll(bids);
+
+		mockMvc.perform(get("/api/bids").param("auctionId", auctionId.toString())
+				.accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(61))
+				.andExpect(header().doesNotExist("X-Next-Cursor"));
+
+		MvcResult first = mockMvc.perform(get("/api/bids").param("auctionId", auctionId.toString())
+				.param("limit", "1").accept(MediaType.APPLICATION_JSON)).andReturn();
+		mockMvc.perform(get("/api/bids").param("auctionId", auctionId.toString())
+				.param("cursor", first.getResponse().getHeader("X-Next-Cursor"))
+				.accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk())
+				.andExpect(jsonPath("$.length()").value(KeysetCursor.DEFAULT_PAGE_SIZE))
+				.andExpect(header().exists("X-Next-Cursor"));
+	}
+
 	/**
 	 * Teste l'acceptation d'une offre.
 	 *
@@ -204,6 +409,39 @@ public class BidApiControllerIntegrationTest extends AbstractIntegrationTest {
 				.andExpect(jsonPath("$.status.name").value("Accepté"));
 	}
 
+	/**
+	 * Teste que l'acceptation d'une offre refuse les autres offres de l'enchère avec un nombre de
+	 * requêtes indépendant du nombre d'offres.
+	 *
+	 */
+	@Test
+	public void testAcceptBidRejectsOtherBidsWithConstantStatementCount() throws Exception {
+		Bid winner = getTestBid();
+		for (int i = 0; i < 50; i++) {
+			bidRepository.save(Bid.builder().amount(new BigDecimal(20 + i))
+					.creationDate(LocalDateTime.now()).auctionId(winner.getAuctionId())
+					.trader(winner.getTrader()).status(winner.getStatus()).build());
+		}
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+		statistics.clear();
+		try {
+			mockMvc.perform(put("/api/bids/" + winner.getId() + "/accept")
+					.contentType(MediaType.APPLICATION_JSON).content(""))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$.status.name").value("Accepté"));
+			assertThat(statistics.getPrepareStatementCount()).isPositive().isLessThan(15);
+		} finally {
+			statistics.setStatisticsEnabled(false);
+		}
+
+		List<Bid> bids = bidRepository.findByAuctionId(winner.getAuctionId());
+		assertThat(bids).hasSize(51);
+		assertThat(bids).allSatisfy(bid -> assertThat(bid.getStatus().getName())
+				.isEqualTo(bid.getId().equals(winner.getId()) ? "Accepté" : "Refusé"));
+	}
+
 	/**
 	 * Teste la double acceptation d'une offre.
 	 *
@@ -0,0 +1,111 @@
+package be.labil.anacarde.presentation.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import be.labil.anacarde.domain.model.Auction;
+import be.labil.anacarde.domain.model.Bid;
+import be.labil.anacarde.domain.model.Producer;
+import be.labil.anacarde.domain.model.Store;
+import be.labil.anacarde.domain.model.User;
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Tests d'intégration du peuplement volumineux et du vidage de la base par TRUNCATE, à petite
+ * échelle sur H2 (blocs de 7 lignes pour exercer le découpage parallèle).
+ */
+@TestPropertySource(properties = {"app.init.bulk.producers=5", "app.init.bulk.buyers=3",
+		"app.init.bulk.auctions=40", "app.init.bulk.bids=300", "app.init.bulk.batch-size=7",
+		"app.init.bulk.parallelism=3"})
+public class BulkDataSeederIntegrationTest extends AbstractIntegrationTest {
+
+	private static final String BULK_DOMAIN = "@bulk.anacarde.local";
+
+	/** Les volumes demandés sont écrits et les agrégats de chaque enchère sont cohérents. */
+	@Test
+	public void testSeedWritesConsistentAuctionsAndBids() throws Exception {
+		long users = userRepository.count();
+		long auctions = auctionRepository.count();
+		long bids = bidRepository.count();
+
+		databaseService.seedBulkData();
+
+		assertEquals(users + 8, userRepository.count());
+		assertEquals(auctions + 40, auctionRepository.count());
+		assertEquals(bids + 300, bidRepository.count());
+
+		List<Auction> seeded = seededAuctions();
+		assertEquals(40, seeded.size());
+		for (Auction auction : seeded) {
+			List<Bid> auctionBids = auction.getBids().stream()
+					.sorted(Comparator.comparing(Bid::getId)).toList();
+			assertTrue(auctionBids.size() == 7 || auctionBids.size() == 8);
+			assertEquals(auctionBids.size(), auction.getBidCount());
+			Bid last = auctionBids.getLast();
+			assertEquals(0, last.getAmount().compareTo(auction.getBestBidAmount()));
+			assertEquals(last.getTrader().getId(), auction.getLastBidderId());
+			assertEquals(auctionBids.stream().map(Bid::getAmount).max(BigDecimal::compareTo)
+					.orElseThrow(), last.getAmount());
+			assertNotEquals(auction.getTrader().getId(), last.getTrader().getId());
+			assertTrue(auction.getActive());
+			for (int k = 1; k < auctionBids.size(); k++) {
+				assertNotEquals(auctionBids.get(k - 1).getTrader().getId(),
+						auctionBids.get(k).getTrader().getId());
+			}
+		}
+
+		mockMvc.perform(get("/api/auctions/" + seeded.getFirst().getId()))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.bids.length()").value(seeded.getFirst().getBidCount()));
+	}
+
+	/** Les identifiants réservés ne sont pas réattribués par Hibernate après le peuplement. */
+	@Test
+	public void testSequencesAreAdvancedPastSeededIds() {
+		databaseService.seedBulkData();
+		long stores = storeRepository.count();
+
+		// Une collision de clé primaire ferait échouer l'insertion
+		storeRepository.saveAndFlush(Store.builder().name("Nouveau magasin")
+				.address(getMainTestStore().getAddress()).user(getProducerTestUser()).build());
+		assertEquals(stores + 1, storeRepository.count());
+	}
+
+	/** Une même graine produit les mêmes données, et le vidage supprime tout. */
+	@Test
+	public void testSeedIsDeterministicAndDropTruncatesEverything() throws Exception {
+		databaseService.seedBulkData();
+		List<String> first = seededProducers();
+
+		databaseService.dropDatabase();
+		assertEquals(0, userRepository.count());
+		assertEquals(0, auctionRepository.count());
+		assertEquals(0, bidRepository.count());
+		assertEquals(0, languageRepository.count());
+
+		setUp();
+		databaseService.seedBulkData();
+		assertEquals(5, first.size());
+		assertEquals(first, seededProducers());
+	}
+
+	private List<Auction> seededAuctions() {
+		return auctionRepository.findAll().stream()
+				.filter(a -> a.getTrader().getEmail().endsWith(BULK_DOMAIN)).toList();
+	}
+
+	private List<String> seededProducers() {
+		return userRepository.findAll().stream()
+				.filter(u -> u instanceof Producer && u.getEmail().endsWith(BULK_DOMAIN))
+				.sorted(Comparator.comparing(User::getEmail))
+				.map(u -> u.getEmail() + " " + u.getFirstName() + " " + u.getLastName()
+						+ " " + ((Producer) u).getAgriculturalIdentifier())
+				.toList();
+	}
+}
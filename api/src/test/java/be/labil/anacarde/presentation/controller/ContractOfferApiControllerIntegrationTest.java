@@ -1,11 +1,13 @@
 package be.labil.anacarde.presentation.controller;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import be.labil.anacarde.domain.dto.write.ContractOfferUpdateDto;
 import be.labil.anacarde.domain.model.ContractOffer;
+import be.labil.anacarde.domain.model.ContractOfferStatus;
 import be.labil.anacarde.infrastructure.persistence.ContractOfferRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
@@ -145,7 +147,7 @@ public class ContractOfferApiControllerIntegrationTest extends AbstractIntegrati
 		updateContractOffer.setSellerId(producerId);
 		updateContractOffer.setBuyerId(transformerId);
 		updateContractOffer.setQualityId(qualityId);
-		updateContractOffer.setStatus("Refused");
+		updateContractOffer.setStatus("Refusé");
 		updateContractOffer.setPricePerKg(new BigDecimal("555.55"));
 		updateContractOffer.setCreationDate(LocalDateTime.now());
 		updateContractOffer.setEndDate(LocalDateTime.now());
@@ -155,7 +157,7 @@ public class ContractOfferApiControllerIntegrationTest extends AbstractIntegrati
 
 		mockMvc.perform(put("/api/contracts/" + getMainTestContractOffer().getId())
 				.contentType(MediaType.APPLICATION_JSON).content(jsonContent))
-				.andExpect(status().isOk()).andExpect(jsonPath("$.status").value("Refused"));
+				.andExpect(status().isOk()).andExpect(jsonPath("$.status").value("Refusé"));
 	}
 
 	/**
@@ -176,6 +178,29 @@ public class ContractOfferApiControllerIntegrationTest extends AbstractIntegrati
 				.andExpect(jsonPath("$.buyer.id").value(getTransformerTestUser().getId()));
 	}
 
+	/**
+	 * Teste que l'acceptation d'une offre de contrat refuse les autres offres portant sur la même
+	 * qualité, le même vendeur et le même acheteur.
+	 */
+	@Test
+	public void testAcceptContractOfferRejectsCompetingOffers() throws Exception {
+		ContractOffer main = getMainTestContractOffer();
+		ContractOffer competing = contractOfferRepository.save(ContractOffer.builder()
+				.status(ContractOfferStatus.OPEN).pricePerKg(new BigDecimal("25.0"))
+				.creationDate(LocalDateTime.now()).endDate(LocalDateTime.now().plusDays(1))
+				.seller(main.getSeller()).buyer(main.getBuyer()).quality(main.getQuality())
+				.build());
+
+		mockMvc.perform(put("/api/contracts/" + competing.getId() + "/accept")
+				.accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk())
+				.andExpect(jsonPath("$.status").value("Accepté"));
+
+		assertThat(contractOfferRepository.findById(main.getId()).orElseThrow().getStatus())
+				.isEqualTo(ContractOfferStatus.REJECTED);
+		assertThat(contractOfferRepository.findById(competing.getId()).orElseThrow().getStatus())
+				.isEqualTo(ContractOfferStatus.ACCEPTED);
+	}
+
 	/**
 	 * Teste le rejet d'une offre de contrat via l'endpoint PUT /{contractOfferId}/reject. Vérifie
 	 * que le statut est bien mis à jour en "Rejected" et que les données retournées sont correctes.
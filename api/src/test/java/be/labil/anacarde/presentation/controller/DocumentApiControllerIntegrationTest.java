@@ -2,31 +2,49 @@ package be.labil.anacarde.presentation.controller;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import be.labil.anacarde.application.service.storage.BlobReferenceService;
+import be.labil.anacarde.application.service.storage.StorageService;
+import be.labil.anacarde.domain.model.Document;
 import com.jayway.jsonpath.JsonPath;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.*;
 import java.time.format.DateTimeFormatter;
 import java.util.Comparator;
+import java.util.List;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Tests d’intégration pour le contrôleur des documents.
  */
-@TestPropertySource(properties = {"storage.disk.root=build/test-uploads"})
+@TestPropertySource(properties = {"storage.disk.root=build/test-uploads",
+		"app.storage.stream.max-file-size=64KB"})
 public class DocumentApiControllerIntegrationTest extends AbstractIntegrationTest {
 
+	@Autowired
+	private BlobReferenceService blobReferenceService;
+	@Autowired
+	private StorageService storageService;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
 	@AfterEach
 	public void cleanUploadDir() {
 		Path uploadDir = Paths.get("build/test-uploads");
@@ -149,4 +167,220 @@ public class DocumentApiControllerIntegrationTest extends AbstractIntegrationTes
 				.andExpect(content().bytes(content));
 	}
 
+	/** Teste les téléchargements conditionnels et partiels d'un document */
+	@Test
+	public void testDownloadDocumentConditionalAndRange() throws Exception {
+		byte[] content = "Hello World".getBytes();
+		MockMultipartFile filePart = new MockMultipartFile("file", "attestation.pdf",
+				"application/pdf", content);
+		MvcResult result = mockMvc
+				.perform(multipart("/api/documents/quality-controls/{qualityControlId}",
+						getMainTestQualityControl().getId()).file(filePart)
+						.characterEncoding("UTF-8").accept(MediaType.APPLICATION_JSON)
+						.with(user(getProducerTestUser())))
+				.andExpect(status().isCreated())
+				.andExpect(jsonPath("$.contentHash").value(
+						"a591a6d40bf420404a011733cfb7b190d62c65bf0bcda32b57b277d9ad9f146e"))
+				.andReturn();
+		Integer documentId = JsonPath.read(result.getResponse().getContentAsString(), "$.id");
+
+		String eTag = mockMvc
+				.perform(get("/api/documents/{id}/download", documentId)
+						.with(user(getProducerTestUser())))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_LENGTH, "11"))
+				.andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+				.andExpect(header().exists(HttpHeaders.LAST_MODIFIED)).andReturn().getResponse()
+				.getHeader(HttpHeaders.ETAG);
+
+		// Document inchangé : rien n'est renvoyé
+		mockMvc.perform(get("/api/documents/{id}/download", documentId)
+				.with(user(getProducerTestUser())).header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isNotModified()).andExpect(content().bytes(new byte[0]));
+
+		// Reprise d'un téléchargement interrompu
+		mockMvc.perform(get("/api/documents/{id}/download", documentId)
+				.with(user(getProducerTestUser())).header(HttpHeaders.RANGE, "bytes=6-"))
+				.andExpect(status().isPartialContent())
+				.andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 6-10/11"))
+				.andExpect(content().bytes("World".getBytes()));
+	}
+
+	/** Teste le partage d'un contenu identique entre documents et sa suppression */
+	@Test
+	public void testIdenticalUploadsShareStoredContent() throws Exception {
+		byte[] content = "Certificat".getBytes();
+		Integer firstId = uploadUserDocument("certificat.pdf", content);
+		Integer secondId = uploadUserDocument("copie.pdf", content);
+		String storagePath = documentRepository.findById(firstId).orElseThrow()
+				.getStoragePath();
+		assertEquals(storagePath,
+				documentRepository.findById(secondId).orElseThrow().getStoragePath());
+
+		// Le contenu reste stocké tant qu'un document le référence
+		mockMvc.perform(delete("/api/documents/{id}", firstId).with(user(getProducerTestUser())))
+				.andExpect(status().isNoContent());
+		assertEquals(0, blobReferenceService.collectUnreferenced());
+		assertTrue(Files.exists(Paths.get(storagePath)));
+
+		mockMvc.perform(delete("/api/documents/{id}", secondId).with(user(getProducerTestUser())))
+				.andExpect(status().isNoContent());
+		assertEquals(1, blobReferenceService.collectUnreferenced());
+		assertFalse(Files.exists(Paths.get(storagePath)));
+	}
+
+	/** Teste la suppression du contenu écrit par une transaction annulée */
+	@Test
+	public void testRolledBackUploadDiscardsStoredContent() throws Exception {
+		byte[] content = "Brouillon".getBytes();
+		MockMultipartFile file = new MockMultipartFile("file", "brouillon.pdf",
+				"application/pdf", content);
+		String storagePath = new TransactionTemplate(transactionManager).execute(status -> {
+			Document document = storageService
+					.storeAll(getProducerTestUser(), List.of(file)).getFirst();
+			assertTrue(Files.exists(Paths.get(document.getStoragePath())));
+			status.setRollbackOnly();
+			return document.getStoragePath();
+		});
+
+		assertFalse(Files.exists(Paths.get(storagePath)));
+		assertEquals(0, blobReferenceService.collectUnreferenced());
+
+		// Un contenu déjà référencé par un document validé est conservé
+		Integer documentId = uploadUserDocument("brouillon.pdf", content);
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			storageService.storeAll(getProducerTestUser(), List.of(file));
+			status.setRollbackOnly();
+		});
+		assertTrue(Files.exists(Paths.get(
+				documentRepository.findById(documentId).orElseThrow().getStoragePath())));
+	}
+
+	private Integer uploadUserDocument(String filename, byte[] content) throws Exception {
+		MockMultipartFile filePart = new MockMultipartFile("file", filename, "application/pdf",
+				content);
+		MvcResult result = mockMvc
+				.perform(multipart("/api/documents/users/{userId}", getProducerTestUser().getId())
+						.file(filePart).with(user(getProducerTestUser())))
+				.andExpect(status().isCreated()).andReturn();
+		return JsonPath.read(result.getResponse().getContentAsString(), "$.id");
+	}
+
+	@Test
+	public void testCreateDocumentUserStream() throws Exception {
+		// Signature PNG : le type est détecté sur le contenu
+		byte[] content = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n', 0, 0, 0, 0x0d};
+		MvcResult result = mockMvc
+				.perform(post("/api/documents/users/{userId}/stream", getProducerTestUser().getId())
+						.param("filename", "photo.png")
+						.contentType(MediaType.APPLICATION_OCTET_STREAM).content(content)
+						.with(user(getProducerTestUser())))
+				.andExpect(status().isCreated())
+				.andExpect(header().string(HttpHeaders.LOCATION, containsString("/api/documents/")))
+				.andExpect(jsonPath("$.originalFilename").value("photo.png"))
+				.andExpect(jsonPath("$.contentType").value("image/png"))
+				.andExpect(jsonPath("$.extension").value("png"))
+				.andExpect(jsonPath("$.size").value(content.length))
+				.andExpect(jsonPath("$.storagePath").value(startsWith("build/test-uploads/")))
+				.andReturn();
+		Integer documentId = JsonPath.read(result.getResponse().getContentAsString(), "$.id");
+
+		mockMvc.perform(
+				get("/api/documents/{id}/download", documentId).with(user(getProducerTestUser())))
+				.andExpect(status().isOk()).andExpect(content().bytes(content));
+
+		// Aucun fichier temporaire ne subsiste après l'envoi
+		try (Stream<Path> uploads = Files.list(Paths.get("build/test-uploads/tmp"))) {
+			assertEquals(0, uploads.count());
+		}
+	}
+
+	@Test
+	public void testCreateDocumentQualityControlStream() throws Exception {
+		mockMvc.perform(post("/api/documents/quality-controls/{qualityControlId}/stream",
+				getMainTestQualityControl().getId()).param("filename", "rapport.txt")
+				.contentType(MediaType.TEXT_PLAIN).content("Hello World")
+				.with(user(getProducerTestUser()))).andExpect(status().isCreated())
+				.andExpect(jsonPath("$.contentType").value("text/plain"))
+				.andExpect(jsonPath("$.contentHash").value(
+						"a591a6d40bf420404a011733cfb7b190d62c65bf0bcda32b57b277d9ad9f146e"));
+	}
+
+	@Test
+	public void testCreateDocumentStreamRejected() throws Exception {
+		mockMvc.perform(post("/api/documents/users/{userId}/stream", getProducerTestUser().getId())
+				.param("filename", "vide.pdf").contentType(MediaType.APPLICATION_PDF)
+				.content(new byte[0]).with(user(getProducerTestUser())))
+				.andExpect(status().isBadRequest());
+
+		mockMvc.perform(post("/api/documents/users/{userId}/stream", getProducerTestUser().getId())
+				.param("filename", "archive.zip").contentType(MediaType.APPLICATION_OCTET_STREAM)
+				.content(new byte[64 * 1024 + 1]).with(user(getProducerTestUser())))
+				.andExpect(status().isPayloadTooLarge());
+	}
+
+	@Test
+	public void testDirectUploadUnavailableOnDisk() throws Exception {
+		String body = """
+				{"originalFilename":"attestation.pdf","contentType":"application/pdf","size":11,
+				"contentHash":"a591a6d40bf420404a011733cfb7b190d62c65bf0bcda32b57b277d9ad9f146e"}
+				""";
+		// Le stockage disque n'émet pas d'URL signées : les fichiers transitent par l'API
+		mockMvc.perform(post("/api/documents/users/{userId}/direct-uploads",
+				getProducerTestUser().getId()).contentType(MediaType.APPLICATION_JSON)
+				.content(body).with(user(getProducerTestUser())))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(
+				post("/api/documents/quality-controls/{qualityControlId}/direct-uploads/complete",
+						getMainTestQualityControl().getId())
+						.contentType(MediaType.APPLICATION_JSON).content(body)
+						.with(user(getProducerTestUser())))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	public void testDirectUploadAlreadyStoredOnlyForOwner() throws Exception {
+		mockMvc.perform(post("/api/documents/users/{userId}/stream", getProducerTestUser().getId())
+				.param("filename", "bonjour.txt").contentType(MediaType.TEXT_PLAIN)
+				.content("Hello World").with(user(getProducerTestUser())))
+				.andExpect(status().isCreated());
+		String body = """
+				{"originalFilename":"copie.txt","contentType":"text/plain","size":11,
+				"contentHash":"a591a6d40bf420404a011733cfb7b190d62c65bf0bcda32b57b277d9ad9f146e"}
+				""";
+
+		// Le propriétaire du contenu n'a pas besoin de l'envoyer à nouveau
+		mockMvc.perform(post("/api/documents/users/{userId}/direct-uploads",
+				getProducerTestUser().getId()).contentType(MediaType.APPLICATION_JSON)
+				.content(body).with(user(getProducerTestUser()))).andExpect(status().isOk())
+				.andExpect(jsonPath("$.alreadyStored").value(true));
+		mockMvc.perform(post("/api/documents/users/{userId}/direct-uploads/complete",
+				getProducerTestUser().getId()).contentType(MediaType.APPLICATION_JSON)
+				.content(body).with(user(getProducerTestUser())))
+				.andExpect(status().isCreated())
+				.andExpect(jsonPath("$.originalFilename").value("copie.txt"));
+
+		// Un autre utilisateur n'apprend pas que le contenu existe et ne peut pas s'y rattacher
+		mockMvc.perform(post("/api/documents/users/{userId}/direct-uploads",
+				getSecondTestProducer().getId()).contentType(MediaType.APPLICATION_JSON)
+				.content(body).with(user(getSecondTestProducer())))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(post("/api/documents/users/{userId}/direct-uploads/complete",
+				getSecondTestProducer().getId()).contentType(MediaType.APPLICATION_JSON)
+				.content(body).with(user(getSecondTestProducer())))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.errors[0].field").value("uploadId"));
+	}
+
+	@Test
+	public void testDirectUploadInvalidHash() throws Exception {
+		mockMvc.perform(post("/api/documents/users/{userId}/direct-uploads",
+				getProducerTestUser().getId()).contentType(MediaType.APPLICATION_JSON)
+				.content("""
+						{"originalFilename":"a.pdf","contentType":"application/pdf","size":11,
+						"contentHash":"ABC"}
+						""").with(user(getProducerTestUser())))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.errors[0].field").value("contentHash"));
+	}
 }
@@ -1,16 +1,24 @@
 package be.labil.anacarde.presentation.controller;
 
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.zip.GZIPInputStream;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
 /**
  * Tests d’intégration du contrôleur AdminExportApi.
@@ -21,13 +29,23 @@ class ExportApiControllerIntegrationTest extends AbstractIntegrationTest {
 	private static final String EXPORT_URL = "/api/admin/export/auctions";
 	private static final String CSV_MIME_TYPE = "text/csv";
 
+	/**
+	 * Exécute une requête d'export : le fichier étant produit en flux, le corps n'est disponible
+	 * qu'après le traitement asynchrone de la réponse.
+	 */
+	private ResultActions performExport(MockHttpServletRequestBuilder builder) throws Exception {
+		MvcResult result = mockMvc.perform(builder).andExpect(request().asyncStarted())
+				.andReturn();
+		return mockMvc.perform(asyncDispatch(result));
+	}
+
 	/*
 	 * ---------- GET /api/admin/export/auctions (toutes les données, format JSON par défaut)
 	 * ----------
 	 */
 	@Test
 	void exportAuctions_defaultParams_returnsAllDataAsJson() throws Exception {
-		mockMvc.perform(get(EXPORT_URL).with(user(getProducerTestUser()))
+		performExport(get(EXPORT_URL).with(user(getProducerTestUser()))
 				.accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk())
 				.andExpect(content().contentType(MediaType.APPLICATION_JSON))
 				.andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION,
@@ -52,7 +70,7 @@ class ExportApiControllerIntegrationTest extends AbstractIntegrationTest {
 		String startParam = start.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
 		String endParam = end.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
 
-		mockMvc.perform(get(EXPORT_URL).param("start", startParam).param("end", endParam)
+		performExport(get(EXPORT_URL).param("start", startParam).param("end", endParam)
 				.param("onlyEnded", "false").with(user(getProducerTestUser()))
 				.accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk())
 				.andExpect(content().contentType(MediaType.APPLICATION_JSON))
@@ -78,7 +96,7 @@ class ExportApiControllerIntegrationTest extends AbstractIntegrationTest {
 		String startParam = start.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
 		String endParam = end.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
 
-		mockMvc.perform(get(EXPORT_URL).param("start", startParam).param("end", endParam)
+		performExport(get(EXPORT_URL).param("start", startParam).param("end", endParam)
 				.param("onlyEnded", "true").with(user(getProducerTestUser()))
 				.accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk())
 				.andExpect(content().contentType(MediaType.APPLICATION_JSON))
@@ -94,7 +112,7 @@ class ExportApiControllerIntegrationTest extends AbstractIntegrationTest {
 	 */
 	@Test
 	void exportAuctions_onlyEndedTrue_returnsFilteredDataAsJson() throws Exception {
-		mockMvc.perform(get(EXPORT_URL).param("onlyEnded", "true").with(user(getProducerTestUser()))
+		performExport(get(EXPORT_URL).param("onlyEnded", "true").with(user(getProducerTestUser()))
 				.accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk())
 				.andExpect(content().contentType(MediaType.APPLICATION_JSON))
 				.andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION,
@@ -109,7 +127,7 @@ class ExportApiControllerIntegrationTest extends AbstractIntegrationTest {
 	 */
 	@Test
 	void exportAuctions_defaultParams_returnsAllDataAsCsv() throws Exception {
-		mockMvc.perform(get(EXPORT_URL).param("format", "csv").with(user(getProducerTestUser()))
+		performExport(get(EXPORT_URL).param("format", "csv").with(user(getProducerTestUser()))
 				.accept(CSV_MIME_TYPE)).andExpect(status().isOk())
 				.andExpect(content().contentType(CSV_MIME_TYPE))
 				.andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION,
@@ -129,7 +147,7 @@ class ExportApiControllerIntegrationTest extends AbstractIntegrationTest {
 		String startParam = start.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
 		String endParam = end.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
 
-		mockMvc.perform(get(EXPORT_URL).param("start", startParam).param("end", endParam)
+		performExport(get(EXPORT_URL).param("start", startParam).param("end", endParam)
 				.param("format", "csv").with(user(getProducerTestUser())).accept(CSV_MIME_TYPE))
 				.andExpect(status().isOk()).andExpect(content().contentType(CSV_MIME_TYPE))
 				.andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION,
@@ -171,10 +189,29 @@ class ExportApiControllerIntegrationTest extends AbstractIntegrationTest {
 
 	@Test
 	void exportAuctions_invalidFormatParam_defaultsToJson() throws Exception {
-		mockMvc.perform(get(EXPORT_URL).param("format", "invalid_format")
+		performExport(get(EXPORT_URL).param("format", "invalid_format")
 				.with(user(getProducerTestUser())).accept(MediaType.ALL)).andExpect(status().isOk())
 				.andExpect(content().contentType(MediaType.APPLICATION_JSON))
 				.andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, endsWith(".json\"")))
 				.andExpect(jsonPath("$.length()").value(4));
 	}
-}
\ No newline at end of file
+
+	/*
+	 * ---------- GET /api/admin/export/auctions?format=csv&gzip=true (fichier CSV compressé)
+	 * ----------
+	 */
+	@Test
+	void exportAuctions_gzipCsv_returnsCompressedFile() throws Exception {
+		MvcResult result = performExport(get(EXPORT_URL).param("format", "csv")
+				.param("gzip", "true").with(user(getProducerTestUser())).accept(MediaType.ALL))
+				.andExpect(status().isOk()).andExpect(content().contentType("application/gzip"))
+				.andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, endsWith(".csv.gz\"")))
+				.andReturn();
+
+		byte[] compressed = result.getResponse().getContentAsByteArray();
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+			String csv = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+			assertThat(csv.lines().count(), is(5L)); // En-tête + 4 enchères
+		}
+	}
+}
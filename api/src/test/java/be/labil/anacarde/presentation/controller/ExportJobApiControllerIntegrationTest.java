@@ -0,0 +1,184 @@
+package be.labil.anacarde.presentation.controller;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import be.labil.anacarde.domain.model.ExportJob;
+import be.labil.anacarde.domain.model.ExportJobStatus;
+import be.labil.anacarde.infrastructure.persistence.ExportJobRepository;
+import com.jayway.jsonpath.JsonPath;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+/**
+ * Tests d’intégration du contrôleur AdminExportJobApi.
+ */
+@Sql(scripts = "classpath:schema-h2.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class ExportJobApiControllerIntegrationTest extends AbstractIntegrationTest {
+
+	private static final String JOBS_URL = "/api/admin/export/jobs";
+
+	@Autowired
+	private ExportJobRepository exportJobRepository;
+
+	private int submit(String body) throws Exception {
+		MvcResult result = mockMvc
+				.perform(post(JOBS_URL).with(user(getProducerTestUser()))
+						.contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().isAccepted())
+				.andExpect(header().string(HttpHeaders.LOCATION, containsString(JOBS_URL + "/")))
+				.andReturn();
+		return JsonPath.read(result.getResponse().getContentAsString(), "$.id");
+	}
+
+	private void awaitCompletion(int id) throws Exception {
+		for (int attempt = 0; attempt < 100; attempt++) {
+			String json = mockMvc
+					.perform(get(JOBS_URL + "/" + id).with(user(getProducerTestUser())))
+					.andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+			String status = JsonPath.read(json, "$.status");
+			if ("COMPLETED".equals(status)) {
+				return;
+			}
+			assertThat(status, not("FAILED"));
+			Thread.sleep(100);
+		}
+		throw new AssertionError("L'export " + id + " ne s'est pas terminé");
+	}
+
+	private ResultActions download(MockHttpServletRequestBuilder builder) throws Exception {
+		MvcResult result = mockMvc.perform(builder).andExpect(request().asyncStarted())
+				.andReturn();
+		return mockMvc.perform(asyncDispatch(result));
+	}
+
+	@Test
+	void exportJob_csv_completesAndDownloadsFullFile() throws Exception {
+		int id = submit("{\"format\":\"csv\"}");
+		awaitCompletion(id);
+
+		mockMvc.perform(get(JOBS_URL + "/" + id).with(user(getProducerTestUser())))
+				.andExpect(jsonPath("$.rowsWritten").value(4))
+				.andExpect(jsonPath("$.progress").value(1.0))
+				.andExpect(jsonPath("$.contentType").value("text/csv"));
+
+		MvcResult result = download(get(JOBS_URL + "/" + id + "/file")
+				.with(user(getProducerTestUser()))).andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+				.andExpect(header().exists(HttpHeaders.ETAG))
+				.andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, endsWith(".csv\"")))
+				.andReturn();
+		String csv = result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+		assertThat(csv.lines().count(), is(5L)); // En-tête + 4 enchères
+	}
+
+	@Test
+	void exportJob_rangeRequest_returnsPartialContent() throws Exception {
+		int id = submit("{\"format\":\"json\"}");
+		awaitCompletion(id);
+
+		MvcResult full = download(
+				get(JOBS_URL + "/" + id + "/file").with(user(getProducerTestUser())))
+				.andExpect(status().isOk()).andReturn();
+		byte[] file = full.getResponse().getContentAsByteArray();
+		String eTag = full.getResponse().getHeader(HttpHeaders.ETAG);
+
+		MvcResult partial = download(get(JOBS_URL + "/" + id + "/file")
+				.with(user(getProducerTestUser())).header(HttpHeaders.RANGE, "bytes=0-9")
+				.header(HttpHeaders.IF_RANGE, eTag)).andExpect(status().isPartialContent())
+				.andExpect(header().string(HttpHeaders.CONTENT_RANGE,
+						"bytes 0-9/" + file.length))
+				.andReturn();
+		assertThat(partial.getResponse().getContentAsByteArray().length, is(10));
+		assertThat(partial.getResponse().getContentAsByteArray()[0], is(file[0]));
+
+		// Un ETag différent invalide la reprise : le fichier complet est renvoyé
+		download(get(JOBS_URL + "/" + id + "/file").with(user(getProducerTestUser()))
+				.header(HttpHeaders.RANGE, "bytes=0-9").header(HttpHeaders.IF_RANGE, "\"other\""))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void exportJob_rangeBeyondFile_returnsNotSatisfiable() throws Exception {
+		int id = submit("{}");
+		awaitCompletion(id);
+
+		mockMvc.perform(get(JOBS_URL + "/" + id + "/file").with(user(getProducerTestUser()))
+				.header(HttpHeaders.RANGE, "bytes=100000000-"))
+				.andExpect(status().isRequestedRangeNotSatisfiable())
+				.andExpect(header().string(HttpHeaders.CONTENT_RANGE, startsWith("bytes */")));
+	}
+
+	@Test
+	void exportJob_sameParameters_reusesJob() throws Exception {
+		String body = "{\"format\":\"csv\",\"gzip\":true,\"onlyEnded\":true}";
+		int first = submit(body);
+		int second = submit(body);
+		assertThat(second, is(first));
+
+		int other = submit("{\"format\":\"csv\",\"gzip\":false,\"onlyEnded\":true}");
+		assertThat(other, not(first));
+	}
+
+	@Test
+	void exportJob_expiredJob_isReplacedByNewJob() throws Exception {
+		String body = "{\"format\":\"json\",\"onlyEnded\":true}";
+		int first = submit(body);
+		awaitCompletion(first);
+		ExportJob expired = exportJobRepository.findById(first).orElseThrow();
+		expired.setExpirationDate(LocalDateTime.now().minusSeconds(1));
+		exportJobRepository.save(expired);
+
+		int second = submit(body);
+		assertThat(second, not(first));
+		assertThat(exportJobRepository.findById(first).orElseThrow().getActiveParamsHash(),
+				nullValue());
+		awaitCompletion(second);
+	}
+
+	@Test
+	void exportJob_duplicateActiveJob_isRejectedByConstraint() throws Exception {
+		int id = submit("{\"format\":\"csv\"}");
+		ExportJob job = exportJobRepository.findById(id).orElseThrow();
+		ExportJob duplicate = ExportJob.builder().paramsHash(job.getParamsHash())
+				.activeParamsHash(job.getActiveParamsHash()).onlyEnded(job.getOnlyEnded())
+				.format(job.getFormat()).gzip(job.getGzip()).status(ExportJobStatus.PENDING)
+				.rowsWritten(0L).storageKey("exports/duplicate").filename(job.getFilename())
+				.contentType(job.getContentType()).creationDate(LocalDateTime.now())
+				.updateDate(LocalDateTime.now()).expirationDate(job.getExpirationDate())
+				.build();
+
+		assertThrows(DataIntegrityViolationException.class,
+				() -> exportJobRepository.saveAndFlush(duplicate));
+		awaitCompletion(id);
+	}
+
+	@Test
+	void exportJob_startWithoutEnd_returnsBadRequest() throws Exception {
+		mockMvc.perform(post(JOBS_URL).with(user(getProducerTestUser()))
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"start\":\"2025-03-01T00:00:00\"}"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void exportJob_unknown_returnsNotFound() throws Exception {
+		mockMvc.perform(get(JOBS_URL + "/999999").with(user(getProducerTestUser())))
+				.andExpect(status().isNotFound());
+	}
+}
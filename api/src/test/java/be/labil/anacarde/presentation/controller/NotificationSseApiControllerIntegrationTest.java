@@ -25,7 +25,7 @@ class NotificationSseApiControllerIntegrationTest extends AbstractIntegrationTes
 	@WithMockUser(username = "testuser")
 	public void testSubscribeWithUserDetails() throws Exception {
 		SseEmitter emitter = new SseEmitter();
-		when(notificationSseService.subscribe("testuser")).thenReturn(emitter);
+		when(notificationSseService.subscribe("testuser", null)).thenReturn(emitter);
 
 		mockMvc.perform(get("/api/notifications/stream")).andExpect(status().isOk());
 	}
@@ -150,7 +150,7 @@ public class ProductApiControllerIntegrationTest extends AbstractIntegrationTest
 		newProduct.setStoreId(storeId);
 		newProduct.setQualityControlId(qualityControlId);
 
-		List<Integer> harvestIds = new ArrayList<>(getTestHarvestProduct().getId());
+		List<Integer> harvestIds = new ArrayList<>();
 		harvestIds.add(getTestHarvestProduct().getId());
 		newProduct.setHarvestProductIds(harvestIds);
 
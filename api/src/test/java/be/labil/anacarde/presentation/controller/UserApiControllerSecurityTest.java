@@ -1,15 +1,19 @@
 package be.labil.anacarde.presentation.controller;
 
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import be.labil.anacarde.domain.dto.write.AddressUpdateDto;
 import be.labil.anacarde.domain.dto.write.user.update.ProducerUpdateDto;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.servlet.http.Cookie;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
 import org.springframework.test.web.servlet.request.RequestPostProcessor;
 
 /** Tests de sécurité pour le contrôleur des utilisateurs. */
@@ -82,4 +86,60 @@ public class UserApiControllerSecurityTest extends AbstractIntegrationTest {
 		mockMvc.perform(delete("/api/users/" + getProducerTestUser().getId()).with(actualUser))
 				.andExpect(status().isForbidden());
 	}
+
+	/**
+	 * Vérifie qu'un compte désactivé est rejeté dès la requête suivante, même si son token a déjà
+	 * été authentifié (et mis en cache) auparavant.
+	 */
+	@Test
+	public void testDisabledUserIsRejectedDespiteCachedToken() throws Exception {
+		String token = jwtUtil.generateToken(
+				userDetailsService.loadUserByUsername(getProducerTestUser().getEmail()));
+		final RequestPostProcessor producer = request -> {
+			request.setCookies(new Cookie("jwt", token));
+			return request;
+		};
+
+		mockMvc.perform(get("/api/users").with(producer).accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk());
+
+		ProducerUpdateDto updateUser = new ProducerUpdateDto();
+		updateUser.setEnabled(false);
+		updateUser.setAgriculturalIdentifier("AGR-999");
+		mockMvc.perform(put("/api/users/" + getProducerTestUser().getId())
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.valueToTree(updateUser).toString()))
+				.andExpect(status().isOk());
+
+		// Le filtre rejette le compte désactivé au lieu de réutiliser le principal en cache
+		assertThrows(AuthenticationCredentialsNotFoundException.class, () -> mockMvc
+				.perform(get("/api/users").with(producer).accept(MediaType.APPLICATION_JSON)));
+	}
+
+	/**
+	 * Vérifie qu'un token servi depuis le cache donne un principal reconstruit, utilisable par les
+	 * contrôles d'accès, et que le profil courant reste complet.
+	 */
+	@Test
+	public void testCachedTokenRebuildsPrincipal() throws Exception {
+		String token = jwtUtil.generateToken(
+				userDetailsService.loadUserByUsername(getProducerTestUser().getEmail()));
+		final RequestPostProcessor producer = request -> {
+			request.setCookies(new Cookie("jwt", token));
+			return request;
+		};
+
+		// Le premier appel charge l'utilisateur, les suivants utilisent le cache
+		for (int i = 0; i < 2; i++) {
+			mockMvc.perform(get("/api/auth/me").with(producer).accept(MediaType.APPLICATION_JSON))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$.id").value(getProducerTestUser().getId()))
+					.andExpect(jsonPath("$.firstName")
+							.value(getProducerTestUser().getFirstName()));
+		}
+		mockMvc.perform(get("/api/documents/users/" + getProducerTestUser().getId()).with(producer)
+				.accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk());
+		mockMvc.perform(get("/api/documents/users/" + getMainTestUser().getId()).with(producer)
+				.accept(MediaType.APPLICATION_JSON)).andExpect(status().isForbidden());
+	}
 }